@@ -0,0 +1,67 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.importer.Importer.ImportResult;
+import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService;
+import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * End-to-end import cycle: real {@link RssImporter} and {@link SyndFeedService} beans fetching from an in-process
+ * synthetic feed server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class DoImportBenchmark {
+
+    @Param({"RSS2", "ATOM2"})
+    public FeedCorpus.Format format;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public FeedCorpus.Size size;
+
+    @Param({"1", "50", "500"})
+    public int subscribersPerUrl;
+
+    @Param({"16"})
+    public int urlCt;
+
+    private SyntheticFeedServer server;
+
+    private AnnotationConfigApplicationContext ctx;
+
+    private RssImporter rssImporter;
+
+    private List<SubscriptionDefinition> subscriptionDefinitions;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = SyntheticFeedServer.start(FeedCorpus.spec(format, size, 2), urlCt);
+        //
+        ctx = new AnnotationConfigApplicationContext(RssImporter.class, RssImporterConfigProps.class, RssMockDataGenerator.class, SyndFeedService.class);
+        rssImporter = ctx.getBean(RssImporter.class);
+        //
+        String queryType = format.name().startsWith("RSS") ? RssImporter.RSS : RssImporter.ATOM;
+        subscriptionDefinitions = server.buildSubscriptions(subscribersPerUrl, queryType);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+        server.close();
+    }
+
+    @Benchmark
+    public ImportResult doImport() {
+        return rssImporter.doImport(subscriptionDefinitions, emptyMap());
+    }
+}
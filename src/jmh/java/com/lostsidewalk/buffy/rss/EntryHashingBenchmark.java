@@ -0,0 +1,57 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import static com.lostsidewalk.buffy.rss.RssImportUtils.computeHash;
+import static com.lostsidewalk.buffy.rss.RssImportUtils.getObjectSource;
+
+/**
+ * Measures the per-entry post hash pipeline: building the object source (which normalizes the title and description
+ * HTML) and digesting it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntryHashingBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public FeedCorpus.Size size;
+
+    private SyndEntry entry;
+
+    private String objectSource;
+
+    private MessageDigest md;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchAlgorithmException {
+        entry = FeedCorpus.buildEntry(size, 0);
+        objectSource = getObjectSource(entry);
+        md = MessageDigest.getInstance("MD5");
+    }
+
+    @Benchmark
+    public String objectSource() {
+        return getObjectSource(entry);
+    }
+
+    @Benchmark
+    public String normalizeHtml() {
+        return getObjectSource(entry.getTitle(), entry.getDescription().getValue(), null, null, null);
+    }
+
+    @Benchmark
+    public String computePostHash() {
+        return computeHash(md, 1L, objectSource);
+    }
+
+    @Benchmark
+    public String objectSourceAndHash() {
+        return computeHash(md, 1L, getObjectSource(entry));
+    }
+}
@@ -0,0 +1,49 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.lostsidewalk.buffy.rss.RssImportUtils.*;
+
+/**
+ * Measures extraction of media, iTunes, thumbnail, and author data from media-heavy entries (YouTube/podcast style),
+ * once per field (a module lookup per field) versus in a single pass over the entry's modules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntryModulesBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int mediaItemCt;
+
+    @Param({"false", "true"})
+    public boolean iTunes;
+
+    private SyndEntry entry;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entry = FeedCorpus.buildEntry(FeedCorpus.Size.SMALL, mediaItemCt, iTunes);
+    }
+
+    @Benchmark
+    public void perField(Blackhole blackhole) {
+        blackhole.consume(getPostMedia(entry));
+        blackhole.consume(getPostITunes(entry));
+        blackhole.consume(getThumbnailUrl(entry));
+        blackhole.consume(getAuthors(entry));
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        EntryModules modules = EntryModules.of(entry);
+        blackhole.consume(modules.getPostMedia());
+        blackhole.consume(modules.getPostITunes());
+        blackhole.consume(modules.getThumbnailUrl());
+        blackhole.consume(modules.getAuthors());
+    }
+}
@@ -0,0 +1,76 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.io.FeedException;
+
+/**
+ * Deterministic feed documents used as benchmark inputs, built by the synthetic corpus generator in one of the four
+ * supported wire formats, at one of a handful of size presets.
+ */
+public final class FeedCorpus {
+
+    /**
+     * Wire formats exercised by the benchmarks (mirrors the RSS1/RSS2/ATOM1/ATOM2 test fixtures).
+     */
+    public enum Format {
+        RSS1("rss_1.0"),
+        RSS2("rss_2.0"),
+        ATOM1("atom_0.3"),
+        ATOM2("atom_1.0");
+
+        final String feedType;
+
+        Format(String feedType) {
+            this.feedType = feedType;
+        }
+    }
+
+    /**
+     * Size presets; LARGE produces a feed body of roughly 10MB.
+     */
+    public enum Size {
+        SMALL(10, 512),
+        MEDIUM(250, 2048),
+        LARGE(1250, 4800);
+
+        final int entryCt;
+
+        final int contentLength;
+
+        Size(int entryCt, int contentLength) {
+            this.entryCt = entryCt;
+            this.contentLength = contentLength;
+        }
+    }
+
+    static final String FEED_URL = "https://bench.example.com/feed";
+
+    private static final long SEED = 0x5EEDL;
+
+    private FeedCorpus() {
+    }
+
+    static SyntheticFeedSpec spec(Format format, Size size, int mediaItemCt) {
+        return spec(format, size, mediaItemCt, false);
+    }
+
+    static SyntheticFeedSpec spec(Format format, Size size, int mediaItemCt, boolean iTunes) {
+        return SyntheticFeedSpec.from(format.feedType, size.entryCt, size.contentLength, 1, mediaItemCt, iTunes, 1, "UTF-8", 0.0, SEED);
+    }
+
+    static byte[] feedBytes(Format format, Size size) {
+        try {
+            return RssMockDataGenerator.renderSyntheticFeed(spec(format, size, 2), FEED_URL, 0L);
+        } catch (FeedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static SyndEntry buildEntry(Size size, int mediaItemCt) {
+        return buildEntry(size, mediaItemCt, false);
+    }
+
+    static SyndEntry buildEntry(Size size, int mediaItemCt, boolean iTunes) {
+        return RssMockDataGenerator.buildSyntheticEntry(spec(Format.RSS2, size, mediaItemCt, iTunes), FEED_URL, 0L);
+    }
+}
@@ -0,0 +1,95 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.lostsidewalk.buffy.post.StagingPost;
+import com.lostsidewalk.buffy.rss.RssImportUtils.ConversionContext;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.lostsidewalk.buffy.rss.RssImportUtils.importArticleResponse;
+
+/**
+ * Measures conversion of a parsed feed into staging posts, once per subscriber of the feed URL
+ * (the same fan-out performed by the importer's response handler).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImportArticleResponseBenchmark {
+
+    @Param({"RSS1", "RSS2", "ATOM1", "ATOM2"})
+    public FeedCorpus.Format format;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public FeedCorpus.Size size;
+
+    @Param({"1", "10", "500"})
+    public int subscriberCt;
+
+    private SyndFeed syndFeed;
+
+    private ConversionContext projectedConversion;
+
+    private ForkJoinPool forkJoinPool;
+
+    private ConversionContext parallelConversion;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, FeedException {
+        SyndFeedInput input = new SyndFeedInput();
+        syndFeed = input.build(new XmlReader(new ByteArrayInputStream(FeedCorpus.feedBytes(format, size))));
+        forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        projectedConversion = ConversionContext.from(ImportOptions.from(new Gson().fromJson("{\"fields\":[\"PUBLISHED\",\"THUMBNAIL\"]}", JsonObject.class)));
+        parallelConversion = ConversionContext.from(ImportOptions.ALL, null, forkJoinPool, 1, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    @Benchmark
+    public void importArticles(Blackhole blackhole) {
+        Date importTimestamp = new Date();
+        for (long i = 0L; i < subscriberCt; i++) {
+            Set<StagingPost> stagingPosts = importArticleResponse(i, i, FeedCorpus.FEED_URL, "Benchmark subscription", syndFeed, syndFeed.getEntries(), "bench-user", importTimestamp, ConversionContext.DEFAULT);
+            blackhole.consume(stagingPosts);
+        }
+    }
+
+    /**
+     * As above, populating only the title, link, publish date, and thumbnail of each post.
+     */
+    @Benchmark
+    public void importArticlesProjected(Blackhole blackhole) {
+        Date importTimestamp = new Date();
+        for (long i = 0L; i < subscriberCt; i++) {
+            Set<StagingPost> stagingPosts = importArticleResponse(i, i, FeedCorpus.FEED_URL, "Benchmark subscription", syndFeed, syndFeed.getEntries(), "bench-user", importTimestamp, projectedConversion);
+            blackhole.consume(stagingPosts);
+        }
+    }
+
+    /**
+     * As above, converting each feed in parallel (fork/join) subtasks.
+     */
+    @Benchmark
+    public void importArticlesParallel(Blackhole blackhole) {
+        Date importTimestamp = new Date();
+        for (long i = 0L; i < subscriberCt; i++) {
+            Set<StagingPost> stagingPosts = importArticleResponse(i, i, FeedCorpus.FEED_URL, "Benchmark subscription", syndFeed, syndFeed.getEntries(), "bench-user", importTimestamp, parallelConversion);
+            blackhole.consume(stagingPosts);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.rss.syndfeed.PooledSyndFeedInput;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of turning a raw feed body into a {@link SyndFeed}, exactly as
+ * {@code SyndFeedService.fetch} does once the body has been downloaded, both with a new {@link SyndFeedInput} per
+ * feed (the per-fetch setup overhead, which dominates for small feeds) and with the thread-confined
+ * {@link PooledSyndFeedInput}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SyndFeedParseBenchmark {
+
+    @Param({"RSS1", "RSS2", "ATOM1", "ATOM2"})
+    public FeedCorpus.Format format;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public FeedCorpus.Size size;
+
+    private byte[] feedBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        feedBytes = FeedCorpus.feedBytes(format, size);
+    }
+
+    @Benchmark
+    public SyndFeed parse() throws IOException, FeedException {
+        XmlReader xmlReader = new XmlReader(new ByteArrayInputStream(feedBytes));
+        SyndFeedInput input = new SyndFeedInput();
+        input.setAllowDoctypes(true);
+        return input.build(xmlReader);
+    }
+
+    @Benchmark
+    public SyndFeed parsePooled() throws IOException, FeedException {
+        XmlReader xmlReader = new XmlReader(new ByteArrayInputStream(feedBytes));
+        return PooledSyndFeedInput.build(xmlReader);
+    }
+}
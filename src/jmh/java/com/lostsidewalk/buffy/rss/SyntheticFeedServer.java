@@ -0,0 +1,253 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
+import com.rometools.rome.io.FeedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
+import static org.apache.commons.lang3.StringUtils.startsWith;
+
+/**
+ * An embedded HTTP server (loopback only) that serves a corpus of synthetic feeds built by the mock data generator,
+ * so that whole import cycles can be load-tested offline.  Feeds are served at {@code /feeds/{n}}; the corpus
+ * advances one generation at a time, at which point each feed changes according to the spec's change rate.
+ */
+@Slf4j
+public class SyntheticFeedServer implements AutoCloseable {
+
+    private static final String FEED_PATH = "/feeds/";
+
+    private record RenderedFeed(long generation, byte[] body, byte[] gzipBody) {
+    }
+
+    private final SyntheticFeedSpec spec;
+
+    private final int feedCt;
+
+    private final HttpServer httpServer;
+
+    private final ExecutorService httpThreadPool;
+
+    private final Map<Integer, RenderedFeed> renderedFeeds = new ConcurrentHashMap<>(16);
+
+    private final AtomicLong generation = new AtomicLong(0L);
+
+    private final AtomicLong requestCt = new AtomicLong(0L);
+
+    private final AtomicLong bytesServed = new AtomicLong(0L);
+
+    private SyntheticFeedServer(SyntheticFeedSpec spec, int feedCt, int threadCt) throws IOException {
+        this.spec = spec;
+        this.feedCt = feedCt;
+        this.httpThreadPool = newFixedThreadPool(threadCt, new ThreadFactoryBuilder().setNameFormat("synthetic-feed-server-%d").setDaemon(true).build());
+        this.httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.httpServer.createContext(FEED_PATH, this::handle);
+        this.httpServer.setExecutor(httpThreadPool);
+    }
+
+    /**
+     * Starts a synthetic feed server on an ephemeral loopback port.
+     *
+     * @param spec   The spec from which each feed in the corpus is built.
+     * @param feedCt The number of distinct feeds in the corpus.
+     * @return The running server.
+     * @throws IOException If the server socket cannot be bound.
+     */
+    public static SyntheticFeedServer start(SyntheticFeedSpec spec, int feedCt) throws IOException {
+        return start(spec, feedCt, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Starts a synthetic feed server on an ephemeral loopback port, using the given number of request threads.
+     *
+     * @param spec     The spec from which each feed in the corpus is built.
+     * @param feedCt   The number of distinct feeds in the corpus.
+     * @param threadCt The number of threads used to serve requests.
+     * @return The running server.
+     * @throws IOException If the server socket cannot be bound.
+     */
+    public static SyntheticFeedServer start(SyntheticFeedSpec spec, int feedCt, int threadCt) throws IOException {
+        SyntheticFeedServer server = new SyntheticFeedServer(spec, feedCt, Math.max(1, threadCt));
+        server.httpServer.start();
+        log.info("Synthetic feed server started, port={}, feedCt={}, spec={}", server.getPort(), feedCt, spec);
+        return server;
+    }
+
+    /**
+     * Gets the port on which this server is listening.
+     *
+     * @return The port number.
+     */
+    public final int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Gets the URL of the feed with the given index.
+     *
+     * @param feedIdx The feed index (0 to feedCt - 1).
+     * @return The feed URL.
+     */
+    public final String getFeedUrl(int feedIdx) {
+        return "http://127.0.0.1:" + getPort() + FEED_PATH + feedIdx;
+    }
+
+    /**
+     * Gets the URLs of all feeds in the corpus.
+     *
+     * @return A list of feed URLs.
+     */
+    public final List<String> getFeedUrls() {
+        List<String> feedUrls = new ArrayList<>(feedCt);
+        for (int i = 0; i < feedCt; i++) {
+            feedUrls.add(getFeedUrl(i));
+        }
+        return feedUrls;
+    }
+
+    /**
+     * Builds subscription definitions for the corpus, with the given number of distinct subscribers (queues) per feed.
+     *
+     * @param subscribersPerFeed The number of subscriptions to create for each feed.
+     * @param queryType          The query type of each subscription (RSS or ATOM).
+     * @return A list of subscription definitions.
+     */
+    public final List<SubscriptionDefinition> buildSubscriptions(int subscribersPerFeed, String queryType) {
+        List<SubscriptionDefinition> subscriptionDefinitions = new ArrayList<>(feedCt * subscribersPerFeed);
+        long queueId = 1L;
+        for (int i = 0; i < feedCt; i++) {
+            String feedUrl = getFeedUrl(i);
+            for (int s = 0; s < subscribersPerFeed; s++) {
+                subscriptionDefinitions.add(SubscriptionDefinition.from(queueId++, "synthetic-user", "Synthetic subscription " + i, feedUrl, queryType, null, null));
+            }
+        }
+        return subscriptionDefinitions;
+    }
+
+    /**
+     * Advances every feed in the corpus by one generation.
+     *
+     * @return The new generation number.
+     */
+    public final long advanceGeneration() {
+        return generation.incrementAndGet();
+    }
+
+    /**
+     * Gets the current generation number of the corpus.
+     *
+     * @return The generation number.
+     */
+    public final long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Gets the total number of feed requests served.
+     *
+     * @return The request count.
+     */
+    public final long getRequestCount() {
+        return requestCt.get();
+    }
+
+    /**
+     * Gets the total number of response body bytes written (after compression, if any).
+     *
+     * @return The byte count.
+     */
+    public final long getBytesServed() {
+        return bytesServed.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requestCt.incrementAndGet();
+            int feedIdx = parseFeedIdx(exchange.getRequestURI().getPath());
+            if (feedIdx < 0 || feedIdx >= feedCt) {
+                exchange.sendResponseHeaders(404, -1L);
+                return;
+            }
+            RenderedFeed renderedFeed;
+            try {
+                renderedFeed = render(feedIdx);
+            } catch (FeedException e) {
+                log.error("Unable to render synthetic feed due to: {}", e.getMessage());
+                exchange.sendResponseHeaders(500, -1L);
+                return;
+            }
+            boolean gzip = containsIgnoreCase(exchange.getRequestHeaders().getFirst("Accept-Encoding"), "gzip");
+            byte[] body = gzip ? renderedFeed.gzipBody() : renderedFeed.body();
+            String mediaType = startsWith(spec.getFeedType(), "atom") ? "application/atom+xml" : "application/rss+xml";
+            exchange.getResponseHeaders().add("Content-Type", mediaType + "; charset=" + spec.getEncoding());
+            if (gzip) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+            bytesServed.addAndGet(body.length);
+        }
+    }
+
+    private static int parseFeedIdx(String path) {
+        try {
+            return Integer.parseInt(path.substring(FEED_PATH.length()));
+        } catch (RuntimeException ignored) {
+            return -1;
+        }
+    }
+
+    private RenderedFeed render(int feedIdx) throws FeedException, IOException {
+        long currentGeneration = generation.get();
+        RenderedFeed renderedFeed = renderedFeeds.get(feedIdx);
+        if (renderedFeed == null || renderedFeed.generation() != currentGeneration) {
+            byte[] body = RssMockDataGenerator.renderSyntheticFeed(spec, getFeedUrl(feedIdx), currentGeneration);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(body.length >> 2);
+            try (GZIPOutputStream gzos = new GZIPOutputStream(baos)) {
+                gzos.write(body);
+            }
+            renderedFeed = new RenderedFeed(currentGeneration, body, baos.toByteArray());
+            renderedFeeds.put(feedIdx, renderedFeed);
+        }
+        return renderedFeed;
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public final void close() {
+        httpServer.stop(0);
+        httpThreadPool.shutdownNow();
+        log.info("Synthetic feed server stopped, requestCt={}, bytesServed={}", requestCt.get(), bytesServed.get());
+    }
+
+    @Override
+    public final String toString() {
+        return "SyntheticFeedServer{" +
+                "spec=" + spec +
+                ", feedCt=" + feedCt +
+                ", generation=" + generation +
+                ", requestCt=" + requestCt +
+                ", bytesServed=" + bytesServed +
+                '}';
+    }
+}
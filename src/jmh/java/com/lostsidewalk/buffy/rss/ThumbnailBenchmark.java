@@ -0,0 +1,33 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.lostsidewalk.buffy.rss.RssImportUtils.getThumbnailUrl;
+
+/**
+ * Measures thumbnail resolution on media-heavy entries (YouTube/podcast style), where the thumbnail is only found
+ * after every metadata block has been inspected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThumbnailBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int mediaItemCt;
+
+    private SyndEntry entry;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entry = FeedCorpus.buildEntry(FeedCorpus.Size.SMALL, mediaItemCt);
+    }
+
+    @Benchmark
+    public String thumbnailUrl() {
+        return getThumbnailUrl(entry);
+    }
+}
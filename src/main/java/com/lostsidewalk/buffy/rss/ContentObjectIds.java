@@ -0,0 +1,71 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.lostsidewalk.buffy.post.ContentObject;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+
+/**
+ * Assigns content object identifiers.  Identifiers are derived from the content itself (its position, type, and value)
+ * by a fast (murmur3) hash, so that identical content always yields an identical content object, which may be cached
+ * and shared, e.g., across subscribers and import cycles.  In compatibility mode, identifiers are random, as before.
+ * <p>
+ * Either way, an identifier consists of 8 alphanumeric characters.
+ */
+final class ContentObjectIds {
+
+    private static final HashFunction ID_FUNCTION = Hashing.murmur3_128();
+
+    private static final char[] ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private static final int ID_LENGTH = 8;
+
+    private static volatile boolean randomIds;
+
+    private ContentObjectIds() {
+    }
+
+    /**
+     * Enables (or disables) compatibility mode, in which identifiers are random rather than derived from the content.
+     */
+    static void setRandomIds(boolean randomIds) {
+        ContentObjectIds.randomIds = randomIds;
+    }
+
+    /**
+     * Builds a content object with the given type and value, at the given position among its siblings (e.g., its
+     * index in a list of contents, or 0 for a single object).
+     */
+    static ContentObject contentObject(int position, String type, String value) {
+        return ContentObject.from(idOf(position, type, value), type, value);
+    }
+
+    /**
+     * Gets the identifier of the content at the given position, with the given type and value.
+     */
+    static String idOf(int position, String type, String value) {
+        if (randomIds) {
+            return randomAlphanumeric(ID_LENGTH);
+        }
+        Hasher hasher = ID_FUNCTION.newHasher().putInt(position);
+        putString(hasher, type);
+        putString(hasher, value);
+        long hash = hasher.hash().asLong();
+        char[] id = new char[ID_LENGTH];
+        for (int i = 0; i < ID_LENGTH; i++) {
+            id[i] = ALPHANUMERIC[(int) Long.remainderUnsigned(hash, ALPHANUMERIC.length)];
+            hash = Long.divideUnsigned(hash, ALPHANUMERIC.length);
+        }
+        return new String(id);
+    }
+
+    private static void putString(Hasher hasher, CharSequence s) {
+        if (s == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(s.length()).putUnencodedChars(s);
+        }
+    }
+}
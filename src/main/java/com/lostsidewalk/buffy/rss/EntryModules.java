@@ -0,0 +1,158 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.post.PostITunes;
+import com.lostsidewalk.buffy.post.PostMedia;
+import com.rometools.modules.itunes.ITunes;
+import com.rometools.modules.mediarss.MediaEntryModule;
+import com.rometools.modules.mediarss.MediaModule;
+import com.rometools.modules.mediarss.types.MediaContent;
+import com.rometools.modules.mediarss.types.MediaGroup;
+import com.rometools.modules.mediarss.types.Reference;
+import com.rometools.rome.feed.module.DCModule;
+import com.rometools.rome.feed.module.Module;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndPerson;
+import com.rometools.rome.feed.synd.SyndPersonImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.lostsidewalk.buffy.rss.RssImportUtils.getThumbnailFromMetadata;
+import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * The modules of a single entry that the importer extracts data from (media, iTunes, and Dublin Core), gathered in one
+ * pass over the entry's module list, rather than by one (linear) module lookup per extracted field.
+ */
+final class EntryModules {
+
+    private final SyndEntry entry;
+
+    private MediaEntryModule mediaModule;
+
+    private ITunes iTunesModule;
+
+    private DCModule dcModule;
+
+    private EntryModules(SyndEntry entry) {
+        this.entry = entry;
+    }
+
+    /**
+     * Visits the modules of the given entry.
+     */
+    static EntryModules of(SyndEntry entry) {
+        EntryModules entryModules = new EntryModules(entry);
+        List<Module> modules = entry.getModules();
+        if (modules != null) {
+            for (Module m : modules) {
+                String uri = m.getUri();
+                if (entryModules.mediaModule == null && MediaModule.URI.equals(uri) && m instanceof MediaEntryModule mm) {
+                    entryModules.mediaModule = mm;
+                } else if (entryModules.iTunesModule == null && ITunes.URI.equals(uri) && m instanceof ITunes im) {
+                    entryModules.iTunesModule = im;
+                } else if (entryModules.dcModule == null && DCModule.URI.equals(uri) && m instanceof DCModule dm) {
+                    entryModules.dcModule = dm;
+                }
+            }
+        }
+        return entryModules;
+    }
+
+    PostMedia getPostMedia() {
+        return mediaModule == null ? null : PostMedia.from(mediaModule);
+    }
+
+    PostITunes getPostITunes() {
+        return iTunesModule == null ? null : PostITunes.from(iTunesModule);
+    }
+
+    /**
+     * Gets the thumbnail URL of the entry, in order of preference: the thumbnail of the top-level media metadata, of
+     * the first media content's metadata, of the first media group's metadata, then the reference of the first
+     * top-level media content, or of the first grouped media content.  Each media content and group is inspected at
+     * most once.
+     */
+    String getThumbnailUrl() {
+        if (mediaModule == null) {
+            return null;
+        }
+        String thumbnailUrl = getThumbnailFromMetadata(mediaModule.getMetadata());
+        if (thumbnailUrl != null) {
+            return thumbnailUrl;
+        }
+        // one pass over the top-level media contents, noting the first reference in case there are no thumbnails
+        Reference contentReference = null;
+        MediaContent[] mediaContents = mediaModule.getMediaContents();
+        if (isNotEmpty(mediaContents)) {
+            for (MediaContent mediaContent : mediaContents) {
+                thumbnailUrl = getThumbnailFromMetadata(mediaContent.getMetadata());
+                if (thumbnailUrl != null) {
+                    return thumbnailUrl;
+                }
+                if (contentReference == null) {
+                    contentReference = mediaContent.getReference();
+                }
+            }
+        }
+        MediaGroup[] mediaGroups = mediaModule.getMediaGroups();
+        if (isNotEmpty(mediaGroups)) {
+            for (MediaGroup mediaGroup : mediaGroups) {
+                thumbnailUrl = getThumbnailFromMetadata(mediaGroup.getMetadata());
+                if (thumbnailUrl != null) {
+                    return thumbnailUrl;
+                }
+            }
+        }
+        if (contentReference != null) {
+            return contentReference.toString();
+        }
+        // (grouped contents are only inspected as a last resort)
+        if (isNotEmpty(mediaGroups)) {
+            for (MediaGroup mediaGroup : mediaGroups) {
+                MediaContent[] groupContents = mediaGroup.getContents();
+                if (groupContents != null) {
+                    for (MediaContent mediaContent : groupContents) {
+                        Reference reference = mediaContent.getReference();
+                        if (reference != null) {
+                            return reference.toString();
+                        }
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the authors of the entry, including its 'primary' author.  The primary author of an entry with authors is
+     * the first of them; otherwise it is the (Dublin Core) creator, which is added as a new author.  The entry itself is
+     * not modified.
+     */
+    List<SyndPerson> getAuthors() {
+        List<SyndPerson> authors = entry.getAuthors();
+        if (authors != null && !authors.isEmpty()) {
+            return authors;
+        }
+        String primaryAuthorName = dcModule == null ? null : dcModule.getCreator();
+        if (isNotBlank(primaryAuthorName)) {
+            SyndPerson primaryAuthor = new SyndPersonImpl();
+            primaryAuthor.setName(primaryAuthorName);
+            List<SyndPerson> withPrimaryAuthor = new ArrayList<>(1);
+            withPrimaryAuthor.add(primaryAuthor);
+            return withPrimaryAuthor;
+        }
+        return authors;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryModules{" +
+                "hasMedia=" + (mediaModule != null) +
+                ", hasITunes=" + (iTunesModule != null) +
+                ", hasDublinCore=" + (dcModule != null) +
+                '}';
+    }
+}
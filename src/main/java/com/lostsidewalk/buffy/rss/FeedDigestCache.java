@@ -0,0 +1,89 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded (least recently used) record of the body digest of the last feed imported from each URL, and the queues
+ * it was imported into.  A feed whose body is unchanged need not be parsed or converted again, provided that every
+ * one of its current subscribers received that body.
+ */
+final class FeedDigestCache {
+
+    private record FeedDigest(String bodyDigest, long[] queueIds) {
+    }
+
+    private final Map<String, FeedDigest> feedDigests;
+
+    FeedDigestCache(int maxUrls) {
+        this.feedDigests = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FeedDigest> eldest) {
+                return size() > maxUrls;
+            }
+        };
+    }
+
+    /**
+     * Gets the body digest of the last feed imported from the given URL, provided it was imported into the queues of
+     * all the given subscriptions; otherwise returns null.
+     */
+    String getBodyDigest(String url, Collection<? extends SubscriptionDefinition> subscriptionDefinitions) {
+        FeedDigest feedDigest;
+        synchronized (feedDigests) {
+            feedDigest = feedDigests.get(url);
+        }
+        if (feedDigest == null) {
+            return null;
+        }
+        for (SubscriptionDefinition q : subscriptionDefinitions) {
+            if (q.getQueueId() == null || Arrays.binarySearch(feedDigest.queueIds(), q.getQueueId()) < 0) {
+                return null;
+            }
+        }
+        return feedDigest.bodyDigest();
+    }
+
+    /**
+     * Records that the feed with the given body digest was imported from the given URL for the given subscriptions.
+     */
+    void update(String url, String bodyDigest, Collection<? extends SubscriptionDefinition> subscriptionDefinitions) {
+        if (url == null || bodyDigest == null) {
+            return;
+        }
+        long[] queueIds = subscriptionDefinitions.stream()
+                .map(SubscriptionDefinition::getQueueId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        synchronized (feedDigests) {
+            feedDigests.put(url, new FeedDigest(bodyDigest, queueIds));
+        }
+    }
+
+    /**
+     * Forgets the body digest of the feed imported from the given URL (e.g., because its import result could not be
+     * handed off), so that the next fetch imports it again.
+     */
+    void invalidate(String url) {
+        synchronized (feedDigests) {
+            feedDigests.remove(url);
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (feedDigests) {
+            return "FeedDigestCache{" +
+                    "size=" + feedDigests.size() +
+                    '}';
+        }
+    }
+}
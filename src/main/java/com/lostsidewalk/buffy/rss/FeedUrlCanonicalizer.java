@@ -0,0 +1,111 @@
+package com.lostsidewalk.buffy.rss;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * Normalizes feed URLs, so that subscriptions to the same feed under superficially different URLs can share a single
+ * fetch.
+ * <p>
+ * Canonicalization applies only transformations that do not change the resource a server returns: the scheme and host
+ * are lower-cased, default ports, fragments, and well-known tracking parameters (e.g., {@code utm_*}) are removed, and
+ * an empty path becomes {@code /}.  The fetch identity of a URL goes further, ignoring the scheme and any trailing
+ * slash, so that {@code http://Example.com/feed} and {@code https://example.com/feed/} are fetched once.  URLs that
+ * cannot be parsed are left as they are.
+ */
+final class FeedUrlCanonicalizer {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "fbclid", "gclid", "dclid", "msclkid", "yclid", "igshid", "mc_cid", "mc_eid", "_hsenc", "_hsmi");
+
+    private FeedUrlCanonicalizer() {
+    }
+
+    /**
+     * Gets the canonical form of the given URL, suitable for fetching.
+     */
+    static String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if (scheme == null || host == null || uri.isOpaque()) {
+            return trimmed;
+        }
+        scheme = scheme.toLowerCase();
+        StringBuilder canonical = new StringBuilder(trimmed.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonical.append(uri.getRawUserInfo()).append('@');
+        }
+        canonical.append(host.toLowerCase());
+        int port = uri.getPort();
+        if (port != -1 && !isDefaultPort(scheme, port)) {
+            canonical.append(':').append(port);
+        }
+        String path = uri.getRawPath();
+        canonical.append(isEmpty(path) ? "/" : path);
+        String query = stripTrackingParameters(uri.getRawQuery());
+        if (isNotEmpty(query)) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Gets the fetch identity of the given canonical URL: URLs with the same identity are fetched only once.
+     */
+    static String identityOf(String canonicalUrl) {
+        if (canonicalUrl == null) {
+            return null;
+        }
+        int schemeEnd = canonicalUrl.indexOf("://");
+        if (schemeEnd < 0 || !startsWithAny(canonicalUrl, "http://", "https://")) {
+            return canonicalUrl;
+        }
+        String identity = canonicalUrl.substring(schemeEnd + 3);
+        int queryStart = identity.indexOf('?');
+        String path = queryStart < 0 ? identity : identity.substring(0, queryStart);
+        String query = queryStart < 0 ? "" : identity.substring(queryStart);
+        return removeEnd(path, "/") + query;
+    }
+
+    /**
+     * Checks whether the given canonical URL is secure (i.e., should be preferred as the representative of its fetch).
+     */
+    static boolean isSecure(String canonicalUrl) {
+        return startsWith(canonicalUrl, "https://");
+    }
+
+    private static boolean isDefaultPort(String scheme, int port) {
+        return ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+    }
+
+    private static String stripTrackingParameters(String query) {
+        if (isEmpty(query)) {
+            return query;
+        }
+        StringBuilder stripped = new StringBuilder(query.length());
+        for (String param : split(query, '&')) {
+            String name = substringBefore(param, "=").toLowerCase();
+            if (name.startsWith("utm_") || TRACKING_PARAMETERS.contains(name)) {
+                continue;
+            }
+            if (!stripped.isEmpty()) {
+                stripped.append('&');
+            }
+            stripped.append(param);
+        }
+        return stripped.toString();
+    }
+}
@@ -0,0 +1,154 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.lostsidewalk.buffy.rss.RssImporter.RssQuery;
+import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * The compiled, immutable fetch plan of a subscription: everything the importer derives from a subscription definition
+ * before fetching it (whether its query type is supported, its decoded credentials, its canonical URL and fetch
+ * identity, its query, and its import options), so that it need not be derived again every import cycle.  A plan remains valid for as long
+ * as the definition's URL, query type, and query configuration are unchanged.
+ */
+@Slf4j
+final class FetchPlan {
+
+    private static final Gson GSON = new Gson();
+
+    private final String url;
+
+    private final String queryType;
+
+    private final Serializable queryConfig;
+
+    private final boolean supported;
+
+    private final String username;
+
+    private final String password;
+
+    private final String canonicalUrl;
+
+    private final String urlIdentity;
+
+    private final RssQuery query;
+
+    private final ImportOptions importOptions;
+
+    private FetchPlan(String url, String queryType, Serializable queryConfig, boolean supported, String username, String password, String canonicalUrl, String urlIdentity, ImportOptions importOptions) {
+        this.url = url;
+        this.queryType = queryType;
+        this.queryConfig = queryConfig;
+        this.supported = supported;
+        this.username = username;
+        this.password = password;
+        this.canonicalUrl = canonicalUrl;
+        this.urlIdentity = urlIdentity;
+        this.query = RssQuery.from(this, url);
+        this.importOptions = importOptions;
+    }
+
+    /**
+     * Compiles the fetch plan of the given subscription.
+     */
+    static FetchPlan compile(SubscriptionDefinition subscriptionDefinition) {
+        String url = subscriptionDefinition.getUrl();
+        String queryType = subscriptionDefinition.getQueryType();
+        Serializable queryConfig = subscriptionDefinition.getQueryConfig();
+        JsonObject queryConfigObj = null;
+        try {
+            queryConfigObj = ofNullable(queryConfig)
+                    .map(Object::toString)
+                    .map(s -> GSON.fromJson(s, JsonObject.class))
+                    .orElse(null);
+        } catch (JsonParseException | ClassCastException e) {
+            log.warn("Unable to parse query config, subscriptionId={}, due to: {}", subscriptionDefinition.getId(), e.getMessage());
+        }
+        String canonicalUrl = FeedUrlCanonicalizer.canonicalize(url);
+        return new FetchPlan(url, queryType, queryConfig, RssImporter.supportsQueryType(queryType),
+                getStringProperty(queryConfigObj, "username"), getStringProperty(queryConfigObj, "password"),
+                canonicalUrl, FeedUrlCanonicalizer.identityOf(canonicalUrl), ImportOptions.from(queryConfigObj));
+    }
+
+    private static String getStringProperty(JsonObject obj, String propName) {
+        JsonElement elem = obj != null && obj.has(propName) ? obj.get(propName) : null;
+        return (elem != null && !elem.isJsonNull()) ? elem.getAsString() : null;
+    }
+
+    /**
+     * Checks whether this plan was compiled from a definition with the same URL, query type, and query configuration
+     * as the given one.
+     */
+    boolean isCurrentFor(SubscriptionDefinition subscriptionDefinition) {
+        return Objects.equals(url, subscriptionDefinition.getUrl())
+                && Objects.equals(queryType, subscriptionDefinition.getQueryType())
+                && Objects.equals(queryConfig, subscriptionDefinition.getQueryConfig());
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    String getQueryType() {
+        return queryType;
+    }
+
+    Serializable getQueryConfig() {
+        return queryConfig;
+    }
+
+    boolean isSupported() {
+        return supported;
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    String getPassword() {
+        return password;
+    }
+
+    String getCanonicalUrl() {
+        return canonicalUrl;
+    }
+
+    String getUrlIdentity() {
+        return urlIdentity;
+    }
+
+    /**
+     * Gets the query by which this subscription is fetched (when URLs are not canonicalized).
+     */
+    RssQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Gets the entry filters and field projection applied when converting this subscription's entries.
+     */
+    ImportOptions getImportOptions() {
+        return importOptions;
+    }
+
+    @Override
+    public String toString() {
+        return "FetchPlan{" +
+                "url='" + url + '\'' +
+                ", queryType='" + queryType + '\'' +
+                ", supported=" + supported +
+                ", hasCredentials=" + (username != null && password != null) +
+                ", canonicalUrl='" + canonicalUrl + '\'' +
+                ", importOptions=" + importOptions +
+                '}';
+    }
+}
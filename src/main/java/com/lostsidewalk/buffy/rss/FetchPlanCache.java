@@ -0,0 +1,63 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded (least recently used) cache of compiled fetch plans, keyed by subscription id.  A cached plan is reused
+ * for as long as the subscription's URL, query type, and query configuration are unchanged, and recompiled otherwise.
+ */
+final class FetchPlanCache {
+
+    private final Map<Long, FetchPlan> fetchPlans;
+
+    private long hitCt;
+
+    private long compileCt;
+
+    FetchPlanCache(int maxPlans) {
+        this.fetchPlans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FetchPlan> eldest) {
+                return size() > maxPlans;
+            }
+        };
+    }
+
+    /**
+     * Gets the fetch plan of the given subscription, compiling (and caching) it if there is no current plan.
+     * Subscriptions without an id are compiled every time.
+     */
+    FetchPlan planFor(SubscriptionDefinition subscriptionDefinition) {
+        Long id = subscriptionDefinition.getId();
+        if (id == null) {
+            return FetchPlan.compile(subscriptionDefinition);
+        }
+        synchronized (fetchPlans) {
+            FetchPlan fetchPlan = fetchPlans.get(id);
+            if (fetchPlan != null && fetchPlan.isCurrentFor(subscriptionDefinition)) {
+                hitCt++;
+                return fetchPlan;
+            }
+        }
+        FetchPlan fetchPlan = FetchPlan.compile(subscriptionDefinition);
+        synchronized (fetchPlans) {
+            fetchPlans.put(id, fetchPlan);
+            compileCt++;
+        }
+        return fetchPlan;
+    }
+
+    @Override
+    public String toString() {
+        synchronized (fetchPlans) {
+            return "FetchPlanCache{" +
+                    "size=" + fetchPlans.size() +
+                    ", hitCt=" + hitCt +
+                    ", compileCt=" + compileCt +
+                    '}';
+        }
+    }
+}
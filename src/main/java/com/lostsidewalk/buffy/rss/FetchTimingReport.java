@@ -0,0 +1,56 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedTimings;
+import com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A data class pairing the timing and size breakdown of one feed fetch with the subscriptions it was fetched for,
+ * so that slow feeds can be ranked and isolated.
+ */
+@Data
+public class FetchTimingReport {
+
+    private final String url;
+
+    private final List<Long> subscriptionIds;
+
+    private final Integer httpStatusCode;
+
+    private final QueryExceptionType errorType;
+
+    private final SyndFeedTimings timings;
+
+    private FetchTimingReport(String url, List<Long> subscriptionIds, Integer httpStatusCode, QueryExceptionType errorType, SyndFeedTimings timings) {
+        this.url = url;
+        this.subscriptionIds = subscriptionIds;
+        this.httpStatusCode = httpStatusCode;
+        this.errorType = errorType;
+        this.timings = timings;
+    }
+
+    /**
+     * Create a FetchTimingReport object with all parameters.
+     *
+     * @param url              The URL of the fetched feed.
+     * @param subscriptionIds  The Ids of the subscriptions the feed was fetched for.
+     * @param httpStatusCode   The HTTP status code of the response, if any.
+     * @param errorType        The type of error that caused the fetch to fail, or null on success.
+     * @param timings          The timing and size breakdown of the fetch.
+     * @return A FetchTimingReport object.
+     */
+    public static FetchTimingReport from(String url, List<Long> subscriptionIds, Integer httpStatusCode, QueryExceptionType errorType, SyndFeedTimings timings) {
+        return new FetchTimingReport(url, subscriptionIds, httpStatusCode, errorType, timings);
+    }
+
+    /**
+     * Gets the total time attributable to this feed: the fetch itself plus conversion.
+     *
+     * @return The total time, in nanoseconds.
+     */
+    public final long getTotalNanos() {
+        return timings.getTotalNanos() + timings.getConvertNanos();
+    }
+}
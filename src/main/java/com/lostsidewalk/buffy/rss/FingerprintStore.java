@@ -0,0 +1,67 @@
+package com.lostsidewalk.buffy.rss;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A compact set of 128-bit fingerprints (e.g., of imported entries), used by the importer for dedup and change
+ * detection.  Implementations are bounded: once full, the least recently added (or refreshed) fingerprints are
+ * forgotten a generation at a time.
+ */
+interface FingerprintStore extends Closeable {
+
+    /**
+     * Adds the given fingerprint to the store (or refreshes it, if already present).
+     *
+     * @param hi The high 64 bits of the fingerprint.
+     * @param lo The low 64 bits of the fingerprint.
+     * @return True if the fingerprint was not already present, otherwise false.
+     */
+    boolean add(long hi, long lo);
+
+    /**
+     * Checks whether the given fingerprint is present in the store.
+     *
+     * @param hi The high 64 bits of the fingerprint.
+     * @param lo The low 64 bits of the fingerprint.
+     * @return True if the fingerprint is present, otherwise false.
+     */
+    boolean contains(long hi, long lo);
+
+    /**
+     * Gets the number of fingerprints currently retained.
+     *
+     * @return The fingerprint count.
+     */
+    long size();
+
+    /**
+     * Writes any pending changes to backing storage (a no-op for heap stores).
+     *
+     * @throws IOException If the changes cannot be written.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Creates a heap store backed by primitive long arrays.
+     *
+     * @param capacity The number of fingerprints retained per generation.
+     * @return A FingerprintStore object.
+     */
+    static FingerprintStore onHeap(int capacity) {
+        return OpenAddressingFingerprintStore.onHeap(capacity);
+    }
+
+    /**
+     * Creates (or re-opens) a store backed by a memory-mapped file, so that its contents survive restarts.
+     *
+     * @param path     The backing file.
+     * @param capacity The number of fingerprints retained per generation.
+     * @return A FingerprintStore object.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    static FingerprintStore mapped(Path path, int capacity) throws IOException {
+        return OpenAddressingFingerprintStore.mapped(path, capacity);
+    }
+}
@@ -0,0 +1,212 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.rometools.rome.feed.synd.SyndContent;
+import com.rometools.rome.feed.synd.SyndEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * The per-subscription entry filters and field projection declared in a subscription's query configuration, applied
+ * before entries are converted into staging posts so that discarded entries, and unwanted fields, cost (almost)
+ * nothing to import:
+ * <ul>
+ *     <li>'fields': the staging post fields to populate (see {@link PostField}); the post title and URL are always
+ *     populated.  All fields are populated if absent.</li>
+ *     <li>'maxEntries': the maximum number of entries to import per fetch, in feed order.</li>
+ *     <li>'maxAgeHours': the maximum age of an entry to import, by its published (else updated) date; undated entries
+ *     are always imported.</li>
+ *     <li>'includeTerms': if present, only entries whose title or description contains at least one of these terms
+ *     (case-insensitive) are imported.</li>
+ *     <li>'excludeTerms': entries whose title or description contains any of these terms (case-insensitive) are not
+ *     imported.</li>
+ * </ul>
+ * Filters are evaluated cheapest first (age, then terms, then entry count), on the raw entries.
+ */
+@Slf4j
+final class ImportOptions {
+
+    /**
+     * The optional (projectable) fields of a staging post.
+     */
+    enum PostField {
+        DESCRIPTION,
+        CONTENTS,
+        MEDIA,
+        ITUNES,
+        URLS,
+        THUMBNAIL,
+        COMMENTS,
+        RIGHTS,
+        CONTRIBUTORS,
+        AUTHORS,
+        CATEGORIES,
+        PUBLISHED,
+        UPDATED,
+        ENCLOSURES,
+    }
+
+    /**
+     * Import all entries, with all fields.
+     */
+    static final ImportOptions ALL = new ImportOptions(EnumSet.allOf(PostField.class), 0, 0L, List.of(), List.of());
+
+    private final Set<PostField> fields;
+
+    private final int maxEntries;
+
+    private final long maxAgeMillis;
+
+    private final List<String> includeTerms;
+
+    private final List<String> excludeTerms;
+
+    private ImportOptions(Set<PostField> fields, int maxEntries, long maxAgeMillis, List<String> includeTerms, List<String> excludeTerms) {
+        this.fields = fields;
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+        this.includeTerms = includeTerms;
+        this.excludeTerms = excludeTerms;
+    }
+
+    /**
+     * Reads the import options from the given (parsed) query configuration; unrecognized field names, and non-positive
+     * limits, are ignored.
+     */
+    static ImportOptions from(JsonObject queryConfigObj) {
+        if (queryConfigObj == null) {
+            return ALL;
+        }
+        Set<PostField> fields = EnumSet.allOf(PostField.class);
+        JsonArray fieldsArr = getArrayProperty(queryConfigObj, "fields");
+        if (fieldsArr != null) {
+            fields = EnumSet.noneOf(PostField.class);
+            for (String fieldName : toStrings(fieldsArr)) {
+                try {
+                    fields.add(PostField.valueOf(fieldName.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring unrecognized projection field, fieldName={}", fieldName);
+                }
+            }
+        }
+        int maxEntries = Math.max(getIntProperty(queryConfigObj, "maxEntries"), 0);
+        long maxAgeMillis = HOURS.toMillis(Math.max(getIntProperty(queryConfigObj, "maxAgeHours"), 0));
+        List<String> includeTerms = toStrings(getArrayProperty(queryConfigObj, "includeTerms"));
+        List<String> excludeTerms = toStrings(getArrayProperty(queryConfigObj, "excludeTerms"));
+        if (fields.size() == PostField.values().length && maxEntries == 0 && maxAgeMillis == 0L && includeTerms.isEmpty() && excludeTerms.isEmpty()) {
+            return ALL;
+        }
+        return new ImportOptions(fields, maxEntries, maxAgeMillis, includeTerms, excludeTerms);
+    }
+
+    private static JsonArray getArrayProperty(JsonObject obj, String propName) {
+        JsonElement elem = obj.get(propName);
+        return (elem != null && elem.isJsonArray()) ? elem.getAsJsonArray() : null;
+    }
+
+    private static int getIntProperty(JsonObject obj, String propName) {
+        JsonElement elem = obj.get(propName);
+        try {
+            return (elem != null && elem.isJsonPrimitive()) ? elem.getAsInt() : 0;
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring non-numeric import option, propName={}, value={}", propName, elem);
+            return 0;
+        }
+    }
+
+    private static List<String> toStrings(JsonArray arr) {
+        if (arr == null) {
+            return List.of();
+        }
+        List<String> strings = new ArrayList<>(arr.size());
+        for (JsonElement elem : arr) {
+            if (elem != null && elem.isJsonPrimitive() && isNotBlank(elem.getAsString())) {
+                strings.add(elem.getAsString().trim());
+            }
+        }
+        return List.copyOf(strings);
+    }
+
+    /**
+     * Checks whether the given staging post field is to be populated.
+     */
+    boolean includes(PostField field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Checks whether any entry filters are declared.
+     */
+    boolean hasFilters() {
+        return maxEntries > 0 || maxAgeMillis > 0L || !includeTerms.isEmpty() || !excludeTerms.isEmpty();
+    }
+
+    /**
+     * Gets the given entries that pass the filters, in feed order (the given list itself if there are no filters).
+     */
+    List<SyndEntry> filter(List<SyndEntry> entries, Date importTimestamp) {
+        if (entries == null || !hasFilters()) {
+            return entries;
+        }
+        long minTimestamp = maxAgeMillis > 0L ? importTimestamp.getTime() - maxAgeMillis : Long.MIN_VALUE;
+        List<SyndEntry> filtered = new ArrayList<>(maxEntries > 0 ? Math.min(maxEntries, entries.size()) : entries.size());
+        for (SyndEntry e : entries) {
+            if (isRecent(e, minTimestamp) && matchesTerms(e)) {
+                filtered.add(e);
+                if (filtered.size() == maxEntries) {
+                    break;
+                }
+            }
+        }
+        return filtered;
+    }
+
+    private static boolean isRecent(SyndEntry e, long minTimestamp) {
+        if (minTimestamp == Long.MIN_VALUE) {
+            return true;
+        }
+        Date entryDate = e.getPublishedDate() != null ? e.getPublishedDate() : e.getUpdatedDate();
+        return entryDate == null || entryDate.getTime() >= minTimestamp;
+    }
+
+    private boolean matchesTerms(SyndEntry e) {
+        if (includeTerms.isEmpty() && excludeTerms.isEmpty()) {
+            return true;
+        }
+        String title = e.getTitle();
+        SyndContent description = e.getDescription();
+        String desc = description == null ? null : description.getValue();
+        for (String term : excludeTerms) {
+            if (containsIgnoreCase(title, term) || containsIgnoreCase(desc, term)) {
+                return false;
+            }
+        }
+        if (includeTerms.isEmpty()) {
+            return true;
+        }
+        for (String term : includeTerms) {
+            if (containsIgnoreCase(title, term) || containsIgnoreCase(desc, term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportOptions{" +
+                "fields=" + fields +
+                ", maxEntries=" + maxEntries +
+                ", maxAgeMillis=" + maxAgeMillis +
+                ", includeTerms=" + includeTerms +
+                ", excludeTerms=" + excludeTerms +
+                '}';
+    }
+}
@@ -0,0 +1,168 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.split;
+
+/**
+ * Assigns feeds to importer nodes by consistent hashing, so that several importer nodes can share a subscription list,
+ * each fetching only its own shard of the unique queries.
+ * <p>
+ * Each node is placed on a hash ring at a number of points (virtual nodes) proportional to its weight; a feed belongs to
+ * the node owning the first point at or after the hash of its key (the feed URL, or its host, so that per-host
+ * politeness and connection reuse stay node-local).  Assignment depends only on the node count, weights, and key, so
+ * every node computes the same partition, and when the node count changes only the feeds on the affected arcs of the
+ * ring move.
+ */
+final class ImportPartitioner {
+
+    /**
+     * The feed attribute by which feeds are partitioned.
+     */
+    enum ShardKey {
+        URL,
+        HOST
+    }
+
+    private static final HashFunction RING_FUNCTION = Hashing.murmur3_128();
+
+    private final int nodeId;
+
+    private final int nodeCount;
+
+    private final ShardKey shardKey;
+
+    private final long[] ringPoints;
+
+    private final int[] ringOwners;
+
+    private ImportPartitioner(int nodeId, int nodeCount, ShardKey shardKey, long[] ringPoints, int[] ringOwners) {
+        this.nodeId = nodeId;
+        this.nodeCount = nodeCount;
+        this.shardKey = shardKey;
+        this.ringPoints = ringPoints;
+        this.ringOwners = ringOwners;
+    }
+
+    /**
+     * Builds the partitioner for the given node.
+     *
+     * @param nodeId       The (zero-based) id of this node.
+     * @param nodeCount    The number of importer nodes.
+     * @param shardKey     The feed attribute by which feeds are partitioned.
+     * @param virtualNodes The number of ring points for a node of weight 1.
+     * @param weights      The relative weight of each node, comma-separated, or blank for equal weights.
+     * @return The partitioner.
+     * @throws IllegalArgumentException If the node id, node count, or weights are invalid.
+     */
+    static ImportPartitioner from(int nodeId, int nodeCount, ShardKey shardKey, int virtualNodes, String weights) {
+        if (nodeCount <= 0 || nodeId < 0 || nodeId >= nodeCount) {
+            throw new IllegalArgumentException("Invalid shard node id/count: nodeId=" + nodeId + ", nodeCount=" + nodeCount);
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Invalid shard virtual node count: " + virtualNodes);
+        }
+        double[] nodeWeights = parseWeights(weights, nodeCount);
+        int[] pointCts = new int[nodeCount];
+        int totalPointCt = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            pointCts[n] = (int) Math.max(1L, Math.round(virtualNodes * nodeWeights[n]));
+            totalPointCt += pointCts[n];
+        }
+        // hash the points of all nodes, then sort by position on the ring (ties, which are vanishingly rare, go to the lower node id)
+        long[][] points = new long[totalPointCt][];
+        int i = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            for (int v = 0; v < pointCts[n]; v++) {
+                points[i++] = new long[]{hash("node-" + n + '#' + v), n};
+            }
+        }
+        Arrays.sort(points, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        long[] ringPoints = new long[totalPointCt];
+        int[] ringOwners = new int[totalPointCt];
+        for (int p = 0; p < totalPointCt; p++) {
+            ringPoints[p] = points[p][0];
+            ringOwners[p] = (int) points[p][1];
+        }
+        return new ImportPartitioner(nodeId, nodeCount, shardKey, ringPoints, ringOwners);
+    }
+
+    private static double[] parseWeights(String weights, int nodeCount) {
+        double[] nodeWeights = new double[nodeCount];
+        Arrays.fill(nodeWeights, 1.0);
+        if (isBlank(weights)) {
+            return nodeWeights;
+        }
+        String[] parts = split(weights, ',');
+        if (parts.length != nodeCount) {
+            throw new IllegalArgumentException("Shard weights must be given for each of " + nodeCount + " nodes: " + weights);
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            try {
+                nodeWeights[n] = Double.parseDouble(parts[n].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid shard weight: " + parts[n], e);
+            }
+            if (!(nodeWeights[n] > 0.0)) {
+                throw new IllegalArgumentException("Shard weights must be positive: " + weights);
+            }
+        }
+        return nodeWeights;
+    }
+
+    private static long hash(String s) {
+        return RING_FUNCTION.hashString(s, UTF_8).asLong();
+    }
+
+    /**
+     * Gets the id of the node that owns the feed at the given URL.
+     */
+    int ownerOf(String url) {
+        long h = hash(keyOf(url));
+        int idx = Arrays.binarySearch(ringPoints, h);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        return ringOwners[idx == ringPoints.length ? 0 : idx];
+    }
+
+    /**
+     * Checks whether the feed at the given URL belongs to this node.
+     */
+    boolean isLocal(String url) {
+        return ownerOf(url) == nodeId;
+    }
+
+    private String keyOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        if (shardKey == ShardKey.HOST) {
+            try {
+                String host = URI.create(url.trim()).getHost();
+                if (host != null) {
+                    return host.toLowerCase();
+                }
+            } catch (IllegalArgumentException ignored) {
+                // (fall back to partitioning by URL)
+            }
+        }
+        return url;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportPartitioner{" +
+                "nodeId=" + nodeId +
+                ", nodeCount=" + nodeCount +
+                ", shardKey=" + shardKey +
+                ", ringPointCt=" + ringPoints.length +
+                '}';
+    }
+}
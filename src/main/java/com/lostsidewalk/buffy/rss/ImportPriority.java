@@ -0,0 +1,23 @@
+package com.lostsidewalk.buffy.rss;
+
+/**
+ * The scheduling class of an import, which determines the order in which queued imports are dispatched.
+ */
+public enum ImportPriority {
+
+    /**
+     * A user-triggered refresh; dispatched immediately, ahead of any queued work, without waiting for a fetch permit
+     * or a place in the parse and convert stage queues.
+     */
+    INTERACTIVE,
+
+    /**
+     * A regularly scheduled import cycle.
+     */
+    SCHEDULED,
+
+    /**
+     * Deferrable work (e.g., backfills); dispatched only when no scheduled imports are waiting.
+     */
+    BACKGROUND
+}
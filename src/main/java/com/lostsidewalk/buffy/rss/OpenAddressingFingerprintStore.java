@@ -0,0 +1,233 @@
+package com.lostsidewalk.buffy.rss;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * A {@link FingerprintStore} implemented as two open-addressing (linear probing) hash tables of 128-bit fingerprints,
+ * laid out in a single {@link LongBuffer} that is either a primitive long array or a memory-mapped file.
+ * <p>
+ * Fingerprints are added to the current generation; lookups consult both.  A fingerprint found only in the previous
+ * generation is copied forward when re-added.  When the current generation reaches capacity, the previous one is
+ * cleared and becomes current, so the store retains between one and two generations' worth of recently added
+ * fingerprints.  Each table is sized to at most half full.
+ * <p>
+ * Layout (in longs): an 8-long header (magic, slot count, current generation, per-generation sizes), followed by the
+ * two tables, each holding (hi, lo) pairs; (0, 0) marks an empty slot.
+ */
+@Slf4j
+final class OpenAddressingFingerprintStore implements FingerprintStore {
+
+    private static final long MAGIC = 0x4E47465053543031L; // "NGFPST01"
+
+    private static final int HEADER_LONGS = 8;
+
+    private static final int MAGIC_IDX = 0;
+
+    private static final int SLOT_CT_IDX = 1;
+
+    private static final int CURRENT_GEN_IDX = 2;
+
+    private static final int GEN_SIZE_IDX = 3; // (and 4)
+
+    private static final int MAX_SLOT_CT = 1 << 25; // (keeps a mapped store within a single 1GB mapping)
+
+    private final LongBuffer buffer;
+
+    private final MappedByteBuffer mappedBuffer;
+
+    private final FileChannel channel;
+
+    private final int capacity;
+
+    private final int slotCt;
+
+    private final int slotMask;
+
+    private OpenAddressingFingerprintStore(LongBuffer buffer, MappedByteBuffer mappedBuffer, FileChannel channel, int capacity, int slotCt) {
+        this.buffer = buffer;
+        this.mappedBuffer = mappedBuffer;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.slotCt = slotCt;
+        this.slotMask = slotCt - 1;
+    }
+
+    static OpenAddressingFingerprintStore onHeap(int capacity) {
+        int slotCt = slotCt(capacity);
+        OpenAddressingFingerprintStore store = new OpenAddressingFingerprintStore(LongBuffer.wrap(new long[bufferLongs(slotCt)]), null, null, capacity, slotCt);
+        store.initialize();
+        return store;
+    }
+
+    static OpenAddressingFingerprintStore mapped(Path path, int capacity) throws IOException {
+        int slotCt = slotCt(capacity);
+        long byteCt = (long) bufferLongs(slotCt) * Long.BYTES;
+        FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            long existingByteCt = channel.size();
+            MappedByteBuffer mappedBuffer = channel.map(READ_WRITE, 0L, byteCt);
+            OpenAddressingFingerprintStore store = new OpenAddressingFingerprintStore(mappedBuffer.asLongBuffer(), mappedBuffer, channel, capacity, slotCt);
+            if (existingByteCt == byteCt && store.buffer.get(MAGIC_IDX) == MAGIC && store.buffer.get(SLOT_CT_IDX) == slotCt) {
+                log.info("Fingerprint store re-opened, path={}, size={}", path, store.size());
+            } else {
+                if (existingByteCt > 0L) {
+                    log.warn("Fingerprint store has an unrecognized format or capacity; reinitializing, path={}", path);
+                }
+                store.initialize();
+            }
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static int slotCt(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Fingerprint store capacity must be positive");
+        }
+        int slotCt = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 2; // next power of two >= 2 * capacity
+        if (slotCt <= 0 || slotCt > MAX_SLOT_CT) {
+            throw new IllegalArgumentException("Fingerprint store capacity is too large: " + capacity);
+        }
+        return slotCt;
+    }
+
+    private static int bufferLongs(int slotCt) {
+        return HEADER_LONGS + (slotCt << 2);
+    }
+
+    private void initialize() {
+        clearGeneration(0);
+        clearGeneration(1);
+        buffer.put(MAGIC_IDX, MAGIC);
+        buffer.put(SLOT_CT_IDX, slotCt);
+        buffer.put(CURRENT_GEN_IDX, 0L);
+    }
+
+    private void clearGeneration(int gen) {
+        int base = generationBase(gen);
+        int end = base + (slotCt << 1);
+        for (int i = base; i < end; i++) {
+            buffer.put(i, 0L);
+        }
+        buffer.put(GEN_SIZE_IDX + gen, 0L);
+    }
+
+    private int generationBase(int gen) {
+        return HEADER_LONGS + gen * (slotCt << 1);
+    }
+
+    private int currentGeneration() {
+        return (int) buffer.get(CURRENT_GEN_IDX);
+    }
+
+    /**
+     * Returns the buffer index of the slot holding the given fingerprint in the given generation, or the (negative,
+     * minus one) index of the empty slot at which it would be inserted.
+     */
+    private int find(int gen, long hi, long lo) {
+        int base = generationBase(gen);
+        int slot = mix(hi, lo) & slotMask;
+        while (true) {
+            int idx = base + (slot << 1);
+            long slotHi = buffer.get(idx);
+            long slotLo = buffer.get(idx + 1);
+            if (slotHi == hi && slotLo == lo) {
+                return idx;
+            }
+            if (slotHi == 0L && slotLo == 0L) {
+                return -idx - 1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private static int mix(long hi, long lo) {
+        long h = hi ^ Long.rotateLeft(lo, 32);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    @Override
+    public synchronized boolean add(long hi, long lo) {
+        if (hi == 0L && lo == 0L) {
+            lo = 1L; // (reserved for empty slots)
+        }
+        int current = currentGeneration();
+        int idx = find(current, hi, lo);
+        if (idx >= 0) {
+            return false;
+        }
+        boolean isNew = find(current ^ 1, hi, lo) < 0;
+        int insertIdx = -idx - 1;
+        buffer.put(insertIdx, hi);
+        buffer.put(insertIdx + 1, lo);
+        long genSize = buffer.get(GEN_SIZE_IDX + current) + 1L;
+        buffer.put(GEN_SIZE_IDX + current, genSize);
+        if (genSize >= capacity) {
+            rotate(current);
+        }
+        return isNew;
+    }
+
+    private void rotate(int current) {
+        int next = current ^ 1;
+        clearGeneration(next);
+        buffer.put(CURRENT_GEN_IDX, next);
+        log.debug("Fingerprint store generation rotated, capacity={}", capacity);
+    }
+
+    @Override
+    public synchronized boolean contains(long hi, long lo) {
+        if (hi == 0L && lo == 0L) {
+            lo = 1L;
+        }
+        int current = currentGeneration();
+        return find(current, hi, lo) >= 0 || find(current ^ 1, hi, lo) >= 0;
+    }
+
+    /**
+     * Gets the number of slots in use across both generations (a fingerprint refreshed from the previous generation is
+     * counted twice until that generation is cleared).
+     */
+    @Override
+    public synchronized long size() {
+        return buffer.get(GEN_SIZE_IDX) + buffer.get(GEN_SIZE_IDX + 1);
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (mappedBuffer != null) {
+            mappedBuffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OpenAddressingFingerprintStore{" +
+                "capacity=" + capacity +
+                ", slotCt=" + slotCt +
+                ", mapped=" + (mappedBuffer != null) +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.lostsidewalk.buffy.rss;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * An import task queued for dispatch, ordered by priority and then by submission order (so that tasks of the same
+ * priority are dispatched first-in, first-out).
+ */
+final class PrioritizedImportTask implements Runnable, Comparable<PrioritizedImportTask> {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final ImportPriority priority;
+
+    private final long sequence = SEQUENCE.getAndIncrement();
+
+    private final long queuedNanos = nanoTime();
+
+    private final Runnable task;
+
+    private final ObjLongConsumer<ImportPriority> waitRecorder;
+
+    PrioritizedImportTask(ImportPriority priority, Runnable task, ObjLongConsumer<ImportPriority> waitRecorder) {
+        this.priority = priority;
+        this.task = task;
+        this.waitRecorder = waitRecorder;
+    }
+
+    @Override
+    public void run() {
+        waitRecorder.accept(priority, nanoTime() - queuedNanos);
+        task.run();
+    }
+
+    @Override
+    public int compareTo(PrioritizedImportTask o) {
+        int c = priority.compareTo(o.priority);
+        return c != 0 ? c : Long.compare(sequence, o.sequence);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(sequence);
+    }
+
+    @Override
+    public String toString() {
+        return "PrioritizedImportTask{" +
+                "priority=" + priority +
+                ", sequence=" + sequence +
+                '}';
+    }
+}
@@ -0,0 +1,153 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * The per-feed due times of a rolling import, in which each feed is fetched once per polling interval, at its own
+ * offset into the interval, rather than all feeds at once at the start of a cycle.
+ * <p>
+ * A feed's first due time is spread over the interval by the hash of its key, so that the fetches of a large
+ * subscription list are evenly distributed (and stay put across restarts); after each fetch, the feed is due again one
+ * (jittered) interval after it was last due, so that feeds that happen to be due together drift apart over time.  A
+ * feed that fell behind (e.g., a fetch that outlasted the interval) is not fetched again in quick succession to catch
+ * up, but is due one interval after its fetch completed.
+ *
+ * @param <K> The type of feed key.
+ */
+final class RollingImportSchedule<K> {
+
+    private static final HashFunction OFFSET_FUNCTION = Hashing.murmur3_128();
+
+    private static final class ScheduledFeed<K> {
+
+        final K key;
+
+        final long seq;
+
+        long dueMillis;
+
+        boolean inFlight;
+
+        ScheduledFeed(K key, long seq, long dueMillis) {
+            this.key = key;
+            this.seq = seq;
+            this.dueMillis = dueMillis;
+        }
+    }
+
+    private final long intervalMillis;
+
+    private final double jitter;
+
+    private final LongSupplier clock;
+
+    private final Map<K, ScheduledFeed<K>> feeds = new HashMap<>();
+
+    // (feeds that are not in flight, soonest due first)
+    private final TreeSet<ScheduledFeed<K>> dueOrder = new TreeSet<>(
+            Comparator.<ScheduledFeed<K>>comparingLong(f -> f.dueMillis).thenComparingLong(f -> f.seq));
+
+    private long seq;
+
+    /**
+     * @param intervalMillis The polling interval, i.e., the time between fetches of the same feed.
+     * @param jitter         The maximum deviation from the interval, as a fraction of the interval (0 to 0.5).
+     * @param clock          The source of the current time, in milliseconds.
+     */
+    RollingImportSchedule(long intervalMillis, double jitter, LongSupplier clock) {
+        this.intervalMillis = Math.max(1L, intervalMillis);
+        this.jitter = Math.min(Math.max(jitter, 0.0), 0.5);
+        this.clock = clock;
+    }
+
+    /**
+     * Makes the given feeds the scheduled feeds: new feeds are scheduled at their offset into the interval, feeds that
+     * are no longer present are dropped, and the others keep their due times.
+     */
+    synchronized void retain(Collection<K> keys) {
+        Set<K> keySet = keys instanceof Set<K> s ? s : new HashSet<>(keys);
+        Iterator<ScheduledFeed<K>> it = feeds.values().iterator();
+        while (it.hasNext()) {
+            ScheduledFeed<K> feed = it.next();
+            if (!keySet.contains(feed.key)) {
+                dueOrder.remove(feed);
+                it.remove();
+            }
+        }
+        long now = clock.getAsLong();
+        for (K key : keySet) {
+            if (!feeds.containsKey(key)) {
+                ScheduledFeed<K> feed = new ScheduledFeed<>(key, seq++, now + offsetOf(key));
+                feeds.put(key, feed);
+                dueOrder.add(feed);
+            }
+        }
+    }
+
+    private long offsetOf(K key) {
+        return Math.floorMod(OFFSET_FUNCTION.hashInt(key.hashCode()).asLong(), intervalMillis);
+    }
+
+    /**
+     * Takes the feeds that are due, soonest due first; they are not due again until they are rescheduled.
+     */
+    synchronized List<K> pollDue() {
+        long now = clock.getAsLong();
+        List<K> due = new ArrayList<>();
+        while (!dueOrder.isEmpty() && dueOrder.first().dueMillis <= now) {
+            ScheduledFeed<K> feed = dueOrder.pollFirst();
+            feed.inFlight = true;
+            due.add(feed.key);
+        }
+        return due;
+    }
+
+    /**
+     * Schedules the next fetch of the given feed (taken by {@link #pollDue}), one jittered interval after it was last
+     * due, or after now if it fell behind.
+     */
+    synchronized void reschedule(K key) {
+        ScheduledFeed<K> feed = feeds.get(key);
+        if (feed == null || !feed.inFlight) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long nextDueMillis = feed.dueMillis + jitteredInterval();
+        feed.dueMillis = nextDueMillis > now ? nextDueMillis : now + jitteredInterval();
+        feed.inFlight = false;
+        dueOrder.add(feed);
+    }
+
+    private long jitteredInterval() {
+        return intervalMillis + (long) (intervalMillis * jitter * (2.0 * ThreadLocalRandom.current().nextDouble() - 1.0));
+    }
+
+    /**
+     * Gets the number of scheduled feeds (including those in flight).
+     */
+    synchronized int size() {
+        return feeds.size();
+    }
+
+    /**
+     * Gets the number of scheduled feeds that are currently in flight.
+     */
+    synchronized int inFlightCount() {
+        return feeds.size() - dueOrder.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RollingImportSchedule{" +
+                "intervalMillis=" + intervalMillis +
+                ", jitter=" + jitter +
+                ", feedCt=" + feeds.size() +
+                ", inFlightCt=" + (feeds.size() - dueOrder.size()) +
+                '}';
+    }
+}
@@ -4,12 +4,13 @@ import com.lostsidewalk.buffy.discovery.FeedDiscoveryImageInfo;
 import com.lostsidewalk.buffy.discovery.FeedDiscoveryInfo;
 import com.lostsidewalk.buffy.discovery.FeedDiscoveryInfo.FeedDiscoveryException;
 import com.lostsidewalk.buffy.post.ContentObject;
+import com.lostsidewalk.buffy.rss.RssImportUtils.ConversionContext;
+import com.lostsidewalk.buffy.rss.syndfeed.PooledSyndFeedInput;
 import com.rometools.rome.feed.synd.SyndCategory;
 import com.rometools.rome.feed.synd.SyndContent;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.feed.synd.SyndImage;
 import com.rometools.rome.io.FeedException;
-import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -36,7 +37,6 @@ import static java.net.URI.create;
 import static java.util.stream.Collectors.toSet;
 import static javax.xml.bind.DatatypeConverter.printHexBinary;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
-import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
 import static org.apache.commons.lang3.SerializationUtils.serialize;
 import static org.apache.commons.lang3.StringUtils.*;
 
@@ -229,9 +229,7 @@ public class RssDiscovery {
                 toRead.close();
                 ByteArrayInputStream bais = new ByteArrayInputStream(allBytes);
                 XmlReader xmlReader = new XmlReader(bais);
-                SyndFeedInput input = new SyndFeedInput();
-                input.setAllowDoctypes(true);
-                SyndFeed feed = input.build(xmlReader);
+                SyndFeed feed = PooledSyndFeedInput.build(xmlReader);
 
                 return FeedDiscoveryInfo.from(
                         trimToLength(FEED_URL_FIELD_NAME, url, 1024),
@@ -262,7 +260,7 @@ public class RssDiscovery {
                                 .map(SyndCategory::getName)
                                 .map(name -> trimToLength(CATEGORIES_FIELD_NAME, name, 256))
                                 .collect(toSet())),
-                        new ArrayList<>(importArticleResponse(null, null, url, null, feed, username, new Date())),
+                        new ArrayList<>(importArticleResponse(null, null, url, null, feed, feed.getEntries(), username, new Date(), ConversionContext.DEFAULT)),
                         // is upgradable
                         isUrlUpgradable
                 );
@@ -429,7 +427,7 @@ public class RssDiscovery {
         if (syndContent == null) {
             return null;
         }
-        return ContentObject.from(randomAlphanumeric(8), syndContent.getType(), syndContent.getValue());
+        return ContentObjectIds.contentObject(0, syndContent.getType(), syndContent.getValue());
     }
 
     private static String computeThumbnailHash(MessageDigest md, String feedImgUrl) {
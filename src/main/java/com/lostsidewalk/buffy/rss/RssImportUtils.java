@@ -2,9 +2,6 @@ package com.lostsidewalk.buffy.rss;
 
 import com.google.gson.JsonObject;
 import com.lostsidewalk.buffy.post.*;
-import com.rometools.modules.itunes.ITunes;
-import com.rometools.modules.mediarss.MediaEntryModule;
-import com.rometools.modules.mediarss.MediaModule;
 import com.rometools.modules.mediarss.types.*;
 import com.rometools.rome.feed.synd.*;
 import lombok.extern.slf4j.Slf4j;
@@ -15,17 +12,22 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.net.URI;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
 
+import static com.lostsidewalk.buffy.rss.ImportOptions.PostField.*;
+import static java.lang.System.nanoTime;
 import static java.util.Optional.ofNullable;
 import static javax.xml.bind.DatatypeConverter.printHexBinary;
 import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
-import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
 import static org.apache.commons.lang3.SerializationUtils.serialize;
 import static org.apache.commons.lang3.StringUtils.*;
 import static org.jsoup.parser.Parser.xmlParser;
@@ -35,49 +37,222 @@ class RssImportUtils {
 
     static final String RSS_ATOM_IMPORTER_ID = "RssAtom";
 
-    static Set<StagingPost> importArticleResponse(Long queueId, Long subscriptionId, String url, String subscriptionTitle, SyndFeed response, String username, Date importTimestamp) {
-        List<SyndEntry> responseEntries = response.getEntries();
-        Set<StagingPost> stagingPosts = new HashSet<>(size(responseEntries));
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            for (SyndEntry e : responseEntries) {
-                //
-                StagingPost p = StagingPost.from(
-                        RSS_ATOM_IMPORTER_ID, // importer Id
-                        queueId, // feed Id
-                        getImporterDesc(subscriptionTitle, url), // importer desc (feed subscription title)
-                        subscriptionId, // url Id
-                        // HERE: post_title_type
-                        ofNullable(e.getTitleEx()).map(RssImportUtils::convertContentObject).orElse(null), // post title
-                        // HERE: description_type
-                        ofNullable(e.getDescription()).map(RssImportUtils::convertContentObject).orElse(null),
-                        // HERE: List<String> postContents now needs to List<String, String> so that content type can ride along
-                        ofNullable(e.getContents()).map(RssImportUtils::convertContentList).orElse(null), // post contents
-                        getPostMedia(e), // post media
-                        getPostITunes(e), // post iTunes
-                        trim(e.getLink()), // post URL
-                        ofNullable(e.getLinks()).map(RssImportUtils::convertLinkList).orElse(null), // post URLs
-                        getThumbnailUrl(e), // post img URL
-                        importTimestamp, // import timestamp
-                        computeHash(md, queueId, getObjectSource(e)), // post hash
-                        username, // username
-                        trim(e.getComments()), // post comments
-                        response.getCopyright(), // post rights
-                        ofNullable(e.getContributors()).map(RssImportUtils::convertPersonList).orElse(null), // contributors
-                        ofNullable(getAuthors(e)).map(RssImportUtils::convertPersonList).orElse(null), // authors
-                        ofNullable(e.getCategories()).map(RssImportUtils::convertCategoryList).orElse(null), // post categories
-                        e.getPublishedDate(), // publish timestamp
-                        null, // expiration timestamp (none)
-                        ofNullable(e.getEnclosures()).map(RssImportUtils::convertEnclosureList).orElse(null), // enclosures
-                        e.getUpdatedDate() // updated timestamp
-                );
-                stagingPosts.add(p);
+    /**
+     * Mutable accumulator for the cost of converting a feed into staging posts.
+     */
+    static final class ConversionStats {
+
+        int entryCt;
+
+        long convertNanos;
+
+        long hashNanos;
+    }
+
+    /**
+     * The options of a conversion of feed entries into staging posts, other than the subscription and the entries
+     * themselves: the import options (field projection), an optional stats accumulator, an optional fork/join pool and
+     * the number of entries above which a conversion is split across it, and an optional string pool.
+     */
+    static final class ConversionContext {
+
+        /**
+         * Convert all fields, serially, without collecting stats or pooling strings.
+         */
+        static final ConversionContext DEFAULT = from(ImportOptions.ALL, null, null, 0, null);
+
+        final ImportOptions options;
+
+        final ConversionStats stats;
+
+        final ForkJoinPool forkJoinPool;
+
+        final int parallelThreshold;
+
+        final StringPool stringPool;
+
+        private ConversionContext(ImportOptions options, ConversionStats stats, ForkJoinPool forkJoinPool, int parallelThreshold, StringPool stringPool) {
+            this.options = options;
+            this.stats = stats;
+            this.forkJoinPool = forkJoinPool;
+            this.parallelThreshold = parallelThreshold;
+            this.stringPool = stringPool;
+        }
+
+        static ConversionContext from(ImportOptions options, ConversionStats stats, ForkJoinPool forkJoinPool, int parallelThreshold, StringPool stringPool) {
+            return new ConversionContext(options, stats, forkJoinPool, parallelThreshold, stringPool);
+        }
+
+        static ConversionContext from(ImportOptions options) {
+            return from(options, null, null, 0, null);
+        }
+
+        boolean isParallel(int entryCt) {
+            return forkJoinPool != null && parallelThreshold > 0 && entryCt > parallelThreshold;
+        }
+
+        @Override
+        public String toString() {
+            return "ConversionContext{" +
+                    "options=" + options +
+                    ", stats=" + (stats != null) +
+                    ", forkJoinPool=" + forkJoinPool +
+                    ", parallelThreshold=" + parallelThreshold +
+                    ", stringPool=" + (stringPool != null) +
+                    '}';
+        }
+    }
+
+    /**
+     * Converts the given entries (a subset of those in the given feed response) into staging posts, populating only
+     * the fields included by the context's import options (the post title and URL are always populated).  The post
+     * hash is computed from the raw entry, and so does not depend on the projection.  Lists of more than the context's
+     * parallel threshold of entries are split into subtasks that convert (and hash) their entries in parallel on its
+     * fork/join pool; the resulting staging posts are the same as those of a serial conversion.  If the context has a
+     * string pool, the strings that repeat across posts are replaced by their canonical (pooled) copies.
+     */
+    static Set<StagingPost> importArticleResponse(Long queueId, Long subscriptionId, String url, String subscriptionTitle, SyndFeed response, List<SyndEntry> responseEntries, String username, Date importTimestamp, ConversionContext context) {
+        ImportOptions options = context.options;
+        StringPool stringPool = context.stringPool;
+        ForkJoinPool forkJoinPool = context.forkJoinPool;
+        ConversionStats stats = context.stats;
+        long startNanos = nanoTime();
+        EntryConversion conversion = new EntryConversion(queueId, subscriptionId, pooled(stringPool, getImporterDesc(subscriptionTitle, url)),
+                pooled(stringPool, response.getCopyright()), pooled(stringPool, username), importTimestamp, options, stringPool);
+        int entryCt = size(responseEntries);
+        Set<StagingPost> stagingPosts = new HashSet<>(entryCt);
+        long hashNanos = 0L;
+        if (context.isParallel(entryCt)) {
+            StagingPost[] converted = new StagingPost[entryCt];
+            LongAdder parallelHashNanos = new LongAdder();
+            int leafSize = Math.max(MIN_CONVERSION_LEAF_SIZE, entryCt / (forkJoinPool.getParallelism() << 2));
+            List<SyndEntry> entries = responseEntries instanceof RandomAccess ? responseEntries : new ArrayList<>(responseEntries);
+            forkJoinPool.invoke(new ConvertEntriesTask(conversion, entries, converted, 0, entryCt, leafSize, parallelHashNanos));
+            // (posts are collected in entry order, as in a serial conversion)
+            for (StagingPost p : converted) {
+                if (p != null) {
+                    stagingPosts.add(p);
+                }
             }
-        } catch (NoSuchAlgorithmException ignored) {}
+            hashNanos = parallelHashNanos.sum();
+        } else {
+            try {
+                MessageDigest md = MessageDigest.getInstance("MD5");
+                for (SyndEntry e : responseEntries) {
+                    long hashStartNanos = nanoTime();
+                    String postHash = computeHash(md, queueId, getObjectSource(e));
+                    hashNanos += nanoTime() - hashStartNanos;
+                    stagingPosts.add(conversion.convert(e, postHash));
+                }
+            } catch (NoSuchAlgorithmException ignored) {}
+        }
+        if (stats != null) {
+            stats.entryCt += entryCt;
+            stats.convertNanos += nanoTime() - startNanos;
+            stats.hashNanos += hashNanos;
+        }
 
         return stagingPosts;
     }
 
+    private static final int MIN_CONVERSION_LEAF_SIZE = 64;
+
+    /**
+     * The per-subscription inputs of an entry conversion.
+     */
+    private record EntryConversion(Long queueId, Long subscriptionId, String importerDesc, String rights, String username, Date importTimestamp, ImportOptions options, StringPool stringPool) {
+
+        StagingPost convert(SyndEntry e, String postHash) {
+            EntryModules modules = EntryModules.of(e);
+            //
+            return StagingPost.from(
+                    RSS_ATOM_IMPORTER_ID, // importer Id
+                    queueId, // feed Id
+                    importerDesc, // importer desc (feed subscription title)
+                    subscriptionId, // url Id
+                    // HERE: post_title_type
+                    convertContentObject(e.getTitleEx(), stringPool), // post title
+                    // HERE: description_type
+                    options.includes(DESCRIPTION) ? convertContentObject(e.getDescription(), stringPool) : null,
+                    // HERE: List<String> postContents now needs to List<String, String> so that content type can ride along
+                    options.includes(CONTENTS) ? convertContentList(e.getContents(), stringPool) : null, // post contents
+                    options.includes(MEDIA) ? modules.getPostMedia() : null, // post media
+                    options.includes(ITUNES) ? modules.getPostITunes() : null, // post iTunes
+                    trim(e.getLink()), // post URL
+                    options.includes(URLS) ? convertLinkList(e.getLinks(), stringPool) : null, // post URLs
+                    options.includes(THUMBNAIL) ? modules.getThumbnailUrl() : null, // post img URL
+                    importTimestamp, // import timestamp
+                    postHash, // post hash
+                    username, // username
+                    options.includes(COMMENTS) ? trim(e.getComments()) : null, // post comments
+                    options.includes(RIGHTS) ? rights : null, // post rights
+                    options.includes(CONTRIBUTORS) ? convertPersonList(e.getContributors(), stringPool) : null, // contributors
+                    options.includes(AUTHORS) ? convertPersonList(modules.getAuthors(), stringPool) : null, // authors
+                    options.includes(CATEGORIES) ? convertCategoryList(e.getCategories(), stringPool) : null, // post categories
+                    options.includes(PUBLISHED) ? e.getPublishedDate() : null, // publish timestamp
+                    null, // expiration timestamp (none)
+                    options.includes(ENCLOSURES) ? convertEnclosureList(e.getEnclosures(), stringPool) : null, // enclosures
+                    options.includes(UPDATED) ? e.getUpdatedDate() : null // updated timestamp
+            );
+        }
+    }
+
+    /**
+     * Converts a range of entries into the same range of an array of staging posts, splitting ranges larger than the
+     * leaf size in half.  Each leaf hashes with its own message digest, since digests are not thread-safe.
+     */
+    private static final class ConvertEntriesTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final EntryConversion conversion;
+
+        private final List<SyndEntry> entries;
+
+        private final StagingPost[] converted;
+
+        private final int from;
+
+        private final int to;
+
+        private final int leafSize;
+
+        private final LongAdder hashNanos;
+
+        ConvertEntriesTask(EntryConversion conversion, List<SyndEntry> entries, StagingPost[] converted, int from, int to, int leafSize, LongAdder hashNanos) {
+            this.conversion = conversion;
+            this.entries = entries;
+            this.converted = converted;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.hashNanos = hashNanos;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafSize) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ConvertEntriesTask(conversion, entries, converted, from, mid, leafSize, hashNanos),
+                        new ConvertEntriesTask(conversion, entries, converted, mid, to, leafSize, hashNanos));
+                return;
+            }
+            try {
+                MessageDigest md = MessageDigest.getInstance("MD5");
+                long leafHashNanos = 0L;
+                for (int i = from; i < to; i++) {
+                    SyndEntry e = entries.get(i);
+                    long hashStartNanos = nanoTime();
+                    String postHash = computeHash(md, conversion.queueId(), getObjectSource(e));
+                    leafHashNanos += nanoTime() - hashStartNanos;
+                    converted[i] = conversion.convert(e, postHash);
+                }
+                hashNanos.add(leafHashNanos);
+            } catch (NoSuchAlgorithmException ignored) {}
+        }
+    }
+
     static String getImporterDesc(String desc, String defaultDesc) {
         return trimToEmpty(defaultString(desc, defaultDesc));
     }
@@ -134,101 +309,19 @@ class RssImportUtils {
     }
 
     static PostMedia getPostMedia(SyndEntry e) {
-        PostMedia pm = null;
-        MediaEntryModule mm = (MediaEntryModule) e.getModule(MediaModule.URI);
-        if (mm != null) {
-            pm = PostMedia.from(mm);
-        }
-        return pm;
+        return EntryModules.of(e).getPostMedia();
     }
 
     static PostITunes getPostITunes(SyndEntry e) {
-        PostITunes pi = null;
-        ITunes im = (ITunes) e.getModule(ITunes.URI);
-        if (im != null) {
-            pi = PostITunes.from(im);
-        }
-        return pi;
+        return EntryModules.of(e).getPostITunes();
     }
 
     static String getThumbnailUrl(SyndEntry e) {
-        String thumbnailUrl;
-        // get the media module, if any
-        MediaEntryModule mm = (MediaEntryModule) e.getModule(MediaModule.URI);
-        if (mm != null) {
-            // check top-level metadata for thumbnail
-            Metadata topLevelMetadata = mm.getMetadata();
-            thumbnailUrl = getThumbnailFromMetadata(topLevelMetadata);
-            if (thumbnailUrl != null) {
-                return thumbnailUrl;
-            }
-            // check ea. top-level media content metadata for thumbnail
-            MediaContent[] topLevelMediaContents = mm.getMediaContents();
-            if (isNotEmpty(topLevelMediaContents)) {
-                for (MediaContent mediaContent : topLevelMediaContents) {
-                    Metadata mcMd = mediaContent.getMetadata();
-                    thumbnailUrl = getThumbnailFromMetadata(mcMd);
-                    if (thumbnailUrl != null) {
-                        return thumbnailUrl;
-                    }
-                }
-            }
-            // check ea. top-level media group metadata for thumbnail
-            MediaGroup[] topLevelMediaGroups = mm.getMediaGroups();
-            if (isNotEmpty(topLevelMediaGroups)) {
-                for (MediaGroup mg : topLevelMediaGroups) {
-                    Metadata mgMd = mg.getMetadata();
-                    thumbnailUrl = getThumbnailFromMetadata(mgMd);
-                    if (thumbnailUrl != null) {
-                        return thumbnailUrl;
-                    }
-                }
-            }
-            // check ea. top-level media contents for first non-null reference
-            if (isNotEmpty(topLevelMediaContents)) {
-                for (MediaContent mediaContent : topLevelMediaContents) {
-                    Reference reference = mediaContent.getReference();
-                    if (reference != null) {
-                        return reference.toString();
-                    }
-                }
-            }
-            // check ea. top-level media group for first meda content w/non-null reference
-            if (isNotEmpty(topLevelMediaGroups)) {
-                for (MediaGroup mediaGroup : topLevelMediaGroups) {
-                    for (MediaContent mediaContent : mediaGroup.getContents()) {
-                        Reference reference = mediaContent.getReference();
-                        if (reference != null) {
-                            return reference.toString();
-                        }
-                    }
-                }
-            }
-        }
-
-        return null;
+        return EntryModules.of(e).getThumbnailUrl();
     }
 
     static List<SyndPerson> getAuthors(SyndEntry e) {
-        List<SyndPerson> authors = e.getAuthors(); // marshall up the authors
-        String primaryAuthorName = e.getAuthor(); // grab the 'primary author' name
-        if (isNotBlank(primaryAuthorName)) {
-            boolean found = false;
-            for (SyndPerson a : authors) {
-                if (a.getName().equals(primaryAuthorName)) {
-                    found = true;
-                    break;
-                }
-            }
-            // ensure that the primary author is part of the set of authors
-            if (!found) {
-                SyndPerson primaryAuthor = new SyndPersonImpl();
-                primaryAuthor.setName(primaryAuthorName);
-                authors.add(primaryAuthor);
-            }
-        }
-
-        return authors;
+        return EntryModules.of(e).getAuthors();
     }
 
     static String getThumbnailFromMetadata(Metadata md) {
@@ -244,26 +337,39 @@ class RssImportUtils {
         return null;
     }
 
+    private static String pooled(StringPool stringPool, String s) {
+        return stringPool == null ? s : stringPool.canonicalize(s);
+    }
+
     static ContentObject convertContentObject(SyndContent content) {
+        return convertContentObject(content, null);
+    }
+
+    static ContentObject convertContentObject(SyndContent content, StringPool stringPool) {
         ContentObject contentObject = null;
         if (content != null) {
-            contentObject = ContentObject.from(randomAlphanumeric(8), content.getType(), content.getValue());
+            contentObject = ContentObjectIds.contentObject(0, pooled(stringPool, content.getType()), content.getValue());
         }
         return contentObject;
     }
 
     static List<ContentObject> convertContentList(Collection<? extends SyndContent> contents) {
+        return convertContentList(contents, null);
+    }
+
+    static List<ContentObject> convertContentList(Collection<? extends SyndContent> contents, StringPool stringPool) {
         List<ContentObject> list = null;
         if (CollectionUtils.isNotEmpty(contents)) {
             list = new ArrayList<>(size(contents));
+            int position = 0;
             for (SyndContent syndContent : contents) {
-                list.add(ContentObject.from(randomAlphanumeric(8), syndContent.getType(), syndContent.getValue()));
+                list.add(ContentObjectIds.contentObject(position++, pooled(stringPool, syndContent.getType()), syndContent.getValue()));
             }
         }
         return list;
     }
 
-    private static List<PostUrl> convertLinkList(Collection<? extends SyndLink> links) {
+    private static List<PostUrl> convertLinkList(Collection<? extends SyndLink> links, StringPool stringPool) {
         List<PostUrl> list = null;
         if (CollectionUtils.isNotEmpty(links)) {
             list = new ArrayList<>(size(links));
@@ -271,10 +377,10 @@ class RssImportUtils {
                 if (!"alternate".equals(syndLink.getRel())) {
                     PostUrl p = new PostUrl();
                     p.setTitle(syndLink.getTitle());
-                    p.setType(syndLink.getType());
+                    p.setType(pooled(stringPool, syndLink.getType()));
                     p.setHref(syndLink.getHref());
-                    p.setHreflang(syndLink.getHreflang());
-                    p.setRel(syndLink.getRel());
+                    p.setHreflang(pooled(stringPool, syndLink.getHreflang()));
+                    p.setRel(pooled(stringPool, syndLink.getRel()));
                     list.add(p);
                 }
             }
@@ -283,14 +389,18 @@ class RssImportUtils {
     }
 
     static List<PostPerson> convertPersonList(Collection<? extends SyndPerson> persons) {
+        return convertPersonList(persons, null);
+    }
+
+    static List<PostPerson> convertPersonList(Collection<? extends SyndPerson> persons, StringPool stringPool) {
         List<PostPerson> list = null;
         if (CollectionUtils.isNotEmpty(persons)) {
             list = new ArrayList<>(size(persons));
             for (SyndPerson p : persons) {
                 PostPerson pp = new PostPerson();
-                pp.setName(p.getName());
-                pp.setEmail(p.getEmail());
-                pp.setUri(p.getUri());
+                pp.setName(pooled(stringPool, p.getName()));
+                pp.setEmail(pooled(stringPool, p.getEmail()));
+                pp.setUri(pooled(stringPool, p.getUri()));
                 list.add(pp);
             }
         }
@@ -298,24 +408,32 @@ class RssImportUtils {
     }
 
     static List<String> convertCategoryList(Collection<? extends SyndCategory> categories) {
+        return convertCategoryList(categories, null);
+    }
+
+    static List<String> convertCategoryList(Collection<? extends SyndCategory> categories, StringPool stringPool) {
         List<String> list = null;
         if (CollectionUtils.isNotEmpty(categories)) {
             list = new ArrayList<>(size(categories));
             for (SyndCategory syndCategory : categories) {
-                list.add(syndCategory.getName());
+                list.add(pooled(stringPool, syndCategory.getName()));
             }
         }
         return list;
     }
 
     static List<PostEnclosure> convertEnclosureList(Collection<? extends SyndEnclosure> enclosures) {
+        return convertEnclosureList(enclosures, null);
+    }
+
+    static List<PostEnclosure> convertEnclosureList(Collection<? extends SyndEnclosure> enclosures, StringPool stringPool) {
         List<PostEnclosure> list = null;
         if (CollectionUtils.isNotEmpty(enclosures)) {
             list = new ArrayList<>(size(enclosures));
             for (SyndEnclosure e : enclosures) {
                 PostEnclosure p = new PostEnclosure();
                 p.setUrl(e.getUrl());
-                p.setType(e.getType());
+                p.setType(pooled(stringPool, e.getType()));
                 p.setLength(e.getLength());
                 list.add(p);
             }
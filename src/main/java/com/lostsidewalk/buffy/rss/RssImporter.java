@@ -1,41 +1,57 @@
 package com.lostsidewalk.buffy.rss;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.lostsidewalk.buffy.discovery.FeedDiscoveryInfo;
 import com.lostsidewalk.buffy.importer.Importer;
 import com.lostsidewalk.buffy.post.StagingPost;
+import com.lostsidewalk.buffy.rss.RssImportUtils.ConversionContext;
+import com.lostsidewalk.buffy.rss.RssImportUtils.ConversionStats;
+import com.lostsidewalk.buffy.rss.SeenEntryIndex.PendingMarks;
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedException;
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService;
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService.SyndFeedResponse;
+import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedTimings;
+import com.lostsidewalk.buffy.rss.websub.WebSubDelivery;
+import com.lostsidewalk.buffy.rss.websub.WebSubSubscriber;
 import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
 import com.lostsidewalk.buffy.subscription.SubscriptionMetrics;
+import com.rometools.rome.feed.synd.SyndEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static com.lostsidewalk.buffy.rss.RssImportUtils.*;
 import static java.util.Collections.*;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
-import static java.util.concurrent.Executors.newFixedThreadPool;
-import static java.util.stream.Collectors.toMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.apache.commons.collections4.MapUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 import static org.apache.commons.lang3.StringUtils.equalsAnyIgnoreCase;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.upperCase;
 
 /**
  * This class represents an RSS importer that is responsible for fetching and importing RSS feeds.
@@ -45,8 +61,6 @@ import static org.apache.commons.lang3.StringUtils.equalsAnyIgnoreCase;
 @Component
 public class RssImporter implements Importer {
 
-    private static final Gson GSON = new Gson();
-
     /**
      * Default constructor; initializes the object.
      */
@@ -62,17 +76,31 @@ public class RssImporter implements Importer {
 
         private final Serializable queryConfig;
 
-        private RssQuery(SubscriptionDefinition subscriptionDefinition) {
-            url = subscriptionDefinition.getUrl();
-            queryType = subscriptionDefinition.getQueryType();
-            queryConfig = subscriptionDefinition.getQueryConfig();
+        private final String username;
+
+        private final String password;
+
+        private RssQuery(FetchPlan fetchPlan, String url) {
+            this.url = url;
+            queryType = fetchPlan.getQueryType();
+            queryConfig = fetchPlan.getQueryConfig();
+            username = fetchPlan.getUsername();
+            password = fetchPlan.getPassword();
         }
 
-        static RssQuery from(SubscriptionDefinition subscriptionDefinition) {
-            return new RssQuery(subscriptionDefinition);
+        static RssQuery from(FetchPlan fetchPlan, String url) {
+            return new RssQuery(fetchPlan, url);
         }
     }
 
+    /**
+     * The identity of a fetch when feed URLs are canonicalized: subscriptions with the same URL identity (after
+     * resolving memoized permanent redirects) and the same credentials share a fetch; the query type is ignored,
+     * since RSS and ATOM feeds are fetched the same way.
+     */
+    private record FetchKey(String urlIdentity, String username, String password) {
+    }
+
     @Autowired
     RssImporterConfigProps configProps;
 
@@ -82,11 +110,62 @@ public class RssImporter implements Importer {
     @Autowired
     private SyndFeedService syndFeedService;
 
-    private ExecutorService rssThreadPool;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private RssImporterMetrics importerMetrics;
+
+    private ThreadPoolExecutor rssThreadPool;
+
+    private Semaphore fetchPermits;
+
+    private ExecutorService parseThreadPool;
+
+    private ExecutorService convertThreadPool;
+
+    private ForkJoinPool conversionForkJoinPool;
+
+    private int parallelConversionThreshold;
+
+    private volatile List<FetchTimingReport> slowestFetches = emptyList();
+
+    private SeenEntryIndex seenEntryIndex;
+
+    private FeedDigestCache feedDigestCache;
+
+    private ImportPartitioner importPartitioner;
+
+    private FetchPlanCache fetchPlanCache;
+
+    private WebSubSubscriber webSubSubscriber;
+
+    // (the subscriptions to which content pushed for a feed is imported, by canonical feed URL)
+    private final Map<String, Set<SubscriptionDefinition>> webSubSubscriptionDefinitions = new ConcurrentHashMap<>();
+
+    private RollingImportSchedule<RssQuery> rollingImportSchedule;
+
+    private long rollingImportIntervalMillis;
+
+    private volatile Map<RssQuery, Set<SubscriptionDefinition>> rollingQueryMap = emptyMap();
+
+    private volatile Consumer<? super ImportResult> rollingImportResultConsumer;
+
+    // (rolling import results not yet passed to a consumer, returned by the next scheduled import cycle)
+    private final Queue<PendingImportResult> rollingImportResults = new ConcurrentLinkedQueue<>();
+
+    // (the slowest fetches, and the string pool, of the current rolling import interval)
+    private volatile SlowFetchRanking rollingRanking;
+
+    private volatile StringPool rollingStringPool;
+
+    private long rollingIntervalStartMillis;
+
+    private ScheduledExecutorService rollingImportExecutor;
 
     /**
      * Initializes the RSS importer after construction.
-     * It sets up a thread pool for concurrent feed imports.
+     * It sets up the thread pools for each stage of the import pipeline: fetch (dispatch, with a bound on in-flight
+     * requests), parse, and convert.
      */
     @PostConstruct
     protected final void postConstruct() {
@@ -95,12 +174,233 @@ public class RssImporter implements Importer {
         //
         log.info("RSS importer constructed at {}", Instant.now());
         //
+        // metrics setup
+        //
+        importerMetrics = new RssImporterMetrics(ofNullable(meterRegistry).orElse(Metrics.globalRegistry));
+        //
         // thread pool setup
         //
         int processorCt = Runtime.getRuntime().availableProcessors() - 1;
         processorCt = processorCt > 0 ? processorCt : 1;
         log.info("Starting RSS importer thread pool: processCount={}", processorCt);
-        rssThreadPool = newFixedThreadPool(processorCt, new ThreadFactoryBuilder().setNameFormat("rss-importer-%d").build());
+        // (dispatch is ordered by priority, so tasks are queued directly rather than through a timing wrapper)
+        rssThreadPool = new ThreadPoolExecutor(processorCt, processorCt, 0L, MILLISECONDS, new PriorityBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("rss-importer-%d").build());
+        importerMetrics.monitorDispatchPool(rssThreadPool, "rss-importer");
+        int fetchConcurrency = positiveOrDefault(configProps.getFetchConcurrency(), DEFAULT_FETCH_CONCURRENCY);
+        fetchPermits = new Semaphore(fetchConcurrency);
+        importerMetrics.monitorInFlightFetches(fetchPermits, fetchConcurrency);
+        parseThreadPool = newStagePool("rss-parse", positiveOrDefault(configProps.getParseThreads(), processorCt),
+                positiveOrDefault(configProps.getParseQueueSize(), DEFAULT_PARSE_QUEUE_SIZE));
+        convertThreadPool = newStagePool("rss-convert", positiveOrDefault(configProps.getConvertThreads(), processorCt),
+                positiveOrDefault(configProps.getConvertQueueSize(), DEFAULT_CONVERT_QUEUE_SIZE));
+        log.info("RSS import pipeline configured: fetchConcurrency={}, parseThreadPool={}, convertThreadPool={}", fetchConcurrency, parseThreadPool, convertThreadPool);
+        //
+        // parallel conversion setup
+        //
+        if (configProps.getParallelConversionThreshold() > 0) {
+            parallelConversionThreshold = configProps.getParallelConversionThreshold();
+            conversionForkJoinPool = new ForkJoinPool(positiveOrDefault(configProps.getConversionParallelism(), processorCt), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("rss-convert-fj-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+            log.info("Parallel conversion configured: parallelConversionThreshold={}, conversionForkJoinPool={}", parallelConversionThreshold, conversionForkJoinPool);
+        }
+        //
+        // seen-entry index setup
+        //
+        if (configProps.getSeenEntryIndexEnabled()) {
+            int capacity = configProps.getSeenEntryIndexCapacity();
+            String indexPath = configProps.getSeenEntryIndexPath();
+            FingerprintStore fingerprintStore = null;
+            if (indexPath != null) {
+                try {
+                    fingerprintStore = FingerprintStore.mapped(Path.of(indexPath), capacity);
+                } catch (IOException e) {
+                    log.warn("Unable to map seen-entry index file, falling back to heap, path={}, due to: {}", indexPath, e.getMessage());
+                }
+            }
+            seenEntryIndex = new SeenEntryIndex(fingerprintStore == null ? FingerprintStore.onHeap(capacity) : fingerprintStore);
+            log.info("Seen-entry index initialized: {}", seenEntryIndex);
+        }
+        //
+        // content object id setup
+        //
+        ContentObjectIds.setRandomIds(configProps.getRandomContentObjectIds());
+        //
+        // fetch plan cache setup
+        //
+        fetchPlanCache = new FetchPlanCache(positiveOrDefault(configProps.getFetchPlanCacheSize(), DEFAULT_FETCH_PLAN_CACHE_SIZE));
+        //
+        // unchanged feed detection setup
+        //
+        if (configProps.getSkipUnchangedFeeds()) {
+            feedDigestCache = new FeedDigestCache(positiveOrDefault(configProps.getFeedDigestCacheSize(), DEFAULT_FEED_DIGEST_CACHE_SIZE));
+        }
+        //
+        // circuit breaker setup
+        //
+        if (configProps.getCircuitBreakerEnabled()) {
+            syndFeedService.configureCircuitBreaker(
+                    positiveOrDefault(configProps.getCircuitBreakerFailureThreshold(), DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD),
+                    positiveOrDefault(configProps.getCircuitBreakerBaseBackoffMinutes(), DEFAULT_CIRCUIT_BREAKER_BASE_BACKOFF_MINUTES) * 60_000L,
+                    positiveOrDefault(configProps.getCircuitBreakerMaxBackoffMinutes(), DEFAULT_CIRCUIT_BREAKER_MAX_BACKOFF_MINUTES) * 60_000L);
+        }
+        //
+        // redirect memo setup
+        //
+        if (configProps.getRedirectMemoEnabled()) {
+            syndFeedService.configureRedirectMemo(
+                    positiveOrDefault(configProps.getRedirectMemoPermanentTtlHours(), DEFAULT_REDIRECT_MEMO_PERMANENT_TTL_HOURS) * 3_600_000L,
+                    positiveOrDefault(configProps.getRedirectMemoTemporaryTtlMinutes(), DEFAULT_REDIRECT_MEMO_TEMPORARY_TTL_MINUTES) * 60_000L);
+        }
+        //
+        // preemptive auth setup
+        //
+        if (configProps.getPreemptiveAuthEnabled()) {
+            syndFeedService.configurePreemptiveAuth();
+        }
+        //
+        // shard setup
+        //
+        if (configProps.getShardNodeCount() > 1) {
+            importPartitioner = ImportPartitioner.from(configProps.getShardNodeId(), configProps.getShardNodeCount(),
+                    ImportPartitioner.ShardKey.valueOf(defaultIfBlank(configProps.getShardKey(), "url").trim().toUpperCase()),
+                    positiveOrDefault(configProps.getShardVirtualNodes(), DEFAULT_SHARD_VIRTUAL_NODES),
+                    configProps.getShardWeights());
+            log.info("RSS import sharding configured: {}", importPartitioner);
+        }
+        //
+        // response cache setup
+        //
+        String responseCachePath = configProps.getResponseCachePath();
+        if (isNotBlank(responseCachePath)) {
+            long maxBytes = positiveOrDefault(configProps.getResponseCacheMaxMb(), DEFAULT_RESPONSE_CACHE_MAX_MB) * (1L << 20);
+            try {
+                syndFeedService.openResponseCache(Path.of(responseCachePath), maxBytes);
+            } catch (IOException e) {
+                log.warn("Unable to open feed response cache, continuing without it, path={}, due to: {}", responseCachePath, e.getMessage());
+            }
+        }
+        //
+        // websub setup
+        //
+        if (configProps.getWebSubEnabled()) {
+            String callbackBaseUrl = configProps.getWebSubCallbackBaseUrl();
+            if (isNotBlank(callbackBaseUrl)) {
+                webSubSubscriber = new WebSubSubscriber(callbackBaseUrl,
+                        positiveOrDefault(configProps.getWebSubLeaseSeconds(), DEFAULT_WEB_SUB_LEASE_SECONDS),
+                        positiveOrDefault(configProps.getWebSubSafetyNetPollMinutes(), DEFAULT_WEB_SUB_SAFETY_NET_POLL_MINUTES) * 60_000L);
+                log.info("WebSub subscriber configured: {}", webSubSubscriber);
+            } else {
+                log.warn("WebSub is enabled, but no callback base URL is configured; continuing without it");
+            }
+        }
+        //
+        // rolling import setup
+        //
+        if (configProps.getRollingImportEnabled()) {
+            rollingImportIntervalMillis = positiveOrDefault(configProps.getRollingImportIntervalMinutes(), DEFAULT_ROLLING_IMPORT_INTERVAL_MINUTES) * 60_000L;
+            rollingImportSchedule = new RollingImportSchedule<>(rollingImportIntervalMillis,
+                    Math.max(configProps.getRollingImportJitterPercent(), 0) / 100.0, System::currentTimeMillis);
+            rollingRanking = new SlowFetchRanking(configProps.getSlowFetchRankingSize());
+            rollingStringPool = newStringPool();
+            rollingIntervalStartMillis = System.currentTimeMillis();
+            importerMetrics.monitorRollingImportSchedule(rollingImportSchedule);
+            rollingImportExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("rss-rolling-import-%d").setDaemon(true).build());
+            rollingImportExecutor.scheduleWithFixedDelay(this::dispatchDueImports, ROLLING_IMPORT_TICK_MILLIS, ROLLING_IMPORT_TICK_MILLIS, MILLISECONDS);
+            log.info("RSS rolling import configured: {}", rollingImportSchedule);
+        }
+    }
+
+    /**
+     * Stops the rolling import, the thread pools of the import pipeline, and the renewal of WebSub subscriptions (which
+     * then lapse), and flushes the seen-entry index, before destruction.
+     */
+    @PreDestroy
+    protected final void preDestroy() {
+        // (stop dispatching new work first, then the stages it is dispatched to)
+        shutdown(rollingImportExecutor);
+        shutdown(rssThreadPool);
+        shutdown(parseThreadPool);
+        shutdown(convertThreadPool);
+        shutdown(conversionForkJoinPool);
+        if (webSubSubscriber != null) {
+            webSubSubscriber.shutdown();
+        }
+        flushSeenEntryIndex();
+    }
+
+    private static void shutdown(ExecutorService executorService) {
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+
+    private static final int DEFAULT_FETCH_CONCURRENCY = 64;
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private static final int DEFAULT_PARSE_QUEUE_SIZE = 64;
+
+    private static final int DEFAULT_CONVERT_QUEUE_SIZE = 256;
+
+    private static final int DEFAULT_FEED_DIGEST_CACHE_SIZE = 100_000;
+
+    private static final int DEFAULT_FETCH_PLAN_CACHE_SIZE = 100_000;
+
+    private static final int DEFAULT_STRING_POOL_MAX_SIZE = 1_000_000;
+
+    private static final int DEFAULT_RESPONSE_CACHE_MAX_MB = 256;
+
+    private static final int DEFAULT_SHARD_VIRTUAL_NODES = 128;
+
+    private static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 3;
+
+    private static final int DEFAULT_CIRCUIT_BREAKER_BASE_BACKOFF_MINUTES = 15;
+
+    private static final int DEFAULT_CIRCUIT_BREAKER_MAX_BACKOFF_MINUTES = 1_440;
+
+    private static final int DEFAULT_REDIRECT_MEMO_PERMANENT_TTL_HOURS = 24;
+
+    private static final int DEFAULT_REDIRECT_MEMO_TEMPORARY_TTL_MINUTES = 5;
+
+    private static final int DEFAULT_WEB_SUB_LEASE_SECONDS = 864_000;
+
+    private static final int DEFAULT_WEB_SUB_SAFETY_NET_POLL_MINUTES = 360;
+
+    private static final int DEFAULT_ROLLING_IMPORT_INTERVAL_MINUTES = 60;
+
+    private static final long ROLLING_IMPORT_TICK_MILLIS = 1_000L;
+
+    private static int positiveOrDefault(int value, int defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * Creates a fixed-size pool for one pipeline stage, fed by a bounded queue; when the queue is full, the thread
+     * handing off the work (i.e., the previous stage) runs it itself, which throttles that stage.
+     */
+    private ExecutorService newStagePool(String name, int threadCt, int queueSize) {
+        return importerMetrics.monitor(new ThreadPoolExecutor(threadCt, threadCt, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy()), name);
+    }
+
+    /**
+     * Queues the given task for dispatch on the importer thread pool at the given priority; interactive tasks are not
+     * queued, but run immediately on the calling thread.
+     */
+    private void dispatch(ImportPriority priority, Runnable task) {
+        if (priority == ImportPriority.INTERACTIVE) {
+            importerMetrics.recordDispatchWait(priority, 0L);
+            task.run();
+        } else {
+            rssThreadPool.execute(new PrioritizedImportTask(priority, task, importerMetrics::recordDispatchWait));
+        }
     }
 
     /**
@@ -112,6 +412,23 @@ public class RssImporter implements Importer {
      */
     @Override
     public final ImportResult doImport(List<SubscriptionDefinition> subscriptionDefinitions, Map<String, FeedDiscoveryInfo> discoveryCache) {
+        return doImport(subscriptionDefinitions, discoveryCache, ImportPriority.SCHEDULED);
+    }
+
+    /**
+     * Imports RSS feeds based on the provided subscription definitions and feed discovery information, dispatching
+     * the fetches at the given priority (e.g., so that a background backfill yields to scheduled import cycles).
+     * <p>
+     * When rolling import is enabled, a scheduled import cycle (without discovery information) does not fetch the feeds
+     * itself: it updates the subscriptions of the rolling import (see {@link #updateRollingImport}), and returns without
+     * blocking the results that the rolling import has imported since the previous cycle.
+     *
+     * @param subscriptionDefinitions The list of subscription definitions to import.
+     * @param discoveryCache          A map containing feed discovery information.
+     * @param priority                The priority at which to dispatch the fetches.
+     * @return An ImportResult object containing imported staging posts and subscription metrics.
+     */
+    public final ImportResult doImport(List<SubscriptionDefinition> subscriptionDefinitions, Map<String, FeedDiscoveryInfo> discoveryCache, ImportPriority priority) {
         if (configProps.getDisabled()) {
             log.warn("RSS importer is administratively disabled");
             if (configProps.getImportMockData()) {
@@ -119,81 +436,389 @@ public class RssImporter implements Importer {
                 Set<StagingPost> allStagingPosts = new HashSet<>(size(subscriptionDefinitions));
                 List<SubscriptionMetrics> allSubscriptionMetrics = new ArrayList<>(size(subscriptionDefinitions));
                 CountDownLatch latch = new CountDownLatch(size(subscriptionDefinitions));
+                SlowFetchRanking ranking = new SlowFetchRanking(configProps.getSlowFetchRankingSize());
+                PendingMarks pendingMarks = newPendingMarks();
                 subscriptionDefinitions.forEach(q -> {
-                    ImportResult ir = getArticlesResponseHandler(new HashSet<>(subscriptionDefinitions), latch)
+                    ImportResult ir = getArticlesResponseHandler(q.getUrl(), new HashSet<>(subscriptionDefinitions), latch, ranking, null, false, pendingMarks)
                         .onSuccess(RssMockDataGenerator.buildMockResponse(q));
                     allStagingPosts.addAll(ir.getImportSet());
                     allSubscriptionMetrics.addAll(ir.getSubscriptionMetrics());
                 });
+                slowestFetches = ranking.slowestFirst();
+                commitSeenEntries(pendingMarks);
                 return ImportResult.from(allStagingPosts, allSubscriptionMetrics);
             }
 
             return ImportResult.from(emptySet(), emptyList());
         }
 
+        // (when rolling import is enabled, a scheduled import cycle only updates the subscriptions of the rolling import,
+        // and returns the results it imported since the previous cycle)
+        if (rollingImportSchedule != null && priority == ImportPriority.SCHEDULED && isEmpty(discoveryCache)) {
+            updateRollingImport(subscriptionDefinitions);
+            return drainRollingImportResults();
+        }
+
         log.info("RSS importer running at {}", Instant.now());
+        Timer.Sample cycleSample = importerMetrics.startCycle();
 
-        List<SubscriptionDefinition> supportedSubscriptionDefinitions = subscriptionDefinitions.parallelStream()
-                .filter(q -> supportsQueryType(q.getQueryType()))
-                .toList();
-        //
-        Map<SubscriptionDefinition, RssQuery> allQueryMap = supportedSubscriptionDefinitions.stream().collect(toMap(q -> q, RssQuery::from));
-        //
-        Map<RssQuery, Set<SubscriptionDefinition>> uniqueQueryMap = new HashMap<>(size(allQueryMap));
-        //
-        allQueryMap.forEach((key, value) -> uniqueQueryMap.computeIfAbsent(value, ignored -> new HashSet<>(16)).add(key));
+        Map<RssQuery, Set<SubscriptionDefinition>> uniqueQueryMap = getUniqueQueries(subscriptionDefinitions, true);
         //
         Set<StagingPost> allStagingPosts = synchronizedSet(new HashSet<>(size(uniqueQueryMap.keySet()) << 4));
-        List<SubscriptionMetrics> allSubscriptionMetrics = synchronizedList(new ArrayList<>(size(supportedSubscriptionDefinitions)));
+        List<SubscriptionMetrics> allSubscriptionMetrics = synchronizedList(new ArrayList<>(size(subscriptionDefinitions)));
         //
         CountDownLatch latch = new CountDownLatch(size(uniqueQueryMap.keySet()) << 1);
         log.info("RSS import latch initialized to: {}", latch.getCount());
-        uniqueQueryMap.forEach((r, q) -> rssThreadPool.submit(() -> {
-            if (containsKey(discoveryCache, r.getUrl())) {
-                log.info("Importing RSS/ATOM feed from cache, url={}", r.getUrl());
-                FeedDiscoveryInfo discoveryInfo = discoveryCache.get(r.getUrl());
-                List<StagingPost> sampleEntries = discoveryInfo.getSampleEntries();
-                q.forEach(subscriptionDefinition -> {
-                    Set<StagingPost> importCopy = copySampleEntries(subscriptionDefinition, sampleEntries);
-                    SubscriptionMetrics subscriptionMetrics = SubscriptionMetrics.from(
-                            subscriptionDefinition.getId(),
-                            discoveryInfo.getHttpStatusCode(),
-                            discoveryInfo.getHttpStatusMessage(),
-                            discoveryInfo.getRedirectFeedUrl(),
-                            discoveryInfo.getRedirectHttpStatusCode(),
-                            discoveryInfo.getRedirectHttpStatusMessage(),
-                            new Date(),
-                            null,
-                            size(importCopy)
-                    );
-                    ImportResult importResult = ImportResult.from(importCopy, singletonList(subscriptionMetrics));
-                    allStagingPosts.addAll(importResult.getImportSet());
-                    allSubscriptionMetrics.addAll(importResult.getSubscriptionMetrics());
-                });
-                latch.countDown();
-            } else if (isEmpty(discoveryCache)) {
-                ImportResult importResult = performImport(r, size(q), getArticlesResponseHandler(q, latch));
-                allStagingPosts.addAll(importResult.getImportSet());
-                allSubscriptionMetrics.addAll(importResult.getSubscriptionMetrics());
-            } else {
-                latch.countDown(); // result is not in cache, yet cache is present -> skip
+        SlowFetchRanking ranking = new SlowFetchRanking(configProps.getSlowFetchRankingSize());
+        // (repeated strings are deduplicated across the posts of this cycle only; the pool is discarded with the cycle)
+        StringPool stringPool = newStringPool();
+        // (the entries of each imported feed are recorded as seen once the cycle hands off its result)
+        Queue<PendingMarks> cyclePendingMarks = new ConcurrentLinkedQueue<>();
+        // (each query counts the latch down twice: once for its response (or in place of it), and once for the task)
+        uniqueQueryMap.forEach((r, q) -> dispatch(priority, () -> {
+            boolean handedOff = false;
+            try {
+                String discoveryUrl = getDiscoveryUrl(discoveryCache, r, q);
+                if (discoveryUrl != null) {
+                    log.info("Importing RSS/ATOM feed from cache, url={}", discoveryUrl);
+                    FeedDiscoveryInfo discoveryInfo = discoveryCache.get(discoveryUrl);
+                    List<StagingPost> sampleEntries = discoveryInfo.getSampleEntries();
+                    q.forEach(subscriptionDefinition -> {
+                        Set<StagingPost> importCopy = copySampleEntries(subscriptionDefinition, sampleEntries);
+                        SubscriptionMetrics subscriptionMetrics = SubscriptionMetrics.from(
+                                subscriptionDefinition.getId(),
+                                discoveryInfo.getHttpStatusCode(),
+                                discoveryInfo.getHttpStatusMessage(),
+                                discoveryInfo.getRedirectFeedUrl(),
+                                discoveryInfo.getRedirectHttpStatusCode(),
+                                discoveryInfo.getRedirectHttpStatusMessage(),
+                                new Date(),
+                                null,
+                                size(importCopy)
+                        );
+                        ImportResult importResult = ImportResult.from(importCopy, singletonList(subscriptionMetrics));
+                        allStagingPosts.addAll(importResult.getImportSet());
+                        allSubscriptionMetrics.addAll(importResult.getSubscriptionMetrics());
+                    });
+                    latch.countDown();
+                } else if (isEmpty(discoveryCache)) {
+                    // fetch (non-blocking) -> parse (parse pool) -> convert (convert pool); the latch is released on completion
+                    String previousBodyDigest = feedDigestCache == null ? null : feedDigestCache.getBodyDigest(r.getUrl(), q);
+                    PendingMarks pendingMarks = newPendingMarks();
+                    performImportAsync(r, size(q), previousBodyDigest, priority, getArticlesResponseHandler(r.getUrl(), q, latch, ranking, stringPool, true, pendingMarks)).whenComplete((importResult, throwable) -> {
+                        if (throwable == null) {
+                            allStagingPosts.addAll(importResult.getImportSet());
+                            allSubscriptionMetrics.addAll(importResult.getSubscriptionMetrics());
+                            if (pendingMarks != null) {
+                                cyclePendingMarks.add(pendingMarks);
+                            }
+                        } else {
+                            log.error("RSS import failed unexpectedly, url={}, due to: {}", r.getUrl(), throwable.getMessage());
+                            latch.countDown(); // (the response handler did not complete)
+                        }
+                        latch.countDown();
+                    });
+                    handedOff = true;
+                } else {
+                    latch.countDown(); // result is not in cache, yet cache is present -> skip
+                }
+            } catch (RuntimeException e) {
+                log.error("RSS import failed unexpectedly, url={}, due to: {}", r.getUrl(), e.getMessage());
+                latch.countDown(); // (the response handler did not complete)
+            } finally {
+                // (once handed off, the fetch completion counts the latch down for the task)
+                if (!handedOff) {
+                    latch.countDown();
+                }
             }
-            latch.countDown();
             if (latch.getCount() % 50 == 0) {
                 log.info("RSS import latch currently at {}: ", latch.getCount());
             }
         }));
+        String cycleOutcome = "completed";
         try {
             latch.await();
         } catch (InterruptedException e) {
             log.error("RSS import process interrupted due to: {}", e.getMessage());
+            cycleOutcome = "interrupted";
+        }
+        importerMetrics.stopCycle(cycleSample, cycleOutcome);
+        if (stringPool != null) {
+            importerMetrics.recordStringPool(stringPool);
+            log.info("RSS import string pool: {}", stringPool);
         }
+        slowestFetches = ranking.slowestFirst();
+        cyclePendingMarks.forEach(this::commitSeenEntries);
+        flushSeenEntryIndex();
 
         log.info("RSS importer finished at {}", Instant.now());
 
         return ImportResult.from(allStagingPosts, allSubscriptionMetrics);
     }
 
+    /**
+     * Makes the given subscriptions the subscriptions of the rolling import.  Feeds new to the rolling import are
+     * scheduled at their own offset into the polling interval; feeds that are no longer subscribed to are dropped, and
+     * the others keep their due times.  (A scheduled import cycle does this implicitly, see
+     * {@link #doImport(List, Map)}.)
+     *
+     * @param subscriptionDefinitions The list of subscription definitions to import.
+     */
+    public final void updateRollingImport(List<SubscriptionDefinition> subscriptionDefinitions) {
+        if (rollingImportSchedule == null) {
+            log.warn("RSS rolling import is not enabled, ignoring subscription update");
+            return;
+        }
+        Map<RssQuery, Set<SubscriptionDefinition>> uniqueQueryMap = getUniqueQueries(subscriptionDefinitions, false);
+        rollingQueryMap = uniqueQueryMap;
+        rollingImportSchedule.retain(uniqueQueryMap.keySet());
+        log.info("RSS rolling import updated: {}", rollingImportSchedule);
+    }
+
+    /**
+     * Sets the consumer to which the result of each feed imported by the rolling import is passed, as soon as it is
+     * imported (on an importer thread).  While no consumer is set, results are retained, and returned by the next
+     * scheduled import cycle.
+     *
+     * @param resultConsumer The consumer of rolling import results, or null.
+     */
+    public final void setRollingImportResultConsumer(Consumer<? super ImportResult> resultConsumer) {
+        rollingImportResultConsumer = resultConsumer;
+        if (resultConsumer != null) {
+            PendingImportResult pendingImportResult;
+            while ((pendingImportResult = rollingImportResults.poll()) != null) {
+                emitRollingImportResult(pendingImportResult);
+            }
+        }
+    }
+
+    /**
+     * A rolling import result that has not yet been handed off, along with the URL it was fetched from and the marks
+     * of the entries it imported.
+     */
+    record PendingImportResult(String url, ImportResult importResult, PendingMarks pendingMarks) {
+    }
+
+    /**
+     * Passes the given result to the rolling import result consumer, or retains it until there is one, recording its
+     * entries as seen once it has been handed off.  If the consumer fails, its entries (and feed body) are forgotten,
+     * so that they are imported again by the next fetch of the feed.
+     */
+    private void emitRollingImportResult(PendingImportResult pendingImportResult) {
+        Consumer<? super ImportResult> resultConsumer = rollingImportResultConsumer;
+        if (resultConsumer == null) {
+            rollingImportResults.add(pendingImportResult);
+            return;
+        }
+        try {
+            resultConsumer.accept(pendingImportResult.importResult());
+        } catch (RuntimeException e) {
+            log.error("RSS rolling import result consumer failed, url={}, due to: {}", pendingImportResult.url(), e.getMessage());
+            if (feedDigestCache != null) {
+                feedDigestCache.invalidate(pendingImportResult.url());
+            }
+            return;
+        }
+        commitSeenEntries(pendingImportResult.pendingMarks());
+    }
+
+    private ImportResult drainRollingImportResults() {
+        Set<StagingPost> allStagingPosts = new HashSet<>();
+        List<SubscriptionMetrics> allSubscriptionMetrics = new ArrayList<>();
+        PendingImportResult pendingImportResult;
+        while ((pendingImportResult = rollingImportResults.poll()) != null) {
+            allStagingPosts.addAll(pendingImportResult.importResult().getImportSet());
+            allSubscriptionMetrics.addAll(pendingImportResult.importResult().getSubscriptionMetrics());
+            commitSeenEntries(pendingImportResult.pendingMarks());
+        }
+        log.info("RSS rolling import results drained: {} posts, {} subscriptions", size(allStagingPosts), size(allSubscriptionMetrics));
+
+        return ImportResult.from(allStagingPosts, allSubscriptionMetrics);
+    }
+
+    /**
+     * Dispatches the fetches of the rolling import's feeds that are due (once per tick, on the rolling import thread);
+     * each feed is rescheduled when its import completes.
+     */
+    private void dispatchDueImports() {
+        try {
+            rollOverRollingInterval();
+            Map<RssQuery, Set<SubscriptionDefinition>> queryMap = rollingQueryMap;
+            for (RssQuery r : rollingImportSchedule.pollDue()) {
+                Set<SubscriptionDefinition> q = queryMap.get(r);
+                if (q == null) {
+                    rollingImportSchedule.reschedule(r);
+                    continue;
+                }
+                // (feeds whose content is pushed by a WebSub hub are only polled at the safety-net interval)
+                if (webSubSubscriber != null && !webSubSubscriber.shouldPoll(fetchPlanCache.planFor(q.iterator().next()).getCanonicalUrl())) {
+                    importerMetrics.recordWebSubPollsSkipped(size(q));
+                    rollingImportSchedule.reschedule(r);
+                    continue;
+                }
+                SlowFetchRanking ranking = rollingRanking;
+                StringPool stringPool = rollingStringPool;
+                dispatch(ImportPriority.SCHEDULED, () -> {
+                    String previousBodyDigest = feedDigestCache == null ? null : feedDigestCache.getBodyDigest(r.getUrl(), q);
+                    PendingMarks pendingMarks = newPendingMarks();
+                    performImportAsync(r, size(q), previousBodyDigest, ImportPriority.SCHEDULED, getArticlesResponseHandler(r.getUrl(), q, new CountDownLatch(1), ranking, stringPool, true, pendingMarks)).whenComplete((importResult, throwable) -> {
+                        rollingImportSchedule.reschedule(r);
+                        if (throwable == null) {
+                            emitRollingImportResult(new PendingImportResult(r.getUrl(), importResult, pendingMarks));
+                        } else {
+                            log.error("RSS rolling import failed unexpectedly, url={}, due to: {}", r.getUrl(), throwable.getMessage());
+                        }
+                    });
+                });
+            }
+        } catch (RuntimeException e) {
+            // (an exception would cancel further ticks)
+            log.error("RSS rolling import dispatch failed due to: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Completes the current rolling import interval once it has elapsed, as a scheduled import cycle would complete:
+     * the slowest fetches are published, the string pool is replaced, and the seen-entry index is flushed.
+     */
+    private void rollOverRollingInterval() {
+        long now = System.currentTimeMillis();
+        if (now - rollingIntervalStartMillis < rollingImportIntervalMillis) {
+            return;
+        }
+        rollingIntervalStartMillis = now;
+        slowestFetches = rollingRanking.slowestFirst();
+        rollingRanking = new SlowFetchRanking(configProps.getSlowFetchRankingSize());
+        StringPool stringPool = rollingStringPool;
+        rollingStringPool = newStringPool();
+        if (stringPool != null) {
+            importerMetrics.recordStringPool(stringPool);
+            log.info("RSS rolling import string pool: {}", stringPool);
+        }
+        flushSeenEntryIndex();
+        log.info("RSS rolling import interval completed at {}: {}", Instant.now(), rollingImportSchedule);
+    }
+
+    /**
+     * Groups the supported subscriptions among the given subscriptions by unique query (i.e., by fetch), omitting the
+     * queries that belong to other nodes when sharded, and, if requested, the subscriptions to feeds whose content is
+     * pushed by a WebSub hub, and that are not due for a safety-net poll.
+     */
+    private Map<RssQuery, Set<SubscriptionDefinition>> getUniqueQueries(List<SubscriptionDefinition> subscriptionDefinitions, boolean skipPushed) {
+        // (fetch plans are compiled once per subscription, and reused across cycles until the subscription changes)
+        Map<SubscriptionDefinition, FetchPlan> supportedFetchPlans = new LinkedHashMap<>(size(subscriptionDefinitions));
+        Map<String, Set<SubscriptionDefinition>> pushedSubscriptionDefinitions = new HashMap<>();
+        int pushSkippedCt = 0;
+        for (SubscriptionDefinition subscriptionDefinition : subscriptionDefinitions) {
+            FetchPlan fetchPlan = fetchPlanCache.planFor(subscriptionDefinition);
+            if (fetchPlan.isSupported()) {
+                String canonicalUrl = fetchPlan.getCanonicalUrl();
+                if (webSubSubscriber != null && webSubSubscriptionDefinitions.containsKey(canonicalUrl)) {
+                    pushedSubscriptionDefinitions.computeIfAbsent(canonicalUrl, ignored -> ConcurrentHashMap.newKeySet()).add(subscriptionDefinition);
+                }
+                // (feeds whose content is pushed by a WebSub hub are only polled at the safety-net interval)
+                if (skipPushed && webSubSubscriber != null && !webSubSubscriber.shouldPoll(canonicalUrl)) {
+                    pushSkippedCt++;
+                    continue;
+                }
+                supportedFetchPlans.put(subscriptionDefinition, fetchPlan);
+            }
+        }
+        // (pushed content is imported into the current subscriptions to each feed; feeds no longer subscribed to are dropped)
+        webSubSubscriptionDefinitions.keySet().retainAll(pushedSubscriptionDefinitions.keySet());
+        webSubSubscriptionDefinitions.putAll(pushedSubscriptionDefinitions);
+        if (pushSkippedCt > 0) {
+            importerMetrics.recordWebSubPollsSkipped(pushSkippedCt);
+            log.info("RSS import skipped {} subscriptions delivered by WebSub push", pushSkippedCt);
+        }
+        Map<RssQuery, Set<SubscriptionDefinition>> uniqueQueryMap;
+        if (configProps.getCanonicalizeFetchUrls()) {
+            uniqueQueryMap = groupByCanonicalFetch(supportedFetchPlans);
+        } else {
+            uniqueQueryMap = new HashMap<>(size(supportedFetchPlans));
+            //
+            supportedFetchPlans.forEach((key, value) -> uniqueQueryMap.computeIfAbsent(value.getQuery(), ignored -> new HashSet<>(16)).add(key));
+        }
+        // (when sharded, fetch only the queries that belong to this node; the other nodes import the rest)
+        if (importPartitioner != null) {
+            int uniqueQueryCt = size(uniqueQueryMap);
+            uniqueQueryMap.keySet().removeIf(r -> !importPartitioner.isLocal(r.getUrl()));
+            log.info("RSS import shard selected: {} of {} unique queries, partitioner={}", size(uniqueQueryMap), uniqueQueryCt, importPartitioner);
+        }
+
+        return uniqueQueryMap;
+    }
+
+    private StringPool newStringPool() {
+        return configProps.getStringPoolEnabled() ? new StringPool(positiveOrDefault(configProps.getStringPoolMaxSize(), DEFAULT_STRING_POOL_MAX_SIZE)) : null;
+    }
+
+    private PendingMarks newPendingMarks() {
+        return seenEntryIndex == null ? null : new PendingMarks();
+    }
+
+    private void commitSeenEntries(PendingMarks pendingMarks) {
+        if (seenEntryIndex != null && pendingMarks != null) {
+            seenEntryIndex.commit(pendingMarks);
+        }
+    }
+
+    private void flushSeenEntryIndex() {
+        if (seenEntryIndex != null) {
+            try {
+                seenEntryIndex.flush();
+            } catch (IOException e) {
+                log.warn("Unable to flush seen-entry index due to: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Groups the given subscriptions by canonical fetch (see {@link FeedUrlCanonicalizer}), so that subscriptions to
+     * the same feed under equivalent URLs, or under a URL and its memoized permanent redirect target, share a single
+     * fetch.  Subscriptions with credentials only share fetches with subscriptions having the same credentials.  Each
+     * group is fetched from the canonical URL of one of its subscriptions, preferring a secure URL.
+     */
+    private Map<RssQuery, Set<SubscriptionDefinition>> groupByCanonicalFetch(Map<SubscriptionDefinition, FetchPlan> fetchPlans) {
+        Map<FetchKey, List<SubscriptionDefinition>> fetchGroups = new HashMap<>(size(fetchPlans));
+        fetchPlans.forEach((subscriptionDefinition, fetchPlan) -> {
+            String canonicalUrl = fetchPlan.getCanonicalUrl();
+            String resolvedUrl = syndFeedService.resolvePermanentRedirect(canonicalUrl);
+            String urlIdentity = resolvedUrl == null || resolvedUrl.equals(canonicalUrl) ?
+                    fetchPlan.getUrlIdentity() : FeedUrlCanonicalizer.identityOf(FeedUrlCanonicalizer.canonicalize(resolvedUrl));
+            FetchKey fetchKey = new FetchKey(urlIdentity, fetchPlan.getUsername(), fetchPlan.getPassword());
+            fetchGroups.computeIfAbsent(fetchKey, ignored -> new ArrayList<>(4)).add(subscriptionDefinition);
+        });
+        Map<RssQuery, Set<SubscriptionDefinition>> uniqueQueryMap = new HashMap<>(size(fetchGroups));
+        fetchGroups.values().forEach(group -> {
+            FetchPlan representative = group.stream()
+                    .map(fetchPlans::get)
+                    .min(Comparator.<FetchPlan, Boolean>comparing(p -> !FeedUrlCanonicalizer.isSecure(p.getCanonicalUrl()))
+                            .thenComparing(FetchPlan::getCanonicalUrl, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .orElseThrow();
+            uniqueQueryMap.computeIfAbsent(RssQuery.from(representative, representative.getCanonicalUrl()), ignored -> new HashSet<>(16)).addAll(group);
+        });
+        int sharedCt = size(fetchPlans) - size(uniqueQueryMap);
+        importerMetrics.recordSharedFetches(sharedCt);
+        log.info("RSS import fetches canonicalized: {} subscriptions share {} fetches", size(fetchPlans), size(uniqueQueryMap));
+        return uniqueQueryMap;
+    }
+
+    /**
+     * Gets the URL under which the given query's feed is present in the discovery cache (its own URL, or that of one
+     * of its subscriptions), or null if it is not present.
+     */
+    private static String getDiscoveryUrl(Map<String, FeedDiscoveryInfo> discoveryCache, RssQuery rssQuery, Collection<SubscriptionDefinition> subscriptionDefinitions) {
+        if (containsKey(discoveryCache, rssQuery.getUrl())) {
+            return rssQuery.getUrl();
+        }
+        return isEmpty(discoveryCache) ? null : subscriptionDefinitions.stream()
+                .map(SubscriptionDefinition::getUrl)
+                .filter(discoveryCache::containsKey)
+                .findFirst()
+                .orElse(null);
+    }
+
     private static <K> boolean containsKey(Map<K, ?> map, K key) {
         return map != null && map.containsKey(key);
     }
@@ -215,7 +840,7 @@ public class RssImporter implements Importer {
         return copySet;
     }
 
-    private static boolean supportsQueryType(String queryType) {
+    static boolean supportsQueryType(String queryType) {
         return equalsAnyIgnoreCase(queryType, SUPPORTED_QUERY_TYPES);
     }
 
@@ -226,17 +851,89 @@ public class RssImporter implements Importer {
         ImportResult onFailure(SyndFeedException error);
     }
 
-    private SyndFeedResponseCallback getArticlesResponseHandler(Collection<? extends SubscriptionDefinition> subscriptionDefinitions, CountDownLatch latch) {
+    /**
+     * Gets the slowest feed fetches (by fetch plus conversion time) of the most recently completed import cycle,
+     * slowest first, along with their timing breakdowns.
+     *
+     * @return A list of fetch timing reports.
+     */
+    public final List<FetchTimingReport> getSlowestFetches() {
+        return slowestFetches;
+    }
+
+    private void reportFetchTiming(String url, Collection<? extends SubscriptionDefinition> subscriptionDefinitions, SlowFetchRanking ranking,
+                                   Integer httpStatusCode, SubscriptionMetrics.QueryExceptionType errorType, SyndFeedTimings timings) {
+        if (timings == null) {
+            return;
+        }
+        List<Long> subscriptionIds = subscriptionDefinitions.stream().map(SubscriptionDefinition::getId).toList();
+        FetchTimingReport report = FetchTimingReport.from(url, subscriptionIds, httpStatusCode, errorType, timings);
+        ranking.offer(report);
+        if (NANOSECONDS.toMillis(report.getTotalNanos()) > configProps.getSlowFetchThresholdMs()) {
+            log.warn("Slow feed fetch, url={}, subscriptionIds={}, httpStatusCode={}, errorType={}, timings={}",
+                    url, subscriptionIds, httpStatusCode, errorType, timings);
+        } else {
+            log.debug("Feed fetch timings, url={}, timings={}", url, timings);
+        }
+    }
+
+    /**
+     * Creates the handler of the response fetched from (or pushed for) the given URL, which converts it into the
+     * import result of the given subscriptions.  Entries are selected against the seen-entry index into the given
+     * pending marks, which the caller commits once it has handed off the result (see {@link #commitSeenEntries}).
+     */
+    private SyndFeedResponseCallback getArticlesResponseHandler(String url, Collection<? extends SubscriptionDefinition> subscriptionDefinitions, CountDownLatch latch, SlowFetchRanking ranking, StringPool stringPool, boolean fetched, PendingMarks pendingMarks) {
         return new SyndFeedResponseCallback() {
             @Override
             public ImportResult onSuccess(SyndFeedResponse response) {
                 Set<StagingPost> importSet = new HashSet<>(size(subscriptionDefinitions) << 4);
                 List<SubscriptionMetrics> subscriptionMetrics = new ArrayList<>(size(subscriptionDefinitions));
                 Date importTimestamp = new Date();
+                // if the body is unchanged since it was last imported for all of these subscribers, there is nothing to convert
+                if (response.isUnchanged()) {
+                    importerMetrics.recordFetchUnchanged();
+                    for (SubscriptionDefinition q : subscriptionDefinitions) {
+                        subscriptionMetrics.add(SubscriptionMetrics.from(
+                                q.getId(),
+                                response.getHttpStatusCode(),
+                                response.getHttpStatusMessage(),
+                                response.getRedirectUrl(),
+                                response.getRedirectHttpStatusCode(),
+                                response.getRedirectHttpStatusMessage(),
+                                importTimestamp,
+                                q.getImportSchedule(),
+                                0
+                        ));
+                    }
+                    log.debug("Import skipped, feed body is unchanged, url={}", url);
+                    if (fetched) {
+                        observeWebSubHub(subscriptionDefinitions, response);
+                    }
+                    reportFetchTiming(url, subscriptionDefinitions, ranking, response.getHttpStatusCode(), null, response.getTimings());
+                    latch.countDown();
+
+                    return ImportResult.from(emptySet(), subscriptionMetrics);
+                }
+                List<SyndEntry> allEntries = response.getSyndFeed().getEntries();
+                importerMetrics.recordFetchSuccess(size(allEntries));
+                // fingerprint the entries once, if the seen-entry index is enabled
+                long[] fingerprints = seenEntryIndex == null || pendingMarks == null ? null : SeenEntryIndex.fingerprint(allEntries);
                 // for ea. query,
                 for (SubscriptionDefinition q : subscriptionDefinitions) {
+                    // apply this subscriber's entry filters before anything else (so that filtered entries are not marked seen)
+                    ImportOptions importOptions = fetchPlanCache.planFor(q).getImportOptions();
+                    List<SyndEntry> candidateEntries = importOptions.filter(allEntries, importTimestamp);
+                    importerMetrics.recordFilteredEntries(size(allEntries) - size(candidateEntries));
+                    long[] candidateFingerprints = (fingerprints == null || candidateEntries == allEntries) ? fingerprints : SeenEntryIndex.fingerprint(candidateEntries);
+                    // only convert the entries not yet imported into this subscriber's queue (they are recorded as imported once handed off)
+                    List<SyndEntry> entries = candidateFingerprints == null ? candidateEntries : seenEntryIndex.selectUnseen(q.getQueueId(), candidateEntries, candidateFingerprints, pendingMarks);
+                    importerMetrics.recordSkippedEntries(size(candidateEntries) - size(entries));
                     // convert the syndfeed response into a stream of staging posts for that query, and send them to the success agg. queue
-                    Set<StagingPost> importedArticles = importArticleResponse(q.getQueueId(), q.getId(), q.getUrl(), q.getTitle(), response.getSyndFeed(), q.getUsername(), importTimestamp);
+                    ConversionStats conversionStats = new ConversionStats();
+                    Set<StagingPost> importedArticles = importArticleResponse(q.getQueueId(), q.getId(), q.getUrl(), q.getTitle(), response.getSyndFeed(), entries, q.getUsername(), importTimestamp,
+                            ConversionContext.from(importOptions, conversionStats, conversionForkJoinPool, parallelConversionThreshold, stringPool));
+                    importerMetrics.recordConversion(conversionStats);
+                    ofNullable(response.getTimings()).ifPresent(t -> t.addConvertNanos(conversionStats.convertNanos));
                     importSet.addAll(importedArticles);
                     // update query metrics
                     subscriptionMetrics.add(SubscriptionMetrics.from(
@@ -250,9 +947,17 @@ public class RssImporter implements Importer {
                             q.getImportSchedule(),
                             size(importedArticles)
                         ));
-                    log.info("Import success, username={}, queueId={}, subscriptionId={}, queryType={}, url={}, importCt={}",
+                    log.debug("Import success, username={}, queueId={}, subscriptionId={}, queryType={}, url={}, importCt={}",
                             q.getUsername(), q.getQueueId(), q.getId(), q.getQueryType(), q.getUrl(), size(importedArticles));
                 }
+                if (feedDigestCache != null) {
+                    feedDigestCache.update(url, response.getBodyDigest(), subscriptionDefinitions);
+                }
+                // (only fetched content counts as a poll of the feed; pushed content does not)
+                if (fetched) {
+                    observeWebSubHub(subscriptionDefinitions, response);
+                }
+                reportFetchTiming(url, subscriptionDefinitions, ranking, response.getHttpStatusCode(), null, response.getTimings());
                 latch.countDown();
 
                 return ImportResult.from(importSet, subscriptionMetrics);
@@ -260,7 +965,13 @@ public class RssImporter implements Importer {
 
             @Override
             public ImportResult onFailure(SyndFeedException exception) {
-                log.error("Import failure due to: {}", exception.getMessage());
+                if (exception.shortCircuited) {
+                    log.debug("Import short-circuited, url={}, due to: {}", exception.feedUrl, exception.getMessage());
+                    importerMetrics.recordFetchShortCircuited(exception.exceptionType);
+                } else {
+                    log.error("Import failure due to: {}", exception.getMessage());
+                    importerMetrics.recordFetchFailure(exception.exceptionType);
+                }
                 List<SubscriptionMetrics> subscriptionMetrics = new ArrayList<>(size(subscriptionDefinitions));
                 subscriptionDefinitions.stream()
                     .map(q -> SubscriptionMetrics.from(
@@ -278,6 +989,7 @@ public class RssImporter implements Importer {
                         metric.setErrorDetail(exception.getMessage());
                         subscriptionMetrics.add(metric);
                     });
+                reportFetchTiming(url, subscriptionDefinitions, ranking, exception.httpStatusCode, exception.exceptionType, exception.timings);
                 latch.countDown();
 
                 return ImportResult.from(emptySet(), subscriptionMetrics);
@@ -302,17 +1014,114 @@ public class RssImporter implements Importer {
     final ImportResult performImport(SubscriptionDefinition subscriptionDefinition, ImportResponseCallback importResponseCallback) {
         requireNonNull(subscriptionDefinition, "Subscription definition must not be null");
         requireNonNull(importResponseCallback, "Import response callback must not be null");
-        return performImport(RssQuery.from(subscriptionDefinition), 1, new SyndFeedResponseCallback() {
+        FetchPlan fetchPlan = fetchPlanCache.planFor(subscriptionDefinition);
+        return performImport(fetchPlan.getQuery(), 1, getSingleImportResponseHandler(subscriptionDefinition, fetchPlan.getImportOptions(), importResponseCallback));
+    }
+
+    /**
+     * Imports a single subscription without blocking the calling thread, dispatching the fetch at the given priority;
+     * an interactive import (e.g., a user-triggered refresh) is dispatched immediately, even during a full import cycle.
+     *
+     * @param subscriptionDefinition The subscription to import.
+     * @param priority               The priority at which to dispatch the fetch.
+     * @param importResponseCallback The callback that receives the imported staging posts, or the failure.
+     * @return A future that completes with the result of the callback.
+     */
+    final CompletableFuture<ImportResult> performImportAsync(SubscriptionDefinition subscriptionDefinition, ImportPriority priority, ImportResponseCallback importResponseCallback) {
+        requireNonNull(subscriptionDefinition, "Subscription definition must not be null");
+        requireNonNull(priority, "Import priority must not be null");
+        requireNonNull(importResponseCallback, "Import response callback must not be null");
+        CompletableFuture<ImportResult> result = new CompletableFuture<>();
+        FetchPlan fetchPlan = fetchPlanCache.planFor(subscriptionDefinition);
+        dispatch(priority, () -> performImportAsync(fetchPlan.getQuery(), 1, null, priority,
+                getSingleImportResponseHandler(subscriptionDefinition, fetchPlan.getImportOptions(), importResponseCallback)).whenComplete((importResult, throwable) -> {
+            if (throwable == null) {
+                result.complete(importResult);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Subscribes to the WebSub hub advertised by the given (fetched) feed, if any, so that its content is pushed to the
+     * given subscriptions from now on; or, if the feed is already subscribed to, records that it was polled.  Feeds
+     * fetched with credentials are not subscribed to.
+     */
+    private void observeWebSubHub(Collection<? extends SubscriptionDefinition> subscriptionDefinitions, SyndFeedResponse response) {
+        if (webSubSubscriber == null) {
+            return;
+        }
+        FetchPlan fetchPlan = subscriptionDefinitions.stream().findFirst().map(fetchPlanCache::planFor).orElse(null);
+        if (fetchPlan == null || isNotBlank(fetchPlan.getUsername())) {
+            return;
+        }
+        String feedUrl = fetchPlan.getCanonicalUrl();
+        if (webSubSubscriber.observe(feedUrl, response.getSyndFeed())) {
+            webSubSubscriptionDefinitions.computeIfAbsent(feedUrl, ignored -> ConcurrentHashMap.newKeySet()).addAll(subscriptionDefinitions);
+        } else {
+            webSubSubscriptionDefinitions.remove(feedUrl);
+        }
+    }
+
+    /**
+     * Handles a WebSub hub's intent verification request, relayed by the host application from its callback endpoint
+     * (i.e., a GET request to the callback URL).
+     *
+     * @param callbackId   The callback id (the final path segment of the callback URL).
+     * @param mode         The 'hub.mode' parameter.
+     * @param topic        The 'hub.topic' parameter.
+     * @param challenge    The 'hub.challenge' parameter.
+     * @param leaseSeconds The 'hub.lease_seconds' parameter, if any.
+     * @return The body of the (200) response to the hub, or null if the hub is to be refused (404).
+     */
+    public final String verifyWebSubCallback(String callbackId, String mode, String topic, String challenge, Long leaseSeconds) {
+        return webSubSubscriber == null ? null : webSubSubscriber.verify(callbackId, mode, topic, challenge, leaseSeconds);
+    }
+
+    /**
+     * Imports feed content pushed by a WebSub hub, relayed by the host application from its callback endpoint (i.e., a
+     * POST request to the callback URL), into the subscriptions to that feed.  The hub is to be acknowledged (2xx)
+     * regardless of the result.
+     *
+     * @param callbackId The callback id (the final path segment of the callback URL).
+     * @param signature  The 'X-Hub-Signature' request header.
+     * @param body       The request body.
+     * @return The imported staging posts and subscription metrics; empty if the content was rejected.
+     */
+    public final ImportResult importWebSubContent(String callbackId, String signature, byte[] body) {
+        WebSubDelivery delivery = webSubSubscriber == null ? null : webSubSubscriber.accept(callbackId, signature, body);
+        Set<SubscriptionDefinition> subscriptionDefinitions = delivery == null ? null : webSubSubscriptionDefinitions.get(delivery.getFeedUrl());
+        if (subscriptionDefinitions == null || subscriptionDefinitions.isEmpty()) {
+            importerMetrics.recordWebSubDelivery(false);
+            return ImportResult.from(emptySet(), emptyList());
+        }
+        importerMetrics.recordWebSubDelivery(true);
+        Set<SubscriptionDefinition> deliverTo = new HashSet<>(subscriptionDefinitions);
+        PendingMarks pendingMarks = newPendingMarks();
+        ImportResult importResult = getArticlesResponseHandler(delivery.getFeedUrl(), deliverTo, new CountDownLatch(1), new SlowFetchRanking(1), null, false, pendingMarks)
+                .onSuccess(SyndFeedResponse.from(delivery.getSyndFeed(), 200, "OK"));
+        commitSeenEntries(pendingMarks);
+
+        return importResult;
+    }
+
+    private static SyndFeedResponseCallback getSingleImportResponseHandler(SubscriptionDefinition subscriptionDefinition, ImportOptions importOptions, ImportResponseCallback importResponseCallback) {
+        return new SyndFeedResponseCallback() {
             @Override
             public ImportResult onSuccess(SyndFeedResponse fullResponse) {
+                Date importTimestamp = new Date();
                 Set<StagingPost> stagingPosts = importArticleResponse(
                         subscriptionDefinition.getQueueId(),
                         subscriptionDefinition.getId(),
                         subscriptionDefinition.getTitle(),
                         subscriptionDefinition.getUrl(),
                         fullResponse.getSyndFeed(),
+                        importOptions.filter(fullResponse.getSyndFeed().getEntries(), importTimestamp),
                         subscriptionDefinition.getUsername(),
-                        new Date() // import timestamp
+                        importTimestamp,
+                        ConversionContext.from(importOptions) // (stats not collected)
                 );
                 return importResponseCallback.onSuccess(stagingPosts);
             }
@@ -321,43 +1130,115 @@ public class RssImporter implements Importer {
             public ImportResult onFailure(SyndFeedException exception) {
                 return importResponseCallback.onFailure(exception);
             }
-        });
+        };
     }
 
     private static final String RSS_ATOM_IMPORTER_USER_AGENT = "Lost Sidewalk FeedGears RSS Aggregator v.0.4 feed import process, on behalf of %d users";
 
+    private static final String[] RSS_ATOM_IMPORTER_USER_AGENTS = IntStream.range(0, 64)
+            .mapToObj(i -> String.format(RSS_ATOM_IMPORTER_USER_AGENT, i))
+            .toArray(String[]::new);
+
+    /**
+     * Gets the user agent for a fetch on behalf of the given number of subscribers (preformatted for most fetches).
+     */
+    private static String getUserAgent(int subscriberCt) {
+        return subscriberCt >= 0 && subscriberCt < RSS_ATOM_IMPORTER_USER_AGENTS.length ?
+                RSS_ATOM_IMPORTER_USER_AGENTS[subscriberCt] : String.format(RSS_ATOM_IMPORTER_USER_AGENT, subscriberCt);
+    }
+
     private ImportResult performImport(RssQuery rssQuery, int subscriberCt, SyndFeedResponseCallback syndFeedResponseCallback) {
         log.info("Importing rssQuery={}", rssQuery);
 
         String queryType = rssQuery.getQueryType();
         String queryText = rssQuery.getUrl();
-        JsonObject queryConfigObj = ofNullable(rssQuery.getQueryConfig())
-                .map(Object::toString)
-                .map(s -> GSON.fromJson(s, JsonObject.class))
-                .orElse(null);
-        String feedUsername = getStringProperty(queryConfigObj, "username");
-        String feedPassword = getStringProperty(queryConfigObj, "password");
+        String feedUsername = rssQuery.getUsername();
+        String feedPassword = rssQuery.getPassword();
 
         ImportResult importResult = null;
         //noinspection SwitchStatement
-        switch (queryType) {
+        switch (upperCase(queryType)) {
             case ATOM, RSS -> {
                 try {
                     log.info("Fetching RSS feed from url={}", queryText);
-                    String userAgent = String.format(RSS_ATOM_IMPORTER_USER_AGENT, subscriberCt);
+                    String userAgent = getUserAgent(subscriberCt);
                     importResult = syndFeedResponseCallback.onSuccess(syndFeedService.fetch(queryText, feedUsername, feedPassword, userAgent, true));
                 } catch (SyndFeedException e) {
                     importResult = syndFeedResponseCallback.onFailure(e);
                 }
             }
-            default -> log.error("Query type not supported by this importer: queryType={}, importerId={}", queryType, RSS_ATOM_IMPORTER_ID);
+            default -> {
+                log.error("Query type not supported by this importer: queryType={}, importerId={}", queryType, RSS_ATOM_IMPORTER_ID);
+                importResult = syndFeedResponseCallback.onFailure(SyndFeedException.unsupportedQueryType(queryText, queryType));
+            }
         }
         return importResult;
     }
 
-    private static String getStringProperty(JsonObject obj, String propName) {
-        JsonElement elem = obj != null && obj.has(propName) ? obj.get(propName) : null;
-        return (elem != null && !elem.isJsonNull()) ? elem.getAsString() : null;
+    /**
+     * Fetches the given query without blocking the calling thread (beyond waiting for an in-flight fetch permit),
+     * parsing the response on the parse stage pool and invoking the callback on the convert stage pool.  If a previous
+     * body digest is given and the response body matches it, parsing is skipped and the callback receives an
+     * 'unchanged' response.  Interactive fetches do not take a fetch permit, and are parsed and converted as soon as
+     * the response arrives, rather than queueing behind scheduled work in the stage pools.
+     */
+    private CompletableFuture<ImportResult> performImportAsync(RssQuery rssQuery, int subscriberCt, String previousBodyDigest, ImportPriority priority, SyndFeedResponseCallback syndFeedResponseCallback) {
+        log.info("Importing rssQuery={}", rssQuery);
+
+        String queryType = rssQuery.getQueryType();
+        String queryText = rssQuery.getUrl();
+        String feedUsername = rssQuery.getUsername();
+        String feedPassword = rssQuery.getPassword();
+
+        CompletableFuture<ImportResult> importResult;
+        //noinspection SwitchStatement
+        switch (upperCase(queryType)) {
+            case ATOM, RSS -> {
+                boolean isInteractive = priority == ImportPriority.INTERACTIVE;
+                Semaphore permits = isInteractive ? null : fetchPermits;
+                try {
+                    if (permits != null) {
+                        permits.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return failedFuture(e);
+                }
+                try {
+                    log.info("Fetching RSS feed from url={}, priority={}", queryText, priority);
+                    String userAgent = getUserAgent(subscriberCt);
+                    Executor parseExecutor = isInteractive ? DIRECT_EXECUTOR : parseThreadPool;
+                    Executor convertExecutor = isInteractive ? DIRECT_EXECUTOR : convertThreadPool;
+                    importResult = syndFeedService.fetchAsync(queryText, feedUsername, feedPassword, userAgent, true, parseExecutor, previousBodyDigest)
+                            .whenComplete((response, throwable) -> {
+                                if (permits != null) {
+                                    permits.release();
+                                }
+                            })
+                            .handleAsync((response, throwable) -> {
+                                if (throwable == null) {
+                                    return syndFeedResponseCallback.onSuccess(response);
+                                }
+                                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                                if (cause instanceof SyndFeedException e) {
+                                    return syndFeedResponseCallback.onFailure(e);
+                                }
+                                throw new CompletionException(cause);
+                            }, convertExecutor);
+                } catch (RuntimeException e) {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                    importResult = failedFuture(e);
+                }
+            }
+            default -> {
+                log.error("Query type not supported by this importer: queryType={}, importerId={}", queryType, RSS_ATOM_IMPORTER_ID);
+                // (the callback is still invoked, so that the subscribers get failure metrics, and latches are released)
+                importResult = completedFuture(syndFeedResponseCallback.onFailure(SyndFeedException.unsupportedQueryType(queryText, queryType)));
+            }
+        }
+        return importResult;
     }
 
     /**
@@ -377,6 +1258,18 @@ public class RssImporter implements Importer {
                 ", rssMockDataGenerator=" + rssMockDataGenerator +
                 ", syndFeedService=" + syndFeedService +
                 ", rssThreadPool=" + rssThreadPool +
+                ", fetchPermits=" + fetchPermits +
+                ", parseThreadPool=" + parseThreadPool +
+                ", convertThreadPool=" + convertThreadPool +
+                ", conversionForkJoinPool=" + conversionForkJoinPool +
+                ", parallelConversionThreshold=" + parallelConversionThreshold +
+                ", seenEntryIndex=" + seenEntryIndex +
+                ", feedDigestCache=" + feedDigestCache +
+                ", fetchPlanCache=" + fetchPlanCache +
+                ", importPartitioner=" + importPartitioner +
+                ", webSubSubscriber=" + webSubSubscriber +
+                ", rollingImportSchedule=" + rollingImportSchedule +
+                ", rollingImportExecutor=" + rollingImportExecutor +
                 '}';
     }
 }
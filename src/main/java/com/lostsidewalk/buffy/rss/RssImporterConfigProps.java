@@ -17,6 +17,88 @@ public class RssImporterConfigProps {
 
     private boolean importMockData;
 
+    private long slowFetchThresholdMs = 5_000L;
+
+    private int slowFetchRankingSize = 100;
+
+    private int fetchConcurrency = 64;
+
+    private int parseThreads; // 0 = size by available processors
+
+    private int parseQueueSize = 64;
+
+    private int convertThreads; // 0 = size by available processors
+
+    private int convertQueueSize = 256;
+
+    private boolean seenEntryIndexEnabled; // false
+
+    private int seenEntryIndexCapacity = 1_000_000;
+
+    private String seenEntryIndexPath;
+
+    private boolean skipUnchangedFeeds; // false
+
+    private int feedDigestCacheSize = 100_000;
+
+    private String responseCachePath;
+
+    private int responseCacheMaxMb = 256;
+
+    private int shardNodeId;
+
+    private int shardNodeCount;
+
+    private String shardKey = "url";
+
+    private int shardVirtualNodes = 128;
+
+    private String shardWeights;
+
+    private boolean circuitBreakerEnabled;
+
+    private int circuitBreakerFailureThreshold = 3;
+
+    private int circuitBreakerBaseBackoffMinutes = 15;
+
+    private int circuitBreakerMaxBackoffMinutes = 1_440;
+
+    private boolean redirectMemoEnabled;
+
+    private int redirectMemoPermanentTtlHours = 24;
+
+    private int redirectMemoTemporaryTtlMinutes = 5;
+
+    private boolean canonicalizeFetchUrls;
+
+    private boolean preemptiveAuthEnabled;
+
+    private int fetchPlanCacheSize = 100_000;
+
+    private int parallelConversionThreshold;
+
+    private int conversionParallelism;
+
+    private boolean stringPoolEnabled;
+
+    private int stringPoolMaxSize = 1_000_000;
+
+    private boolean randomContentObjectIds;
+
+    private boolean webSubEnabled;
+
+    private String webSubCallbackBaseUrl;
+
+    private int webSubLeaseSeconds = 864_000;
+
+    private int webSubSafetyNetPollMinutes = 360;
+
+    private boolean rollingImportEnabled;
+
+    private int rollingImportIntervalMinutes = 60;
+
+    private int rollingImportJitterPercent = 10;
+
     /**
      * Default constructor; initializes the object.
      */
@@ -61,11 +143,831 @@ public class RssImporterConfigProps {
         this.importMockData = importMockData;
     }
 
+    /**
+     * Get the value of the 'slowFetchThresholdMs' property.
+     *
+     * @return The fetch-plus-conversion time (in milliseconds) above which a feed is logged as slow.
+     */
+    public final long getSlowFetchThresholdMs() {
+        return slowFetchThresholdMs;
+    }
+
+    /**
+     * Set the 'slowFetchThresholdMs' property.
+     *
+     * @param slowFetchThresholdMs The fetch-plus-conversion time (in milliseconds) above which a feed is logged as slow.
+     */
+    @SuppressWarnings("unused")
+    public final void setSlowFetchThresholdMs(long slowFetchThresholdMs) {
+        this.slowFetchThresholdMs = slowFetchThresholdMs;
+    }
+
+    /**
+     * Get the value of the 'slowFetchRankingSize' property.
+     *
+     * @return The number of slowest fetches retained from each import cycle.
+     */
+    public final int getSlowFetchRankingSize() {
+        return slowFetchRankingSize;
+    }
+
+    /**
+     * Set the 'slowFetchRankingSize' property.
+     *
+     * @param slowFetchRankingSize The number of slowest fetches retained from each import cycle.
+     */
+    @SuppressWarnings("unused")
+    public final void setSlowFetchRankingSize(int slowFetchRankingSize) {
+        this.slowFetchRankingSize = slowFetchRankingSize;
+    }
+
+    /**
+     * Get the value of the 'fetchConcurrency' property.
+     *
+     * @return The maximum number of feed fetches in flight at once (fetch stage).
+     */
+    public final int getFetchConcurrency() {
+        return fetchConcurrency;
+    }
+
+    /**
+     * Set the 'fetchConcurrency' property.
+     *
+     * @param fetchConcurrency The maximum number of feed fetches in flight at once (fetch stage).
+     */
+    @SuppressWarnings("unused")
+    public final void setFetchConcurrency(int fetchConcurrency) {
+        this.fetchConcurrency = fetchConcurrency;
+    }
+
+    /**
+     * Get the value of the 'parseThreads' property.
+     *
+     * @return The number of feed parse threads (parse stage), or 0 to size by available processors.
+     */
+    public final int getParseThreads() {
+        return parseThreads;
+    }
+
+    /**
+     * Set the 'parseThreads' property.
+     *
+     * @param parseThreads The number of feed parse threads (parse stage), or 0 to size by available processors.
+     */
+    @SuppressWarnings("unused")
+    public final void setParseThreads(int parseThreads) {
+        this.parseThreads = parseThreads;
+    }
+
+    /**
+     * Get the value of the 'parseQueueSize' property.
+     *
+     * @return The capacity of the hand-off queue in front of the parse stage.
+     */
+    public final int getParseQueueSize() {
+        return parseQueueSize;
+    }
+
+    /**
+     * Set the 'parseQueueSize' property.
+     *
+     * @param parseQueueSize The capacity of the hand-off queue in front of the parse stage.
+     */
+    @SuppressWarnings("unused")
+    public final void setParseQueueSize(int parseQueueSize) {
+        this.parseQueueSize = parseQueueSize;
+    }
+
+    /**
+     * Get the value of the 'convertThreads' property.
+     *
+     * @return The number of conversion threads (convert stage), or 0 to size by available processors.
+     */
+    public final int getConvertThreads() {
+        return convertThreads;
+    }
+
+    /**
+     * Set the 'convertThreads' property.
+     *
+     * @param convertThreads The number of conversion threads (convert stage), or 0 to size by available processors.
+     */
+    @SuppressWarnings("unused")
+    public final void setConvertThreads(int convertThreads) {
+        this.convertThreads = convertThreads;
+    }
+
+    /**
+     * Get the value of the 'convertQueueSize' property.
+     *
+     * @return The capacity of the hand-off queue in front of the convert stage.
+     */
+    public final int getConvertQueueSize() {
+        return convertQueueSize;
+    }
+
+    /**
+     * Set the 'convertQueueSize' property.
+     *
+     * @param convertQueueSize The capacity of the hand-off queue in front of the convert stage.
+     */
+    @SuppressWarnings("unused")
+    public final void setConvertQueueSize(int convertQueueSize) {
+        this.convertQueueSize = convertQueueSize;
+    }
+
+    /**
+     * Get the value of the 'seenEntryIndexEnabled' property.
+     *
+     * @return True if only new or updated entries are converted for subscribers that have already received a feed, otherwise false.
+     */
+    public final boolean getSeenEntryIndexEnabled() {
+        return seenEntryIndexEnabled;
+    }
+
+    /**
+     * Set the 'seenEntryIndexEnabled' property.
+     *
+     * @param seenEntryIndexEnabled True if only new or updated entries are converted for subscribers that have already received a feed, otherwise false.
+     */
+    @SuppressWarnings("unused")
+    public final void setSeenEntryIndexEnabled(boolean seenEntryIndexEnabled) {
+        this.seenEntryIndexEnabled = seenEntryIndexEnabled;
+    }
+
+    /**
+     * Get the value of the 'seenEntryIndexCapacity' property.
+     *
+     * @return The number of entry fingerprints retained per generation by the seen-entry index (between one and two generations are retained).
+     */
+    public final int getSeenEntryIndexCapacity() {
+        return seenEntryIndexCapacity;
+    }
+
+    /**
+     * Set the 'seenEntryIndexCapacity' property.
+     *
+     * @param seenEntryIndexCapacity The number of entry fingerprints retained per generation by the seen-entry index (between one and two generations are retained).
+     */
+    @SuppressWarnings("unused")
+    public final void setSeenEntryIndexCapacity(int seenEntryIndexCapacity) {
+        this.seenEntryIndexCapacity = seenEntryIndexCapacity;
+    }
+
+    /**
+     * Get the value of the 'seenEntryIndexPath' property.
+     *
+     * @return The file to which the seen-entry index is memory-mapped, so that it survives restarts, or null to keep it on the heap.
+     */
+    public final String getSeenEntryIndexPath() {
+        return seenEntryIndexPath;
+    }
+
+    /**
+     * Set the 'seenEntryIndexPath' property.
+     *
+     * @param seenEntryIndexPath The file to which the seen-entry index is memory-mapped, so that it survives restarts, or null to keep it on the heap.
+     */
+    @SuppressWarnings("unused")
+    public final void setSeenEntryIndexPath(String seenEntryIndexPath) {
+        this.seenEntryIndexPath = seenEntryIndexPath;
+    }
+
+    /**
+     * Get the value of the 'skipUnchangedFeeds' property.
+     *
+     * @return True to skip parsing and conversion of feeds whose body is identical to the one last imported for all of their subscribers, otherwise false.
+     */
+    public final boolean getSkipUnchangedFeeds() {
+        return skipUnchangedFeeds;
+    }
+
+    /**
+     * Set the 'skipUnchangedFeeds' property.
+     *
+     * @param skipUnchangedFeeds True to skip parsing and conversion of feeds whose body is identical to the one last imported for all of their subscribers, otherwise false.
+     */
+    @SuppressWarnings("unused")
+    public final void setSkipUnchangedFeeds(boolean skipUnchangedFeeds) {
+        this.skipUnchangedFeeds = skipUnchangedFeeds;
+    }
+
+    /**
+     * Get the value of the 'feedDigestCacheSize' property.
+     *
+     * @return The maximum number of feed URLs for which the body digest of the last import is retained.
+     */
+    public final int getFeedDigestCacheSize() {
+        return feedDigestCacheSize;
+    }
+
+    /**
+     * Set the 'feedDigestCacheSize' property.
+     *
+     * @param feedDigestCacheSize The maximum number of feed URLs for which the body digest of the last import is retained.
+     */
+    @SuppressWarnings("unused")
+    public final void setFeedDigestCacheSize(int feedDigestCacheSize) {
+        this.feedDigestCacheSize = feedDigestCacheSize;
+    }
+
+    /**
+     * Get the value of the 'responseCachePath' property.
+     *
+     * @return The path of the on-disk feed response cache log, or null to disable the response cache.
+     */
+    public final String getResponseCachePath() {
+        return responseCachePath;
+    }
+
+    /**
+     * Set the 'responseCachePath' property.
+     *
+     * @param responseCachePath The path of the on-disk feed response cache log, or null to disable the response cache.
+     */
+    @SuppressWarnings("unused")
+    public final void setResponseCachePath(String responseCachePath) {
+        this.responseCachePath = responseCachePath;
+    }
+
+    /**
+     * Get the value of the 'responseCacheMaxMb' property.
+     *
+     * @return The size limit of the on-disk feed response cache log, in megabytes.
+     */
+    public final int getResponseCacheMaxMb() {
+        return responseCacheMaxMb;
+    }
+
+    /**
+     * Set the 'responseCacheMaxMb' property.
+     *
+     * @param responseCacheMaxMb The size limit of the on-disk feed response cache log, in megabytes.
+     */
+    @SuppressWarnings("unused")
+    public final void setResponseCacheMaxMb(int responseCacheMaxMb) {
+        this.responseCacheMaxMb = responseCacheMaxMb;
+    }
+
+    /**
+     * Get the value of the 'shardNodeId' property.
+     *
+     * @return The (zero-based) id of this importer node, when imports are sharded across nodes.
+     */
+    public final int getShardNodeId() {
+        return shardNodeId;
+    }
+
+    /**
+     * Set the 'shardNodeId' property.
+     *
+     * @param shardNodeId The (zero-based) id of this importer node, when imports are sharded across nodes.
+     */
+    @SuppressWarnings("unused")
+    public final void setShardNodeId(int shardNodeId) {
+        this.shardNodeId = shardNodeId;
+    }
+
+    /**
+     * Get the value of the 'shardNodeCount' property.
+     *
+     * @return The number of importer nodes sharing each subscription list (0 or 1 to import all feeds on this node).
+     */
+    public final int getShardNodeCount() {
+        return shardNodeCount;
+    }
+
+    /**
+     * Set the 'shardNodeCount' property.
+     *
+     * @param shardNodeCount The number of importer nodes sharing each subscription list (0 or 1 to import all feeds on this node).
+     */
+    @SuppressWarnings("unused")
+    public final void setShardNodeCount(int shardNodeCount) {
+        this.shardNodeCount = shardNodeCount;
+    }
+
+    /**
+     * Get the value of the 'shardKey' property.
+     *
+     * @return The feed attribute by which imports are sharded across nodes ('url' or 'host').
+     */
+    public final String getShardKey() {
+        return shardKey;
+    }
+
+    /**
+     * Set the 'shardKey' property.
+     *
+     * @param shardKey The feed attribute by which imports are sharded across nodes ('url' or 'host').
+     */
+    @SuppressWarnings("unused")
+    public final void setShardKey(String shardKey) {
+        this.shardKey = shardKey;
+    }
+
+    /**
+     * Get the value of the 'shardVirtualNodes' property.
+     *
+     * @return The number of consistent-hash ring points for an importer node of weight 1.
+     */
+    public final int getShardVirtualNodes() {
+        return shardVirtualNodes;
+    }
+
+    /**
+     * Set the 'shardVirtualNodes' property.
+     *
+     * @param shardVirtualNodes The number of consistent-hash ring points for an importer node of weight 1.
+     */
+    @SuppressWarnings("unused")
+    public final void setShardVirtualNodes(int shardVirtualNodes) {
+        this.shardVirtualNodes = shardVirtualNodes;
+    }
+
+    /**
+     * Get the value of the 'shardWeights' property.
+     *
+     * @return The relative weights of the importer nodes, comma-separated, or blank for equal weights.
+     */
+    public final String getShardWeights() {
+        return shardWeights;
+    }
+
+    /**
+     * Set the 'shardWeights' property.
+     *
+     * @param shardWeights The relative weights of the importer nodes, comma-separated, or blank for equal weights.
+     */
+    @SuppressWarnings("unused")
+    public final void setShardWeights(String shardWeights) {
+        this.shardWeights = shardWeights;
+    }
+
+    /**
+     * Get the value of the 'circuitBreakerEnabled' property.
+     *
+     * @return Whether fetches of feeds (and hosts) that have failed repeatedly are short-circuited for a backoff period.
+     */
+    public final boolean getCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    /**
+     * Set the 'circuitBreakerEnabled' property.
+     *
+     * @param circuitBreakerEnabled Whether fetches of feeds (and hosts) that have failed repeatedly are short-circuited for a backoff period.
+     */
+    @SuppressWarnings("unused")
+    public final void setCircuitBreakerEnabled(boolean circuitBreakerEnabled) {
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+    }
+
+    /**
+     * Get the value of the 'circuitBreakerFailureThreshold' property.
+     *
+     * @return The number of consecutive fetch failures after which the circuit for a feed (or host) opens.
+     */
+    public final int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * Set the 'circuitBreakerFailureThreshold' property.
+     *
+     * @param circuitBreakerFailureThreshold The number of consecutive fetch failures after which the circuit for a feed (or host) opens.
+     */
+    @SuppressWarnings("unused")
+    public final void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * Get the value of the 'circuitBreakerBaseBackoffMinutes' property.
+     *
+     * @return The period for which a feed (or host) circuit first stays open, in minutes; it doubles each time the circuit re-opens.
+     */
+    public final int getCircuitBreakerBaseBackoffMinutes() {
+        return circuitBreakerBaseBackoffMinutes;
+    }
+
+    /**
+     * Set the 'circuitBreakerBaseBackoffMinutes' property.
+     *
+     * @param circuitBreakerBaseBackoffMinutes The period for which a feed (or host) circuit first stays open, in minutes; it doubles each time the circuit re-opens.
+     */
+    @SuppressWarnings("unused")
+    public final void setCircuitBreakerBaseBackoffMinutes(int circuitBreakerBaseBackoffMinutes) {
+        this.circuitBreakerBaseBackoffMinutes = circuitBreakerBaseBackoffMinutes;
+    }
+
+    /**
+     * Get the value of the 'circuitBreakerMaxBackoffMinutes' property.
+     *
+     * @return The maximum period for which a feed (or host) circuit stays open, in minutes.
+     */
+    public final int getCircuitBreakerMaxBackoffMinutes() {
+        return circuitBreakerMaxBackoffMinutes;
+    }
+
+    /**
+     * Set the 'circuitBreakerMaxBackoffMinutes' property.
+     *
+     * @param circuitBreakerMaxBackoffMinutes The maximum period for which a feed (or host) circuit stays open, in minutes.
+     */
+    @SuppressWarnings("unused")
+    public final void setCircuitBreakerMaxBackoffMinutes(int circuitBreakerMaxBackoffMinutes) {
+        this.circuitBreakerMaxBackoffMinutes = circuitBreakerMaxBackoffMinutes;
+    }
+
+    /**
+     * Get the value of the 'redirectMemoEnabled' property.
+     *
+     * @return Whether followed redirects are memoized, so that subsequent fetches go straight to the redirect target.
+     */
+    public final boolean getRedirectMemoEnabled() {
+        return redirectMemoEnabled;
+    }
+
+    /**
+     * Set the 'redirectMemoEnabled' property.
+     *
+     * @param redirectMemoEnabled Whether followed redirects are memoized, so that subsequent fetches go straight to the redirect target.
+     */
+    @SuppressWarnings("unused")
+    public final void setRedirectMemoEnabled(boolean redirectMemoEnabled) {
+        this.redirectMemoEnabled = redirectMemoEnabled;
+    }
+
+    /**
+     * Get the value of the 'redirectMemoPermanentTtlHours' property.
+     *
+     * @return The period for which permanent redirects are memoized before being revalidated, in hours.
+     */
+    public final int getRedirectMemoPermanentTtlHours() {
+        return redirectMemoPermanentTtlHours;
+    }
+
+    /**
+     * Set the 'redirectMemoPermanentTtlHours' property.
+     *
+     * @param redirectMemoPermanentTtlHours The period for which permanent redirects are memoized before being revalidated, in hours.
+     */
+    @SuppressWarnings("unused")
+    public final void setRedirectMemoPermanentTtlHours(int redirectMemoPermanentTtlHours) {
+        this.redirectMemoPermanentTtlHours = redirectMemoPermanentTtlHours;
+    }
+
+    /**
+     * Get the value of the 'redirectMemoTemporaryTtlMinutes' property.
+     *
+     * @return The period for which temporary redirects are memoized, in minutes.
+     */
+    public final int getRedirectMemoTemporaryTtlMinutes() {
+        return redirectMemoTemporaryTtlMinutes;
+    }
+
+    /**
+     * Set the 'redirectMemoTemporaryTtlMinutes' property.
+     *
+     * @param redirectMemoTemporaryTtlMinutes The period for which temporary redirects are memoized, in minutes.
+     */
+    @SuppressWarnings("unused")
+    public final void setRedirectMemoTemporaryTtlMinutes(int redirectMemoTemporaryTtlMinutes) {
+        this.redirectMemoTemporaryTtlMinutes = redirectMemoTemporaryTtlMinutes;
+    }
+
+    /**
+     * Get the value of the 'canonicalizeFetchUrls' property.
+     *
+     * @return Whether equivalent feed URLs (by scheme, host case, default port, trailing slash, tracking parameters, and memoized permanent redirects) share a single fetch.
+     */
+    public final boolean getCanonicalizeFetchUrls() {
+        return canonicalizeFetchUrls;
+    }
+
+    /**
+     * Set the 'canonicalizeFetchUrls' property.
+     *
+     * @param canonicalizeFetchUrls Whether equivalent feed URLs (by scheme, host case, default port, trailing slash, tracking parameters, and memoized permanent redirects) share a single fetch.
+     */
+    @SuppressWarnings("unused")
+    public final void setCanonicalizeFetchUrls(boolean canonicalizeFetchUrls) {
+        this.canonicalizeFetchUrls = canonicalizeFetchUrls;
+    }
+
+    /**
+     * Get the value of the 'preemptiveAuthEnabled' property.
+     *
+     * @return Whether credentials are sent preemptively (with the first request) to HTTPS origins known to use Basic authentication, rather than in response to a 401 challenge.
+     */
+    public final boolean getPreemptiveAuthEnabled() {
+        return preemptiveAuthEnabled;
+    }
+
+    /**
+     * Set the 'preemptiveAuthEnabled' property.
+     *
+     * @param preemptiveAuthEnabled Whether credentials are sent preemptively (with the first request) to HTTPS origins known to use Basic authentication, rather than in response to a 401 challenge.
+     */
+    @SuppressWarnings("unused")
+    public final void setPreemptiveAuthEnabled(boolean preemptiveAuthEnabled) {
+        this.preemptiveAuthEnabled = preemptiveAuthEnabled;
+    }
+
+    /**
+     * Get the value of the 'fetchPlanCacheSize' property.
+     *
+     * @return The maximum number of subscriptions whose compiled fetch plans are cached across import cycles.
+     */
+    public final int getFetchPlanCacheSize() {
+        return fetchPlanCacheSize;
+    }
+
+    /**
+     * Set the 'fetchPlanCacheSize' property.
+     *
+     * @param fetchPlanCacheSize The maximum number of subscriptions whose compiled fetch plans are cached across import cycles.
+     */
+    @SuppressWarnings("unused")
+    public final void setFetchPlanCacheSize(int fetchPlanCacheSize) {
+        this.fetchPlanCacheSize = fetchPlanCacheSize;
+    }
+
+    /**
+     * Get the value of the 'parallelConversionThreshold' property.
+     *
+     * @return The number of entries above which a feed is converted in parallel (fork/join) subtasks, or 0 to always convert serially.
+     */
+    public final int getParallelConversionThreshold() {
+        return parallelConversionThreshold;
+    }
+
+    /**
+     * Set the 'parallelConversionThreshold' property.
+     *
+     * @param parallelConversionThreshold The number of entries above which a feed is converted in parallel (fork/join) subtasks, or 0 to always convert serially.
+     */
+    @SuppressWarnings("unused")
+    public final void setParallelConversionThreshold(int parallelConversionThreshold) {
+        this.parallelConversionThreshold = parallelConversionThreshold;
+    }
+
+    /**
+     * Get the value of the 'conversionParallelism' property.
+     *
+     * @return The parallelism of the fork/join pool on which large feeds are converted (defaults to the processor count).
+     */
+    public final int getConversionParallelism() {
+        return conversionParallelism;
+    }
+
+    /**
+     * Set the 'conversionParallelism' property.
+     *
+     * @param conversionParallelism The parallelism of the fork/join pool on which large feeds are converted (defaults to the processor count).
+     */
+    @SuppressWarnings("unused")
+    public final void setConversionParallelism(int conversionParallelism) {
+        this.conversionParallelism = conversionParallelism;
+    }
+
+    /**
+     * Get the value of the 'stringPoolEnabled' property.
+     *
+     * @return Whether the strings that repeat across the staging posts of an import cycle are deduplicated.
+     */
+    public final boolean getStringPoolEnabled() {
+        return stringPoolEnabled;
+    }
+
+    /**
+     * Set the 'stringPoolEnabled' property.
+     *
+     * @param stringPoolEnabled Whether the strings that repeat across the staging posts of an import cycle are deduplicated.
+     */
+    @SuppressWarnings("unused")
+    public final void setStringPoolEnabled(boolean stringPoolEnabled) {
+        this.stringPoolEnabled = stringPoolEnabled;
+    }
+
+    /**
+     * Get the value of the 'stringPoolMaxSize' property.
+     *
+     * @return The maximum number of distinct strings pooled per import cycle.
+     */
+    public final int getStringPoolMaxSize() {
+        return stringPoolMaxSize;
+    }
+
+    /**
+     * Set the 'stringPoolMaxSize' property.
+     *
+     * @param stringPoolMaxSize The maximum number of distinct strings pooled per import cycle.
+     */
+    @SuppressWarnings("unused")
+    public final void setStringPoolMaxSize(int stringPoolMaxSize) {
+        this.stringPoolMaxSize = stringPoolMaxSize;
+    }
+
+    /**
+     * Get the value of the 'randomContentObjectIds' property.
+     *
+     * @return Whether content object identifiers are random (as in earlier versions) rather than derived from the content.
+     */
+    public final boolean getRandomContentObjectIds() {
+        return randomContentObjectIds;
+    }
+
+    /**
+     * Set the 'randomContentObjectIds' property.
+     *
+     * @param randomContentObjectIds Whether content object identifiers are random (as in earlier versions) rather than derived from the content.
+     */
+    @SuppressWarnings("unused")
+    public final void setRandomContentObjectIds(boolean randomContentObjectIds) {
+        this.randomContentObjectIds = randomContentObjectIds;
+    }
+
+    /**
+     * Get the value of the 'webSubEnabled' property.
+     *
+     * @return Whether feeds that advertise an https WebSub hub are subscribed to, and then only polled at the safety-net interval.
+     */
+    public final boolean getWebSubEnabled() {
+        return webSubEnabled;
+    }
+
+    /**
+     * Set the 'webSubEnabled' property.
+     *
+     * @param webSubEnabled Whether feeds that advertise an https WebSub hub are subscribed to, and then only polled at the safety-net interval.
+     */
+    @SuppressWarnings("unused")
+    public final void setWebSubEnabled(boolean webSubEnabled) {
+        this.webSubEnabled = webSubEnabled;
+    }
+
+    /**
+     * Get the value of the 'webSubCallbackBaseUrl' property.
+     *
+     * @return The public base URL of the host application's WebSub callback endpoint (callback ids are appended to it).
+     */
+    public final String getWebSubCallbackBaseUrl() {
+        return webSubCallbackBaseUrl;
+    }
+
+    /**
+     * Set the 'webSubCallbackBaseUrl' property.
+     *
+     * @param webSubCallbackBaseUrl The public base URL of the host application's WebSub callback endpoint (callback ids are appended to it).
+     */
+    @SuppressWarnings("unused")
+    public final void setWebSubCallbackBaseUrl(String webSubCallbackBaseUrl) {
+        this.webSubCallbackBaseUrl = webSubCallbackBaseUrl;
+    }
+
+    /**
+     * Get the value of the 'webSubLeaseSeconds' property.
+     *
+     * @return The WebSub subscription lease to request of hubs, in seconds.
+     */
+    public final int getWebSubLeaseSeconds() {
+        return webSubLeaseSeconds;
+    }
+
+    /**
+     * Set the 'webSubLeaseSeconds' property.
+     *
+     * @param webSubLeaseSeconds The WebSub subscription lease to request of hubs, in seconds.
+     */
+    @SuppressWarnings("unused")
+    public final void setWebSubLeaseSeconds(int webSubLeaseSeconds) {
+        this.webSubLeaseSeconds = webSubLeaseSeconds;
+    }
+
+    /**
+     * Get the value of the 'webSubSafetyNetPollMinutes' property.
+     *
+     * @return The interval at which feeds delivered by WebSub push are still polled, in minutes.
+     */
+    public final int getWebSubSafetyNetPollMinutes() {
+        return webSubSafetyNetPollMinutes;
+    }
+
+    /**
+     * Set the 'webSubSafetyNetPollMinutes' property.
+     *
+     * @param webSubSafetyNetPollMinutes The interval at which feeds delivered by WebSub push are still polled, in minutes.
+     */
+    @SuppressWarnings("unused")
+    public final void setWebSubSafetyNetPollMinutes(int webSubSafetyNetPollMinutes) {
+        this.webSubSafetyNetPollMinutes = webSubSafetyNetPollMinutes;
+    }
+
+    /**
+     * Get the value of the 'rollingImportEnabled' property.
+     *
+     * @return True if subscriptions are imported continuously, each feed at its own due time within the polling interval, rather than in import cycles
+     */
+    public final boolean getRollingImportEnabled() {
+        return rollingImportEnabled;
+    }
+
+    /**
+     * Set the 'rollingImportEnabled' property.
+     *
+     * @param rollingImportEnabled True if subscriptions are imported continuously, each feed at its own due time within the polling interval, rather than in import cycles
+     */
+    @SuppressWarnings("unused")
+    public final void setRollingImportEnabled(boolean rollingImportEnabled) {
+        this.rollingImportEnabled = rollingImportEnabled;
+    }
+
+    /**
+     * Get the value of the 'rollingImportIntervalMinutes' property.
+     *
+     * @return The rolling import polling interval, i.e., the time between fetches of the same feed, in minutes
+     */
+    public final int getRollingImportIntervalMinutes() {
+        return rollingImportIntervalMinutes;
+    }
+
+    /**
+     * Set the 'rollingImportIntervalMinutes' property.
+     *
+     * @param rollingImportIntervalMinutes The rolling import polling interval, i.e., the time between fetches of the same feed, in minutes
+     */
+    @SuppressWarnings("unused")
+    public final void setRollingImportIntervalMinutes(int rollingImportIntervalMinutes) {
+        this.rollingImportIntervalMinutes = rollingImportIntervalMinutes;
+    }
+
+    /**
+     * Get the value of the 'rollingImportJitterPercent' property.
+     *
+     * @return The maximum deviation of a feed's rolling import due time from the polling interval, in percent of the interval
+     */
+    public final int getRollingImportJitterPercent() {
+        return rollingImportJitterPercent;
+    }
+
+    /**
+     * Set the 'rollingImportJitterPercent' property.
+     *
+     * @param rollingImportJitterPercent The maximum deviation of a feed's rolling import due time from the polling interval, in percent of the interval
+     */
+    @SuppressWarnings("unused")
+    public final void setRollingImportJitterPercent(int rollingImportJitterPercent) {
+        this.rollingImportJitterPercent = rollingImportJitterPercent;
+    }
+
     @Override
     public final String toString() {
         return "RssImporterConfigProps{" +
                 "disabled=" + disabled +
                 ", importMockData=" + importMockData +
+                ", slowFetchThresholdMs=" + slowFetchThresholdMs +
+                ", slowFetchRankingSize=" + slowFetchRankingSize +
+                ", fetchConcurrency=" + fetchConcurrency +
+                ", parseThreads=" + parseThreads +
+                ", parseQueueSize=" + parseQueueSize +
+                ", convertThreads=" + convertThreads +
+                ", convertQueueSize=" + convertQueueSize +
+                ", seenEntryIndexEnabled=" + seenEntryIndexEnabled +
+                ", seenEntryIndexCapacity=" + seenEntryIndexCapacity +
+                ", seenEntryIndexPath=" + seenEntryIndexPath +
+                ", skipUnchangedFeeds=" + skipUnchangedFeeds +
+                ", feedDigestCacheSize=" + feedDigestCacheSize +
+                ", responseCachePath=" + responseCachePath +
+                ", responseCacheMaxMb=" + responseCacheMaxMb +
+                ", shardNodeId=" + shardNodeId +
+                ", shardNodeCount=" + shardNodeCount +
+                ", shardKey=" + shardKey +
+                ", shardVirtualNodes=" + shardVirtualNodes +
+                ", shardWeights=" + shardWeights +
+                ", circuitBreakerEnabled=" + circuitBreakerEnabled +
+                ", circuitBreakerFailureThreshold=" + circuitBreakerFailureThreshold +
+                ", circuitBreakerBaseBackoffMinutes=" + circuitBreakerBaseBackoffMinutes +
+                ", circuitBreakerMaxBackoffMinutes=" + circuitBreakerMaxBackoffMinutes +
+                ", redirectMemoEnabled=" + redirectMemoEnabled +
+                ", redirectMemoPermanentTtlHours=" + redirectMemoPermanentTtlHours +
+                ", redirectMemoTemporaryTtlMinutes=" + redirectMemoTemporaryTtlMinutes +
+                ", canonicalizeFetchUrls=" + canonicalizeFetchUrls +
+                ", preemptiveAuthEnabled=" + preemptiveAuthEnabled +
+                ", fetchPlanCacheSize=" + fetchPlanCacheSize +
+                ", parallelConversionThreshold=" + parallelConversionThreshold +
+                ", conversionParallelism=" + conversionParallelism +
+                ", stringPoolEnabled=" + stringPoolEnabled +
+                ", stringPoolMaxSize=" + stringPoolMaxSize +
+                ", randomContentObjectIds=" + randomContentObjectIds +
+                ", webSubEnabled=" + webSubEnabled +
+                ", webSubCallbackBaseUrl=" + webSubCallbackBaseUrl +
+                ", webSubLeaseSeconds=" + webSubLeaseSeconds +
+                ", webSubSafetyNetPollMinutes=" + webSubSafetyNetPollMinutes +
+                ", rollingImportEnabled=" + rollingImportEnabled +
+                ", rollingImportIntervalMinutes=" + rollingImportIntervalMinutes +
+                ", rollingImportJitterPercent=" + rollingImportJitterPercent +
                 '}';
     }
 }
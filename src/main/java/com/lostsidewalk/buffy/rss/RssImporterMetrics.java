@@ -0,0 +1,209 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.rss.RssImportUtils.ConversionStats;
+import com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Micrometer instrumentation for the import pipeline: cycle duration, per-feed fetch outcomes, entries per feed,
+ * conversion and hash time, fetches in flight, and queue wait time for each pipeline stage's thread pool.  Fetch phase
+ * timings (DNS, connect, TTFB, download, parse, bytes) are recorded by the feed service itself.
+ */
+final class RssImporterMetrics {
+
+    private static final String OUTCOME_TAG = "outcome";
+
+    private static final String ERROR_TYPE_TAG = "error_type";
+
+    private final MeterRegistry meterRegistry;
+
+    private final DistributionSummary feedEntries;
+
+    private final Timer feedConversion;
+
+    private final Timer entryConversion;
+
+    private final Timer entryHash;
+
+    private final Counter skippedEntries;
+
+    private final Counter filteredEntries;
+
+    private final Counter sharedFetches;
+
+    private final Counter dedupStrings;
+
+    private final Counter dedupSavedBytes;
+
+    private final Counter webSubPollsSkipped;
+
+    RssImporterMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.feedEntries = DistributionSummary.builder("rss.importer.feed.entries")
+                .description("Entries per fetched feed")
+                .register(meterRegistry);
+        this.feedConversion = Timer.builder("rss.importer.convert")
+                .description("Time to convert a fetched feed into staging posts for one subscription")
+                .register(meterRegistry);
+        this.entryConversion = Timer.builder("rss.importer.convert.entry")
+                .description("Mean conversion time per entry, per converted feed")
+                .register(meterRegistry);
+        this.entryHash = Timer.builder("rss.importer.hash")
+                .description("Mean post hash time per entry, per converted feed")
+                .register(meterRegistry);
+        this.skippedEntries = Counter.builder("rss.importer.entries.skipped")
+                .description("Entries not converted because the subscriber already received them (seen-entry index)")
+                .register(meterRegistry);
+        this.filteredEntries = Counter.builder("rss.importer.entries.filtered")
+                .description("Entries not converted because the subscriber's import options filtered them out")
+                .register(meterRegistry);
+        this.sharedFetches = Counter.builder("rss.importer.fetch.shared")
+                .description("Subscriptions served by another subscription's fetch of an equivalent (canonicalized) feed URL")
+                .register(meterRegistry);
+        this.dedupStrings = Counter.builder("rss.importer.strings.deduplicated")
+                .description("Staging post strings replaced by their canonical copy from the cycle's string pool")
+                .register(meterRegistry);
+        this.dedupSavedBytes = Counter.builder("rss.importer.strings.saved")
+                .description("Estimated heap held by the staging post strings replaced by their canonical copy")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.webSubPollsSkipped = Counter.builder("rss.importer.websub.polls.skipped")
+                .description("Scheduled fetches skipped because the feed's content is pushed by a WebSub hub")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps the given executor so that queue wait time (executor.idle) and execution time (executor) are recorded.
+     */
+    ExecutorService monitor(ExecutorService executorService, String name) {
+        return ExecutorServiceMetrics.monitor(meterRegistry, executorService, name, "rss.importer");
+    }
+
+    /**
+     * Registers gauges of the given executor's pool and queue sizes, without wrapping it (so that queued tasks keep
+     * their own type, e.g., for priority ordering).
+     */
+    void monitorDispatchPool(ThreadPoolExecutor executor, String name) {
+        new ExecutorServiceMetrics(executor, name, "rss.importer", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Records the time an import task waited for dispatch, by priority.
+     */
+    void recordDispatchWait(ImportPriority priority, long nanos) {
+        Timer.builder("rss.importer.dispatch.wait")
+                .description("Time an import waited in the dispatch queue")
+                .tag("priority", priority.name())
+                .register(meterRegistry)
+                .record(nanos, NANOSECONDS);
+    }
+
+    /**
+     * Registers a gauge of the number of fetches currently in flight, i.e., permits taken from the given semaphore.
+     */
+    void monitorInFlightFetches(Semaphore fetchPermits, int fetchConcurrency) {
+        Gauge.builder("rss.importer.fetch.inflight", fetchPermits, s -> fetchConcurrency - s.availablePermits())
+                .description("Feed fetches currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers gauges of the number of feeds in the given rolling import schedule, and of those in flight.
+     */
+    void monitorRollingImportSchedule(RollingImportSchedule<?> schedule) {
+        Gauge.builder("rss.importer.rolling.feeds", schedule, RollingImportSchedule::size)
+                .description("Feeds scheduled for rolling import")
+                .register(meterRegistry);
+        Gauge.builder("rss.importer.rolling.inflight", schedule, RollingImportSchedule::inFlightCount)
+                .description("Feeds scheduled for rolling import that are currently being imported")
+                .register(meterRegistry);
+    }
+
+    Timer.Sample startCycle() {
+        return Timer.start(meterRegistry);
+    }
+
+    void stopCycle(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("rss.importer.cycle")
+                .description("Import cycle duration")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry));
+    }
+
+    void recordFetchSuccess(int entryCt) {
+        fetchCounter("success", "none").increment();
+        feedEntries.record(entryCt);
+    }
+
+    void recordFetchUnchanged() {
+        fetchCounter("unchanged", "none").increment();
+    }
+
+    void recordFetchFailure(QueryExceptionType exceptionType) {
+        fetchCounter("failure", exceptionType == null ? "none" : exceptionType.name()).increment();
+    }
+
+    void recordFetchShortCircuited(QueryExceptionType exceptionType) {
+        fetchCounter("short_circuited", exceptionType == null ? "none" : exceptionType.name()).increment();
+    }
+
+    void recordSkippedEntries(int skippedCt) {
+        if (skippedCt > 0) {
+            skippedEntries.increment(skippedCt);
+        }
+    }
+
+    void recordFilteredEntries(int filteredCt) {
+        if (filteredCt > 0) {
+            filteredEntries.increment(filteredCt);
+        }
+    }
+
+    void recordStringPool(StringPool stringPool) {
+        dedupStrings.increment(stringPool.getDedupCt());
+        dedupSavedBytes.increment(stringPool.getSavedBytes());
+    }
+
+    void recordSharedFetches(int sharedCt) {
+        if (sharedCt > 0) {
+            sharedFetches.increment(sharedCt);
+        }
+    }
+
+    void recordConversion(ConversionStats stats) {
+        feedConversion.record(stats.convertNanos, NANOSECONDS);
+        if (stats.entryCt > 0) {
+            entryConversion.record(stats.convertNanos / stats.entryCt, NANOSECONDS);
+            entryHash.record(stats.hashNanos / stats.entryCt, NANOSECONDS);
+        }
+    }
+
+    void recordWebSubPollsSkipped(int skippedCt) {
+        if (skippedCt > 0) {
+            webSubPollsSkipped.increment(skippedCt);
+        }
+    }
+
+    void recordWebSubDelivery(boolean accepted) {
+        Counter.builder("rss.importer.websub.deliveries")
+                .description("Feed content pushed by WebSub hubs, by outcome")
+                .tag(OUTCOME_TAG, accepted ? "accepted" : "rejected")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Counter fetchCounter(String outcome, String errorType) {
+        return Counter.builder("rss.importer.fetch")
+                .description("Feed fetches by outcome")
+                .tag(OUTCOME_TAG, outcome)
+                .tag(ERROR_TYPE_TAG, errorType)
+                .register(meterRegistry);
+    }
+}
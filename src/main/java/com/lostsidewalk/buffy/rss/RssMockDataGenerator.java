@@ -2,18 +2,25 @@ package com.lostsidewalk.buffy.rss;
 
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService.SyndFeedResponse;
 import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
+import com.rometools.modules.itunes.EntryInformationImpl;
+import com.rometools.modules.itunes.types.Duration;
 import com.rometools.modules.mediarss.MediaEntryModuleImpl;
-import com.rometools.modules.mediarss.types.Metadata;
-import com.rometools.modules.mediarss.types.Thumbnail;
+import com.rometools.modules.mediarss.types.*;
 import com.rometools.rome.feed.synd.*;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedOutput;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Random;
 
 import static java.util.Collections.singletonList;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 
 @Slf4j
@@ -61,4 +68,213 @@ class RssMockDataGenerator {
         metadata.setThumbnail(new Thumbnail[] { new Thumbnail(URI.create("test-image")) });
         return metadata;
     }
+
+    //
+    // synthetic corpus
+    //
+
+    private static final long SYNTHETIC_EPOCH_MS = 1_600_000_000_000L;
+
+    private static final long SYNTHETIC_ENTRY_INTERVAL_MS = 60_000L;
+
+    static SyndFeedResponse buildSyntheticResponse(SyntheticFeedSpec spec, String feedUrl, long generation) {
+        return SyndFeedResponse.from(buildSyntheticFeed(spec, feedUrl, generation), 200, "OK");
+    }
+
+    /**
+     * Renders the given generation of a synthetic feed to bytes, in the feed type and character encoding of the spec.
+     */
+    static byte[] renderSyntheticFeed(SyntheticFeedSpec spec, String feedUrl, long generation) throws FeedException {
+        SyndFeed feed = buildSyntheticFeed(spec, feedUrl, generation);
+        return new SyndFeedOutput().outputString(feed).getBytes(Charset.forName(spec.getEncoding()));
+    }
+
+    /**
+     * Builds the given generation of a synthetic feed.  Each generation is a sliding window over an endless sequence of
+     * entries: advancing one generation prepends {@link SyntheticFeedSpec#getNewEntriesPerGeneration()} new entries
+     * and drops the same number of old ones.  Entry content depends only on the spec seed, the feed URL path, and the
+     * entry sequence number, so unchanged entries render identically across generations.
+     */
+    static SyndFeed buildSyntheticFeed(SyntheticFeedSpec spec, String feedUrl, long generation) {
+        SyndFeed feed = new SyndFeedImpl();
+        feed.setFeedType(spec.getFeedType());
+        feed.setEncoding(spec.getEncoding());
+        feed.setTitle("Synthetic feed " + feedUrl);
+        feed.setLink(feedUrl);
+        feed.setUri(feedUrl);
+        feed.setDescription("Synthetic feed generated from seed " + spec.getSeed());
+        feed.setCopyright("Copyright (c) synthetic feed corpus");
+        //
+        int entryCt = spec.getEntryCt();
+        long newestSeq = generation * spec.getNewEntriesPerGeneration() + entryCt - 1;
+        feed.setPublishedDate(new Date(SYNTHETIC_EPOCH_MS + newestSeq * SYNTHETIC_ENTRY_INTERVAL_MS));
+        List<SyndEntry> entries = new ArrayList<>(entryCt);
+        for (int i = 0; i < entryCt; i++) {
+            entries.add(buildSyntheticEntry(spec, feedUrl, newestSeq - i));
+        }
+        feed.setEntries(entries);
+
+        return feed;
+    }
+
+    static SyndEntry buildSyntheticEntry(SyntheticFeedSpec spec, String feedUrl, long seq) {
+        Random random = new Random(spec.getSeed() * 31L + seedKeyOf(feedUrl).hashCode() * 1_000_003L + seq);
+        String link = feedUrl + (feedUrl.endsWith("/") ? "" : "/") + "posts/" + seq;
+        SyndEntry entry = new SyndEntryImpl();
+        entry.setTitle("Synthetic post " + seq + ": " + words(random, 6));
+        entry.setLink(link);
+        entry.setUri(link);
+        entry.setAuthor("author" + random.nextInt(16) + "@synthetic.example.com");
+        Date published = new Date(SYNTHETIC_EPOCH_MS + seq * SYNTHETIC_ENTRY_INTERVAL_MS);
+        entry.setPublishedDate(published);
+        entry.setUpdatedDate(published);
+        entry.setDescription(buildSyntheticContent(html(random, spec.getHtmlComplexity(), spec.getContentLength() >> 2)));
+        entry.setContents(new ArrayList<>(singletonList(buildSyntheticContent(html(random, spec.getHtmlComplexity(), spec.getContentLength())))));
+        //
+        SyndCategory category = new SyndCategoryImpl();
+        category.setName("category-" + random.nextInt(8));
+        entry.setCategories(new ArrayList<>(singletonList(category)));
+        //
+        List<SyndEnclosure> enclosures = new ArrayList<>(spec.getEnclosureCt());
+        for (int i = 0; i < spec.getEnclosureCt(); i++) {
+            SyndEnclosure enclosure = new SyndEnclosureImpl();
+            enclosure.setUrl("https://cdn.synthetic.example.com/audio/" + seq + "-" + i + ".mp3");
+            enclosure.setType("audio/mpeg");
+            enclosure.setLength(1_048_576L + random.nextInt(1_048_576));
+            enclosures.add(enclosure);
+        }
+        entry.setEnclosures(enclosures);
+        //
+        List<com.rometools.rome.feed.module.Module> modules = new ArrayList<>(2);
+        if (spec.getMediaItemCt() > 0) {
+            modules.add(buildSyntheticMediaModule(seq, spec.getMediaItemCt()));
+        }
+        if (spec.isITunes()) {
+            modules.add(buildSyntheticITunesModule(random, seq));
+        }
+        entry.setModules(modules);
+
+        return entry;
+    }
+
+    /**
+     * Gets the part of the feed URL that seeds its entries: the URL path, so that a corpus served on an ephemeral port
+     * renders the same entries on every run (or the whole URL, if it has no path).
+     */
+    private static String seedKeyOf(String feedUrl) {
+        try {
+            String path = URI.create(feedUrl).getPath();
+            return isNotBlank(path) ? path : feedUrl;
+        } catch (IllegalArgumentException e) {
+            return feedUrl;
+        }
+    }
+
+    private static SyndContent buildSyntheticContent(String html) {
+        SyndContent syndContent = new SyndContentImpl();
+        syndContent.setType("text/html");
+        syndContent.setMode("escaped");
+        syndContent.setValue(html);
+        return syndContent;
+    }
+
+    /**
+     * Builds a media module in which the only metadata thumbnail is on the final media group, so that thumbnail
+     * resolution must inspect every other metadata block first.
+     */
+    private static MediaEntryModuleImpl buildSyntheticMediaModule(long seq, int mediaItemCt) {
+        MediaEntryModuleImpl mm = new MediaEntryModuleImpl();
+        mm.setMetadata(new Metadata());
+        MediaContent[] contents = new MediaContent[mediaItemCt];
+        for (int i = 0; i < mediaItemCt; i++) {
+            contents[i] = new MediaContent(new PlayerReference(URI.create("https://player.synthetic.example.com/" + seq + "/" + i)));
+            contents[i].setMetadata(new Metadata());
+        }
+        mm.setMediaContents(contents);
+        MediaGroup[] groups = new MediaGroup[mediaItemCt];
+        for (int i = 0; i < mediaItemCt; i++) {
+            MediaContent groupContent = new MediaContent(new UrlReference(URI.create("https://cdn.synthetic.example.com/img/" + seq + "/" + i + ".jpg")));
+            groupContent.setType("image/jpeg");
+            Metadata groupMetadata = new Metadata();
+            if (i == mediaItemCt - 1) {
+                groupMetadata.setThumbnail(new Thumbnail[] { new Thumbnail(URI.create("https://cdn.synthetic.example.com/thumb/" + seq + ".jpg")) });
+            }
+            groups[i] = new MediaGroup(new MediaContent[] { groupContent }, 0, groupMetadata);
+        }
+        mm.setMediaGroups(groups);
+        return mm;
+    }
+
+    private static EntryInformationImpl buildSyntheticITunesModule(Random random, long seq) {
+        EntryInformationImpl iTunes = new EntryInformationImpl();
+        iTunes.setAuthor("Synthetic Podcaster");
+        iTunes.setSubtitle("Episode " + seq);
+        iTunes.setSummary(words(random, 24));
+        iTunes.setDuration(new Duration(60_000L * (5 + random.nextInt(90))));
+        iTunes.setImageUri("https://cdn.synthetic.example.com/art/" + seq + ".jpg");
+        iTunes.setEpisode((int) (seq % Integer.MAX_VALUE));
+        return iTunes;
+    }
+
+    private static final String[] WORDS = {
+            "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+            "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua", "café",
+            "naïve", "straße", "新闻", "über"
+    };
+
+    private static String words(Random random, int ct) {
+        StringBuilder sb = new StringBuilder(ct << 3);
+        for (int i = 0; i < ct; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    @SuppressWarnings({"MagicNumber", "OverlyComplexMethod"})
+    private static String html(Random random, int complexity, int approxLength) {
+        StringBuilder sb = new StringBuilder(approxLength + 256);
+        if (complexity > 0) {
+            sb.append("<div class=\"content\">");
+        }
+        int block = 0;
+        while (sb.length() < approxLength) {
+            if (complexity >= 2 && block % 4 == 1) {
+                sb.append("<ul>");
+                for (int i = 0; i < 3; i++) {
+                    sb.append("<li>").append(words(random, 4)).append("</li>");
+                }
+                sb.append("</ul>");
+            } else if (complexity >= 2 && block % 4 == 2) {
+                sb.append("<table><tr><th>").append(words(random, 1)).append("</th><th>").append(words(random, 1)).append("</th></tr>")
+                        .append("<tr><td>").append(random.nextInt(1000)).append("</td><td>").append(random.nextInt(1000)).append("</td></tr></table>")
+                        .append("<img src=\"https://cdn.synthetic.example.com/inline/").append(random.nextInt(10_000)).append(".png\" alt=\"\"/>");
+            } else if (complexity >= 3 && block % 4 == 3) {
+                sb.append("<!-- SC_OFF --><div><blockquote><p><em><span>").append(words(random, 5))
+                        .append(" &amp; &#32; &lt;tag&gt; &quot;quoted&quot;</span></em></p></blockquote></div><!-- SC_ON -->");
+            } else if (complexity >= 1) {
+                sb.append("<p>");
+                for (int i = 0; i < 12; i++) {
+                    String word = WORDS[random.nextInt(WORDS.length)];
+                    if (i % 5 == 4) {
+                        sb.append("<a href=\"https://synthetic.example.com/").append(random.nextInt(10_000)).append("\">").append(word).append("</a> ");
+                    } else if (i % 7 == 6) {
+                        sb.append("<strong>").append(word).append("</strong> ");
+                    } else {
+                        sb.append(word).append(' ');
+                    }
+                }
+                sb.append("</p>");
+            } else {
+                sb.append(words(random, 12)).append(". ");
+            }
+            block++;
+        }
+        if (complexity > 0) {
+            sb.append("</div>");
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,181 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.rometools.rome.feed.synd.SyndContent;
+import com.rometools.rome.feed.synd.SyndEntry;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An index of the entries already imported into each queue, stored as 128-bit (queue, entry) fingerprints in a
+ * bounded {@link FingerprintStore}.  It allows the importer to convert only the new or updated entries of a feed for
+ * each subscriber; a subscriber that has not yet received a feed naturally receives all of it.
+ * <p>
+ * Entry fingerprints are computed over the raw (un-normalized) entry fields, so that an index lookup does not require
+ * HTML normalization; any change to an entry's id, link, title, description, contents, or timestamps causes it to be
+ * treated as updated.  As with post hashes, entries are keyed by queue rather than by subscription.
+ */
+final class SeenEntryIndex {
+
+    private static final HashFunction FINGERPRINT_FUNCTION = Hashing.murmur3_128();
+
+    private final FingerprintStore store;
+
+    SeenEntryIndex(FingerprintStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Computes the fingerprints of the given entries, as (hi, lo) pairs, in entry order.
+     */
+    static long[] fingerprint(List<SyndEntry> entries) {
+        long[] fingerprints = new long[CollectionUtils.size(entries) << 1];
+        for (int i = 0; i < fingerprints.length; i += 2) {
+            ByteBuffer hash = ByteBuffer.wrap(fingerprint(entries.get(i >> 1))).order(LITTLE_ENDIAN);
+            fingerprints[i] = hash.getLong();
+            fingerprints[i + 1] = hash.getLong();
+        }
+        return fingerprints;
+    }
+
+    private static byte[] fingerprint(SyndEntry e) {
+        Hasher hasher = FINGERPRINT_FUNCTION.newHasher();
+        putString(hasher, e.getUri());
+        putString(hasher, e.getLink());
+        putString(hasher, e.getTitle());
+        putString(hasher, e.getDescription() == null ? null : e.getDescription().getValue());
+        List<SyndContent> contents = e.getContents();
+        hasher.putInt(CollectionUtils.size(contents));
+        if (contents != null) {
+            for (SyndContent c : contents) {
+                putString(hasher, c.getValue());
+            }
+        }
+        hasher.putLong(e.getPublishedDate() == null ? 0L : e.getPublishedDate().getTime());
+        hasher.putLong(e.getUpdatedDate() == null ? 0L : e.getUpdatedDate().getTime());
+        return hasher.hash().asBytes();
+    }
+
+    private static void putString(Hasher hasher, CharSequence s) {
+        if (s == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(s.length()).putString(s, UTF_8);
+        }
+    }
+
+    /**
+     * Returns those of the given entries that have not yet been imported into the given queue, and records all of
+     * them as imported.
+     *
+     * @param queueId      The queue Id of the subscriber.
+     * @param entries      The entries of the fetched feed.
+     * @param fingerprints The entry fingerprints, as computed by {@link #fingerprint(List)}.
+     * @return The new (or updated) entries.
+     */
+    List<SyndEntry> markSeen(Long queueId, List<SyndEntry> entries, long[] fingerprints) {
+        PendingMarks pendingMarks = new PendingMarks();
+        List<SyndEntry> newEntries = selectUnseen(queueId, entries, fingerprints, pendingMarks);
+        commit(pendingMarks);
+        return newEntries;
+    }
+
+    /**
+     * Returns those of the given entries that have not yet been imported into the given queue (nor selected for it
+     * earlier into the same pending marks), without recording them; all of them are added to the given pending marks,
+     * to be recorded as imported by {@link #commit(PendingMarks)} once their import result has been handed off.  Marks
+     * that are never committed are simply discarded, so the entries are selected again on the next fetch.
+     *
+     * @param queueId      The queue Id of the subscriber.
+     * @param entries      The entries of the fetched feed.
+     * @param fingerprints The entry fingerprints, as computed by {@link #fingerprint(List)}.
+     * @param pendingMarks The marks to which the entries' (queue) fingerprints are added.
+     * @return The new (or updated) entries.
+     */
+    List<SyndEntry> selectUnseen(Long queueId, List<SyndEntry> entries, long[] fingerprints, PendingMarks pendingMarks) {
+        long queueMix = mixQueueId(queueId == null ? 0L : queueId);
+        List<SyndEntry> newEntries = new ArrayList<>(4);
+        for (int i = 0; i < fingerprints.length; i += 2) {
+            long hi = fingerprints[i] ^ queueMix;
+            long lo = fingerprints[i + 1] + queueMix;
+            if (pendingMarks.add(hi, lo) && !store.contains(hi, lo)) {
+                newEntries.add(entries.get(i >> 1));
+            }
+        }
+        return newEntries;
+    }
+
+    /**
+     * Records the entries of the given pending marks as imported (refreshing those already recorded).
+     */
+    void commit(PendingMarks pendingMarks) {
+        pendingMarks.marks.forEach(m -> store.add(m.hi(), m.lo()));
+        pendingMarks.marks.clear();
+    }
+
+    /**
+     * The (queue) fingerprints of entries selected for import, but not yet recorded as imported.
+     */
+    static final class PendingMarks {
+
+        private record Mark(long hi, long lo) {
+        }
+
+        private final Set<Mark> marks = new LinkedHashSet<>();
+
+        private boolean add(long hi, long lo) {
+            return marks.add(new Mark(hi, lo));
+        }
+
+        int size() {
+            return marks.size();
+        }
+
+        @Override
+        public String toString() {
+            return "PendingMarks{" +
+                    "size=" + marks.size() +
+                    '}';
+        }
+    }
+
+    /**
+     * The murmur3 64-bit finalizer, used to spread the queue Id across the fingerprint.
+     */
+    private static long mixQueueId(long queueId) {
+        long h = queueId * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    long size() {
+        return store.size();
+    }
+
+    void flush() throws IOException {
+        store.flush();
+    }
+
+    @Override
+    public String toString() {
+        return "SeenEntryIndex{" +
+                "store=" + store +
+                ", size=" + size() +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.lostsidewalk.buffy.rss;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static java.util.Comparator.comparingLong;
+
+/**
+ * Retains the N slowest fetches of an import cycle (by fetch plus conversion time).
+ */
+final class SlowFetchRanking {
+
+    private final int capacity;
+
+    private final PriorityQueue<FetchTimingReport> fastestFirst;
+
+    SlowFetchRanking(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.fastestFirst = new PriorityQueue<>(this.capacity + 1, comparingLong(FetchTimingReport::getTotalNanos));
+    }
+
+    synchronized void offer(FetchTimingReport report) {
+        if (capacity == 0) {
+            return;
+        }
+        if (fastestFirst.size() < capacity) {
+            fastestFirst.add(report);
+        } else if (report.getTotalNanos() > fastestFirst.peek().getTotalNanos()) {
+            fastestFirst.poll();
+            fastestFirst.add(report);
+        }
+    }
+
+    /**
+     * Returns the retained reports, slowest first.
+     */
+    synchronized List<FetchTimingReport> slowestFirst() {
+        List<FetchTimingReport> reports = new ArrayList<>(fastestFirst);
+        reports.sort(comparingLong(FetchTimingReport::getTotalNanos).reversed());
+        return reports;
+    }
+}
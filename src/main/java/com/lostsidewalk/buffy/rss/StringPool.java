@@ -0,0 +1,82 @@
+package com.lostsidewalk.buffy.rss;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A canonicalizing pool for the strings that repeat heavily across the staging posts of one import cycle (importer
+ * descriptions, usernames, feed rights, category names, author names and emails, MIME types, and link relations), so
+ * that the posts share one copy of each instead of carrying their own.  Unlike {@link String#intern()}, a pool is
+ * scoped to a single cycle (and discarded with it), and is bounded: once full, or for long strings that are unlikely
+ * to repeat, strings are passed through as they are.
+ * <p>
+ * Saved bytes are estimated as the size of each duplicate that is replaced by its canonical copy (object header, and
+ * one byte per character, i.e., a lower bound for strings that are not Latin-1).
+ */
+final class StringPool {
+
+    private static final int MAX_POOLED_LENGTH = 256;
+
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private final ConcurrentHashMap<String, String> strings;
+
+    private final int maxStrings;
+
+    private final LongAdder dedupCt = new LongAdder();
+
+    private final LongAdder savedBytes = new LongAdder();
+
+    StringPool(int maxStrings) {
+        this.strings = new ConcurrentHashMap<>(Math.min(maxStrings, 1 << 16));
+        this.maxStrings = maxStrings;
+    }
+
+    /**
+     * Gets the canonical copy of the given string, pooling it if there is none yet.
+     */
+    String canonicalize(String s) {
+        if (s == null || s.length() > MAX_POOLED_LENGTH) {
+            return s;
+        }
+        String canonical = strings.get(s);
+        if (canonical == null) {
+            if (strings.size() >= maxStrings) {
+                return s;
+            }
+            canonical = strings.putIfAbsent(s, s);
+            if (canonical == null) {
+                return s;
+            }
+        }
+        if (canonical != s) {
+            dedupCt.increment();
+            savedBytes.add(STRING_OVERHEAD_BYTES + s.length());
+        }
+        return canonical;
+    }
+
+    /**
+     * Gets the number of duplicate strings replaced by their canonical copy.
+     */
+    long getDedupCt() {
+        return dedupCt.sum();
+    }
+
+    /**
+     * Gets the (estimated) number of bytes held by the duplicate strings replaced by their canonical copy.
+     */
+    long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "StringPool{" +
+                "size=" + strings.size() +
+                ", maxStrings=" + maxStrings +
+                ", dedupCt=" + dedupCt.sum() +
+                ", savedBytes=" + savedBytes.sum() +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.lostsidewalk.buffy.rss;
+
+import lombok.Data;
+
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+
+/**
+ * A data class describing the shape of a synthetic feed produced by the mock data generator, i.e., the feed type,
+ * number of entries, content size and HTML complexity, media/iTunes module usage, enclosure count, character
+ * encoding, and the fraction of entries that change between successive generations of the feed.  All feeds built
+ * from the same spec (and seed) are identical.
+ */
+@Data
+public class SyntheticFeedSpec {
+
+    private final String feedType;
+
+    private final int entryCt;
+
+    private final int contentLength;
+
+    private final int htmlComplexity;
+
+    private final int mediaItemCt;
+
+    private final boolean iTunes;
+
+    private final int enclosureCt;
+
+    private final String encoding;
+
+    private final double changeRate;
+
+    private final long seed;
+
+    private SyntheticFeedSpec(String feedType, int entryCt, int contentLength, int htmlComplexity, int mediaItemCt,
+                              boolean iTunes, int enclosureCt, String encoding, double changeRate, long seed) {
+        this.feedType = defaultIfBlank(feedType, "rss_2.0");
+        this.entryCt = Math.max(0, entryCt);
+        this.contentLength = Math.max(0, contentLength);
+        this.htmlComplexity = Math.max(0, Math.min(MAX_HTML_COMPLEXITY, htmlComplexity));
+        this.mediaItemCt = Math.max(0, mediaItemCt);
+        this.iTunes = iTunes;
+        this.enclosureCt = Math.max(0, enclosureCt);
+        this.encoding = defaultIfBlank(encoding, "UTF-8");
+        this.changeRate = Math.max(0.0, Math.min(1.0, changeRate));
+        this.seed = seed;
+    }
+
+    /**
+     * The maximum supported HTML complexity level (0 = plain text, 1 = inline markup and links,
+     * 2 = lists, tables, and images, 3 = comments, entities, and deeply nested markup).
+     */
+    public static final int MAX_HTML_COMPLEXITY = 3;
+
+    /**
+     * Create a SyntheticFeedSpec object with all parameters.
+     *
+     * @param feedType       The ROME feed type to render, e.g., rss_1.0, rss_2.0, atom_0.3, atom_1.0.
+     * @param entryCt        The number of entries in each generation of the feed.
+     * @param contentLength  The approximate length (in characters) of each entry's content.
+     * @param htmlComplexity The HTML complexity level of entry content (0 through {@link #MAX_HTML_COMPLEXITY}).
+     * @param mediaItemCt    The number of media contents/groups in each entry's media module, or 0 for no media module.
+     * @param iTunes         True to attach an iTunes module to each entry.
+     * @param enclosureCt    The number of enclosures attached to each entry.
+     * @param encoding       The character encoding of the rendered feed.
+     * @param changeRate     The fraction (0.0 to 1.0) of entries that are replaced by new entries in each generation.
+     * @param seed           The seed for all pseudo-random content.
+     * @return A SyntheticFeedSpec object.
+     */
+    public static SyntheticFeedSpec from(String feedType, int entryCt, int contentLength, int htmlComplexity, int mediaItemCt,
+                                         boolean iTunes, int enclosureCt, String encoding, double changeRate, long seed) {
+        return new SyntheticFeedSpec(feedType, entryCt, contentLength, htmlComplexity, mediaItemCt, iTunes, enclosureCt, encoding, changeRate, seed);
+    }
+
+    /**
+     * Create a SyntheticFeedSpec object for a modest, moderately complex feed of the given type.
+     *
+     * @param feedType The ROME feed type to render.
+     * @return A SyntheticFeedSpec object.
+     */
+    public static SyntheticFeedSpec from(String feedType) {
+        return new SyntheticFeedSpec(feedType, 25, 2048, 1, 1, false, 1, "UTF-8", 0.1, 0L);
+    }
+
+    /**
+     * Gets the number of entries that are replaced in each generation of the feed.
+     *
+     * @return The number of new entries per generation.
+     */
+    public final int getNewEntriesPerGeneration() {
+        return (int) Math.round(entryCt * changeRate);
+    }
+}
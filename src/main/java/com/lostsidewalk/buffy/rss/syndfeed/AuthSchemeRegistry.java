@@ -0,0 +1,117 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the HTTP authentication scheme with which each origin (scheme, host, and port) has challenged, so that
+ * credentials for origins known to use Basic authentication can be sent preemptively, with the first request, instead
+ * of in response to a 401 challenge (which costs a round trip on every fetch of a private feed).
+ * <p>
+ * Credentials are only ever sent preemptively over HTTPS, and only to the host of the feed URL itself; a redirect to
+ * another host, or to plain HTTP, falls back to challenge-driven authentication (subject to the usual unsecure redirect
+ * rules).  An origin that rejects preemptive credentials is forgotten, so its next fetch waits for a challenge again.
+ */
+@Slf4j
+final class AuthSchemeRegistry {
+
+    private static final int MAX_ORIGINS = 100_000;
+
+    private static final String BASIC = "basic";
+
+    private final Map<String, String> schemes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ORIGINS;
+        }
+    };
+
+    /**
+     * Records the scheme with which the origin of the given URL challenged (e.g., 'Basic', 'Digest').
+     */
+    synchronized void learn(String url, String scheme) {
+        String origin = originOf(url);
+        if (origin != null && scheme != null) {
+            String previous = schemes.put(origin, scheme.trim().toLowerCase());
+            if (previous == null) {
+                log.debug("Authentication scheme learned, origin={}, scheme={}", origin, scheme);
+            }
+        }
+    }
+
+    /**
+     * Forgets the scheme of the origin of the given URL (e.g., because it rejected preemptive credentials).
+     */
+    synchronized void forget(String url) {
+        String origin = originOf(url);
+        if (origin != null) {
+            schemes.remove(origin);
+        }
+    }
+
+    /**
+     * Checks whether credentials for the given feed URL may be sent preemptively on a request for the given target
+     * URL: the target must be secure, on the same host as the feed, and its origin must be known to use Basic
+     * authentication.
+     */
+    synchronized boolean isPreemptive(String targetUrl, String feedUrl) {
+        String origin = originOf(targetUrl);
+        return origin != null && origin.startsWith("https://")
+                && sameHost(targetUrl, feedUrl)
+                && BASIC.equals(schemes.get(origin));
+    }
+
+    /**
+     * Gets the scheme of the first of the given WWW-Authenticate challenges, or null if there are none; Basic is
+     * preferred if offered.
+     */
+    static String schemeOf(Iterable<String> challenges) {
+        String scheme = null;
+        for (String challenge : challenges) {
+            String challengeScheme = challenge.trim().split("\\s+", 2)[0];
+            if (BASIC.equalsIgnoreCase(challengeScheme)) {
+                return challengeScheme;
+            }
+            if (scheme == null && !challengeScheme.isEmpty()) {
+                scheme = challengeScheme;
+            }
+        }
+        return scheme;
+    }
+
+    private static String originOf(String url) {
+        try {
+            URI uri = url == null ? null : URI.create(url.trim());
+            if (uri == null || uri.getScheme() == null || uri.getHost() == null) {
+                return null;
+            }
+            String scheme = uri.getScheme().toLowerCase();
+            int port = uri.getPort() != -1 ? uri.getPort() : ("https".equals(scheme) ? 443 : 80);
+            return scheme + "://" + uri.getHost().toLowerCase() + ':' + port;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean sameHost(String url, String otherUrl) {
+        if (url == null || otherUrl == null) {
+            return false;
+        }
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null && host.equalsIgnoreCase(URI.create(otherUrl.trim()).getHost());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AuthSchemeRegistry{" +
+                "originCt=" + schemes.size() +
+                '}';
+    }
+}
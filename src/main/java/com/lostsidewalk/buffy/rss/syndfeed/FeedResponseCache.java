@@ -0,0 +1,321 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.Comparator.comparingLong;
+
+/**
+ * An on-disk cache of feed responses, keyed by URL, holding each response's validators (ETag, Last-Modified), body
+ * digest, and gzip-compressed body, so that conditional requests can be made (and 304 responses served) across
+ * restarts.
+ * <p>
+ * Responses are appended to a single log file; an in-memory index maps each URL to its latest record, and is rebuilt
+ * by scanning the log when the cache is opened (a torn record at the end of the log is truncated).  When superseded
+ * records make up more than half of the log, or the log exceeds its size limit, the log is compacted by rewriting the
+ * live records, most recent first, up to the size limit, into a new file that replaces it.
+ * <p>
+ * Record layout: length (int, excluding itself and the trailing checksum), stored-at time (long), URL, ETag,
+ * Last-Modified, and body digest (modified UTF-8, with a presence flag), body length (int), body, CRC32 (int) of
+ * everything after the length.
+ */
+@Slf4j
+final class FeedResponseCache implements Closeable {
+
+    /**
+     * The metadata of a cached response; the body is read from the log on demand.
+     */
+    record CachedResponse(String url, String etag, String lastModified, String bodyDigest, long storedAt, long offset, int length) {
+    }
+
+    private static final long MIN_COMPACTION_BYTES = 1L << 20;
+
+    private static final int MAX_RECORD_LENGTH = 1 << 28;
+
+    private final Path path;
+
+    private final long maxBytes;
+
+    private final Map<String, CachedResponse> index = new HashMap<>();
+
+    private FileChannel channel;
+
+    private long liveBytes;
+
+    private FeedResponseCache(Path path, long maxBytes) {
+        this.path = path;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Opens (or creates) the cache log at the given path, rebuilding the index from its contents.
+     *
+     * @param path     The path of the log file.
+     * @param maxBytes The size (in bytes) beyond which the log is compacted, and to which live records are trimmed.
+     * @return The cache.
+     * @throws IOException If the log cannot be opened or read.
+     */
+    static FeedResponseCache open(Path path, long maxBytes) throws IOException {
+        FeedResponseCache cache = new FeedResponseCache(path, maxBytes);
+        cache.channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            cache.load();
+        } catch (IOException | RuntimeException e) {
+            cache.channel.close();
+            throw e;
+        }
+        log.info("Feed response cache opened, path={}, size={}, liveBytes={}, logBytes={}", path, cache.index.size(), cache.liveBytes, cache.channel.size());
+        return cache;
+    }
+
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        long position = 0L;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        while (position + Integer.BYTES <= fileSize) {
+            lengthBuffer.clear();
+            readFully(lengthBuffer, position);
+            int length = lengthBuffer.getInt(0);
+            long recordEnd = position + Integer.BYTES + length + Integer.BYTES;
+            if (length <= 0 || length > MAX_RECORD_LENGTH || recordEnd > fileSize) {
+                break;
+            }
+            byte[] payload = readPayload(position, length);
+            if (payload == null) {
+                break;
+            }
+            CachedResponse cachedResponse = readMetadata(payload, position, length);
+            CachedResponse superseded = index.put(cachedResponse.url(), cachedResponse);
+            if (superseded != null) {
+                liveBytes -= recordBytes(superseded);
+            }
+            liveBytes += recordBytes(cachedResponse);
+            position = recordEnd;
+        }
+        if (position < fileSize) {
+            log.warn("Feed response cache log has a truncated or corrupt tail; discarding it, path={}, validBytes={}, fileBytes={}", path, position, fileSize);
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * Reads the payload of the record at the given position, returning null if its checksum does not match.
+     */
+    private byte[] readPayload(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length + Integer.BYTES);
+        readFully(buffer, position + Integer.BYTES);
+        byte[] payload = new byte[length];
+        buffer.get(0, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(length) ? payload : null;
+    }
+
+    private static CachedResponse readMetadata(byte[] payload, long offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long storedAt = in.readLong();
+        String url = readString(in);
+        String etag = readString(in);
+        String lastModified = readString(in);
+        String bodyDigest = readString(in);
+        return new CachedResponse(url, etag, lastModified, bodyDigest, storedAt, offset, length);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException("Unexpected end of feed response cache log, path=" + path);
+            }
+        }
+    }
+
+    /**
+     * Gets the metadata of the cached response for the given URL, if any.
+     */
+    synchronized CachedResponse lookup(String url) {
+        return url == null ? null : index.get(url);
+    }
+
+    /**
+     * Reads and decompresses the body of the given cached response.
+     *
+     * @return The (decompressed) response body, or null if the response is no longer cached or its record is corrupt.
+     */
+    synchronized byte[] readBody(CachedResponse cachedResponse) throws IOException {
+        // (the record may have been moved by compaction since it was looked up)
+        CachedResponse current = index.get(cachedResponse.url());
+        if (current == null || current.storedAt() != cachedResponse.storedAt()) {
+            return null; // (superseded or evicted)
+        }
+        byte[] payload = readPayload(current.offset(), current.length());
+        if (payload == null) {
+            log.warn("Feed response cache record is corrupt, url={}", cachedResponse.url());
+            return null;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        in.readLong();
+        for (int i = 0; i < 4; i++) {
+            readString(in);
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        try (InputStream gz = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gz.readAllBytes();
+        }
+    }
+
+    /**
+     * Stores a response, superseding any previously cached response for the same URL.
+     *
+     * @param url          The URL of the response.
+     * @param etag         The ETag response header, or null.
+     * @param lastModified The Last-Modified response header, or null.
+     * @param bodyDigest   The digest of the (decompressed) response body.
+     * @param rawBody      The (decompressed) response body.
+     */
+    synchronized void put(String url, String etag, String lastModified, String bodyDigest, byte[] rawBody) throws IOException {
+        byte[] payload = encode(url, etag, lastModified, bodyDigest, System.currentTimeMillis(), gzip(rawBody));
+        long offset = channel.size();
+        CachedResponse cachedResponse = append(channel, offset, payload, url, etag, lastModified, bodyDigest);
+        CachedResponse superseded = index.put(url, cachedResponse);
+        if (superseded != null) {
+            liveBytes -= recordBytes(superseded);
+        }
+        liveBytes += recordBytes(cachedResponse);
+        long logBytes = channel.size();
+        if (logBytes > MIN_COMPACTION_BYTES && (logBytes > (liveBytes << 1) || logBytes > maxBytes)) {
+            compact();
+        }
+    }
+
+    private static byte[] encode(String url, String etag, String lastModified, String bodyDigest, long storedAt, byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(storedAt);
+        writeString(out, url);
+        writeString(out, etag);
+        writeString(out, lastModified);
+        writeString(out, bodyDigest);
+        out.writeInt(body.length);
+        out.write(body);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static CachedResponse append(FileChannel target, long offset, byte[] payload, String url, String etag, String lastModified, String bodyDigest) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(payload.length + (Integer.BYTES << 1));
+        buffer.putInt(payload.length).put(payload).putInt((int) crc.getValue()).flip();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += target.write(buffer, position);
+        }
+        return new CachedResponse(url, etag, lastModified, bodyDigest, ByteBuffer.wrap(payload).getLong(0), offset, payload.length);
+    }
+
+    /**
+     * Rewrites the live records, most recently stored first, up to the size limit, into a new log that replaces the
+     * current one.
+     */
+    private void compact() throws IOException {
+        long logBytes = channel.size();
+        List<CachedResponse> live = new ArrayList<>(index.values());
+        live.sort(comparingLong(CachedResponse::storedAt).reversed());
+        Path compactPath = path.resolveSibling(path.getFileName() + ".compact");
+        Map<String, CachedResponse> compacted = new HashMap<>(live.size());
+        long compactedBytes = 0L;
+        try (FileChannel target = FileChannel.open(compactPath, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            for (CachedResponse cachedResponse : live) {
+                long recordBytes = recordBytes(cachedResponse);
+                if (compactedBytes + recordBytes > maxBytes) {
+                    continue;
+                }
+                byte[] payload = readPayload(cachedResponse.offset(), cachedResponse.length());
+                if (payload == null) {
+                    continue;
+                }
+                compacted.put(cachedResponse.url(), append(target, compactedBytes, payload, cachedResponse.url(),
+                        cachedResponse.etag(), cachedResponse.lastModified(), cachedResponse.bodyDigest()));
+                compactedBytes += recordBytes;
+            }
+            target.force(true);
+        }
+        channel.close();
+        Files.move(compactPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        channel = FileChannel.open(path, READ, WRITE);
+        index.clear();
+        index.putAll(compacted);
+        liveBytes = compactedBytes;
+        log.info("Feed response cache compacted, path={}, size={}, logBytes={}, compactedBytes={}", path, index.size(), logBytes, compactedBytes);
+    }
+
+    private static long recordBytes(CachedResponse cachedResponse) {
+        return cachedResponse.length() + (Integer.BYTES << 1);
+    }
+
+    private static byte[] gzip(byte[] rawBody) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(rawBody.length >> 2, 64));
+        try (OutputStream gz = new GZIPOutputStream(bytes)) {
+            gz.write(rawBody);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Gets the number of cached responses.
+     */
+    synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Forces cached responses to the storage device.
+     */
+    synchronized void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FeedResponseCache{" +
+                "path=" + path +
+                ", maxBytes=" + maxBytes +
+                ", size=" + index.size() +
+                ", liveBytes=" + liveBytes +
+                '}';
+    }
+}
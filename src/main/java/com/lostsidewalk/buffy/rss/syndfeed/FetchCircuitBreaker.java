@@ -0,0 +1,185 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import static com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType.*;
+
+/**
+ * Tracks consecutive fetch failures by feed URL and by host, and opens a circuit (short-circuiting further fetches)
+ * once a URL or host has failed a number of times in a row.
+ * <p>
+ * A circuit stays open for an exponentially increasing (jittered) backoff period each time it trips; once the period
+ * elapses, the next fetch is let through as a trial, and either closes the circuit (on success) or trips it again.
+ * Failures that arrive while a circuit is already open (e.g., concurrent fetches from the same host) do not extend it.
+ * <p>
+ * Only failures that indicate an unreachable or failing feed are counted: HTTP errors and I/O failures count against
+ * the URL, and DNS, TLS handshake, connect, and timeout failures also count against the host.  Parse and
+ * configuration errors are not counted.
+ */
+@Slf4j
+final class FetchCircuitBreaker {
+
+    private static final Set<QueryExceptionType> URL_FAILURE_TYPES = EnumSet.of(
+            HTTP_CLIENT_ERROR, HTTP_SERVER_ERROR, FILE_NOT_FOUND_EXCEPTION, UNKNOWN_HOST_EXCEPTION, SSL_HANDSHAKE_EXCEPTION,
+            SOCKET_TIMEOUT_EXCEPTION, CONNECT_EXCEPTION, SOCKET_EXCEPTION, IO_EXCEPTION);
+
+    private static final Set<QueryExceptionType> HOST_FAILURE_TYPES = EnumSet.of(
+            UNKNOWN_HOST_EXCEPTION, SSL_HANDSHAKE_EXCEPTION, SOCKET_TIMEOUT_EXCEPTION, CONNECT_EXCEPTION);
+
+    private static final int MAX_CIRCUITS = 100_000;
+
+    private static final class Circuit {
+
+        int consecutiveFailureCt;
+
+        int tripCt;
+
+        long openUntil;
+
+        SyndFeedException lastFailure;
+    }
+
+    private final int failureThreshold;
+
+    private final long baseBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    private final LongSupplier clock;
+
+    private final Map<String, Circuit> urlCircuits = newCircuitMap();
+
+    private final Map<String, Circuit> hostCircuits = newCircuitMap();
+
+    FetchCircuitBreaker(int failureThreshold, long baseBackoffMillis, long maxBackoffMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = Math.max(baseBackoffMillis, maxBackoffMillis);
+        this.clock = clock;
+    }
+
+    private static Map<String, Circuit> newCircuitMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Circuit> eldest) {
+                return size() > MAX_CIRCUITS;
+            }
+        };
+    }
+
+    /**
+     * Checks whether the circuit for the given URL, or its host, is open.
+     *
+     * @return An exception describing the short-circuited fetch (and the most recent failure), or null if the fetch
+     * may proceed.
+     */
+    synchronized SyndFeedException checkOpen(String url) {
+        long now = clock.getAsLong();
+        Circuit urlCircuit = urlCircuits.get(url);
+        if (urlCircuit != null && now < urlCircuit.openUntil) {
+            return new SyndFeedException(url, urlCircuit.lastFailure, "Feed circuit is open until " + Instant.ofEpochMilli(urlCircuit.openUntil)
+                    + " after " + urlCircuit.consecutiveFailureCt + " consecutive failures; last failure: " + urlCircuit.lastFailure.getMessage());
+        }
+        String host = hostOf(url);
+        Circuit hostCircuit = host == null ? null : hostCircuits.get(host);
+        if (hostCircuit != null && now < hostCircuit.openUntil) {
+            return new SyndFeedException(url, hostCircuit.lastFailure, "Host circuit is open until " + Instant.ofEpochMilli(hostCircuit.openUntil)
+                    + " after " + hostCircuit.consecutiveFailureCt + " consecutive failures; last failure: " + hostCircuit.lastFailure.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Records a successful fetch, closing the circuits for the URL and its host.
+     */
+    synchronized void recordSuccess(String url) {
+        urlCircuits.remove(url);
+        String host = hostOf(url);
+        if (host != null) {
+            hostCircuits.remove(host);
+        }
+    }
+
+    /**
+     * Records a failed fetch, tripping the circuits for the URL and/or its host if they have reached the failure
+     * threshold.
+     */
+    synchronized void recordFailure(String url, SyndFeedException failure) {
+        if (failure.shortCircuited || !URL_FAILURE_TYPES.contains(failure.exceptionType)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        recordFailure(urlCircuits, url, failure, now);
+        String host = hostOf(url);
+        if (host != null && HOST_FAILURE_TYPES.contains(failure.exceptionType)) {
+            recordFailure(hostCircuits, host, failure, now);
+        }
+    }
+
+    private void recordFailure(Map<String, Circuit> circuits, String key, SyndFeedException failure, long now) {
+        Circuit circuit = circuits.computeIfAbsent(key, k -> new Circuit());
+        circuit.lastFailure = failure;
+        if (now < circuit.openUntil) {
+            return; // (already open)
+        }
+        circuit.consecutiveFailureCt++;
+        if (circuit.consecutiveFailureCt >= failureThreshold) {
+            circuit.tripCt++;
+            long backoffMillis = backoffMillis(circuit.tripCt);
+            circuit.openUntil = now + backoffMillis;
+            log.info("Fetch circuit opened, key={}, consecutiveFailureCt={}, tripCt={}, backoffMs={}, exceptionType={}",
+                    key, circuit.consecutiveFailureCt, circuit.tripCt, backoffMillis, failure.exceptionType);
+        }
+    }
+
+    /**
+     * Gets the backoff period following the given number of trips: the base period, doubled on each trip, up to the
+     * maximum, less up to 25% jitter (so that circuits opened together do not all close together).
+     */
+    private long backoffMillis(int tripCt) {
+        long backoff = baseBackoffMillis;
+        for (int i = 1; i < tripCt && backoff < maxBackoffMillis; i++) {
+            backoff = backoff < (maxBackoffMillis >> 1) ? backoff << 1 : maxBackoffMillis;
+        }
+        return backoff - (long) (backoff * 0.25 * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = url == null ? null : URI.create(url.trim()).getHost();
+            return host == null ? null : host.toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of URLs and hosts whose circuits are currently open.
+     */
+    synchronized int openCircuitCt() {
+        long now = clock.getAsLong();
+        return (int) (urlCircuits.values().stream().filter(c -> now < c.openUntil).count()
+                + hostCircuits.values().stream().filter(c -> now < c.openUntil).count());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FetchCircuitBreaker{" +
+                "failureThreshold=" + failureThreshold +
+                ", baseBackoffMillis=" + baseBackoffMillis +
+                ", maxBackoffMillis=" + maxBackoffMillis +
+                ", urlCircuitCt=" + urlCircuits.size() +
+                ", hostCircuitCt=" + hostCircuits.size() +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * A data class describing a redirect that has been memoized by the {@link SyndFeedService}, so that fetches of the
+ * original URL go straight to the redirect target until the memo expires and the redirect is revalidated.
+ */
+@Data
+public class MemoizedRedirect implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 482093482093482L;
+
+    private final String url;
+
+    private final String targetUrl;
+
+    private final int httpStatusCode;
+
+    private final long memoizedAt;
+
+    private final long expiresAt;
+
+    private MemoizedRedirect(String url, String targetUrl, int httpStatusCode, long memoizedAt, long expiresAt) {
+        this.url = url;
+        this.targetUrl = targetUrl;
+        this.httpStatusCode = httpStatusCode;
+        this.memoizedAt = memoizedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Create a MemoizedRedirect object with all parameters.
+     *
+     * @param url            The original URL of the feed.
+     * @param targetUrl      The URL to which the feed is redirected.
+     * @param httpStatusCode The HTTP status code of the redirect.
+     * @param memoizedAt     The time at which the redirect was memoized (or last revalidated), in epoch milliseconds.
+     * @param expiresAt      The time after which the redirect must be revalidated, in epoch milliseconds.
+     * @return A MemoizedRedirect object.
+     */
+    public static MemoizedRedirect from(String url, String targetUrl, int httpStatusCode, long memoizedAt, long expiresAt) {
+        return new MemoizedRedirect(url, targetUrl, httpStatusCode, memoizedAt, expiresAt);
+    }
+
+    /**
+     * Checks whether this is a permanent redirect.
+     *
+     * @return true if the redirect is permanent, false otherwise.
+     */
+    public final boolean isPermanent() {
+        return SyndFeedService.isPermanentRedirect(httpStatusCode);
+    }
+}
@@ -0,0 +1,109 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import static com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService.isPermanentRedirect;
+
+/**
+ * A bounded (least recently used) memo of feed redirects, keyed by original URL.  Permanent redirects are memoized
+ * for a long period, after which they are revalidated by fetching the original URL again; temporary redirects are
+ * memoized only briefly, so that a burst of fetches of the same feed does not repeat the redirect hop.
+ */
+@Slf4j
+final class RedirectMemo {
+
+    private static final int MAX_REDIRECTS = 100_000;
+
+    private final long permanentTtlMillis;
+
+    private final long temporaryTtlMillis;
+
+    private final LongSupplier clock;
+
+    private final Map<String, MemoizedRedirect> redirects = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MemoizedRedirect> eldest) {
+            return size() > MAX_REDIRECTS;
+        }
+    };
+
+    RedirectMemo(long permanentTtlMillis, long temporaryTtlMillis, LongSupplier clock) {
+        this.permanentTtlMillis = permanentTtlMillis;
+        this.temporaryTtlMillis = temporaryTtlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the unexpired redirect memoized for the given URL, if any.
+     */
+    synchronized MemoizedRedirect lookup(String url) {
+        MemoizedRedirect redirect = redirects.get(url);
+        return redirect != null && clock.getAsLong() < redirect.getExpiresAt() ? redirect : null;
+    }
+
+    /**
+     * Memoizes a redirect that has been followed successfully.
+     */
+    synchronized void memoize(String url, String targetUrl, int httpStatusCode) {
+        long ttlMillis = isPermanentRedirect(httpStatusCode) ? permanentTtlMillis : temporaryTtlMillis;
+        if (url == null || targetUrl == null || ttlMillis <= 0L) {
+            return;
+        }
+        long now = clock.getAsLong();
+        MemoizedRedirect previous = redirects.put(url, MemoizedRedirect.from(url, targetUrl, httpStatusCode, now, now + ttlMillis));
+        if (previous == null || !previous.getTargetUrl().equals(targetUrl)) {
+            log.debug("Redirect memoized, url={}, targetUrl={}, httpStatusCode={}", url, targetUrl, httpStatusCode);
+        }
+    }
+
+    /**
+     * Forgets the redirect memoized for the given URL (e.g., because it no longer redirects, or its target failed).
+     *
+     * @return true if a redirect was memoized for the URL.
+     */
+    synchronized boolean invalidate(String url) {
+        return redirects.remove(url) != null;
+    }
+
+    /**
+     * Gets a snapshot of the unexpired memoized redirects.
+     */
+    synchronized List<MemoizedRedirect> snapshot() {
+        long now = clock.getAsLong();
+        List<MemoizedRedirect> snapshot = new ArrayList<>(redirects.size());
+        for (MemoizedRedirect redirect : redirects.values()) {
+            if (now < redirect.getExpiresAt()) {
+                snapshot.add(redirect);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Restores previously memoized redirects (e.g., persisted from a snapshot), skipping any that have expired.
+     */
+    synchronized void restore(Collection<MemoizedRedirect> memoizedRedirects) {
+        long now = clock.getAsLong();
+        for (MemoizedRedirect redirect : memoizedRedirects) {
+            if (redirect.getUrl() != null && redirect.getTargetUrl() != null && now < redirect.getExpiresAt()) {
+                redirects.put(redirect.getUrl(), redirect);
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RedirectMemo{" +
+                "permanentTtlMillis=" + permanentTtlMillis +
+                ", temporaryTtlMillis=" + temporaryTtlMillis +
+                ", size=" + redirects.size() +
+                '}';
+    }
+}
@@ -57,6 +57,17 @@ public class SyndFeedException extends Exception {
      */
     public final QueryExceptionType exceptionType;
 
+    /**
+     * The timing and size breakdown of the failed fetch, up to the point of failure.
+     */
+    public final SyndFeedTimings timings;
+
+    /**
+     * Whether the fetch was not attempted because the circuit for the feed (or its host) is open following repeated
+     * failures; if so, the other fields describe the most recent failure.
+     */
+    public final boolean shortCircuited;
+
     /**
      * Constructs a `SyndFeedException` with detailed information about the exception.
      *
@@ -79,6 +90,8 @@ public class SyndFeedException extends Exception {
         this.redirectHttpStatusCode = redirectHttpStatusCode;
         this.redirectHttpStatusMessage = redirectHttpStatusMessage;
         this.exceptionType = exceptionType;
+        this.timings = SyndFeedTimings.empty();
+        this.shortCircuited = false;
     }
 
     /**
@@ -102,6 +115,8 @@ public class SyndFeedException extends Exception {
         this.redirectUrl = redirectUrl;
         this.redirectHttpStatusCode = redirectHttpStatusCode;
         this.redirectHttpStatusMessage = redirectHttpStatusMessage;
+        this.timings = SyndFeedTimings.empty();
+        this.shortCircuited = false;
         // Determine the exception type based on the underlying exception.
         //noinspection IfStatementWithTooManyBranches,ChainOfInstanceofChecks
         if (exception instanceof FileNotFoundException) {
@@ -126,4 +141,57 @@ public class SyndFeedException extends Exception {
             exceptionType = OTHER;
         }
     }
+
+    /**
+     * Creates a `SyndFeedException` for a feed that was not fetched because its query type is not supported.
+     *
+     * @param feedUrl The URL of the feed.
+     * @param queryType The unsupported query type.
+     * @return The exception.
+     */
+    public static SyndFeedException unsupportedQueryType(String feedUrl, String queryType) {
+        return new SyndFeedException(feedUrl, null, null, null, null, null,
+                new IllegalArgumentException("Query type not supported: " + queryType));
+    }
+
+    /**
+     * Constructs a `SyndFeedException` that copies the given exception, attaching the timing breakdown of the fetch.
+     *
+     * @param exception The exception to copy.
+     * @param timings The timing and size breakdown of the failed fetch.
+     */
+    SyndFeedException(SyndFeedException exception, SyndFeedTimings timings) {
+        super(exception.getMessage(), exception.getCause());
+        setStackTrace(exception.getStackTrace());
+        this.feedUrl = exception.feedUrl;
+        this.httpStatusCode = exception.httpStatusCode;
+        this.httpStatusMessage = exception.httpStatusMessage;
+        this.redirectUrl = exception.redirectUrl;
+        this.redirectHttpStatusCode = exception.redirectHttpStatusCode;
+        this.redirectHttpStatusMessage = exception.redirectHttpStatusMessage;
+        this.exceptionType = exception.exceptionType;
+        this.timings = timings;
+        this.shortCircuited = exception.shortCircuited;
+    }
+
+    /**
+     * Constructs a `SyndFeedException` for a fetch that was short-circuited because the circuit for the feed (or its
+     * host) is open, describing the most recent failure.
+     *
+     * @param feedUrl The URL of the feed.
+     * @param lastFailure The most recent failure of the feed (or its host).
+     * @param message The detail message.
+     */
+    SyndFeedException(String feedUrl, SyndFeedException lastFailure, String message) {
+        super(message);
+        this.feedUrl = feedUrl;
+        this.httpStatusCode = lastFailure.httpStatusCode;
+        this.httpStatusMessage = lastFailure.httpStatusMessage;
+        this.redirectUrl = lastFailure.redirectUrl;
+        this.redirectHttpStatusCode = lastFailure.redirectHttpStatusCode;
+        this.redirectHttpStatusMessage = lastFailure.redirectHttpStatusMessage;
+        this.exceptionType = lastFailure.exceptionType;
+        this.timings = SyndFeedTimings.empty();
+        this.shortCircuited = true;
+    }
 }
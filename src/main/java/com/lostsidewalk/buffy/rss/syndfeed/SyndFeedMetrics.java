@@ -0,0 +1,118 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.concurrent.ExecutorService;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Records the phases of a feed fetch (DNS, connect, time-to-first-byte, body download, decompression, parse) and the bytes
+ * transferred, tagged by outcome and error type.
+ */
+final class SyndFeedMetrics {
+
+    private static final String OUTCOME_TAG = "outcome";
+
+    private static final String ERROR_TYPE_TAG = "error_type";
+
+    private final MeterRegistry meterRegistry;
+
+    SyndFeedMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Wraps the given executor so that queue wait time (executor.idle) and execution time (executor) are recorded.
+     */
+    ExecutorService monitor(ExecutorService executorService, String name) {
+        return ExecutorServiceMetrics.monitor(meterRegistry, executorService, name, "rss.fetch");
+    }
+
+    void recordSuccess(SyndFeedTimings timings) {
+        record(timings, Tags.of(OUTCOME_TAG, "success", ERROR_TYPE_TAG, "none"));
+    }
+
+    void recordFailure(SyndFeedTimings timings, QueryExceptionType exceptionType) {
+        record(timings, Tags.of(OUTCOME_TAG, "failure", ERROR_TYPE_TAG, exceptionType == null ? "none" : exceptionType.name()));
+    }
+
+    void recordShortCircuit(QueryExceptionType exceptionType) {
+        Counter.builder("rss.fetch.short_circuited")
+                .description("Fetches not attempted because the circuit for the feed or its host is open")
+                .tag(ERROR_TYPE_TAG, exceptionType == null ? "none" : exceptionType.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    void monitorOpenCircuits(FetchCircuitBreaker circuitBreaker) {
+        Gauge.builder("rss.fetch.circuits.open", circuitBreaker, FetchCircuitBreaker::openCircuitCt)
+                .description("Feed URLs and hosts whose circuits are currently open")
+                .register(meterRegistry);
+    }
+
+    void recordRedirectMemo(String outcome) {
+        Counter.builder("rss.fetch.redirect.memo")
+                .description("Redirect memo activity (fetches sent straight to a memoized redirect target, redirects memoized, memos dropped)")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    void recordPreemptiveAuth(String outcome) {
+        Counter.builder("rss.fetch.auth.preemptive")
+                .description("Requests sent with preemptive Basic credentials, by outcome (accepted, or rejected with a 401)")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    void recordNotModified() {
+        cacheCounter("not_modified").increment();
+    }
+
+    void recordCacheStore() {
+        cacheCounter("stored").increment();
+    }
+
+    private Counter cacheCounter(String outcome) {
+        return Counter.builder("rss.fetch.cache")
+                .description("Response cache activity (not-modified responses served from the cache, and responses stored)")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    private void record(SyndFeedTimings timings, Tags tags) {
+        timer("rss.fetch.dns", "DNS resolution time", tags).record(timings.getDnsNanos(), NANOSECONDS);
+        timer("rss.fetch.connect", "TCP/TLS connect time", tags).record(timings.getConnectNanos(), NANOSECONDS);
+        timer("rss.fetch.ttfb", "Time from request to response headers", tags).record(timings.getFirstByteNanos(), NANOSECONDS);
+        timer("rss.fetch.download", "Response body download time", tags).record(timings.getDownloadNanos(), NANOSECONDS);
+        timer("rss.fetch.decompress", "Response body decompression time", tags).record(timings.getDecompressNanos(), NANOSECONDS);
+        timer("rss.fetch.parse", "Feed parse time", tags).record(timings.getParseNanos(), NANOSECONDS);
+        timer("rss.fetch.duration", "Total fetch time", tags).record(timings.getTotalNanos(), NANOSECONDS);
+        summary("rss.fetch.bytes.wire", "Response body bytes on the wire", tags).record(timings.getCompressedBytes());
+        summary("rss.fetch.bytes.raw", "Response body bytes after decompression", tags).record(timings.getRawBytes());
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
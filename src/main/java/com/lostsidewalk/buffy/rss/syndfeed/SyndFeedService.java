@@ -1,23 +1,47 @@
 package com.lostsidewalk.buffy.rss.syndfeed;
 
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lostsidewalk.buffy.rss.syndfeed.FeedResponseCache.CachedResponse;
+import com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.FeedException;
-import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.Authenticator;
-import java.net.HttpURLConnection;
-import java.net.PasswordAuthentication;
-import java.net.URL;
+import java.io.Serial;
+import java.net.*;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.UnresolvedAddressException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
 import java.util.zip.GZIPInputStream;
 
 import static com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
 
 /**
@@ -32,6 +56,189 @@ public class SyndFeedService {
      */
     SyndFeedService() {
     }
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private SyndFeedMetrics syndFeedMetrics;
+
+    private HttpClient httpClient;
+
+    private ExecutorService parseThreadPool;
+
+    private volatile FeedResponseCache responseCache;
+
+    private volatile FetchCircuitBreaker circuitBreaker;
+
+    private volatile RedirectMemo redirectMemo;
+
+    private volatile AuthSchemeRegistry authSchemes;
+
+    /**
+     * Initializes fetch instrumentation after construction, using the application meter registry if one is present,
+     * along with the non-blocking HTTP client and the bounded parse thread pool used by asynchronous fetches.
+     */
+    @PostConstruct
+    protected final void postConstruct() {
+        syndFeedMetrics = new SyndFeedMetrics(ofNullable(meterRegistry).orElse(Metrics.globalRegistry));
+        httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        int processorCt = Runtime.getRuntime().availableProcessors() - 1;
+        processorCt = processorCt > 0 ? processorCt : 1;
+        log.info("Starting feed parse thread pool: processorCount={}", processorCt);
+        // bounded hand-off; when the queue is full, the completing network thread parses the feed itself (back-pressure)
+        // (only used by fetches that do not supply their own parse executor; threads are started on first use)
+        parseThreadPool = syndFeedMetrics.monitor(new ThreadPoolExecutor(processorCt, processorCt, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(processorCt << 4),
+                new ThreadFactoryBuilder().setNameFormat("syndfeed-parse-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy()), "syndfeed-parse");
+    }
+
+    /**
+     * Opens the on-disk response cache at the given path.  Once open, responses that carry validators (ETag or
+     * Last-Modified) are cached, subsequent requests for their URLs are made conditional, and 'not modified' responses
+     * are served from the cache.
+     *
+     * @param path The path of the cache log file.
+     * @param maxBytes The size limit of the cache log, in bytes.
+     * @throws IOException If the cache cannot be opened.
+     */
+    public final void openResponseCache(Path path, long maxBytes) throws IOException {
+        FeedResponseCache previous = responseCache;
+        responseCache = FeedResponseCache.open(path, maxBytes);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Enables per-URL and per-host circuit breaking.  Once a feed (or its host) has failed the given number of times in
+     * a row, further fetches fail immediately, without touching the network, with a short-circuited SyndFeedException
+     * describing the most recent failure, for a backoff period that doubles each time the circuit re-opens.
+     *
+     * @param failureThreshold The number of consecutive failures after which a circuit opens.
+     * @param baseBackoffMillis The period for which a circuit first stays open, in milliseconds.
+     * @param maxBackoffMillis The maximum period for which a circuit stays open, in milliseconds.
+     */
+    public final void configureCircuitBreaker(int failureThreshold, long baseBackoffMillis, long maxBackoffMillis) {
+        FetchCircuitBreaker breaker = new FetchCircuitBreaker(failureThreshold, baseBackoffMillis, maxBackoffMillis, System::currentTimeMillis);
+        syndFeedMetrics.monitorOpenCircuits(breaker);
+        circuitBreaker = breaker;
+        log.info("Fetch circuit breaker configured: {}", breaker);
+    }
+
+    /**
+     * Enables redirect memoization.  Once a feed's redirect has been followed successfully, subsequent fetches go
+     * straight to the redirect target (reporting the memoized redirect, as though it had been followed) until the memo
+     * expires, at which point the original URL is fetched again to revalidate it.  A memo is dropped as soon as a fetch
+     * through it fails, or the original URL stops redirecting.
+     *
+     * @param permanentTtlMillis The period for which permanent redirects are memoized, in milliseconds.
+     * @param temporaryTtlMillis The period for which temporary redirects are memoized, in milliseconds (0 to not memoize them).
+     */
+    public final void configureRedirectMemo(long permanentTtlMillis, long temporaryTtlMillis) {
+        RedirectMemo memo = new RedirectMemo(permanentTtlMillis, temporaryTtlMillis, System::currentTimeMillis);
+        RedirectMemo previous = redirectMemo;
+        if (previous != null) {
+            memo.restore(previous.snapshot());
+        }
+        redirectMemo = memo;
+        log.info("Redirect memo configured: {}", memo);
+    }
+
+    /**
+     * Enables preemptive Basic authentication.  The authentication scheme with which each origin challenges is
+     * remembered, and once an origin is known to use Basic authentication, credentials for feeds on that origin are
+     * sent with the first request rather than in response to a 401 challenge, saving a round trip per fetch.
+     * Credentials are only sent preemptively over HTTPS, to the host of the feed URL itself; redirects elsewhere fall
+     * back to challenge-driven authentication.
+     */
+    public final void configurePreemptiveAuth() {
+        AuthSchemeRegistry registry = new AuthSchemeRegistry();
+        authSchemes = registry;
+        log.info("Preemptive authentication configured: {}", registry);
+    }
+
+    /**
+     * Gets the currently memoized (unexpired) redirects, e.g., so that the caller can persist them, or update the
+     * URLs of permanently redirected subscriptions.
+     *
+     * @return A list of memoized redirects, or an empty list if redirect memoization is not enabled.
+     */
+    public final List<MemoizedRedirect> getMemoizedRedirects() {
+        RedirectMemo memo = redirectMemo;
+        return memo == null ? List.of() : memo.snapshot();
+    }
+
+    /**
+     * Restores previously memoized redirects (e.g., as persisted from {@link #getMemoizedRedirects()}); expired
+     * redirects are ignored.  Has no effect unless redirect memoization is enabled.
+     *
+     * @param memoizedRedirects The redirects to restore.
+     */
+    public final void restoreMemoizedRedirects(Collection<MemoizedRedirect> memoizedRedirects) {
+        RedirectMemo memo = redirectMemo;
+        if (memo != null && memoizedRedirects != null) {
+            memo.restore(memoizedRedirects);
+        }
+    }
+
+    /**
+     * Resolves the given URL through its memoized permanent redirect, if any (e.g., so that subscriptions to a feed's
+     * old and new URLs can share a single fetch).  Temporary redirects are not resolved.
+     *
+     * @param url The URL to resolve.
+     * @return The target of the URL's memoized permanent redirect, or the URL itself.
+     */
+    public final String resolvePermanentRedirect(String url) {
+        RedirectMemo memo = redirectMemo;
+        MemoizedRedirect memoizedRedirect = memo == null || url == null ? null : memo.lookup(url);
+        return memoizedRedirect != null && memoizedRedirect.isPermanent() ? memoizedRedirect.getTargetUrl() : url;
+    }
+
+    private MemoizedRedirect lookupRedirect(String url) {
+        RedirectMemo memo = redirectMemo;
+        MemoizedRedirect memoizedRedirect = memo == null ? null : memo.lookup(url);
+        if (memoizedRedirect != null) {
+            syndFeedMetrics.recordRedirectMemo("hit");
+        }
+        return memoizedRedirect;
+    }
+
+    private void memoizeRedirect(String url, String redirectUrl, int statusCode) {
+        RedirectMemo memo = redirectMemo;
+        if (memo != null) {
+            memo.memoize(url, redirectUrl, statusCode);
+            syndFeedMetrics.recordRedirectMemo("stored");
+        }
+    }
+
+    private void invalidateRedirect(String url) {
+        RedirectMemo memo = redirectMemo;
+        if (memo != null && memo.invalidate(url)) {
+            syndFeedMetrics.recordRedirectMemo("invalidated");
+        }
+    }
+
+    /**
+     * Stops the parse thread pool, and flushes and closes the response cache, if open.
+     */
+    @PreDestroy
+    protected final void preDestroy() {
+        if (parseThreadPool != null) {
+            parseThreadPool.shutdown();
+        }
+        FeedResponseCache cache = responseCache;
+        responseCache = null;
+        if (cache != null) {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                log.warn("Unable to close feed response cache, due to: {}", e.getMessage());
+            }
+        }
+    }
     /**
      * A data class representing a syndicated feed response.
      */
@@ -44,14 +251,54 @@ public class SyndFeedService {
         final String redirectUrl;
         final Integer redirectHttpStatusCode;
         final String redirectHttpStatusMessage;
+        final SyndFeedTimings timings;
+        final String bodyDigest;
+        final boolean unchanged;
 
-        private SyndFeedResponse(SyndFeed syndFeed, int httpStatusCode, String httpStatusMessage, String redirectUrl, Integer redirectHttpStatusCode, String redirectHttpStatusMessage) {
+        private SyndFeedResponse(SyndFeed syndFeed, int httpStatusCode, String httpStatusMessage, String redirectUrl, Integer redirectHttpStatusCode, String redirectHttpStatusMessage, SyndFeedTimings timings, String bodyDigest, boolean unchanged) {
             this.syndFeed = syndFeed;
             this.httpStatusCode = httpStatusCode;
             this.httpStatusMessage = httpStatusMessage;
             this.redirectUrl = redirectUrl;
             this.redirectHttpStatusCode = redirectHttpStatusCode;
             this.redirectHttpStatusMessage = redirectHttpStatusMessage;
+            this.timings = timings;
+            this.bodyDigest = bodyDigest;
+            this.unchanged = unchanged;
+        }
+
+        /**
+         * Create a SyndFeedResponse object with all parameters, including the fetch timing breakdown and body digest.
+         *
+         * @param syndFeed The syndicated feed.
+         * @param httpStatusCode The HTTP status code of the response.
+         * @param httpStatusMessage The HTTP status message.
+         * @param redirectUrl The redirect URL if applicable, otherwise null.
+         * @param redirectHttpStatusCode The HTTP status code of the redirect if applicable, otherwise null.
+         * @param redirectHttpStatusMessage The HTTP status message of the redirect if applicable, otherwise null.
+         * @param timings The timing and size breakdown of the fetch.
+         * @param bodyDigest The digest of the (decompressed) response body, or null if not computed.
+         * @return A SyndFeedResponse object.
+         */
+        public static SyndFeedResponse from(SyndFeed syndFeed, int httpStatusCode, String httpStatusMessage, String redirectUrl, Integer redirectHttpStatusCode, String redirectHttpStatusMessage, SyndFeedTimings timings, String bodyDigest) {
+            return new SyndFeedResponse(syndFeed, httpStatusCode, httpStatusMessage, redirectUrl, redirectHttpStatusCode, redirectHttpStatusMessage, timings, bodyDigest, false);
+        }
+
+        /**
+         * Create a SyndFeedResponse object for a response whose body is identical to that of a previous fetch, and so
+         * was not parsed (the syndicated feed is null).
+         *
+         * @param httpStatusCode The HTTP status code of the response.
+         * @param httpStatusMessage The HTTP status message.
+         * @param redirectUrl The redirect URL if applicable, otherwise null.
+         * @param redirectHttpStatusCode The HTTP status code of the redirect if applicable, otherwise null.
+         * @param redirectHttpStatusMessage The HTTP status message of the redirect if applicable, otherwise null.
+         * @param timings The timing and size breakdown of the fetch.
+         * @param bodyDigest The digest of the (decompressed) response body.
+         * @return A SyndFeedResponse object.
+         */
+        public static SyndFeedResponse unchanged(int httpStatusCode, String httpStatusMessage, String redirectUrl, Integer redirectHttpStatusCode, String redirectHttpStatusMessage, SyndFeedTimings timings, String bodyDigest) {
+            return new SyndFeedResponse(null, httpStatusCode, httpStatusMessage, redirectUrl, redirectHttpStatusCode, redirectHttpStatusMessage, timings, bodyDigest, true);
         }
 
         /**
@@ -66,7 +313,7 @@ public class SyndFeedService {
          * @return A SyndFeedResponse object.
          */
         public static SyndFeedResponse from(SyndFeed syndFeed, int httpStatusCode, String httpStatusMessage, String redirectUrl, Integer redirectHttpStatusCode, String redirectHttpStatusMessage) {
-            return new SyndFeedResponse(syndFeed, httpStatusCode, httpStatusMessage, redirectUrl, redirectHttpStatusCode, redirectHttpStatusMessage);
+            return new SyndFeedResponse(syndFeed, httpStatusCode, httpStatusMessage, redirectUrl, redirectHttpStatusCode, redirectHttpStatusMessage, SyndFeedTimings.empty(), null, false);
         }
 
         /**
@@ -78,7 +325,7 @@ public class SyndFeedService {
          * @return A SyndFeedResponse object.
          */
         public static SyndFeedResponse from(SyndFeed syndFeed, int httpStatusCode, String httpStatusMessage) {
-            return new SyndFeedResponse(syndFeed, httpStatusCode, httpStatusMessage, null, null, null);
+            return new SyndFeedResponse(syndFeed, httpStatusCode, httpStatusMessage, null, null, null, SyndFeedTimings.empty(), null, false);
         }
     }
 
@@ -94,33 +341,89 @@ public class SyndFeedService {
      * @throws SyndFeedException If an error occurs during fetching or processing the feed.
      */
     public SyndFeedResponse fetch(String url, String username, String password, String userAgent, boolean followUnsecureRedirects) throws SyndFeedException {
+        FetchCircuitBreaker breaker = circuitBreaker;
+        SyndFeedException shortCircuit = checkCircuit(breaker, url);
+        if (shortCircuit != null) {
+            throw shortCircuit;
+        }
+        SyndFeedTimings timings = new SyndFeedTimings();
+        try {
+            SyndFeedResponse response = fetch(url, username, password, userAgent, followUnsecureRedirects, timings);
+            timings.stop();
+            syndFeedMetrics.recordSuccess(timings);
+            if (breaker != null) {
+                breaker.recordSuccess(url);
+            }
+            return response;
+        } catch (SyndFeedException e) {
+            timings.stop();
+            syndFeedMetrics.recordFailure(timings, e.exceptionType);
+            if (breaker != null) {
+                breaker.recordFailure(url, e);
+            }
+            invalidateRedirect(url);
+            throw new SyndFeedException(e, timings);
+        }
+    }
+
+    /**
+     * Checks the circuit for the given URL (and its host), if circuit breaking is enabled.
+     *
+     * @return A short-circuited exception if the circuit is open, otherwise null.
+     */
+    private SyndFeedException checkCircuit(FetchCircuitBreaker breaker, String url) {
+        SyndFeedException shortCircuit = breaker == null ? null : breaker.checkOpen(url);
+        if (shortCircuit != null) {
+            log.debug("Fetch short-circuited, url={}, due to: {}", url, shortCircuit.getMessage());
+            syndFeedMetrics.recordShortCircuit(shortCircuit.exceptionType);
+        }
+        return shortCircuit;
+    }
+
+    private SyndFeedResponse fetch(String url, String username, String password, String userAgent, boolean followUnsecureRedirects, SyndFeedTimings timings) throws SyndFeedException {
+        FeedResponseCache responseCache = this.responseCache;
         Integer statusCode = null;
         String statusMessage = null;
         String redirectUrl = null;
         Integer redirectStatusCode = null;
         String redirectStatusMessage = null;
         try {
-            // setup the initial connection
-            HttpURLConnection feedConnection = openFeedConnection(url);
-            // add authentication, if any
-            boolean hasAuthenticationHeaders = addAuthenticator(feedConnection, username, password);
-            // add the UA header
-            addUserAgentHeader(feedConnection, userAgent);
-            // add the cache control header
-            addCacheControlHeader(feedConnection);
-            // get the (initial) status response
-            statusCode = getStatusCode(feedConnection);
-            // get the (initial) status message
-            statusMessage = getStatusMessage(feedConnection);
+            // if the feed is known to redirect, skip the initial request (and report the memoized redirect)
+            MemoizedRedirect memoizedRedirect = lookupRedirect(url);
+            HttpURLConnection feedConnection = null;
+            boolean hasAuthenticationHeaders = username != null && password != null;
+            boolean isPreemptiveAuth = false;
+            if (memoizedRedirect != null) {
+                statusCode = memoizedRedirect.getHttpStatusCode();
+                statusMessage = reasonPhrase(statusCode);
+            } else {
+                // setup the initial connection
+                feedConnection = openFeedConnection(url);
+                // add authentication, if any (preemptively, if the origin is known to use Basic authentication)
+                isPreemptiveAuth = addCredentials(feedConnection, url, url, username, password);
+                // add the UA header
+                addUserAgentHeader(feedConnection, userAgent);
+                // add the cache control header
+                addCacheControlHeader(feedConnection);
+                // add the conditional request headers, if we have a cached response
+                addConditionalHeaders(feedConnection, responseCache);
+                // resolve and connect
+                connect(feedConnection, timings);
+                // get the (initial) status response
+                statusCode = getStatusCode(feedConnection, timings);
+                checkPreemptiveAuth(url, statusCode, isPreemptiveAuth);
+                // get the (initial) status message
+                statusMessage = getStatusMessage(feedConnection);
+            }
             // if this is a redirect...
             if (isRedirect(statusCode)) {
                 // get the redirect location URL
-                redirectUrl = feedConnection.getHeaderField("Location");
-                if (isPermanentRedirect(statusCode)) {
+                redirectUrl = memoizedRedirect != null ? memoizedRedirect.getTargetUrl() : feedConnection.getHeaderField("Location");
+                if (memoizedRedirect == null && isPermanentRedirect(statusCode)) {
                     log.warn("Feed is permanently redirected, url={}, redirectUrl={}", url, redirectUrl);
                 }
                 // check for unsecure redirect
-                boolean isUnsecureRedirect = "http".equalsIgnoreCase(feedConnection.getURL().getProtocol());
+                boolean isUnsecureRedirect = memoizedRedirect != null ? isUnsecureRedirect(URI.create(url), URI.create(redirectUrl)) : "http".equalsIgnoreCase(feedConnection.getURL().getProtocol());
                 // if this is an unsecure redirect (no auth), but we have been instructed not to trust such redirects, bail
                 if (isUnsecureRedirect && (hasAuthenticationHeaders || !followUnsecureRedirects)) {
                     throw new SyndFeedException(url, statusCode, statusMessage, redirectUrl, null, null, UNSECURE_REDIRECT); // (http URL got redirected)
@@ -128,11 +431,16 @@ public class SyndFeedService {
                 // open the redirect connection
                 feedConnection = openFeedConnection(redirectUrl);
                 // add authentication to the redirect, if any
-                addAuthenticator(feedConnection, username, password);
+                isPreemptiveAuth = addCredentials(feedConnection, redirectUrl, url, username, password);
                 // add the UA header to the redirect
                 addUserAgentHeader(feedConnection, userAgent);
+                // add the conditional request headers to the redirect, if we have a cached response
+                addConditionalHeaders(feedConnection, responseCache);
+                // resolve and connect the redirect
+                connect(feedConnection, timings);
                 // get the redirect status response
-                redirectStatusCode = getStatusCode(feedConnection);
+                redirectStatusCode = getStatusCode(feedConnection, timings);
+                checkPreemptiveAuth(redirectUrl, redirectStatusCode, isPreemptiveAuth);
                 // get the redirect status message
                 redirectStatusMessage = getStatusMessage(feedConnection);
                 // if *this* is also a redirect...
@@ -148,55 +456,567 @@ public class SyndFeedService {
                 } else if (isServerError(redirectStatusCode)) {
                     throw new SyndFeedException(url, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, HTTP_SERVER_ERROR); // (server error status on redirect)
                 }
+                // remember the redirect, so that subsequent fetches go straight to its target
+                if (memoizedRedirect == null) {
+                    memoizeRedirect(url, redirectUrl, statusCode);
+                }
             } else if (isClientError(statusCode)) { // otherwise, if this is a client error (4xx)
                 // CLIENT_ERROR
                 throw new SyndFeedException(url, statusCode, statusMessage, null, null, null, HTTP_CLIENT_ERROR);
             } else if (isServerError(statusCode)) { // otherwise, if this is a server error (5xx)
                 // SERVER_ERROR
                 throw new SyndFeedException(url, statusCode, statusMessage, null, null, null, HTTP_SERVER_ERROR);
-            }  // otherwise (this is a success response)
+            } else { // otherwise (this is a success response)
+                invalidateRedirect(url); // (the feed no longer redirects)
+            }
 
+            String responseUrl = feedConnection.getURL().toString();
+            if (feedConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // serve the cached body
+                CachedResponse cachedResponse = responseCache == null ? null : responseCache.lookup(responseUrl);
+                byte[] rawBytes = readCachedBody(responseCache, cachedResponse, responseUrl, timings);
+                syndFeedMetrics.recordNotModified();
+                SyndFeed feed = parse(rawBytes, timings);
+                return SyndFeedResponse.from(feed, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, timings, cachedResponse.bodyDigest());
+            }
             try (InputStream is = feedConnection.getInputStream()) {
-                InputStream toRead;
-                if (containsIgnoreCase(feedConnection.getContentEncoding(), "gzip")) {
-                    toRead = new GZIPInputStream(is);
-                } else {
-                    toRead = is;
-                }
-                byte[] allBytes = toRead.readAllBytes();
-                toRead.close();
-                ByteArrayInputStream bais = new ByteArrayInputStream(allBytes);
-                XmlReader xmlReader = new XmlReader(bais);
-                SyndFeedInput input = new SyndFeedInput();
-                input.setAllowDoctypes(true);
-                SyndFeed feed = input.build(xmlReader);
-                return SyndFeedResponse.from(feed, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage);
+                timings.mark();
+                byte[] allBytes = is.readAllBytes();
+                timings.downloadNanos += timings.lap();
+                timings.compressedBytes += allBytes.length;
+                byte[] rawBytes = decompress(allBytes, feedConnection.getContentEncoding(), timings);
+                String bodyDigest = digest(rawBytes);
+                SyndFeed feed = parse(rawBytes, timings);
+                storeResponse(responseCache, syndFeedMetrics, responseUrl, feedConnection.getHeaderField("ETag"), feedConnection.getHeaderField("Last-Modified"), bodyDigest, rawBytes);
+                return SyndFeedResponse.from(feed, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, timings, bodyDigest);
             }
         } catch (FeedException | IOException | IllegalArgumentException e) {
             throw new SyndFeedException(url, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, e);
         }
     }
 
+    /**
+     * Decompresses a downloaded feed body, if necessary, recording decompress time.
+     */
+    private static byte[] decompress(byte[] body, String contentEncoding, SyndFeedTimings timings) throws IOException {
+        timings.mark();
+        byte[] allBytes = body;
+        if (containsIgnoreCase(contentEncoding, "gzip")) {
+            try (InputStream toRead = new GZIPInputStream(new ByteArrayInputStream(allBytes))) {
+                allBytes = toRead.readAllBytes();
+            }
+            timings.decompressNanos += timings.lap();
+        }
+        timings.rawBytes += allBytes.length;
+        return allBytes;
+    }
+
+    /**
+     * Reads the body of a cached response, in reply to a 'not modified' response, recording its size.
+     */
+    private static byte[] readCachedBody(FeedResponseCache responseCache, CachedResponse cachedResponse, String responseUrl, SyndFeedTimings timings) throws IOException {
+        byte[] rawBytes = cachedResponse == null ? null : responseCache.readBody(cachedResponse);
+        if (rawBytes == null) {
+            throw new IOException("Not modified response without a cached body, url=" + responseUrl);
+        }
+        timings.rawBytes += rawBytes.length;
+        return rawBytes;
+    }
+
+    /**
+     * Stores a successful response in the response cache (if open), provided it carries at least one validator.
+     */
+    private static void storeResponse(FeedResponseCache responseCache, SyndFeedMetrics syndFeedMetrics, String responseUrl, String etag, String lastModified, String bodyDigest, byte[] rawBytes) {
+        if (responseCache == null || (etag == null && lastModified == null)) {
+            return;
+        }
+        try {
+            responseCache.put(responseUrl, etag, lastModified, bodyDigest, rawBytes);
+            syndFeedMetrics.recordCacheStore();
+        } catch (IOException e) {
+            log.warn("Unable to cache feed response, url={}, due to: {}", responseUrl, e.getMessage());
+        }
+    }
+
+    /**
+     * Computes a fast (non-cryptographic) digest of a decompressed feed body, used to detect unchanged responses.
+     */
+    private static String digest(byte[] rawBytes) {
+        return BODY_DIGEST_FUNCTION.hashBytes(rawBytes).toString();
+    }
+
+    /**
+     * Parses a decompressed feed body, recording parse time.
+     */
+    private static SyndFeed parse(byte[] allBytes, SyndFeedTimings timings) throws IOException, FeedException {
+        timings.mark();
+        ByteArrayInputStream bais = new ByteArrayInputStream(allBytes);
+        XmlReader xmlReader = new XmlReader(bais);
+        SyndFeed feed = PooledSyndFeedInput.build(xmlReader);
+        timings.parseNanos += timings.lap();
+        timings.entryCt = size(feed.getEntries());
+        return feed;
+    }
+
+    /**
+     * Fetches a syndicated feed from the given URL without blocking the calling thread.  Network I/O is performed by
+     * a non-blocking HTTP client; once the body has been downloaded, decompression and parsing are handed off to the
+     * service's bounded parse thread pool.  Redirects, authentication, and error classification follow the same rules
+     * as {@link #fetch(String, String, String, String, boolean)}.
+     *
+     * @param url The URL of the syndicated feed.
+     * @param username The username for authentication, or null if not needed.
+     * @param password The password for authentication, or null if not needed.
+     * @param userAgent The user agent to use for the request.
+     * @param followUnsecureRedirects Whether to follow unsecured redirects.
+     * @return A future that completes with the SyndFeedResponse, or completes exceptionally with a SyndFeedException.
+     */
+    public CompletableFuture<SyndFeedResponse> fetchAsync(String url, String username, String password, String userAgent, boolean followUnsecureRedirects) {
+        return fetchAsync(url, username, password, userAgent, followUnsecureRedirects, parseThreadPool);
+    }
+
+    /**
+     * Fetches a syndicated feed from the given URL without blocking the calling thread, parsing the downloaded body
+     * on the given executor, so that fetch concurrency and parse (CPU) concurrency can be sized independently.
+     *
+     * @param url The URL of the syndicated feed.
+     * @param username The username for authentication, or null if not needed.
+     * @param password The password for authentication, or null if not needed.
+     * @param userAgent The user agent to use for the request.
+     * @param followUnsecureRedirects Whether to follow unsecured redirects.
+     * @param parseExecutor The executor on which the downloaded body is decompressed and parsed.
+     * @return A future that completes with the SyndFeedResponse, or completes exceptionally with a SyndFeedException.
+     */
+    public CompletableFuture<SyndFeedResponse> fetchAsync(String url, String username, String password, String userAgent, boolean followUnsecureRedirects, Executor parseExecutor) {
+        return fetchAsync(url, username, password, userAgent, followUnsecureRedirects, parseExecutor, null);
+    }
+
+    /**
+     * Fetches a syndicated feed from the given URL without blocking the calling thread, parsing the downloaded body
+     * on the given executor.  If the digest of the (decompressed) body matches the given digest of a previous fetch,
+     * parsing is skipped and the future completes with an 'unchanged' response.
+     *
+     * @param url The URL of the syndicated feed.
+     * @param username The username for authentication, or null if not needed.
+     * @param password The password for authentication, or null if not needed.
+     * @param userAgent The user agent to use for the request.
+     * @param followUnsecureRedirects Whether to follow unsecured redirects.
+     * @param parseExecutor The executor on which the downloaded body is decompressed and parsed.
+     * @param previousBodyDigest The body digest of a previous response from this URL, or null to always parse.
+     * @return A future that completes with the SyndFeedResponse, or completes exceptionally with a SyndFeedException.
+     */
+    public CompletableFuture<SyndFeedResponse> fetchAsync(String url, String username, String password, String userAgent, boolean followUnsecureRedirects, Executor parseExecutor, String previousBodyDigest) {
+        FetchCircuitBreaker breaker = circuitBreaker;
+        SyndFeedException shortCircuit = checkCircuit(breaker, url);
+        if (shortCircuit != null) {
+            return failedFuture(shortCircuit);
+        }
+        AsyncFetch asyncFetch = new AsyncFetch(url, username, password, userAgent, followUnsecureRedirects, previousBodyDigest);
+        CompletableFuture<SyndFeedResponse> result = new CompletableFuture<>();
+        asyncFetch.start(parseExecutor).whenComplete((response, throwable) -> {
+            asyncFetch.timings.stop();
+            if (throwable == null) {
+                syndFeedMetrics.recordSuccess(asyncFetch.timings);
+                if (breaker != null) {
+                    breaker.recordSuccess(url);
+                }
+                result.complete(response);
+            } else {
+                SyndFeedException e = asyncFetch.toSyndFeedException(throwable);
+                syndFeedMetrics.recordFailure(asyncFetch.timings, e.exceptionType);
+                if (breaker != null) {
+                    breaker.recordFailure(url, e);
+                }
+                invalidateRedirect(url);
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private static final HashFunction BODY_DIGEST_FUNCTION = Hashing.murmur3_128();
+
+    private static final int MAX_ASYNC_REDIRECTS = 5;
+
+    /**
+     * The state of a single asynchronous fetch.  The initial request and at most one redirect hop are reported, as in
+     * the synchronous path; further redirects on the hop are followed transparently as long as they stay on the same
+     * protocol (as HttpURLConnection does), up to a small limit.
+     */
+    private final class AsyncFetch {
+
+        final String url;
+        final String username;
+        final String password;
+        final String userAgent;
+        final boolean followUnsecureRedirects;
+        final String previousBodyDigest;
+        final SyndFeedTimings timings = new SyndFeedTimings();
+
+        Integer statusCode;
+        String statusMessage;
+        String redirectUrl;
+        Integer redirectStatusCode;
+        String redirectStatusMessage;
+
+        AsyncFetch(String url, String username, String password, String userAgent, boolean followUnsecureRedirects, String previousBodyDigest) {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+            this.userAgent = userAgent;
+            this.followUnsecureRedirects = followUnsecureRedirects;
+            this.previousBodyDigest = previousBodyDigest;
+        }
+
+        CompletableFuture<SyndFeedResponse> start(Executor parseExecutor) {
+            // if the feed is known to redirect, skip the initial request (and report the memoized redirect)
+            MemoizedRedirect memoizedRedirect = lookupRedirect(url);
+            CompletableFuture<HttpResponse<byte[]>> response = memoizedRedirect == null ?
+                    send(url, true).thenCompose(this::onResponse) : followMemoizedRedirect(memoizedRedirect);
+            // (challenges for schemes other than Basic are answered by the synchronous path's Authenticator, on the parse executor)
+            return response.thenApplyAsync(this::parseResponse, parseExecutor)
+                    .exceptionallyCompose(throwable -> unwrap(throwable) instanceof UnsupportedChallengeException ?
+                            supplyAsync(this::fetchSynchronously, parseExecutor) : failedFuture(throwable));
+        }
+
+        private SyndFeedResponse fetchSynchronously() {
+            log.debug("Feed challenged for a scheme other than Basic, fetching synchronously, url={}", url);
+            try {
+                return fetch(url, username, password, userAgent, followUnsecureRedirects, timings);
+            } catch (SyndFeedException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        private CompletableFuture<HttpResponse<byte[]>> followMemoizedRedirect(MemoizedRedirect memoizedRedirect) {
+            statusCode = memoizedRedirect.getHttpStatusCode();
+            statusMessage = reasonPhrase(statusCode);
+            redirectUrl = memoizedRedirect.getTargetUrl();
+            boolean isUnsecureRedirect = isUnsecureRedirect(URI.create(url), URI.create(redirectUrl));
+            boolean hasAuthenticationHeaders = username != null && password != null;
+            if (isUnsecureRedirect && (hasAuthenticationHeaders || !followUnsecureRedirects)) {
+                return failedFuture(newException(UNSECURE_REDIRECT)); // (http URL got redirected)
+            }
+            return send(redirectUrl, false)
+                    .thenCompose(r -> followSameProtocolRedirects(r, 0))
+                    .thenCompose(this::onRedirectResponse);
+        }
+
+        private CompletableFuture<HttpResponse<byte[]>> onResponse(HttpResponse<byte[]> response) {
+            statusCode = response.statusCode();
+            statusMessage = reasonPhrase(statusCode);
+            // if this is a redirect...
+            if (isRedirect(statusCode)) {
+                // get the redirect location URL
+                redirectUrl = response.headers().firstValue("Location").map(l -> response.uri().resolve(l).toString()).orElse(null);
+                if (isPermanentRedirect(statusCode)) {
+                    log.warn("Feed is permanently redirected, url={}, redirectUrl={}", url, redirectUrl);
+                }
+                if (redirectUrl == null) {
+                    return failedFuture(newException(new IllegalArgumentException("Redirect without location, url=" + url)));
+                }
+                // if this is an unsecure redirect (no auth), but we have been instructed not to trust such redirects, bail
+                boolean isUnsecureRedirect = isUnsecureRedirect(response.uri(), URI.create(redirectUrl));
+                boolean hasAuthenticationHeaders = username != null && password != null;
+                if (isUnsecureRedirect && (hasAuthenticationHeaders || !followUnsecureRedirects)) {
+                    return failedFuture(newException(UNSECURE_REDIRECT)); // (http URL got redirected)
+                }
+                return send(redirectUrl, false)
+                        .thenCompose(r -> followSameProtocolRedirects(r, 0))
+                        .thenCompose(this::onRedirectResponse)
+                        .thenApply(r -> {
+                            // remember the redirect, so that subsequent fetches go straight to its target
+                            memoizeRedirect(url, redirectUrl, statusCode);
+                            return r;
+                        });
+            } else if (isClientError(statusCode)) { // otherwise, if this is a client error (4xx)
+                return failedFuture(newException(HTTP_CLIENT_ERROR));
+            } else if (isServerError(statusCode)) { // otherwise, if this is a server error (5xx)
+                return failedFuture(newException(HTTP_SERVER_ERROR));
+            }  // otherwise (this is a success response)
+            invalidateRedirect(url); // (the feed no longer redirects)
+            return completedFuture(response);
+        }
+
+        private CompletableFuture<HttpResponse<byte[]>> followSameProtocolRedirects(HttpResponse<byte[]> response, int hopCt) {
+            if (!isRedirect(response.statusCode()) || hopCt >= MAX_ASYNC_REDIRECTS) {
+                return completedFuture(response);
+            }
+            URI location = response.headers().firstValue("Location").map(l -> response.uri().resolve(l)).orElse(null);
+            if (location == null || !response.uri().getScheme().equalsIgnoreCase(location.getScheme())) {
+                return completedFuture(response);
+            }
+            return send(location.toString(), false).thenCompose(r -> followSameProtocolRedirects(r, hopCt + 1));
+        }
+
+        private CompletableFuture<HttpResponse<byte[]>> onRedirectResponse(HttpResponse<byte[]> response) {
+            redirectStatusCode = response.statusCode();
+            redirectStatusMessage = reasonPhrase(redirectStatusCode);
+            // if *this* is also a redirect...
+            if (isRedirect(redirectStatusCode)) {
+                return failedFuture(newException(TOO_MANY_REDIRECTS)); // (redirect got redirected)
+            }
+            // if the redirect ends in CLIENT ERROR (response status 4xx)
+            if (isClientError(redirectStatusCode)) {
+                return failedFuture(newException(HTTP_CLIENT_ERROR)); // (client error status on redirect)
+            } else if (isServerError(redirectStatusCode)) {
+                return failedFuture(newException(HTTP_SERVER_ERROR)); // (server error status on redirect)
+            }
+            return completedFuture(response);
+        }
+
+        /**
+         * Sends a GET request for the given URL.  Credentials (if any) are supplied in response to a Basic challenge,
+         * or up front if preemptive authentication is enabled and the target's origin is known to use Basic
+         * authentication.  A challenge for any other scheme fails the request with an UnsupportedChallengeException,
+         * upon which the fetch is retried on the synchronous path, whose Authenticator answers all the schemes that
+         * HttpURLConnection supports (e.g., Digest).
+         */
+        private CompletableFuture<HttpResponse<byte[]>> send(String targetUrl, boolean isInitialRequest) {
+            boolean hasCredentials = username != null && password != null;
+            AuthSchemeRegistry registry = authSchemes;
+            if (hasCredentials && registry != null && registry.isPreemptive(targetUrl, url)) {
+                return send(targetUrl, isInitialRequest, true).thenApply(response -> {
+                    checkPreemptiveAuth(targetUrl, response.statusCode(), true);
+                    return response;
+                });
+            }
+            return send(targetUrl, isInitialRequest, false).thenCompose(response -> {
+                if (response.statusCode() == HttpURLConnection.HTTP_UNAUTHORIZED && hasCredentials) {
+                    String scheme = AuthSchemeRegistry.schemeOf(response.headers().allValues("WWW-Authenticate"));
+                    if (registry != null) {
+                        registry.learn(targetUrl, scheme);
+                    }
+                    if ("Basic".equalsIgnoreCase(scheme)) {
+                        return send(targetUrl, isInitialRequest, true);
+                    }
+                    if (scheme != null) {
+                        return failedFuture(new UnsupportedChallengeException(targetUrl, scheme));
+                    }
+                }
+                return completedFuture(response);
+            });
+        }
+
+        private CompletableFuture<HttpResponse<byte[]>> send(String targetUrl, boolean isInitialRequest, boolean withCredentials) {
+            FeedResponseCache cache = responseCache;
+            CachedResponse cachedResponse = cache == null ? null : cache.lookup(targetUrl);
+            HttpRequest request;
+            try {
+                HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(targetUrl)).GET();
+                // add the UA header
+                builder.header("User-Agent", userAgent);
+                // add the cache control header
+                if (isInitialRequest) {
+                    builder.header("Cache-Control", "no-cache");
+                }
+                // add authentication, if challenged
+                if (withCredentials) {
+                    builder.header("Authorization", basicAuthorization(username, password));
+                }
+                // add the conditional request headers, if we have a cached response
+                if (cachedResponse != null) {
+                    ofNullable(cachedResponse.etag()).ifPresent(etag -> builder.header("If-None-Match", etag));
+                    ofNullable(cachedResponse.lastModified()).ifPresent(lastModified -> builder.header("If-Modified-Since", lastModified));
+                }
+                request = builder.build();
+            } catch (IllegalArgumentException e) {
+                return failedFuture(e);
+            }
+            timings.mark();
+            // DNS and connect time are not separately observable here; both are included in time-to-first-byte
+            return httpClient.sendAsync(request, responseInfo -> {
+                timings.firstByteNanos += timings.lap();
+                return BodySubscribers.ofByteArray();
+            }).thenApply(response -> {
+                timings.downloadNanos += timings.lap();
+                timings.compressedBytes += response.body().length;
+                return response;
+            });
+        }
+
+        private SyndFeedResponse parseResponse(HttpResponse<byte[]> response) {
+            try {
+                FeedResponseCache cache = responseCache;
+                String responseUrl = response.uri().toString();
+                if (response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    // serve the cached body, unless the importer already has it
+                    CachedResponse cachedResponse = cache == null ? null : cache.lookup(responseUrl);
+                    syndFeedMetrics.recordNotModified();
+                    if (cachedResponse != null && cachedResponse.bodyDigest() != null && cachedResponse.bodyDigest().equals(previousBodyDigest)) {
+                        log.debug("Feed is not modified, skipping parse, url={}", url);
+                        return SyndFeedResponse.unchanged(statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, timings, cachedResponse.bodyDigest());
+                    }
+                    byte[] rawBytes = readCachedBody(cache, cachedResponse, responseUrl, timings);
+                    SyndFeed feed = parse(rawBytes, timings);
+                    return SyndFeedResponse.from(feed, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, timings, cachedResponse.bodyDigest());
+                }
+                byte[] rawBytes = decompress(response.body(), response.headers().firstValue("Content-Encoding").orElse(null), timings);
+                String bodyDigest = digest(rawBytes);
+                String etag = response.headers().firstValue("ETag").orElse(null);
+                String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+                if (bodyDigest.equals(previousBodyDigest)) {
+                    log.debug("Feed body is unchanged, skipping parse, url={}", url);
+                    // (the body was parsed before, but its validators may have changed; the next fetch sends the current ones)
+                    storeResponse(cache, syndFeedMetrics, responseUrl, etag, lastModified, bodyDigest, rawBytes);
+                    return SyndFeedResponse.unchanged(statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, timings, bodyDigest);
+                }
+                SyndFeed feed = parse(rawBytes, timings);
+                storeResponse(cache, syndFeedMetrics, responseUrl, etag, lastModified, bodyDigest, rawBytes);
+                return SyndFeedResponse.from(feed, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, timings, bodyDigest);
+            } catch (FeedException | IOException | IllegalArgumentException e) {
+                throw new CompletionException(newException(e));
+            }
+        }
+
+        private SyndFeedException newException(QueryExceptionType exceptionType) {
+            return new SyndFeedException(url, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, exceptionType);
+        }
+
+        private SyndFeedException newException(Exception exception) {
+            return new SyndFeedException(url, statusCode, statusMessage, redirectUrl, redirectStatusCode, redirectStatusMessage, exception);
+        }
+
+        SyndFeedException toSyndFeedException(Throwable throwable) {
+            Throwable cause = unwrap(throwable);
+            SyndFeedException e;
+            //noinspection ChainOfInstanceofChecks
+            if (cause instanceof SyndFeedException sfe) {
+                e = sfe;
+            } else if (cause instanceof HttpTimeoutException) {
+                // map the HTTP client's exceptions onto those raised by HttpURLConnection, for classification
+                e = newException(new SocketTimeoutException(cause.getMessage()));
+            } else if (cause instanceof ConnectException && cause.getCause() instanceof UnresolvedAddressException) {
+                e = newException(new UnknownHostException(URI.create(url).getHost()));
+            } else if (cause instanceof Exception ex) {
+                e = newException(ex);
+            } else {
+                e = newException(new ExecutionException(cause));
+            }
+            return new SyndFeedException(e, timings);
+        }
+    }
+
+    /**
+     * Checks whether a redirect from the given (plain HTTP) URL changes protocol.  HttpURLConnection follows
+     * same-protocol redirects itself, so the synchronous path only ever sees (and rejects) those that change protocol;
+     * the asynchronous path, which sees every redirect, rejects the same ones.
+     */
+    private static boolean isUnsecureRedirect(URI fromUri, URI toUri) {
+        return "http".equalsIgnoreCase(fromUri.getScheme()) && !"http".equalsIgnoreCase(toUri.getScheme());
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Signals that an asynchronous request was challenged for an authentication scheme that the non-blocking client
+     * does not answer (anything but Basic), so that the fetch falls back to the synchronous path.
+     */
+    private static final class UnsupportedChallengeException extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedChallengeException(String targetUrl, String scheme) {
+            super("Unsupported authentication challenge, url=" + targetUrl + ", scheme=" + scheme, null, false, false);
+        }
+    }
+
+    /**
+     * Gets the standard reason phrase for the given status code; the non-blocking client does not expose the reason
+     * phrase sent by the server (and HTTP/2 responses do not carry one).
+     */
+    private static String reasonPhrase(int statusCode) {
+        //noinspection SwitchStatementWithTooManyBranches
+        return switch (statusCode) {
+            case 200 -> "OK";
+            case 203 -> "Non-Authoritative Information";
+            case 204 -> "No Content";
+            case 301 -> "Moved Permanently";
+            case 302 -> "Found";
+            case 303 -> "See Other";
+            case 304 -> "Not Modified";
+            case 307 -> "Temporary Redirect";
+            case 308 -> "Permanent Redirect";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 410 -> "Gone";
+            case 429 -> "Too Many Requests";
+            case 500 -> "Internal Server Error";
+            case 502 -> "Bad Gateway";
+            case 503 -> "Service Unavailable";
+            case 504 -> "Gateway Timeout";
+            default -> null;
+        };
+    }
+
     @SuppressWarnings("OverlyBroadThrowsClause") // MalformedURLException extends IOException
     private static HttpURLConnection openFeedConnection(String url) throws IOException {
         URL feedUrl = new URL(url);
         return (HttpURLConnection) feedUrl.openConnection();
     }
 
-    private static boolean addAuthenticator(HttpURLConnection feedConnection, String username, String password) {
-        if (username != null && password != null) {
-            feedConnection.setAuthenticator(new Authenticator() {
-                @Override
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(username, password.toCharArray());
-                }
-            });
+    /**
+     * Adds authentication to the given connection, if there are credentials: preemptively, as a Basic Authorization
+     * header, if preemptive authentication is enabled and permitted for the target URL (see
+     * {@link AuthSchemeRegistry#isPreemptive(String, String)}), or otherwise by way of an Authenticator, which supplies
+     * the credentials only in response to a challenge (and records the origin's challenge scheme).
+     *
+     * @return true if the credentials were added preemptively.
+     */
+    private boolean addCredentials(HttpURLConnection feedConnection, String targetUrl, String feedUrl, String username, String password) {
+        if (username == null || password == null) {
+            return false;
+        }
+        AuthSchemeRegistry registry = authSchemes;
+        if (registry != null && registry.isPreemptive(targetUrl, feedUrl)) {
+            feedConnection.setRequestProperty("Authorization", basicAuthorization(username, password));
             return true;
         }
-
+        feedConnection.setAuthenticator(new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                if (registry != null && getRequestorType() == RequestorType.SERVER && getRequestingURL() != null) {
+                    registry.learn(getRequestingURL().toString(), getRequestingScheme());
+                }
+                return new PasswordAuthentication(username, password.toCharArray());
+            }
+        });
         return false;
     }
 
+    /**
+     * Records the outcome of a request made with preemptive credentials; if they were rejected, the origin is
+     * forgotten, so that subsequent requests wait for a challenge.
+     */
+    private void checkPreemptiveAuth(String targetUrl, Integer statusCode, boolean isPreemptiveAuth) {
+        if (!isPreemptiveAuth) {
+            return;
+        }
+        AuthSchemeRegistry registry = authSchemes;
+        if (statusCode != null && statusCode == HttpURLConnection.HTTP_UNAUTHORIZED) {
+            log.debug("Preemptive credentials rejected, url={}", targetUrl);
+            if (registry != null) {
+                registry.forget(targetUrl);
+            }
+            syndFeedMetrics.recordPreemptiveAuth("rejected");
+        } else {
+            syndFeedMetrics.recordPreemptiveAuth("accepted");
+        }
+    }
+
+    private static String basicAuthorization(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(UTF_8));
+    }
+
     private static void addUserAgentHeader(HttpURLConnection feedConnection, String userAgent) {
         feedConnection.setRequestProperty("User-Agent", userAgent);
     }
@@ -205,9 +1025,37 @@ public class SyndFeedService {
         feedConnection.setRequestProperty("Cache-Control", "no-cache");
     }
 
-    private static int getStatusCode(HttpURLConnection feedConnection) throws IOException {
+    private static void addConditionalHeaders(HttpURLConnection feedConnection, FeedResponseCache responseCache) {
+        CachedResponse cachedResponse = responseCache == null ? null : responseCache.lookup(feedConnection.getURL().toString());
+        if (cachedResponse != null) {
+            if (cachedResponse.etag() != null) {
+                feedConnection.setRequestProperty("If-None-Match", cachedResponse.etag());
+            }
+            if (cachedResponse.lastModified() != null) {
+                feedConnection.setRequestProperty("If-Modified-Since", cachedResponse.lastModified());
+            }
+        }
+    }
+
+    /**
+     * Resolves the host (warming the JVM address cache) and opens the connection, so that DNS and connect time are
+     * measured separately from the request itself.
+     */
+    private static void connect(HttpURLConnection feedConnection, SyndFeedTimings timings) throws IOException {
+        timings.mark();
+        //noinspection ResultOfMethodCallIgnored
+        InetAddress.getAllByName(feedConnection.getURL().getHost());
+        timings.dnsNanos += timings.lap();
+        feedConnection.connect();
+        timings.connectNanos += timings.lap();
+    }
+
+    private static int getStatusCode(HttpURLConnection feedConnection, SyndFeedTimings timings) throws IOException {
+        timings.mark();
         feedConnection.setInstanceFollowRedirects(true);
-        return feedConnection.getResponseCode();
+        int statusCode = feedConnection.getResponseCode();
+        timings.firstByteNanos += timings.lap();
+        return statusCode;
     }
 
     /**
@@ -221,8 +1069,9 @@ public class SyndFeedService {
     }
 
     /**
-     * Checks if the given HTTP status code represents a redirection response, including temporary redirects (HTTP 302 Found),
-     * permanent redirects (HTTP 301 Moved Permanently), and "See Other" (HTTP 303 See Other) responses.
+     * Checks if the given HTTP status code represents a redirection response, including temporary redirects (HTTP 302 Found,
+     * HTTP 307 Temporary Redirect), permanent redirects (HTTP 301 Moved Permanently, HTTP 308 Permanent Redirect), and
+     * "See Other" (HTTP 303 See Other) responses.
      *
      * @param statusCode The HTTP status code to check.
      * @return true if the status code represents a redirection, false otherwise.
@@ -233,25 +1082,31 @@ public class SyndFeedService {
     }
 
     /**
-     * Checks if the given HTTP status code represents a temporary redirect (HTTP 302 Found).
+     * Checks if the given HTTP status code represents a temporary redirect (HTTP 302 Found, HTTP 307 Temporary Redirect).
      *
      * @param statusCode The HTTP status code to check.
      * @return true if the status code represents a temporary redirect, false otherwise.
      */
     public static boolean isTemporaryRedirect(int statusCode) {
-        return statusCode == HttpURLConnection.HTTP_MOVED_TEMP;
+        return statusCode == HttpURLConnection.HTTP_MOVED_TEMP || statusCode == HTTP_TEMPORARY_REDIRECT;
     }
 
     /**
-     * Checks if the given HTTP status code represents a permanent redirect (HTTP 301 Moved Permanently).
+     * Checks if the given HTTP status code represents a permanent redirect (HTTP 301 Moved Permanently, HTTP 308
+     * Permanent Redirect).
      *
      * @param statusCode The HTTP status code to check.
      * @return true if the status code represents a permanent redirect, false otherwise.
      */
     public static boolean isPermanentRedirect(int statusCode) {
-        return statusCode == HttpURLConnection.HTTP_MOVED_PERM;
+        return statusCode == HttpURLConnection.HTTP_MOVED_PERM || statusCode == HTTP_PERMANENT_REDIRECT;
     }
 
+    // (not defined by HttpURLConnection)
+    private static final int HTTP_TEMPORARY_REDIRECT = 307;
+
+    private static final int HTTP_PERMANENT_REDIRECT = 308;
+
     /**
      * Checks if the given HTTP status code represents a client error response (4xx status codes).
      *
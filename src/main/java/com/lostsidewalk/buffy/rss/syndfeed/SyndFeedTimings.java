@@ -0,0 +1,212 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * The timing and size breakdown of a single feed fetch (including any redirect hop): DNS resolution, connect,
+ * time-to-first-byte, body download, decompression, parse, and (once the importer has converted the feed) conversion
+ * time, along with compressed and raw body sizes and the number of entries in the feed.
+ */
+public final class SyndFeedTimings implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 839201938475029384L;
+
+    private final long startNanos = nanoTime();
+
+    private long markNanos = startNanos;
+
+    private long totalNanos = -1L;
+
+    long dnsNanos;
+
+    long connectNanos;
+
+    long firstByteNanos;
+
+    long downloadNanos;
+
+    long decompressNanos;
+
+    long parseNanos;
+
+    private volatile long convertNanos;
+
+    long compressedBytes;
+
+    long rawBytes;
+
+    int entryCt;
+
+    SyndFeedTimings() {
+    }
+
+    /**
+     * Create an empty SyndFeedTimings object, e.g., for responses that were not fetched over the network.
+     *
+     * @return A SyndFeedTimings object with all phases at zero.
+     */
+    public static SyndFeedTimings empty() {
+        SyndFeedTimings timings = new SyndFeedTimings();
+        timings.totalNanos = 0L;
+        return timings;
+    }
+
+    /**
+     * Resets the lap marker to now.
+     */
+    void mark() {
+        markNanos = nanoTime();
+    }
+
+    /**
+     * Returns the time elapsed since the previous lap (or mark), and resets the lap marker.
+     */
+    long lap() {
+        long now = nanoTime();
+        long elapsed = now - markNanos;
+        markNanos = now;
+        return elapsed;
+    }
+
+    /**
+     * Fixes the total fetch time (called once, when the fetch completes or fails).
+     */
+    void stop() {
+        if (totalNanos < 0L) {
+            totalNanos = nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Adds time spent converting the fetched feed into staging posts.
+     *
+     * @param nanos The conversion time to add, in nanoseconds.
+     */
+    public void addConvertNanos(long nanos) {
+        convertNanos += nanos;
+    }
+
+    /**
+     * Gets the DNS resolution time.
+     *
+     * @return The DNS resolution time, in nanoseconds.
+     */
+    public long getDnsNanos() {
+        return dnsNanos;
+    }
+
+    /**
+     * Gets the TCP/TLS connect time.
+     *
+     * @return The TCP/TLS connect time, in nanoseconds.
+     */
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    /**
+     * Gets the time from sending the request to receiving the response headers (server think time).
+     *
+     * @return The time from sending the request to receiving the response headers (server think time), in nanoseconds.
+     */
+    public long getFirstByteNanos() {
+        return firstByteNanos;
+    }
+
+    /**
+     * Gets the response body download time.
+     *
+     * @return The response body download time, in nanoseconds.
+     */
+    public long getDownloadNanos() {
+        return downloadNanos;
+    }
+
+    /**
+     * Gets the response body decompression time.
+     *
+     * @return The response body decompression time, in nanoseconds.
+     */
+    public long getDecompressNanos() {
+        return decompressNanos;
+    }
+
+    /**
+     * Gets the feed parse time.
+     *
+     * @return The feed parse time, in nanoseconds.
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Gets the time spent converting the feed into staging posts (across all subscribers).
+     *
+     * @return The time spent converting the feed into staging posts (across all subscribers), in nanoseconds.
+     */
+    public long getConvertNanos() {
+        return convertNanos;
+    }
+
+    /**
+     * Gets the total fetch time (excluding conversion).
+     *
+     * @return The total fetch time (excluding conversion), in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos < 0L ? nanoTime() - startNanos : totalNanos;
+    }
+
+    /**
+     * Gets the size of the response body as transferred (i.e., before decompression).
+     *
+     * @return The size of the response body as transferred (i.e., before decompression), in bytes.
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * Gets the size of the response body after decompression.
+     *
+     * @return The size of the response body after decompression, in bytes.
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * Gets the number of entries in the parsed feed.
+     *
+     * @return The number of entries in the parsed feed.
+     */
+    public int getEntryCt() {
+        return entryCt;
+    }
+
+    @Override
+    public String toString() {
+        return "SyndFeedTimings{" +
+                "dnsMs=" + millis(dnsNanos) +
+                ", connectMs=" + millis(connectNanos) +
+                ", firstByteMs=" + millis(firstByteNanos) +
+                ", downloadMs=" + millis(downloadNanos) +
+                ", decompressMs=" + millis(decompressNanos) +
+                ", parseMs=" + millis(parseNanos) +
+                ", convertMs=" + millis(convertNanos) +
+                ", totalMs=" + millis(getTotalNanos()) +
+                ", compressedBytes=" + compressedBytes +
+                ", rawBytes=" + rawBytes +
+                ", entryCt=" + entryCt +
+                '}';
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+}
@@ -0,0 +1,48 @@
+package com.lostsidewalk.buffy.rss.websub;
+
+import com.rometools.rome.feed.synd.SyndFeed;
+
+/**
+ * Content pushed by a WebSub hub for a subscribed feed, verified and parsed.
+ */
+public final class WebSubDelivery {
+
+    private final String feedUrl;
+
+    private final SyndFeed syndFeed;
+
+    private WebSubDelivery(String feedUrl, SyndFeed syndFeed) {
+        this.feedUrl = feedUrl;
+        this.syndFeed = syndFeed;
+    }
+
+    static WebSubDelivery from(String feedUrl, SyndFeed syndFeed) {
+        return new WebSubDelivery(feedUrl, syndFeed);
+    }
+
+    /**
+     * Get the URL of the feed (as observed by the subscriber) to which the content belongs.
+     *
+     * @return The feed URL.
+     */
+    public String getFeedUrl() {
+        return feedUrl;
+    }
+
+    /**
+     * Get the pushed content.
+     *
+     * @return The pushed content, parsed as a feed.
+     */
+    public SyndFeed getSyndFeed() {
+        return syndFeed;
+    }
+
+    @Override
+    public String toString() {
+        return "WebSubDelivery{" +
+                "feedUrl='" + feedUrl + '\'' +
+                ", entryCt=" + (syndFeed == null || syndFeed.getEntries() == null ? 0 : syndFeed.getEntries().size()) +
+                '}';
+    }
+}
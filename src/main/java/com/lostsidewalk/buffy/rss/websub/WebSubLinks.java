@@ -0,0 +1,105 @@
+package com.lostsidewalk.buffy.rss.websub;
+
+import com.rometools.modules.atom.modules.AtomLinkModule;
+import com.rometools.rome.feed.atom.Link;
+import com.rometools.rome.feed.module.Module;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.feed.synd.SyndLink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * The WebSub discovery links of a feed: the URLs of the hubs it advertises (link rel="hub"), and its own (topic) URL
+ * (link rel="self").  Atom feeds carry these as feed links; RSS feeds carry them as atom:link elements in the channel.
+ */
+public final class WebSubLinks {
+
+    private static final String HUB = "hub";
+
+    private static final String SELF = "self";
+
+    private final List<String> hubUrls;
+
+    private final String selfUrl;
+
+    private WebSubLinks(List<String> hubUrls, String selfUrl) {
+        this.hubUrls = hubUrls;
+        this.selfUrl = selfUrl;
+    }
+
+    /**
+     * Extracts the WebSub discovery links of the given feed.
+     *
+     * @param syndFeed The feed.
+     * @return The discovery links of the feed (possibly none).
+     */
+    public static WebSubLinks of(SyndFeed syndFeed) {
+        List<String> hubUrls = new ArrayList<>(1);
+        String selfUrl = null;
+        if (syndFeed != null) {
+            List<SyndLink> links = syndFeed.getLinks();
+            if (links != null) {
+                for (SyndLink link : links) {
+                    selfUrl = collect(link.getRel(), link.getHref(), hubUrls, selfUrl);
+                }
+            }
+            Module module = syndFeed.getModule(AtomLinkModule.URI);
+            if (module instanceof AtomLinkModule atomLinkModule && atomLinkModule.getLinks() != null) {
+                for (Link link : atomLinkModule.getLinks()) {
+                    selfUrl = collect(link.getRel(), link.getHref(), hubUrls, selfUrl);
+                }
+            }
+        }
+        return new WebSubLinks(List.copyOf(hubUrls), selfUrl);
+    }
+
+    private static String collect(String rel, String href, List<String> hubUrls, String selfUrl) {
+        if (isNotBlank(href)) {
+            if (HUB.equalsIgnoreCase(trim(rel)) && !hubUrls.contains(trim(href))) {
+                hubUrls.add(trim(href));
+            } else if (SELF.equalsIgnoreCase(trim(rel)) && selfUrl == null) {
+                return trim(href);
+            }
+        }
+        return selfUrl;
+    }
+
+    /**
+     * Checks whether the feed advertises at least one hub.
+     *
+     * @return True if the feed advertises a hub.
+     */
+    public boolean hasHub() {
+        return !hubUrls.isEmpty();
+    }
+
+    /**
+     * Get the URLs of the hubs advertised by the feed, in document order.
+     *
+     * @return The hub URLs.
+     */
+    public List<String> getHubUrls() {
+        return hubUrls;
+    }
+
+    /**
+     * Get the self (topic) URL of the feed.
+     *
+     * @return The self URL, or null if the feed does not declare one.
+     */
+    public String getSelfUrl() {
+        return selfUrl;
+    }
+
+    @Override
+    public String toString() {
+        return "WebSubLinks{" +
+                "hubUrls=" + hubUrls +
+                ", selfUrl='" + selfUrl + '\'' +
+                '}';
+    }
+}
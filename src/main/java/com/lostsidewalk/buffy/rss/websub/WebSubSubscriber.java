@@ -0,0 +1,404 @@
+package com.lostsidewalk.buffy.rss.websub;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lostsidewalk.buffy.rss.syndfeed.PooledSyndFeedInput;
+import com.lostsidewalk.buffy.rss.websub.WebSubSubscription.State;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.XmlReader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * A WebSub (formerly PubSubHubbub) subscriber.  Feeds that advertise a hub are subscribed to when they are observed
+ * (i.e., fetched), after which the hub pushes new content to a callback URL instead of the feed being polled; such feeds
+ * need only be polled at a slow, safety-net interval.
+ * <p>
+ * The callback endpoint itself belongs to the host application, which relays hub requests to this subscriber: intent
+ * verification requests (GET) to {@link #verify}, and content distribution requests (POST) to {@link #accept}.  Each
+ * subscription has its own (unguessable) callback id, appended to the configured callback base URL, and its own secret,
+ * with which the hub signs the content it distributes.  Since that secret is what makes pushed content authoritative,
+ * only hubs reached over https are subscribed to; feeds that advertise no such hub are polled as usual.
+ * <p>
+ * Subscriptions are renewed shortly before their lease expires, provided the feed is still subscribed to (i.e., it has
+ * been polled, or its poll skipped, since the last request); otherwise they lapse.  A subscription that is not verified
+ * in time, or that the hub denies, is abandoned, and requested again when the feed is next observed (after a delay).
+ */
+@Slf4j
+public class WebSubSubscriber {
+
+    private static final long PENDING_TIMEOUT_MILLIS = MINUTES.toMillis(10L);
+
+    private static final long RETRY_DELAY_MILLIS = MINUTES.toMillis(60L);
+
+    private static final long MIN_RENEWAL_MARGIN_MILLIS = MINUTES.toMillis(5L);
+
+    private static final String MODE_SUBSCRIBE = "subscribe";
+
+    private static final String MODE_UNSUBSCRIBE = "unsubscribe";
+
+    private static final String MODE_DENIED = "denied";
+
+    private final String callbackBaseUrl;
+
+    private final long leaseSeconds;
+
+    private final long safetyNetPollMillis;
+
+    private final long renewalMarginMillis;
+
+    private final HttpClient httpClient;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final Map<String, WebSubSubscription> subscriptionsByFeedUrl = new HashMap<>();
+
+    private final Map<String, WebSubSubscription> subscriptionsByCallbackId = new HashMap<>();
+
+    private final Map<String, Long> lastPolledMillis = new HashMap<>();
+
+    private final Map<String, Long> lastReferencedMillis = new HashMap<>();
+
+    private final Map<String, Long> retryAfterMillis = new HashMap<>();
+
+    private final ScheduledExecutorService maintenanceExecutor;
+
+    /**
+     * Creates a subscriber, and schedules the renewal of its subscriptions.
+     *
+     * @param callbackBaseUrl     The public base URL of the host application's callback endpoint.
+     * @param leaseSeconds        The lease to request of hubs, in seconds.
+     * @param safetyNetPollMillis The interval at which feeds delivered by push are still polled, in milliseconds.
+     */
+    public WebSubSubscriber(String callbackBaseUrl, long leaseSeconds, long safetyNetPollMillis) {
+        this.callbackBaseUrl = removeEnd(trim(callbackBaseUrl), "/");
+        this.leaseSeconds = leaseSeconds;
+        this.safetyNetPollMillis = safetyNetPollMillis;
+        // (renew when a tenth of the lease remains)
+        this.renewalMarginMillis = Math.max(MIN_RENEWAL_MARGIN_MILLIS, 100L * leaseSeconds);
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10L))
+                .build();
+        this.maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("websub-maintenance-%d").setDaemon(true).build());
+        this.maintenanceExecutor.scheduleWithFixedDelay(this::maintain, 1L, 1L, MINUTES);
+    }
+
+    /**
+     * Observes a fetch of the given feed: if the feed advertises an https hub, and is not yet subscribed to, a
+     * subscription is requested of the hub.
+     *
+     * @param feedUrl  The URL of the feed.
+     * @param syndFeed The fetched feed, or null if it is unchanged since it was last fetched.
+     * @return True if the feed is (or is being) subscribed to, i.e., its content may be pushed.
+     */
+    public final boolean observe(String feedUrl, SyndFeed syndFeed) {
+        if (feedUrl == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        WebSubSubscription subscription;
+        synchronized (this) {
+            if (subscriptionsByFeedUrl.containsKey(feedUrl)) {
+                lastPolledMillis.put(feedUrl, now);
+                lastReferencedMillis.put(feedUrl, now);
+                return true;
+            }
+            Long retryAfter = retryAfterMillis.get(feedUrl);
+            if (retryAfter != null && retryAfter > now) {
+                return false;
+            }
+            WebSubLinks links = syndFeed == null ? null : WebSubLinks.of(syndFeed);
+            if (links == null || !links.hasHub()) {
+                return false;
+            }
+            // (the secret is sent to the hub, so a hub that isn't reached over https isn't subscribed to)
+            String hubUrl = links.getHubUrls().stream().filter(WebSubSubscriber::isSecureHubUrl).findFirst().orElse(null);
+            if (hubUrl == null) {
+                log.debug("WebSub hub ignored, not https, feedUrl={}, hubUrls={}", feedUrl, links.getHubUrls());
+                return false;
+            }
+            subscription = new WebSubSubscription(feedUrl, hubUrl, defaultIfBlank(links.getSelfUrl(), feedUrl),
+                    randomHex(16), randomHex(20));
+            subscription.requestedMillis = now;
+            subscriptionsByFeedUrl.put(feedUrl, subscription);
+            subscriptionsByCallbackId.put(subscription.callbackId, subscription);
+            lastPolledMillis.put(feedUrl, now);
+            lastReferencedMillis.put(feedUrl, now);
+        }
+        log.info("WebSub hub detected, subscribing, feedUrl={}, hubUrl={}, topicUrl={}", feedUrl, subscription.hubUrl, subscription.topicUrl);
+        request(subscription, MODE_SUBSCRIBE);
+        return true;
+    }
+
+    /**
+     * Checks whether the given feed is to be polled: feeds delivered by push are only polled at the safety-net
+     * interval.  This also records that the feed is still subscribed to, so that its subscription is renewed.
+     *
+     * @param feedUrl The URL of the feed.
+     * @return True if the feed is to be polled.
+     */
+    public final synchronized boolean shouldPoll(String feedUrl) {
+        if (!isPushActive(feedUrl)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        lastReferencedMillis.put(feedUrl, now);
+        Long lastPolled = lastPolledMillis.get(feedUrl);
+        return lastPolled == null || now - lastPolled >= safetyNetPollMillis;
+    }
+
+    /**
+     * Checks whether content of the given feed is currently delivered by push (i.e., its subscription is verified, and
+     * its lease has not expired).
+     *
+     * @param feedUrl The URL of the feed.
+     * @return True if the feed's content is delivered by push.
+     */
+    public final synchronized boolean isPushActive(String feedUrl) {
+        WebSubSubscription subscription = subscriptionsByFeedUrl.get(feedUrl);
+        return subscription != null && subscription.state == State.ACTIVE && subscription.leaseExpiryMillis > System.currentTimeMillis();
+    }
+
+    /**
+     * Verifies a hub's intent verification request (or denial) for the callback with the given id.
+     *
+     * @param callbackId   The callback id (the final path segment of the callback URL).
+     * @param mode         The 'hub.mode' parameter.
+     * @param topic        The 'hub.topic' parameter.
+     * @param challenge    The 'hub.challenge' parameter.
+     * @param leaseSeconds The 'hub.lease_seconds' parameter, if any.
+     * @return The challenge to echo in the (200) response body; an empty string to acknowledge a denial; or null if the
+     * request does not match a subscription, and is to be refused (404).
+     */
+    public final String verify(String callbackId, String mode, String topic, String challenge, Long leaseSeconds) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            WebSubSubscription subscription = callbackId == null ? null : subscriptionsByCallbackId.get(callbackId);
+            if (subscription == null || !StringUtils.equals(subscription.topicUrl, trim(topic))) {
+                log.warn("WebSub verification refused, callbackId={}, mode={}, topic={}", callbackId, mode, topic);
+                return null;
+            }
+            if (MODE_DENIED.equalsIgnoreCase(mode)) {
+                log.warn("WebSub subscription denied by hub: {}", subscription);
+                abandon(subscription, now);
+                return EMPTY;
+            }
+            if (MODE_SUBSCRIBE.equalsIgnoreCase(mode) && subscription.state != State.UNSUBSCRIBING && isNotEmpty(challenge)) {
+                subscription.state = State.ACTIVE;
+                subscription.leaseExpiryMillis = now + 1_000L * (leaseSeconds != null && leaseSeconds > 0L ? leaseSeconds : this.leaseSeconds);
+                log.info("WebSub subscription verified: {}", subscription);
+                return challenge;
+            }
+            if (MODE_UNSUBSCRIBE.equalsIgnoreCase(mode) && subscription.state == State.UNSUBSCRIBING && isNotEmpty(challenge)) {
+                remove(subscription);
+                log.info("WebSub unsubscription verified: {}", subscription);
+                return challenge;
+            }
+        }
+        log.warn("WebSub verification refused, callbackId={}, mode={}, topic={}", callbackId, mode, topic);
+        return null;
+    }
+
+    /**
+     * Accepts content distributed by a hub to the callback with the given id, provided that it is signed with the
+     * subscription's secret.  Per the WebSub specification, the callback acknowledges (2xx) a distribution request even
+     * if its content is rejected.
+     *
+     * @param callbackId The callback id (the final path segment of the callback URL).
+     * @param signature  The 'X-Hub-Signature' request header, e.g., 'sha256=...'.
+     * @param body       The request body.
+     * @return The verified and parsed content, or null if it was rejected.
+     */
+    public final WebSubDelivery accept(String callbackId, String signature, byte[] body) {
+        WebSubSubscription subscription;
+        synchronized (this) {
+            subscription = callbackId == null ? null : subscriptionsByCallbackId.get(callbackId);
+        }
+        if (subscription == null || subscription.state != State.ACTIVE) {
+            log.warn("WebSub content rejected, no active subscription, callbackId={}", callbackId);
+            return null;
+        }
+        if (body == null || !isSignatureValid(subscription.secret, signature, body)) {
+            log.warn("WebSub content rejected, invalid signature, feedUrl={}", subscription.feedUrl);
+            return null;
+        }
+        try {
+            SyndFeed syndFeed = PooledSyndFeedInput.build(new XmlReader(new ByteArrayInputStream(body)));
+            log.debug("WebSub content accepted, feedUrl={}, entryCt={}", subscription.feedUrl, syndFeed.getEntries().size());
+            return WebSubDelivery.from(subscription.feedUrl, syndFeed);
+        } catch (IOException | FeedException | IllegalArgumentException e) {
+            log.warn("WebSub content rejected, unable to parse, feedUrl={}, due to: {}", subscription.feedUrl, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the given hub URL is an https URL.  (Requests to such hubs are not redirected to plain http hubs,
+     * see {@link HttpClient.Redirect#NORMAL}.)
+     */
+    static boolean isSecureHubUrl(String hubUrl) {
+        if (hubUrl == null) {
+            return false;
+        }
+        try {
+            return "https".equalsIgnoreCase(URI.create(hubUrl.trim()).getScheme());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks the given 'X-Hub-Signature' header value (method=hex HMAC) against the given body and secret.
+     */
+    static boolean isSignatureValid(String secret, String signature, byte[] body) {
+        int separatorIdx = signature == null ? -1 : signature.indexOf('=');
+        if (separatorIdx <= 0) {
+            return false;
+        }
+        String algorithm = switch (signature.substring(0, separatorIdx).trim().toLowerCase()) {
+            case "sha1" -> "HmacSHA1";
+            case "sha256" -> "HmacSHA256";
+            case "sha384" -> "HmacSHA384";
+            case "sha512" -> "HmacSHA512";
+            default -> null;
+        };
+        if (algorithm == null) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(secret.getBytes(UTF_8), algorithm));
+            byte[] expected = mac.doFinal(body);
+            byte[] actual = HexFormat.of().parseHex(signature.substring(separatorIdx + 1).trim());
+            return MessageDigest.isEqual(expected, actual);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Renews the subscriptions whose leases are about to expire, and abandons those that lapsed or were not verified in
+     * time.
+     */
+    final void maintain() {
+        long now = System.currentTimeMillis();
+        List<WebSubSubscription> renewals = new ArrayList<>();
+        List<WebSubSubscription> unsubscriptions = new ArrayList<>();
+        synchronized (this) {
+            retryAfterMillis.values().removeIf(retryAfter -> retryAfter <= now);
+            for (WebSubSubscription subscription : new ArrayList<>(subscriptionsByFeedUrl.values())) {
+                boolean requestTimedOut = now - subscription.requestedMillis > PENDING_TIMEOUT_MILLIS;
+                if (subscription.state == State.ACTIVE && subscription.leaseExpiryMillis <= now) {
+                    log.info("WebSub subscription lapsed: {}", subscription);
+                    remove(subscription);
+                } else if (subscription.state != State.ACTIVE && requestTimedOut) {
+                    log.warn("WebSub request not verified in time, abandoning: {}", subscription);
+                    abandon(subscription, now);
+                } else if (subscription.state == State.ACTIVE && requestTimedOut && subscription.leaseExpiryMillis - now <= renewalMarginMillis) {
+                    // (renew only if the feed has been referenced since it was last requested)
+                    Long lastReferenced = lastReferencedMillis.get(subscription.feedUrl);
+                    boolean referenced = lastReferenced != null && lastReferenced >= subscription.requestedMillis;
+                    subscription.requestedMillis = now;
+                    if (referenced) {
+                        renewals.add(subscription);
+                    } else {
+                        subscription.state = State.UNSUBSCRIBING;
+                        unsubscriptions.add(subscription);
+                    }
+                }
+            }
+        }
+        renewals.forEach(s -> request(s, MODE_SUBSCRIBE));
+        unsubscriptions.forEach(s -> request(s, MODE_UNSUBSCRIBE));
+    }
+
+    private void request(WebSubSubscription subscription, String mode) {
+        String form = "hub.mode=" + encode(mode) +
+                "&hub.topic=" + encode(subscription.topicUrl) +
+                "&hub.callback=" + encode(callbackBaseUrl + '/' + subscription.callbackId);
+        if (MODE_SUBSCRIBE.equals(mode)) {
+            form += "&hub.lease_seconds=" + leaseSeconds + "&hub.secret=" + encode(subscription.secret);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(subscription.hubUrl))
+                .timeout(Duration.ofSeconds(30L))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, throwable) -> {
+            if (throwable == null && response.statusCode() / 100 == 2) {
+                log.debug("WebSub {} request accepted by hub, httpStatusCode={}, subscription={}", mode, response.statusCode(), subscription);
+            } else {
+                log.warn("WebSub {} request failed, httpStatusCode={}, subscription={}, due to: {}", mode,
+                        response == null ? null : response.statusCode(), subscription, throwable == null ? null : throwable.getMessage());
+                synchronized (this) {
+                    if (subscription.state != State.ACTIVE) {
+                        abandon(subscription, System.currentTimeMillis());
+                    }
+                }
+            }
+        });
+    }
+
+    private void abandon(WebSubSubscription subscription, long now) {
+        remove(subscription);
+        retryAfterMillis.put(subscription.feedUrl, now + RETRY_DELAY_MILLIS);
+    }
+
+    private void remove(WebSubSubscription subscription) {
+        if (subscriptionsByFeedUrl.remove(subscription.feedUrl, subscription)) {
+            lastPolledMillis.remove(subscription.feedUrl);
+            lastReferencedMillis.remove(subscription.feedUrl);
+        }
+        subscriptionsByCallbackId.remove(subscription.callbackId, subscription);
+    }
+
+    private String randomHex(int byteCt) {
+        byte[] bytes = new byte[byteCt];
+        secureRandom.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, UTF_8);
+    }
+
+    /**
+     * Stops the renewal of subscriptions (which then lapse).
+     */
+    public final void shutdown() {
+        maintenanceExecutor.shutdownNow();
+    }
+
+    @Override
+    public final synchronized String toString() {
+        return "WebSubSubscriber{" +
+                "callbackBaseUrl='" + callbackBaseUrl + '\'' +
+                ", leaseSeconds=" + leaseSeconds +
+                ", safetyNetPollMillis=" + safetyNetPollMillis +
+                ", subscriptionCt=" + subscriptionsByFeedUrl.size() +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.lostsidewalk.buffy.rss.websub;
+
+/**
+ * The state of a WebSub subscription to one feed.  Instances are guarded by the subscriber that owns them.
+ */
+final class WebSubSubscription {
+
+    enum State {
+        /**
+         * Requested of the hub; awaiting verification of intent.
+         */
+        PENDING,
+        /**
+         * Verified; the hub pushes content until the lease expires.
+         */
+        ACTIVE,
+        /**
+         * Unsubscription requested of the hub; awaiting verification of intent.
+         */
+        UNSUBSCRIBING,
+    }
+
+    final String feedUrl;
+
+    final String hubUrl;
+
+    final String topicUrl;
+
+    final String callbackId;
+
+    final String secret;
+
+    State state = State.PENDING;
+
+    long requestedMillis;
+
+    long leaseExpiryMillis;
+
+    WebSubSubscription(String feedUrl, String hubUrl, String topicUrl, String callbackId, String secret) {
+        this.feedUrl = feedUrl;
+        this.hubUrl = hubUrl;
+        this.topicUrl = topicUrl;
+        this.callbackId = callbackId;
+        this.secret = secret;
+    }
+
+    @Override
+    public String toString() {
+        return "WebSubSubscription{" +
+                "feedUrl='" + feedUrl + '\'' +
+                ", hubUrl='" + hubUrl + '\'' +
+                ", topicUrl='" + topicUrl + '\'' +
+                ", callbackId='" + callbackId + '\'' +
+                ", state=" + state +
+                ", leaseExpiryMillis=" + leaseExpiryMillis +
+                '}';
+    }
+}
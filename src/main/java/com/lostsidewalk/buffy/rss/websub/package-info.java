@@ -0,0 +1,4 @@
+/**
+ *
+ */
+package com.lostsidewalk.buffy.rss.websub;
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.lostsidewalk.buffy.rss;
+
+import org.junit.jupiter.api.Test;
+
+import static com.lostsidewalk.buffy.rss.ContentObjectIds.idOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentObjectIdsTest {
+
+    @Test
+    public void testContentObjectIds_deterministic() {
+        String id = idOf(0, "text/html", "<p>Hello</p>");
+        assertTrue(id.matches("[0-9A-Za-z]{8}"));
+        assertEquals(id, idOf(0, "text/html", "<p>Hello</p>"));
+        assertNotEquals(id, idOf(1, "text/html", "<p>Hello</p>"));
+        assertNotEquals(id, idOf(0, "text", "<p>Hello</p>"));
+        assertNotEquals(id, idOf(0, "text/html", "<p>Hello!</p>"));
+        assertNotEquals(idOf(0, null, "x"), idOf(0, "x", null));
+    }
+
+    @Test
+    public void testContentObjectIds_random() {
+        ContentObjectIds.setRandomIds(true);
+        try {
+            String id = idOf(0, "text/html", "<p>Hello</p>");
+            assertTrue(id.matches("[0-9A-Za-z]{8}"));
+            assertNotEquals(id, idOf(0, "text/html", "<p>Hello</p>"));
+        } finally {
+            ContentObjectIds.setRandomIds(false);
+        }
+    }
+}
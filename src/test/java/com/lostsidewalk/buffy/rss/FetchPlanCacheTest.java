@@ -0,0 +1,69 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetchPlanCacheTest {
+
+    private static SubscriptionDefinition subscription(Long id, String url, String queryType, Serializable queryConfig) {
+        SubscriptionDefinition subscriptionDefinition = SubscriptionDefinition.from(1L, "me", "testQuery", url, queryType, queryConfig, null);
+        subscriptionDefinition.setId(id);
+        return subscriptionDefinition;
+    }
+
+    @Test
+    public void testFetchPlanCache_reusesCurrentPlan() {
+        FetchPlanCache cache = new FetchPlanCache(16);
+        FetchPlan plan = cache.planFor(subscription(1L, "https://example.com/feed.xml", "RSS", "{\"username\":\"me\"}"));
+        assertEquals("https://example.com/feed.xml", plan.getCanonicalUrl());
+        assertEquals("me", plan.getUsername());
+        // (an equal definition, e.g., as reloaded for the next import cycle, reuses the plan)
+        assertSame(plan, cache.planFor(subscription(1L, "https://example.com/feed.xml", "RSS", "{\"username\":\"me\"}")));
+        // (as long as it has the same id)
+        assertNotSame(plan, cache.planFor(subscription(2L, "https://example.com/feed.xml", "RSS", "{\"username\":\"me\"}")));
+    }
+
+    @Test
+    public void testFetchPlanCache_recompilesChangedPlan() {
+        FetchPlanCache cache = new FetchPlanCache(16);
+        FetchPlan plan = cache.planFor(subscription(1L, "https://example.com/feed.xml", "RSS", null));
+        // the URL changes
+        FetchPlan urlPlan = cache.planFor(subscription(1L, "https://example.com/other.xml", "RSS", null));
+        assertNotSame(plan, urlPlan);
+        assertEquals("https://example.com/other.xml", urlPlan.getQuery().getUrl());
+        // the query type changes
+        FetchPlan queryTypePlan = cache.planFor(subscription(1L, "https://example.com/other.xml", "JSON", null));
+        assertNotSame(urlPlan, queryTypePlan);
+        assertFalse(queryTypePlan.isSupported());
+        // the query configuration changes
+        FetchPlan queryConfigPlan = cache.planFor(subscription(1L, "https://example.com/other.xml", "ATOM", "{\"username\":\"me\",\"password\":\"secret\"}"));
+        assertNotSame(queryTypePlan, queryConfigPlan);
+        assertTrue(queryConfigPlan.isSupported());
+        assertEquals("me", queryConfigPlan.getUsername());
+        assertEquals("secret", queryConfigPlan.getPassword());
+        FetchPlan changedConfigPlan = cache.planFor(subscription(1L, "https://example.com/other.xml", "ATOM", "{\"username\":\"me\",\"password\":\"changed\"}"));
+        assertNotSame(queryConfigPlan, changedConfigPlan);
+        assertEquals("changed", changedConfigPlan.getPassword());
+        // (the recompiled plan is then reused)
+        assertSame(changedConfigPlan, cache.planFor(subscription(1L, "https://example.com/other.xml", "ATOM", "{\"username\":\"me\",\"password\":\"changed\"}")));
+    }
+
+    @Test
+    public void testFetchPlanCache_bounded() {
+        FetchPlanCache cache = new FetchPlanCache(2);
+        FetchPlan plan1 = cache.planFor(subscription(1L, "https://example.com/1.xml", "RSS", null));
+        FetchPlan plan2 = cache.planFor(subscription(2L, "https://example.com/2.xml", "RSS", null));
+        // (touch the first plan, so that the second is the least recently used)
+        assertSame(plan1, cache.planFor(subscription(1L, "https://example.com/1.xml", "RSS", null)));
+        cache.planFor(subscription(3L, "https://example.com/3.xml", "RSS", null));
+        assertSame(plan1, cache.planFor(subscription(1L, "https://example.com/1.xml", "RSS", null)));
+        assertNotSame(plan2, cache.planFor(subscription(2L, "https://example.com/2.xml", "RSS", null)));
+        // (subscriptions without an id are compiled every time)
+        SubscriptionDefinition unsaved = subscription(null, "https://example.com/4.xml", "RSS", null);
+        assertNotSame(cache.planFor(unsaved), cache.planFor(unsaved));
+    }
+}
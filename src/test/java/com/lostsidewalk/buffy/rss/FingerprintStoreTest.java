@@ -0,0 +1,119 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FingerprintStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFingerprintStore_addAndContains() throws IOException {
+        try (FingerprintStore store = FingerprintStore.onHeap(1_000)) {
+            assertTrue(store.add(1L, 2L));
+            assertFalse(store.add(1L, 2L));
+            assertTrue(store.contains(1L, 2L));
+            assertFalse(store.contains(2L, 1L));
+            assertTrue(store.add(0L, 0L));
+            assertTrue(store.contains(0L, 0L));
+            assertEquals(2L, store.size());
+        }
+    }
+
+    @Test
+    public void testFingerprintStore_retainsBetweenOneAndTwoGenerations() throws IOException {
+        int capacity = 100;
+        try (FingerprintStore store = FingerprintStore.onHeap(capacity)) {
+            for (long i = 1L; i <= capacity * 3L; i++) {
+                assertTrue(store.add(i, -i));
+            }
+            // the most recent generation is always retained, the oldest is forgotten
+            for (long i = capacity * 2L + 1L; i <= capacity * 3L; i++) {
+                assertTrue(store.contains(i, -i));
+            }
+            assertFalse(store.contains(1L, -1L));
+            assertTrue(store.size() <= capacity * 2L);
+        }
+    }
+
+    @Test
+    public void testFingerprintStore_refreshCarriesForward() throws IOException {
+        int capacity = 10;
+        try (FingerprintStore store = FingerprintStore.onHeap(capacity)) {
+            store.add(42L, 42L);
+            for (long i = 1L; i < capacity; i++) {
+                store.add(i, i);
+            }
+            // 42 is now in the previous generation; re-adding it refreshes it into the current one
+            assertFalse(store.add(42L, 42L));
+            for (long i = 100L; i < 100L + capacity - 1; i++) {
+                store.add(i, i);
+            }
+            assertTrue(store.contains(42L, 42L));
+        }
+    }
+
+    @Test
+    public void testFingerprintStore_mappedSurvivesReopen() throws IOException {
+        Path path = tempDir.resolve("fingerprints.bin");
+        try (FingerprintStore store = FingerprintStore.mapped(path, 1_000)) {
+            for (long i = 1L; i <= 500L; i++) {
+                store.add(i, i * 31L);
+            }
+        }
+        try (FingerprintStore store = FingerprintStore.mapped(path, 1_000)) {
+            assertEquals(500L, store.size());
+            assertTrue(store.contains(250L, 250L * 31L));
+            assertFalse(store.add(500L, 500L * 31L));
+        }
+        // a different capacity reinitializes the file
+        try (FingerprintStore store = FingerprintStore.mapped(path, 5_000)) {
+            assertEquals(0L, store.size());
+        }
+    }
+
+    @Test
+    public void testSeenEntryIndex_markSeen() throws IOException {
+        SyntheticFeedSpec spec = SyntheticFeedSpec.from("rss_2.0");
+        List<SyndEntry> gen0 = RssMockDataGenerator.buildSyntheticResponse(spec, "http://localhost/feed", 0L).getSyndFeed().getEntries();
+        List<SyndEntry> gen1 = RssMockDataGenerator.buildSyntheticResponse(spec, "http://localhost/feed", 1L).getSyndFeed().getEntries();
+        try (FingerprintStore store = FingerprintStore.onHeap(1_000)) {
+            SeenEntryIndex index = new SeenEntryIndex(store);
+            assertEquals(gen0.size(), index.markSeen(1L, gen0, SeenEntryIndex.fingerprint(gen0)).size());
+            assertEquals(0, index.markSeen(1L, gen0, SeenEntryIndex.fingerprint(gen0)).size());
+            // only the entries added by the next generation are new to an existing queue
+            assertEquals(spec.getNewEntriesPerGeneration(), index.markSeen(1L, gen1, SeenEntryIndex.fingerprint(gen1)).size());
+            // a queue that has not yet received the feed gets all of it
+            assertEquals(gen1.size(), index.markSeen(2L, gen1, SeenEntryIndex.fingerprint(gen1)).size());
+        }
+    }
+
+    @Test
+    public void testSeenEntryIndex_selectUnseen() throws IOException {
+        SyntheticFeedSpec spec = SyntheticFeedSpec.from("rss_2.0");
+        List<SyndEntry> gen0 = RssMockDataGenerator.buildSyntheticResponse(spec, "http://localhost/feed", 0L).getSyndFeed().getEntries();
+        long[] fingerprints = SeenEntryIndex.fingerprint(gen0);
+        try (FingerprintStore store = FingerprintStore.onHeap(1_000)) {
+            SeenEntryIndex index = new SeenEntryIndex(store);
+            // (entries selected into marks that are never committed are selected again)
+            SeenEntryIndex.PendingMarks discarded = new SeenEntryIndex.PendingMarks();
+            assertEquals(gen0.size(), index.selectUnseen(1L, gen0, fingerprints, discarded).size());
+            assertEquals(gen0.size(), discarded.size());
+            SeenEntryIndex.PendingMarks pendingMarks = new SeenEntryIndex.PendingMarks();
+            assertEquals(gen0.size(), index.selectUnseen(1L, gen0, fingerprints, pendingMarks).size());
+            // (the same marks don't select an entry twice, e.g., for another subscription to the same queue)
+            assertEquals(0, index.selectUnseen(1L, gen0, fingerprints, pendingMarks).size());
+            index.commit(pendingMarks);
+            assertEquals(0, pendingMarks.size());
+            assertEquals(0, index.selectUnseen(1L, gen0, fingerprints, new SeenEntryIndex.PendingMarks()).size());
+        }
+    }
+}
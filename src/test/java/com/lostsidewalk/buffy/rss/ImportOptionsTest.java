@@ -0,0 +1,74 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.rometools.rome.feed.synd.SyndContentImpl;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndEntryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.lostsidewalk.buffy.rss.ImportOptions.PostField.*;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportOptionsTest {
+
+    private static final Gson GSON = new Gson();
+
+    private static ImportOptions optionsOf(String queryConfig) {
+        return ImportOptions.from(GSON.fromJson(queryConfig, JsonObject.class));
+    }
+
+    private static SyndEntry entry(String title, String description, Date publishedDate) {
+        SyndEntry e = new SyndEntryImpl();
+        e.setTitle(title);
+        if (description != null) {
+            SyndContentImpl content = new SyndContentImpl();
+            content.setValue(description);
+            e.setDescription(content);
+        }
+        e.setPublishedDate(publishedDate);
+        return e;
+    }
+
+    @Test
+    public void testImportOptions_defaults() {
+        assertSame(ImportOptions.ALL, ImportOptions.from(null));
+        assertSame(ImportOptions.ALL, optionsOf("{\"username\":\"me\",\"maxEntries\":0}"));
+        assertFalse(ImportOptions.ALL.hasFilters());
+        List<SyndEntry> entries = List.of(entry("a", null, null));
+        assertSame(entries, ImportOptions.ALL.filter(entries, new Date()));
+    }
+
+    @Test
+    public void testImportOptions_projection() {
+        ImportOptions options = optionsOf("{\"fields\":[\"thumbnail\",\"PUBLISHED\",\"bogus\"]}");
+        assertTrue(options.includes(THUMBNAIL));
+        assertTrue(options.includes(PUBLISHED));
+        assertFalse(options.includes(CONTENTS));
+        assertFalse(options.includes(MEDIA));
+        assertFalse(options.hasFilters());
+    }
+
+    @Test
+    public void testImportOptions_filter() {
+        Date now = new Date();
+        Date old = new Date(now.getTime() - HOURS.toMillis(48));
+        SyndEntry recentMatch = entry("Java release", "notes", now);
+        SyndEntry oldMatch = entry("Java history", null, old);
+        SyndEntry undatedMatch = entry("Untitled", "all about JAVA", null);
+        SyndEntry excluded = entry("Java sponsored", "ad", now);
+        SyndEntry unmatched = entry("Rust release", "notes", now);
+        List<SyndEntry> entries = List.of(recentMatch, oldMatch, undatedMatch, excluded, unmatched);
+
+        ImportOptions options = optionsOf("{\"maxAgeHours\":24,\"includeTerms\":[\"java\"],\"excludeTerms\":[\"Sponsored\"]}");
+        assertTrue(options.hasFilters());
+        assertEquals(List.of(recentMatch, undatedMatch), options.filter(entries, now));
+
+        assertEquals(List.of(recentMatch, oldMatch), optionsOf("{\"maxEntries\":2}").filter(entries, now));
+        assertEquals(List.of(recentMatch), optionsOf("{\"maxEntries\":1,\"includeTerms\":[\"java\"]}").filter(entries, now));
+    }
+}
@@ -0,0 +1,79 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.rss.ImportPartitioner.ShardKey;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportPartitionerTest {
+
+    private static final int URL_CT = 10_000;
+
+    private static String url(int i) {
+        return "https://feeds" + (i % 500) + ".example.com/feed/" + i + ".xml";
+    }
+
+    @Test
+    public void testImportPartitioner_eachFeedHasOneOwner() {
+        int nodeCount = 4;
+        ImportPartitioner[] nodes = new ImportPartitioner[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            nodes[n] = ImportPartitioner.from(n, nodeCount, ShardKey.URL, 128, null);
+        }
+        int[] counts = new int[nodeCount];
+        for (int i = 0; i < URL_CT; i++) {
+            int localCt = 0;
+            for (int n = 0; n < nodeCount; n++) {
+                if (nodes[n].isLocal(url(i))) {
+                    localCt++;
+                    counts[n]++;
+                }
+            }
+            assertEquals(1, localCt);
+        }
+        // roughly balanced (within 25% of an even share)
+        for (int count : counts) {
+            assertTrue(Math.abs(count - URL_CT / nodeCount) < URL_CT / nodeCount / 4, "count=" + count);
+        }
+    }
+
+    @Test
+    public void testImportPartitioner_weights() {
+        ImportPartitioner partitioner = ImportPartitioner.from(0, 2, ShardKey.URL, 128, "1, 3");
+        int localCt = 0;
+        for (int i = 0; i < URL_CT; i++) {
+            if (partitioner.isLocal(url(i))) {
+                localCt++;
+            }
+        }
+        assertTrue(localCt > URL_CT / 8 && localCt < URL_CT * 3 / 8, "localCt=" + localCt);
+        assertThrows(IllegalArgumentException.class, () -> ImportPartitioner.from(0, 2, ShardKey.URL, 128, "1"));
+        assertThrows(IllegalArgumentException.class, () -> ImportPartitioner.from(0, 2, ShardKey.URL, 128, "1,0"));
+        assertThrows(IllegalArgumentException.class, () -> ImportPartitioner.from(2, 2, ShardKey.URL, 128, null));
+    }
+
+    @Test
+    public void testImportPartitioner_rebalanceMovesOnlyToNewNode() {
+        ImportPartitioner before = ImportPartitioner.from(0, 4, ShardKey.URL, 128, null);
+        ImportPartitioner after = ImportPartitioner.from(0, 5, ShardKey.URL, 128, null);
+        int movedCt = 0;
+        for (int i = 0; i < URL_CT; i++) {
+            int ownerBefore = before.ownerOf(url(i));
+            int ownerAfter = after.ownerOf(url(i));
+            if (ownerBefore != ownerAfter) {
+                assertEquals(4, ownerAfter);
+                movedCt++;
+            }
+        }
+        // about one fifth of the feeds move to the new node
+        assertTrue(movedCt > URL_CT / 8 && movedCt < URL_CT * 3 / 10, "movedCt=" + movedCt);
+    }
+
+    @Test
+    public void testImportPartitioner_byHost() {
+        ImportPartitioner partitioner = ImportPartitioner.from(0, 8, ShardKey.HOST, 128, null);
+        assertEquals(partitioner.ownerOf("https://example.com/a.xml"), partitioner.ownerOf("http://EXAMPLE.com/b/c.rss?x=1"));
+        // (unparseable URLs are partitioned by URL)
+        partitioner.ownerOf("not a url");
+    }
+}
@@ -0,0 +1,89 @@
+package com.lostsidewalk.buffy.rss;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrioritizedImportTaskTest {
+
+    private final List<String> dispatched = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<ImportPriority> waitsRecorded = Collections.synchronizedList(new ArrayList<>());
+
+    private PrioritizedImportTask task(ImportPriority priority, String name) {
+        return new PrioritizedImportTask(priority, () -> dispatched.add(name), (p, waitNanos) -> waitsRecorded.add(p));
+    }
+
+    /**
+     * Queues the given tasks on a single-threaded dispatch pool (as the importer does) while its thread is busy, then
+     * lets them run.
+     */
+    private void dispatchQueued(PrioritizedImportTask... tasks) throws InterruptedException {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, MILLISECONDS, new PriorityBlockingQueue<>());
+        try {
+            CountDownLatch busy = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            pool.execute(new PrioritizedImportTask(ImportPriority.SCHEDULED, () -> {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, (p, waitNanos) -> {}));
+            assertTrue(busy.await(10L, SECONDS));
+            for (PrioritizedImportTask task : tasks) {
+                pool.execute(task);
+            }
+            release.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10L, SECONDS));
+        }
+    }
+
+    @Test
+    public void testPrioritizedImportTask_interactiveBypassesQueuedWork() throws InterruptedException {
+        dispatchQueued(
+                task(ImportPriority.BACKGROUND, "background"),
+                task(ImportPriority.SCHEDULED, "scheduled-1"),
+                task(ImportPriority.SCHEDULED, "scheduled-2"),
+                task(ImportPriority.INTERACTIVE, "interactive")
+        );
+        assertEquals(List.of("interactive", "scheduled-1", "scheduled-2", "background"), dispatched);
+        assertEquals(List.of(ImportPriority.INTERACTIVE, ImportPriority.SCHEDULED, ImportPriority.SCHEDULED, ImportPriority.BACKGROUND), waitsRecorded);
+    }
+
+    @Test
+    public void testPrioritizedImportTask_backgroundYieldsToScheduled() throws InterruptedException {
+        // (a backfill queued ahead of a scheduled cycle waits for it; tasks of the same priority run in submission order)
+        dispatchQueued(
+                task(ImportPriority.BACKGROUND, "background-1"),
+                task(ImportPriority.BACKGROUND, "background-2"),
+                task(ImportPriority.SCHEDULED, "scheduled-1"),
+                task(ImportPriority.BACKGROUND, "background-3"),
+                task(ImportPriority.SCHEDULED, "scheduled-2")
+        );
+        assertEquals(List.of("scheduled-1", "scheduled-2", "background-1", "background-2", "background-3"), dispatched);
+    }
+
+    @Test
+    public void testPrioritizedImportTask_compareTo() {
+        PrioritizedImportTask scheduled = task(ImportPriority.SCHEDULED, "scheduled");
+        PrioritizedImportTask background = task(ImportPriority.BACKGROUND, "background");
+        PrioritizedImportTask laterScheduled = task(ImportPriority.SCHEDULED, "later");
+        assertTrue(scheduled.compareTo(background) < 0);
+        assertTrue(background.compareTo(laterScheduled) > 0);
+        assertTrue(scheduled.compareTo(laterScheduled) < 0);
+        assertEquals(0, scheduled.compareTo(scheduled));
+    }
+}
@@ -0,0 +1,101 @@
+package com.lostsidewalk.buffy.rss;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingImportScheduleTest {
+
+    private static final long INTERVAL = 3_600_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private static List<String> feeds(int feedCt) {
+        return IntStream.range(0, feedCt).mapToObj(i -> "https://example" + i + ".com/feed.xml").toList();
+    }
+
+    @Test
+    public void testRollingImportSchedule_spreadsFeedsOverInterval() {
+        RollingImportSchedule<String> schedule = new RollingImportSchedule<>(INTERVAL, 0.1, clock::get);
+        schedule.retain(feeds(1_000));
+        assertEquals(1_000, schedule.size());
+        // (each tenth of the interval takes roughly a tenth of the feeds, rather than all of them at once)
+        int dueCt = 0;
+        for (int i = 1; i <= 10; i++) {
+            clock.addAndGet(INTERVAL / 10);
+            int tenthCt = schedule.pollDue().size();
+            assertTrue(tenthCt > 50 && tenthCt < 150, "tenthCt=" + tenthCt);
+            dueCt += tenthCt;
+        }
+        assertEquals(1_000, dueCt);
+        assertEquals(1_000, schedule.inFlightCount());
+        assertTrue(schedule.pollDue().isEmpty());
+    }
+
+    @Test
+    public void testRollingImportSchedule_reschedulesWithJitter() {
+        RollingImportSchedule<String> schedule = new RollingImportSchedule<>(INTERVAL, 0.1, clock::get);
+        schedule.retain(feeds(20));
+        // (step through two intervals a second at a time, noting when each feed is due, and rescheduling it at once)
+        Map<String, List<Long>> dueTimes = new HashMap<>();
+        for (long t = 0L; t < 2 * INTERVAL + INTERVAL / 10; t += 1_000L) {
+            clock.addAndGet(1_000L);
+            for (String feed : schedule.pollDue()) {
+                dueTimes.computeIfAbsent(feed, ignored -> new ArrayList<>()).add(clock.get());
+                schedule.reschedule(feed);
+            }
+        }
+        assertEquals(20, dueTimes.size());
+        // (each feed is due again one interval, give or take a tenth, after it was last due)
+        Set<Long> periods = new HashSet<>();
+        dueTimes.values().forEach(times -> {
+            long period = times.get(1) - times.get(0);
+            assertTrue(period >= INTERVAL * 0.9 - 1_000L && period <= INTERVAL * 1.1 + 1_000L, "period=" + period);
+            periods.add(period);
+        });
+        assertTrue(periods.size() > 1);
+        // (a feed that is not in flight is not rescheduled)
+        schedule.reschedule("https://unknown.com/feed.xml");
+        assertEquals(20, schedule.size());
+        assertEquals(0, schedule.inFlightCount());
+    }
+
+    @Test
+    public void testRollingImportSchedule_fallenBehindFeedIsNotRepeated() {
+        RollingImportSchedule<String> schedule = new RollingImportSchedule<>(INTERVAL, 0.0, clock::get);
+        schedule.retain(List.of("https://example.com/feed.xml"));
+        clock.addAndGet(INTERVAL);
+        assertEquals(1, schedule.pollDue().size());
+        // the fetch outlasts two intervals
+        clock.addAndGet(2 * INTERVAL);
+        schedule.reschedule("https://example.com/feed.xml");
+        assertTrue(schedule.pollDue().isEmpty());
+        clock.addAndGet(INTERVAL);
+        assertEquals(1, schedule.pollDue().size());
+    }
+
+    @Test
+    public void testRollingImportSchedule_retain() {
+        RollingImportSchedule<String> schedule = new RollingImportSchedule<>(INTERVAL, 0.0, clock::get);
+        List<String> feeds = feeds(10);
+        schedule.retain(feeds);
+        clock.addAndGet(INTERVAL);
+        List<String> due = schedule.pollDue();
+        assertEquals(10, due.size());
+        // drop half of the feeds (including in-flight feeds, which are then not rescheduled), and add another
+        List<String> retained = new ArrayList<>(feeds.subList(0, 5));
+        retained.add("https://example.com/new.xml");
+        schedule.retain(retained);
+        assertEquals(6, schedule.size());
+        due.forEach(schedule::reschedule);
+        assertEquals(0, schedule.inFlightCount());
+        clock.addAndGet(INTERVAL);
+        List<String> dueAgain = schedule.pollDue();
+        assertEquals(6, dueAgain.size());
+        assertTrue(dueAgain.containsAll(retained));
+    }
+}
@@ -0,0 +1,111 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.lostsidewalk.buffy.post.StagingPost;
+import com.lostsidewalk.buffy.rss.RssImportUtils.ConversionContext;
+import com.lostsidewalk.buffy.rss.RssImportUtils.ConversionStats;
+import com.rometools.rome.feed.synd.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.lostsidewalk.buffy.rss.RssImportUtils.importArticleResponse;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RssImportUtilsTest {
+
+    private static final String FEED_URL = "https://example.com/feed.xml";
+
+    private static final int PARALLEL_THRESHOLD = 8;
+
+    private static final Date IMPORT_TIMESTAMP = new Date();
+
+    private static SyndFeed feed(int entryCt) {
+        SyndFeed feed = new SyndFeedImpl();
+        feed.setFeedType("rss_2.0");
+        feed.setTitle("Test Feed");
+        feed.setCopyright("(c) Test");
+        List<SyndEntry> entries = new ArrayList<>(entryCt);
+        for (int i = 0; i < entryCt; i++) {
+            SyndEntry e = new SyndEntryImpl();
+            e.setTitle("Entry " + i);
+            SyndContent description = new SyndContentImpl();
+            description.setType("text/html");
+            description.setValue("<p>Description of entry " + i + "</p>");
+            e.setDescription(description);
+            e.setLink("https://example.com/entries/" + i);
+            e.setPublishedDate(new Date(1_600_000_000_000L + i * 60_000L));
+            entries.add(e);
+        }
+        feed.setEntries(entries);
+        return feed;
+    }
+
+    private static Set<StagingPost> convert(SyndFeed feed, ConversionContext context) {
+        return importArticleResponse(1L, 2L, FEED_URL, "Test subscription", feed, feed.getEntries(), "me", IMPORT_TIMESTAMP, context);
+    }
+
+    /**
+     * Keys the given staging posts by post hash, describing each by its ids, importer description, and content.
+     */
+    private static Map<String, String> describe(Set<StagingPost> stagingPosts) {
+        return stagingPosts.stream().collect(toMap(StagingPost::getPostHash, p -> String.join("|",
+                p.getImporterId(),
+                String.valueOf(p.getQueueId()),
+                String.valueOf(p.getSubscriptionId()),
+                p.getImporterDesc(),
+                p.getUsername(),
+                p.getPostTitle().getValue(),
+                p.getPostDesc().getValue(),
+                p.getPostUrl(),
+                p.getPostRights(),
+                String.valueOf(p.getPublishTimestamp()))));
+    }
+
+    private static void assertParallelConversionMatchesSerial(int entryCt) {
+        SyndFeed feed = feed(entryCt);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            ConversionStats serialStats = new ConversionStats();
+            Set<StagingPost> serial = convert(feed, ConversionContext.from(ImportOptions.ALL, serialStats, null, 0, null));
+            ConversionStats parallelStats = new ConversionStats();
+            ConversionContext parallelContext = ConversionContext.from(ImportOptions.ALL, parallelStats, forkJoinPool, PARALLEL_THRESHOLD, new StringPool(1_024));
+            assertEquals(entryCt > PARALLEL_THRESHOLD, parallelContext.isParallel(entryCt));
+            Set<StagingPost> parallel = convert(feed, parallelContext);
+            assertEquals(entryCt, serial.size());
+            assertEquals(describe(serial), describe(parallel));
+            assertEquals(serialStats.entryCt, parallelStats.entryCt);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testImportArticleResponse_parallelMatchesSerial() {
+        // (enough entries to split the conversion into several subtasks)
+        assertParallelConversionMatchesSerial(500);
+    }
+
+    @Test
+    public void testImportArticleResponse_belowParallelThreshold() {
+        assertParallelConversionMatchesSerial(PARALLEL_THRESHOLD);
+        assertParallelConversionMatchesSerial(1);
+    }
+
+    @Test
+    public void testImportArticleResponse_defaultContext() {
+        SyndFeed feed = feed(3);
+        Set<StagingPost> stagingPosts = convert(feed, ConversionContext.DEFAULT);
+        assertEquals(3, stagingPosts.size());
+        // (the post hash depends on the queue, but not on the subscription)
+        Set<StagingPost> otherQueuePosts = importArticleResponse(3L, 2L, FEED_URL, "Test subscription", feed, feed.getEntries(), "me", IMPORT_TIMESTAMP, ConversionContext.DEFAULT);
+        assertTrue(Collections.disjoint(describe(stagingPosts).keySet(), describe(otherQueuePosts).keySet()));
+        Set<StagingPost> otherSubscriptionPosts = importArticleResponse(1L, 4L, FEED_URL, "Test subscription", feed, feed.getEntries(), "me", IMPORT_TIMESTAMP, ConversionContext.DEFAULT);
+        assertEquals(describe(stagingPosts).keySet(), describe(otherSubscriptionPosts).keySet());
+        // (the subscription title is the importer description, else the feed URL)
+        assertTrue(stagingPosts.stream().allMatch(p -> "Test subscription".equals(p.getImporterDesc())));
+        assertTrue(importArticleResponse(1L, 2L, FEED_URL, null, feed, feed.getEntries(), "me", IMPORT_TIMESTAMP, ConversionContext.DEFAULT)
+                .stream().allMatch(p -> FEED_URL.equals(p.getImporterDesc())));
+    }
+}
@@ -0,0 +1,41 @@
+package com.lostsidewalk.buffy.rss;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RssImporterLifecycleTest {
+
+    private static ExecutorService executorService(RssImporter rssImporter, String name) {
+        ExecutorService executorService = (ExecutorService) ReflectionTestUtils.getField(rssImporter, name);
+        assertNotNull(executorService, name);
+        return executorService;
+    }
+
+    @Test
+    public void testRssImporter_preDestroy() throws Exception {
+        RssImporterConfigProps configProps = mock(RssImporterConfigProps.class);
+        when(configProps.getRollingImportEnabled()).thenReturn(true);
+        when(configProps.getParallelConversionThreshold()).thenReturn(8);
+        when(configProps.getSlowFetchRankingSize()).thenReturn(5);
+        RssImporter rssImporter = new RssImporter();
+        rssImporter.configProps = configProps;
+        rssImporter.postConstruct();
+        FingerprintStore fingerprintStore = mock(FingerprintStore.class);
+        ReflectionTestUtils.setField(rssImporter, "seenEntryIndex", new SeenEntryIndex(fingerprintStore));
+        String[] executorNames = {"rollingImportExecutor", "rssThreadPool", "parseThreadPool", "convertThreadPool", "conversionForkJoinPool"};
+        for (String name : executorNames) {
+            assertFalse(executorService(rssImporter, name).isShutdown(), name);
+        }
+        // carry out test
+        rssImporter.preDestroy();
+        for (String name : executorNames) {
+            assertTrue(executorService(rssImporter, name).isShutdown(), name);
+        }
+        verify(fingerprintStore).flush();
+    }
+}
@@ -19,14 +19,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.StringReader;
 import java.util.Date;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Collections.*;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -168,19 +176,82 @@ public class RssImporterTest_ATOM1 {
             SyndFeedInput syndFeedInput = new SyndFeedInput();
             SyndFeed response = syndFeedInput.build(new StringReader(TEST_ATOM_RESPONSE));
             SyndFeedResponse syndFeedResponse = SyndFeedResponse.from(response, 200, "OK");
-            when(syndFeedService.fetch(
+            when(syndFeedService.fetchAsync(
                     eq(TEST_ATOM_SUBSCRIPTION.getUrl()),
                     isNull(),
                     isNull(),
                     eq("Lost Sidewalk FeedGears RSS Aggregator v.0.4 feed import process, on behalf of 1 users"),
-                    eq(true))
-                ).thenReturn(syndFeedResponse);
-            rssImporter.doImport(singletonList(TEST_ATOM_SUBSCRIPTION), emptyMap());
+                    eq(true),
+                    any(Executor.class),
+                    isNull())
+                ).thenReturn(completedFuture(syndFeedResponse));
+            // carry out test
+            ImportResult importResult = rssImporter.doImport(singletonList(TEST_ATOM_SUBSCRIPTION), emptyMap());
+            assertNotNull(importResult);
+            assertEquals(1, size(importResult.getImportSet()));
+            StagingPost stagingPost = importResult.getImportSet().iterator().next();
+            assertEquals("RssAtom", stagingPost.getImporterId());
+            assertEquals(666L, stagingPost.getQueueId());
+            assertEquals("testQuery", stagingPost.getImporterDesc());
+            assertEquals(1, size(importResult.getSubscriptionMetrics()));
+            SubscriptionMetrics subscriptionMetrics = importResult.getSubscriptionMetrics().get(0);
+            assertEquals(200, subscriptionMetrics.getHttpStatusCode());
+            assertEquals(1, subscriptionMetrics.getImportCt());
+            assertNull(subscriptionMetrics.getErrorType());
         } catch (Exception e) {
             fail(e.getMessage());
         }
     }
 
+    @Test
+    public void testRssImporter_interactiveImportBypassesQueuedWork() throws Exception {
+        // setup mocks
+        SyndFeedInput syndFeedInput = new SyndFeedInput();
+        SyndFeed response = syndFeedInput.build(new StringReader(TEST_ATOM_RESPONSE));
+        when(syndFeedService.fetchAsync(eq(TEST_ATOM_SUBSCRIPTION.getUrl()), isNull(), isNull(), anyString(), eq(true), any(Executor.class), isNull()))
+                .thenReturn(completedFuture(SyndFeedResponse.from(response, 200, "OK")));
+        // occupy every importer thread, and queue scheduled work behind them
+        ThreadPoolExecutor rssThreadPool = (ThreadPoolExecutor) ReflectionTestUtils.getField(rssImporter, "rssThreadPool");
+        assertNotNull(rssThreadPool);
+        CountDownLatch busy = new CountDownLatch(rssThreadPool.getCorePoolSize());
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedWorkRan = new AtomicBoolean();
+        try {
+            for (int i = 0; i < rssThreadPool.getCorePoolSize(); i++) {
+                rssThreadPool.execute(new PrioritizedImportTask(ImportPriority.SCHEDULED, () -> {
+                    busy.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, (p, waitNanos) -> {}));
+            }
+            assertTrue(busy.await(10L, SECONDS));
+            rssThreadPool.execute(new PrioritizedImportTask(ImportPriority.SCHEDULED, () -> queuedWorkRan.set(true), (p, waitNanos) -> {}));
+            // carry out test (the interactive import completes on the calling thread, without waiting for the queued work)
+            Thread callingThread = Thread.currentThread();
+            CompletableFuture<ImportResult> importResult = rssImporter.performImportAsync(TEST_ATOM_SUBSCRIPTION, ImportPriority.INTERACTIVE, new ImportResponseCallback() {
+                @Override
+                public ImportResult onSuccess(Set<StagingPost> set) {
+                    assertSame(callingThread, Thread.currentThread());
+                    return ImportResult.from(set, emptyList());
+                }
+
+                @Override
+                public ImportResult onFailure(Throwable throwable) {
+                    fail(throwable.getMessage());
+                    return ImportResult.from(emptySet(), emptyList());
+                }
+            });
+            assertTrue(importResult.isDone());
+            assertEquals(1, size(importResult.get().getImportSet()));
+            assertFalse(queuedWorkRan.get());
+        } finally {
+            release.countDown();
+        }
+    }
+
     @Override
     public String toString() {
         return "RssImporterTest_ATOM1{" +
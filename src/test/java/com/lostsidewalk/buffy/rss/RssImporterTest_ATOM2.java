@@ -24,8 +24,10 @@ import java.util.Date;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static java.util.Collections.*;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -164,14 +166,28 @@ public class RssImporterTest_ATOM2 {
             SyndFeedInput syndFeedInput = new SyndFeedInput();
             SyndFeed response = syndFeedInput.build(new StringReader(TEST_ATOM_RESPONSE));
             SyndFeedResponse syndFeedResponse = SyndFeedResponse.from(response, 200, "OK");
-            when(syndFeedService.fetch(
+            when(syndFeedService.fetchAsync(
                     eq(TEST_ATOM_SUB.getUrl()),
                     isNull(),
                     isNull(),
                     eq("Lost Sidewalk FeedGears RSS Aggregator v.0.4 feed import process, on behalf of 1 users"),
-                    eq(true))
-                ).thenReturn(syndFeedResponse);
-            rssImporter.doImport(singletonList(TEST_ATOM_SUB), emptyMap());
+                    eq(true),
+                    any(Executor.class),
+                    isNull())
+                ).thenReturn(completedFuture(syndFeedResponse));
+            // carry out test
+            ImportResult importResult = rssImporter.doImport(singletonList(TEST_ATOM_SUB), emptyMap());
+            assertNotNull(importResult);
+            assertEquals(1, size(importResult.getImportSet()));
+            StagingPost stagingPost = importResult.getImportSet().iterator().next();
+            assertEquals("RssAtom", stagingPost.getImporterId());
+            assertEquals(667L, stagingPost.getQueueId());
+            assertEquals("testQuery", stagingPost.getImporterDesc());
+            assertEquals(1, size(importResult.getSubscriptionMetrics()));
+            SubscriptionMetrics subscriptionMetrics = importResult.getSubscriptionMetrics().get(0);
+            assertEquals(200, subscriptionMetrics.getHttpStatusCode());
+            assertEquals(1, subscriptionMetrics.getImportCt());
+            assertNull(subscriptionMetrics.getErrorType());
         } catch (Exception e) {
             fail(e.getMessage());
         }
@@ -5,6 +5,8 @@ import com.lostsidewalk.buffy.importer.Importer.ImportResult;
 import com.lostsidewalk.buffy.post.StagingPost;
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService;
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService.SyndFeedResponse;
+import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedTimings;
+import com.lostsidewalk.buffy.rss.websub.WebSubSubscriber;
 import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
 import com.lostsidewalk.buffy.subscription.SubscriptionMetrics;
 import com.rometools.rome.feed.synd.SyndFeed;
@@ -17,13 +19,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 
 import static java.util.Collections.*;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -173,19 +184,179 @@ public class RssImporterTest_RSS1 {
             SyndFeedInput syndFeedInput = new SyndFeedInput();
             SyndFeed response = syndFeedInput.build(new StringReader(TEST_RSS_RESPONSE));
             SyndFeedResponse syndFeedResponse = SyndFeedResponse.from(response, 200, "OK");
-            when(syndFeedService.fetch(
+            when(syndFeedService.fetchAsync(
                     eq(TEST_RSS_SUB.getUrl()),
                     isNull(),
                     isNull(),
                     eq("Lost Sidewalk FeedGears RSS Aggregator v.0.4 feed import process, on behalf of 1 users"),
-                    eq(true))
-                ).thenReturn(syndFeedResponse);
-            rssImporter.doImport(singletonList(TEST_RSS_SUB), emptyMap());
+                    eq(true),
+                    any(Executor.class),
+                    isNull())
+                ).thenReturn(completedFuture(syndFeedResponse));
+            // carry out test
+            ImportResult importResult = rssImporter.doImport(singletonList(TEST_RSS_SUB), emptyMap());
+            assertNotNull(importResult);
+            assertEquals(1, size(importResult.getImportSet()));
+            StagingPost stagingPost = importResult.getImportSet().iterator().next();
+            assertEquals("RssAtom", stagingPost.getImporterId());
+            assertEquals(668L, stagingPost.getQueueId());
+            assertEquals("testQuery", stagingPost.getImporterDesc());
+            assertEquals(1, size(importResult.getSubscriptionMetrics()));
+            SubscriptionMetrics subscriptionMetrics = importResult.getSubscriptionMetrics().get(0);
+            assertEquals(200, subscriptionMetrics.getHttpStatusCode());
+            assertEquals(1, subscriptionMetrics.getImportCt());
+            assertNull(subscriptionMetrics.getErrorType());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRssImporter_doRssChannelImport_queryTypeCase() {
+        try {
+            // setup mocks
+            SubscriptionDefinition lowerCaseSub = SubscriptionDefinition.from(670L, "me", "testQuery", "http://localhost/lower.rss", "rss", null, null);
+            SyndFeedInput syndFeedInput = new SyndFeedInput();
+            SyndFeed response = syndFeedInput.build(new StringReader(TEST_RSS_RESPONSE));
+            SyndFeedResponse syndFeedResponse = SyndFeedResponse.from(response, 200, "OK");
+            when(syndFeedService.fetchAsync(
+                    eq(lowerCaseSub.getUrl()),
+                    isNull(),
+                    isNull(),
+                    anyString(),
+                    eq(true),
+                    any(Executor.class),
+                    isNull())
+                ).thenReturn(completedFuture(syndFeedResponse));
+            // carry out test (the query type is supported in any case, so the import must complete rather than block)
+            ImportResult importResult = assertTimeoutPreemptively(Duration.ofSeconds(30L),
+                    () -> rssImporter.doImport(singletonList(lowerCaseSub), emptyMap()));
+            assertEquals(1, size(importResult.getImportSet()));
+            assertEquals(1, size(importResult.getSubscriptionMetrics()));
+            assertEquals(1, importResult.getSubscriptionMetrics().get(0).getImportCt());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRssImporter_doRssChannelImport_canonicalFetch() {
+        // (two subscriptions to the same feed under non-canonical URLs share a fetch of its canonical URL)
+        SubscriptionDefinition sub1 = SubscriptionDefinition.from(671L, "me", "testQuery", "http://LOCALHOST:80/test.rss", "RSS", null, null);
+        SubscriptionDefinition sub2 = SubscriptionDefinition.from(672L, "me", "testQuery", "http://localhost/test.rss?utm_source=test", "RSS", null, null);
+        String canonicalUrl = "http://localhost/test.rss";
+        ReflectionTestUtils.setField(rssImporter, "feedDigestCache", new FeedDigestCache(16));
+        try {
+            // setup mocks
+            when(configProps.getCanonicalizeFetchUrls()).thenReturn(true);
+            when(configProps.getSlowFetchRankingSize()).thenReturn(5);
+            SyndFeedInput syndFeedInput = new SyndFeedInput();
+            SyndFeed response = syndFeedInput.build(new StringReader(TEST_RSS_RESPONSE));
+            SyndFeedResponse syndFeedResponse = SyndFeedResponse.from(response, 200, "OK", null, null, null, SyndFeedTimings.empty(), "0123456789abcdef");
+            when(syndFeedService.resolvePermanentRedirect(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(syndFeedService.fetchAsync(eq(canonicalUrl), isNull(), isNull(), anyString(), eq(true), any(Executor.class), isNull()))
+                    .thenReturn(completedFuture(syndFeedResponse));
+            when(syndFeedService.fetchAsync(eq(canonicalUrl), isNull(), isNull(), anyString(), eq(true), any(Executor.class), eq("0123456789abcdef")))
+                    .thenReturn(completedFuture(SyndFeedResponse.unchanged(200, "OK", null, null, null, SyndFeedTimings.empty(), "0123456789abcdef")));
+            // carry out test
+            ImportResult importResult = rssImporter.doImport(List.of(sub1, sub2), emptyMap());
+            assertEquals(2, size(importResult.getSubscriptionMetrics()));
+            // (the fetch is reported under the URL that was fetched)
+            assertEquals(1, size(rssImporter.getSlowestFetches()));
+            assertEquals(canonicalUrl, rssImporter.getSlowestFetches().get(0).getUrl());
+            // the body digest is recorded under the URL that was fetched, so the next cycle skips the unchanged body
+            ImportResult unchangedResult = rssImporter.doImport(List.of(sub1, sub2), emptyMap());
+            assertTrue(unchangedResult.getImportSet().isEmpty());
+            assertEquals(2, size(unchangedResult.getSubscriptionMetrics()));
+            verify(syndFeedService).fetchAsync(eq(canonicalUrl), isNull(), isNull(), anyString(), eq(true), any(Executor.class), eq("0123456789abcdef"));
         } catch (Exception e) {
             fail(e.getMessage());
+        } finally {
+            ReflectionTestUtils.setField(rssImporter, "feedDigestCache", null);
         }
     }
 
+    @Test
+    public void testRssImporter_webSubSubscriptionsRebuilt() {
+        // (content pushed for a feed is imported into the subscriptions to it as of the latest import cycle)
+        SubscriptionDefinition sub1 = SubscriptionDefinition.from(673L, "me", "testQuery", "https://localhost/pushed.rss", "RSS", null, null);
+        SubscriptionDefinition sub2 = SubscriptionDefinition.from(674L, "me", "testQuery", "https://localhost/pushed.rss", "RSS", null, null);
+        SubscriptionDefinition unsubscribed = SubscriptionDefinition.from(675L, "me", "testQuery", "https://localhost/pushed.rss", "RSS", null, null);
+        SubscriptionDefinition removed = SubscriptionDefinition.from(676L, "me", "testQuery", "https://localhost/removed.rss", "RSS", null, null);
+        String pushedUrl = new FetchPlanCache(16).planFor(sub1).getCanonicalUrl();
+        String removedUrl = new FetchPlanCache(16).planFor(removed).getCanonicalUrl();
+        WebSubSubscriber webSubSubscriber = new WebSubSubscriber("https://localhost/websub", 3_600L, 60_000L);
+        ReflectionTestUtils.setField(rssImporter, "webSubSubscriber", webSubSubscriber);
+        @SuppressWarnings("unchecked")
+        Map<String, Set<SubscriptionDefinition>> webSubSubscriptionDefinitions = (Map<String, Set<SubscriptionDefinition>>) ReflectionTestUtils.getField(rssImporter, "webSubSubscriptionDefinitions");
+        assertNotNull(webSubSubscriptionDefinitions);
+        try {
+            webSubSubscriptionDefinitions.put(pushedUrl, new HashSet<>(List.of(sub1, unsubscribed)));
+            webSubSubscriptionDefinitions.put(removedUrl, new HashSet<>(List.of(removed)));
+            // carry out test
+            ReflectionTestUtils.invokeMethod(rssImporter, "getUniqueQueries", List.of(sub1, sub2, TEST_RSS_SUB), false);
+            assertEquals(Set.of(pushedUrl), webSubSubscriptionDefinitions.keySet());
+            assertEquals(Set.of(sub1, sub2), webSubSubscriptionDefinitions.get(pushedUrl));
+            // (once no subscriptions remain, nothing is)
+            ReflectionTestUtils.invokeMethod(rssImporter, "getUniqueQueries", List.of(TEST_RSS_SUB), false);
+            assertTrue(webSubSubscriptionDefinitions.isEmpty());
+        } finally {
+            webSubSubscriber.shutdown();
+            ReflectionTestUtils.setField(rssImporter, "webSubSubscriber", null);
+            webSubSubscriptionDefinitions.clear();
+        }
+    }
+
+    @Test
+    public void testRssImporter_rollingImportConsumerFailure() {
+        // (the entries of a rolling import result are only recorded as seen once its consumer has accepted it)
+        String url = TEST_RSS_SUB.getUrl();
+        Set<SubscriptionDefinition> subscriptionDefinitions = singleton(TEST_RSS_SUB);
+        FeedDigestCache feedDigestCache = new FeedDigestCache(16);
+        ReflectionTestUtils.setField(rssImporter, "seenEntryIndex", new SeenEntryIndex(FingerprintStore.onHeap(1_000)));
+        ReflectionTestUtils.setField(rssImporter, "feedDigestCache", feedDigestCache);
+        try {
+            SyndFeedInput syndFeedInput = new SyndFeedInput();
+            SyndFeed response = syndFeedInput.build(new StringReader(TEST_RSS_RESPONSE));
+            SyndFeedResponse syndFeedResponse = SyndFeedResponse.from(response, 200, "OK", null, null, null, SyndFeedTimings.empty(), "0123456789abcdef");
+            // the consumer fails, so the entries and the body digest are forgotten
+            rssImporter.setRollingImportResultConsumer(importResult -> {
+                throw new IllegalStateException("consumer failed");
+            });
+            assertEquals(1, size(emitRollingImportResult(url, subscriptionDefinitions, syndFeedResponse).getImportSet()));
+            assertNull(feedDigestCache.getBodyDigest(url, subscriptionDefinitions));
+            // the next import of the feed imports them again, and once accepted, they are recorded as seen
+            List<ImportResult> accepted = new ArrayList<>();
+            rssImporter.setRollingImportResultConsumer(accepted::add);
+            ImportResult importResult = emitRollingImportResult(url, subscriptionDefinitions, syndFeedResponse);
+            assertEquals(1, size(importResult.getImportSet()));
+            assertEquals(List.of(importResult), accepted);
+            assertEquals("0123456789abcdef", feedDigestCache.getBodyDigest(url, subscriptionDefinitions));
+            assertTrue(emitRollingImportResult(url, subscriptionDefinitions, syndFeedResponse).getImportSet().isEmpty());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        } finally {
+            rssImporter.setRollingImportResultConsumer(null);
+            ReflectionTestUtils.setField(rssImporter, "seenEntryIndex", null);
+            ReflectionTestUtils.setField(rssImporter, "feedDigestCache", null);
+        }
+    }
+
+    /**
+     * Imports the given response as the rolling import does, and passes its result to the rolling import result
+     * consumer.
+     */
+    private ImportResult emitRollingImportResult(String url, Set<SubscriptionDefinition> subscriptionDefinitions, SyndFeedResponse syndFeedResponse) {
+        SeenEntryIndex.PendingMarks pendingMarks = new SeenEntryIndex.PendingMarks();
+        RssImporter.SyndFeedResponseCallback responseHandler = ReflectionTestUtils.invokeMethod(rssImporter, "getArticlesResponseHandler",
+                url, subscriptionDefinitions, new CountDownLatch(1), new SlowFetchRanking(1), null, false, pendingMarks);
+        assertNotNull(responseHandler);
+        ImportResult importResult = responseHandler.onSuccess(syndFeedResponse);
+        ReflectionTestUtils.invokeMethod(rssImporter, "emitRollingImportResult", new RssImporter.PendingImportResult(url, importResult, pendingMarks));
+
+        return importResult;
+    }
+
     @Override
     public String toString() {
         return "RssImporterTest_RSS1{" +
@@ -5,6 +5,7 @@ import com.lostsidewalk.buffy.importer.Importer.ImportResult;
 import com.lostsidewalk.buffy.post.StagingPost;
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService;
 import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService.SyndFeedResponse;
+import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedTimings;
 import com.lostsidewalk.buffy.subscription.SubscriptionDefinition;
 import com.lostsidewalk.buffy.subscription.SubscriptionMetrics;
 import com.rometools.rome.feed.synd.SyndFeed;
@@ -22,8 +23,10 @@ import java.io.StringReader;
 import java.util.Date;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static java.util.Collections.*;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -166,14 +169,56 @@ public class RssImporterTest_RSS2 {
             SyndFeedInput syndFeedInput = new SyndFeedInput();
             SyndFeed response = syndFeedInput.build(new StringReader(TEST_RSS_RESPONSE));
             SyndFeedResponse syndFeedResponse = SyndFeedResponse.from(response, 200, "OK");
-            when(syndFeedService.fetch(
+            when(syndFeedService.fetchAsync(
                     eq(TEST_RSS_SUB.getUrl()),
                     isNull(),
                     isNull(),
                     eq("Lost Sidewalk FeedGears RSS Aggregator v.0.4 feed import process, on behalf of 1 users"),
-                    eq(true))
-                ).thenReturn(syndFeedResponse);
-            rssImporter.doImport(singletonList(TEST_RSS_SUB), emptyMap());
+                    eq(true),
+                    any(Executor.class),
+                    isNull())
+                ).thenReturn(completedFuture(syndFeedResponse));
+            // carry out test
+            ImportResult importResult = rssImporter.doImport(singletonList(TEST_RSS_SUB), emptyMap());
+            assertNotNull(importResult);
+            assertEquals(1, size(importResult.getImportSet()));
+            StagingPost stagingPost = importResult.getImportSet().iterator().next();
+            assertEquals("RssAtom", stagingPost.getImporterId());
+            assertEquals(669L, stagingPost.getQueueId());
+            assertEquals("testQuery", stagingPost.getImporterDesc());
+            assertEquals(1, size(importResult.getSubscriptionMetrics()));
+            SubscriptionMetrics subscriptionMetrics = importResult.getSubscriptionMetrics().get(0);
+            assertEquals(200, subscriptionMetrics.getHttpStatusCode());
+            assertEquals(1, subscriptionMetrics.getImportCt());
+            assertNull(subscriptionMetrics.getErrorType());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRssImporter_doRssChannelImport_unchanged() {
+        try {
+            // setup mocks (the fetched body matches the digest of the previous import, so it is not parsed)
+            SyndFeedResponse syndFeedResponse = SyndFeedResponse.unchanged(200, "OK", null, null, null, SyndFeedTimings.empty(), "0123456789abcdef");
+            when(syndFeedService.fetchAsync(
+                    eq(TEST_RSS_SUB.getUrl()),
+                    isNull(),
+                    isNull(),
+                    eq("Lost Sidewalk FeedGears RSS Aggregator v.0.4 feed import process, on behalf of 1 users"),
+                    eq(true),
+                    any(Executor.class),
+                    isNull())
+                ).thenReturn(completedFuture(syndFeedResponse));
+            // carry out test (nothing is converted, and the subscriber gets a zero-count metric)
+            ImportResult importResult = rssImporter.doImport(singletonList(TEST_RSS_SUB), emptyMap());
+            assertNotNull(importResult);
+            assertTrue(importResult.getImportSet().isEmpty());
+            assertEquals(1, size(importResult.getSubscriptionMetrics()));
+            SubscriptionMetrics subscriptionMetrics = importResult.getSubscriptionMetrics().get(0);
+            assertEquals(200, subscriptionMetrics.getHttpStatusCode());
+            assertEquals(0, subscriptionMetrics.getImportCt());
+            assertNull(subscriptionMetrics.getErrorType());
         } catch (Exception e) {
             fail(e.getMessage());
         }
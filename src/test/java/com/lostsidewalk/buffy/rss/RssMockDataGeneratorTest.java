@@ -0,0 +1,32 @@
+package com.lostsidewalk.buffy.rss;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RssMockDataGeneratorTest {
+
+    private static List<SyndEntry> entries(SyntheticFeedSpec spec, String feedUrl) {
+        return RssMockDataGenerator.buildSyntheticResponse(spec, feedUrl, 0L).getSyndFeed().getEntries();
+    }
+
+    @Test
+    public void testSyntheticFeed_deterministicAcrossPorts() {
+        SyntheticFeedSpec spec = SyntheticFeedSpec.from("rss_2.0");
+        // (a corpus served on an ephemeral port renders the same entries on every run)
+        List<SyndEntry> run1 = entries(spec, "http://127.0.0.1:40001/feeds/7");
+        List<SyndEntry> run2 = entries(spec, "http://127.0.0.1:40002/feeds/7");
+        assertEquals(run1.size(), run2.size());
+        for (int i = 0; i < run1.size(); i++) {
+            assertEquals(run1.get(i).getTitle(), run2.get(i).getTitle());
+            assertEquals(run1.get(i).getAuthor(), run2.get(i).getAuthor());
+            assertEquals(run1.get(i).getDescription().getValue(), run2.get(i).getDescription().getValue());
+        }
+        // (while distinct feeds differ)
+        List<SyndEntry> other = entries(spec, "http://127.0.0.1:40001/feeds/8");
+        assertNotEquals(run1.get(0).getDescription().getValue(), other.get(0).getDescription().getValue());
+    }
+}
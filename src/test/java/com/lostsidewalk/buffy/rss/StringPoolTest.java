@@ -0,0 +1,39 @@
+package com.lostsidewalk.buffy.rss;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringPoolTest {
+
+    @Test
+    public void testStringPool_canonicalize() {
+        StringPool stringPool = new StringPool(2);
+        String first = new String("audio/mpeg");
+        String duplicate = new String("audio/mpeg");
+        assertSame(first, stringPool.canonicalize(first));
+        assertSame(first, stringPool.canonicalize(duplicate));
+        // (the canonical copy itself is not a duplicate)
+        assertSame(first, stringPool.canonicalize(first));
+        assertEquals(1L, stringPool.getDedupCt());
+        assertEquals(40L + "audio/mpeg".length(), stringPool.getSavedBytes());
+        assertNull(stringPool.canonicalize(null));
+    }
+
+    @Test
+    public void testStringPool_bounded() {
+        StringPool stringPool = new StringPool(2);
+        stringPool.canonicalize("a");
+        stringPool.canonicalize("b");
+        // (once full, new strings are passed through unpooled)
+        String c = new String("c");
+        assertSame(c, stringPool.canonicalize(c));
+        assertSame(c, stringPool.canonicalize(c));
+        assertNotSame(c, stringPool.canonicalize(new String("c")));
+        // (long strings are never pooled)
+        String longString = "x".repeat(1_000);
+        assertSame(longString, stringPool.canonicalize(longString));
+        assertNotSame(longString, stringPool.canonicalize(new String(longString)));
+        assertEquals(0L, stringPool.getDedupCt());
+    }
+}
@@ -0,0 +1,64 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthSchemeRegistryTest {
+
+    private static final String FEED_URL = "https://example.com/private/feed.xml";
+
+    @Test
+    public void testAuthSchemeRegistry_preemptiveOnceLearned() {
+        AuthSchemeRegistry registry = new AuthSchemeRegistry();
+        assertFalse(registry.isPreemptive(FEED_URL, FEED_URL));
+        registry.learn(FEED_URL, "Basic");
+        assertTrue(registry.isPreemptive(FEED_URL, FEED_URL));
+        // (the whole origin is known to use Basic authentication)
+        assertTrue(registry.isPreemptive("https://EXAMPLE.com:443/other.xml", FEED_URL));
+        // (but not another port, or an origin that uses another scheme)
+        assertFalse(registry.isPreemptive("https://example.com:8443/feed.xml", "https://example.com:8443/feed.xml"));
+        registry.learn("https://example.org/feed.xml", "Digest");
+        assertFalse(registry.isPreemptive("https://example.org/feed.xml", "https://example.org/feed.xml"));
+    }
+
+    @Test
+    public void testAuthSchemeRegistry_neverOverHttp() {
+        AuthSchemeRegistry registry = new AuthSchemeRegistry();
+        registry.learn("http://example.com/feed.xml", "Basic");
+        assertFalse(registry.isPreemptive("http://example.com/feed.xml", "http://example.com/feed.xml"));
+        // (a secure feed redirected to plain HTTP on a Basic origin)
+        registry.learn(FEED_URL, "Basic");
+        assertFalse(registry.isPreemptive("http://example.com/private/feed.xml", FEED_URL));
+    }
+
+    @Test
+    public void testAuthSchemeRegistry_neverToAnotherHost() {
+        AuthSchemeRegistry registry = new AuthSchemeRegistry();
+        registry.learn("https://cdn.example.net/feed.xml", "Basic");
+        assertTrue(registry.isPreemptive("https://cdn.example.net/feed.xml", "https://cdn.example.net/feed.xml"));
+        // (a feed redirected to a Basic origin on another host does not send its credentials there up front)
+        assertFalse(registry.isPreemptive("https://cdn.example.net/feed.xml", FEED_URL));
+        assertFalse(registry.isPreemptive("https://cdn.example.net/feed.xml", null));
+        assertFalse(registry.isPreemptive("not a url", FEED_URL));
+    }
+
+    @Test
+    public void testAuthSchemeRegistry_forget() {
+        AuthSchemeRegistry registry = new AuthSchemeRegistry();
+        registry.learn(FEED_URL, "Basic");
+        registry.forget("https://example.com/other.xml");
+        assertFalse(registry.isPreemptive(FEED_URL, FEED_URL));
+        registry.learn(FEED_URL, "basic ");
+        assertTrue(registry.isPreemptive(FEED_URL, FEED_URL));
+    }
+
+    @Test
+    public void testAuthSchemeRegistry_schemeOf() {
+        assertEquals("Basic", AuthSchemeRegistry.schemeOf(List.of("Digest realm=\"x\", nonce=\"y\"", "Basic realm=\"x\"")));
+        assertEquals("Bearer", AuthSchemeRegistry.schemeOf(List.of("Bearer realm=\"x\"")));
+        assertNull(AuthSchemeRegistry.schemeOf(List.of()));
+    }
+}
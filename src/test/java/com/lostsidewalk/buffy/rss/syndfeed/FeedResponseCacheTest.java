@@ -0,0 +1,93 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import com.lostsidewalk.buffy.rss.syndfeed.FeedResponseCache.CachedResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedResponseCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFeedResponseCache_putAndReopen() throws IOException {
+        Path path = tempDir.resolve("responses.log");
+        try (FeedResponseCache cache = FeedResponseCache.open(path, 1L << 20)) {
+            cache.put("http://localhost/feed", "\"v1\"", null, "d1", "<rss>v1</rss>".getBytes(UTF_8));
+            cache.put("http://localhost/feed", "\"v2\"", "Sat, 01 Jan 2000 00:00:00 GMT", "d2", "<rss>v2</rss>".getBytes(UTF_8));
+            cache.put("http://localhost/other", null, "Sat, 01 Jan 2000 00:00:00 GMT", "d3", "<rss>other</rss>".getBytes(UTF_8));
+            assertEquals(2, cache.size());
+        }
+        try (FeedResponseCache cache = FeedResponseCache.open(path, 1L << 20)) {
+            assertEquals(2, cache.size());
+            CachedResponse cachedResponse = cache.lookup("http://localhost/feed");
+            assertEquals("\"v2\"", cachedResponse.etag());
+            assertEquals("Sat, 01 Jan 2000 00:00:00 GMT", cachedResponse.lastModified());
+            assertEquals("d2", cachedResponse.bodyDigest());
+            assertEquals("<rss>v2</rss>", new String(cache.readBody(cachedResponse), UTF_8));
+            assertNull(cache.lookup("http://localhost/missing"));
+        }
+    }
+
+    @Test
+    public void testFeedResponseCache_truncatesTornTail() throws IOException {
+        Path path = tempDir.resolve("responses.log");
+        try (FeedResponseCache cache = FeedResponseCache.open(path, 1L << 20)) {
+            cache.put("http://localhost/feed", "\"v1\"", null, "d1", "<rss>v1</rss>".getBytes(UTF_8));
+            cache.put("http://localhost/feed", "\"v2\"", null, "d2", "<rss>v2</rss>".getBytes(UTF_8));
+        }
+        // simulate a crash part-way through appending the second record
+        try (FileChannel channel = FileChannel.open(path, WRITE)) {
+            channel.truncate(channel.size() - 3L);
+        }
+        try (FeedResponseCache cache = FeedResponseCache.open(path, 1L << 20)) {
+            CachedResponse cachedResponse = cache.lookup("http://localhost/feed");
+            assertEquals("\"v1\"", cachedResponse.etag());
+            assertEquals("<rss>v1</rss>", new String(cache.readBody(cachedResponse), UTF_8));
+            cache.put("http://localhost/feed", "\"v3\"", null, "d3", "<rss>v3</rss>".getBytes(UTF_8));
+        }
+        try (FeedResponseCache cache = FeedResponseCache.open(path, 1L << 20)) {
+            assertEquals("\"v3\"", cache.lookup("http://localhost/feed").etag());
+        }
+    }
+
+    @Test
+    public void testFeedResponseCache_compaction() throws IOException {
+        Path path = tempDir.resolve("responses.log");
+        byte[] body = new byte[64 * 1024];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i * 31 ^ i >>> 7); // (not very compressible)
+        }
+        long maxBytes = 4L << 20;
+        try (FeedResponseCache cache = FeedResponseCache.open(path, maxBytes)) {
+            CachedResponse stale = null;
+            for (int i = 0; i < 200; i++) {
+                body[0] = (byte) i;
+                cache.put("http://localhost/feed" + (i % 4), "\"v" + i + '"', null, "d" + i, body);
+                if (i == 0) {
+                    stale = cache.lookup("http://localhost/feed0");
+                }
+            }
+            // superseded records have been compacted away
+            assertEquals(4, cache.size());
+            assertTrue(Files.size(path) < maxBytes);
+            assertNull(cache.readBody(stale));
+            CachedResponse cachedResponse = cache.lookup("http://localhost/feed3");
+            assertEquals("\"v199\"", cachedResponse.etag());
+            assertEquals((byte) 199, cache.readBody(cachedResponse)[0]);
+        }
+        try (FeedResponseCache cache = FeedResponseCache.open(path, maxBytes)) {
+            assertEquals(4, cache.size());
+            assertEquals("d196", cache.lookup("http://localhost/feed0").bodyDigest());
+        }
+    }
+}
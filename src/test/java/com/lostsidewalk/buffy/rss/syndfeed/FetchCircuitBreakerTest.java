@@ -0,0 +1,82 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetchCircuitBreakerTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private final FetchCircuitBreaker circuitBreaker = new FetchCircuitBreaker(3, 10 * MINUTE, 60 * MINUTE, clock::get);
+
+    private static SyndFeedException failure(String url, Integer statusCode, QueryExceptionType exceptionType) {
+        return new SyndFeedException(url, statusCode, null, null, null, null, exceptionType);
+    }
+
+    @Test
+    public void testFetchCircuitBreaker_opensAfterThresholdAndBacksOff() {
+        String url = "https://example.com/feed.xml";
+        for (int i = 0; i < 2; i++) {
+            circuitBreaker.recordFailure(url, failure(url, 503, HTTP_SERVER_ERROR));
+            assertNull(circuitBreaker.checkOpen(url));
+        }
+        circuitBreaker.recordFailure(url, failure(url, 503, HTTP_SERVER_ERROR));
+        SyndFeedException shortCircuit = circuitBreaker.checkOpen(url);
+        assertNotNull(shortCircuit);
+        assertTrue(shortCircuit.shortCircuited);
+        assertEquals(HTTP_SERVER_ERROR, shortCircuit.exceptionType);
+        assertEquals(503, shortCircuit.httpStatusCode);
+        // the first backoff is between 75% and 100% of the base period
+        clock.addAndGet(7 * MINUTE);
+        assertNotNull(circuitBreaker.checkOpen(url));
+        clock.addAndGet(3 * MINUTE);
+        assertNull(circuitBreaker.checkOpen(url));
+        // a failed trial re-opens the circuit for twice as long
+        circuitBreaker.recordFailure(url, failure(url, 503, HTTP_SERVER_ERROR));
+        clock.addAndGet(14 * MINUTE);
+        assertNotNull(circuitBreaker.checkOpen(url));
+        clock.addAndGet(6 * MINUTE);
+        assertNull(circuitBreaker.checkOpen(url));
+        // a successful trial closes it
+        circuitBreaker.recordSuccess(url);
+        circuitBreaker.recordFailure(url, failure(url, 503, HTTP_SERVER_ERROR));
+        assertNull(circuitBreaker.checkOpen(url));
+        assertEquals(0, circuitBreaker.openCircuitCt());
+    }
+
+    @Test
+    public void testFetchCircuitBreaker_hostFailuresOpenHostCircuit() {
+        for (int i = 0; i < 3; i++) {
+            String url = "https://dead.example.com/feed" + i + ".xml";
+            circuitBreaker.recordFailure(url, failure(url, null, UNKNOWN_HOST_EXCEPTION));
+        }
+        SyndFeedException shortCircuit = circuitBreaker.checkOpen("https://DEAD.example.com/another.xml");
+        assertNotNull(shortCircuit);
+        assertEquals(UNKNOWN_HOST_EXCEPTION, shortCircuit.exceptionType);
+        assertEquals("https://DEAD.example.com/another.xml", shortCircuit.feedUrl);
+        assertNull(circuitBreaker.checkOpen("https://live.example.com/feed.xml"));
+    }
+
+    @Test
+    public void testFetchCircuitBreaker_ignoresNonTransportFailures() {
+        String url = "https://example.com/feed.xml";
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.recordFailure(url, failure(url, 200, PARSING_FEED_EXCEPTION));
+            circuitBreaker.recordFailure(url, failure(url, 301, UNSECURE_REDIRECT));
+        }
+        assertNull(circuitBreaker.checkOpen(url));
+        // client errors count against the URL, but not the host
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(url, failure(url, 404, HTTP_CLIENT_ERROR));
+        }
+        assertNotNull(circuitBreaker.checkOpen(url));
+        assertNull(circuitBreaker.checkOpen("https://example.com/other.xml"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedirectMemoTest {
+
+    private static final long PERMANENT_TTL = 86_400_000L;
+
+    private static final long TEMPORARY_TTL = 60_000L;
+
+    private static final String URL = "https://example.com/feed.xml";
+
+    private static final String TARGET_URL = "https://example.org/feed.xml";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    public void testRedirectMemo_ttls() {
+        RedirectMemo memo = new RedirectMemo(PERMANENT_TTL, TEMPORARY_TTL, clock::get);
+        memo.memoize(URL, TARGET_URL, 301);
+        memo.memoize("https://example.com/temporary.xml", TARGET_URL, 302);
+        MemoizedRedirect permanent = memo.lookup(URL);
+        assertNotNull(permanent);
+        assertTrue(permanent.isPermanent());
+        assertEquals(TARGET_URL, permanent.getTargetUrl());
+        assertEquals(clock.get() + PERMANENT_TTL, permanent.getExpiresAt());
+        MemoizedRedirect temporary = memo.lookup("https://example.com/temporary.xml");
+        assertNotNull(temporary);
+        assertFalse(temporary.isPermanent());
+        assertEquals(clock.get() + TEMPORARY_TTL, temporary.getExpiresAt());
+        // the temporary redirect expires first
+        clock.addAndGet(TEMPORARY_TTL);
+        assertNull(memo.lookup("https://example.com/temporary.xml"));
+        assertNotNull(memo.lookup(URL));
+        // then the permanent one, which is then revalidated
+        clock.addAndGet(PERMANENT_TTL - TEMPORARY_TTL - 1L);
+        assertNotNull(memo.lookup(URL));
+        clock.incrementAndGet();
+        assertNull(memo.lookup(URL));
+    }
+
+    @Test
+    public void testRedirectMemo_temporaryRedirectsNotMemoized() {
+        RedirectMemo memo = new RedirectMemo(PERMANENT_TTL, 0L, clock::get);
+        memo.memoize(URL, TARGET_URL, 307);
+        assertNull(memo.lookup(URL));
+        memo.memoize(URL, TARGET_URL, 301);
+        assertNotNull(memo.lookup(URL));
+        // (a 308 is permanent too)
+        memo.memoize("https://example.com/permanent.xml", TARGET_URL, 308);
+        assertTrue(memo.lookup("https://example.com/permanent.xml").isPermanent());
+    }
+
+    @Test
+    public void testRedirectMemo_invalidate() {
+        RedirectMemo memo = new RedirectMemo(PERMANENT_TTL, TEMPORARY_TTL, clock::get);
+        memo.memoize(URL, TARGET_URL, 301);
+        assertTrue(memo.invalidate(URL));
+        assertNull(memo.lookup(URL));
+        assertFalse(memo.invalidate(URL));
+        // (a redirect to a new target replaces the old one)
+        memo.memoize(URL, TARGET_URL, 302);
+        memo.memoize(URL, "https://example.net/feed.xml", 301);
+        assertEquals("https://example.net/feed.xml", memo.lookup(URL).getTargetUrl());
+        assertTrue(memo.lookup(URL).isPermanent());
+    }
+
+    @Test
+    public void testRedirectMemo_snapshotAndRestore() {
+        RedirectMemo memo = new RedirectMemo(PERMANENT_TTL, TEMPORARY_TTL, clock::get);
+        memo.memoize(URL, TARGET_URL, 301);
+        memo.memoize("https://example.com/temporary.xml", TARGET_URL, 302);
+        List<MemoizedRedirect> snapshot = memo.snapshot();
+        assertEquals(2, snapshot.size());
+        // (expired redirects are left out of a snapshot)
+        clock.addAndGet(TEMPORARY_TTL);
+        snapshot = memo.snapshot();
+        assertEquals(1, snapshot.size());
+        assertEquals(URL, snapshot.get(0).getUrl());
+        // restore into a new memo, skipping expired and incomplete redirects
+        RedirectMemo restored = new RedirectMemo(PERMANENT_TTL, TEMPORARY_TTL, clock::get);
+        restored.restore(List.of(
+                snapshot.get(0),
+                MemoizedRedirect.from("https://example.com/expired.xml", TARGET_URL, 301, 0L, clock.get()),
+                MemoizedRedirect.from("https://example.com/incomplete.xml", null, 301, 0L, clock.get() + 1L)
+        ));
+        assertEquals(TARGET_URL, restored.lookup(URL).getTargetUrl());
+        assertEquals(snapshot.get(0).getExpiresAt(), restored.lookup(URL).getExpiresAt());
+        assertNull(restored.lookup("https://example.com/expired.xml"));
+        assertNull(restored.lookup("https://example.com/incomplete.xml"));
+        assertEquals(1, restored.snapshot().size());
+    }
+}
@@ -0,0 +1,204 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService.SyndFeedResponse;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.lostsidewalk.buffy.rss.syndfeed.SyndFeedServiceTest.TEST_FEED;
+import static com.lostsidewalk.buffy.rss.syndfeed.SyndFeedServiceTest.respond;
+import static com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType.HTTP_CLIENT_ERROR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyndFeedServicePreemptiveAuthTest {
+
+    private static final String USER_AGENT = "SyndFeedServicePreemptiveAuthTest";
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private static final char[] STORE_PASSWORD = "changeit".toCharArray();
+
+    private static final String NO_AUTHORIZATION = "(none)";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+
+    private final AtomicReference<String> password = new AtomicReference<>("secret");
+
+    // (the Authorization header of each request, in order)
+    private final List<String> authorizations = Collections.synchronizedList(new ArrayList<>());
+
+    private SyndFeedService syndFeedService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        SSLContext sslContext = newSslContext(tempDir.resolve("test.p12"));
+        HttpsServer httpsServer = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        // (a private feed that challenges for Basic authentication, and a public URL that redirects to it)
+        httpsServer.createContext("/private.xml", exchange -> {
+            try (exchange) {
+                String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+                authorizations.add(authorization == null ? NO_AUTHORIZATION : authorization);
+                if (basicAuthorization("user", password.get()).equals(authorization)) {
+                    respond(exchange, 200, TEST_FEED.getBytes(UTF_8));
+                } else {
+                    exchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"test\"");
+                    respond(exchange, 401, null);
+                }
+            }
+        });
+        httpsServer.createContext("/moved.xml", exchange -> {
+            try (exchange) {
+                String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+                authorizations.add(authorization == null ? NO_AUTHORIZATION : authorization);
+                exchange.getResponseHeaders().add("Location", "https://127.0.0.1:" + httpsServer.getAddress().getPort() + "/private.xml");
+                respond(exchange, 302, null);
+            }
+        });
+        httpsServer.start();
+        server = httpsServer;
+        syndFeedService = new SyndFeedService();
+        syndFeedService.postConstruct();
+        // (the service's client must trust the test server's self-signed certificate)
+        ReflectionTestUtils.setField(syndFeedService, "httpClient", HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .sslContext(sslContext)
+                .build());
+        syndFeedService.configurePreemptiveAuth();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        syndFeedService.preDestroy();
+        server.stop(0);
+    }
+
+    /**
+     * Creates an SSL context whose key and trust material is a self-signed certificate for 127.0.0.1 and localhost,
+     * kept in a key store at the given path.
+     */
+    public static SSLContext newSslContext(Path keyStorePath) throws Exception {
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "test", "-keyalg", "RSA", "-keysize", "2048", "-validity", "2",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                "-storetype", "PKCS12", "-keystore", keyStorePath.toString(),
+                "-storepass", new String(STORE_PASSWORD), "-keypass", new String(STORE_PASSWORD))
+                .redirectErrorStream(true)
+                .start();
+        assertTrue(keytool.waitFor(60L, SECONDS) && keytool.exitValue() == 0, () -> "keytool failed: " + readOutput(keytool));
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream is = Files.newInputStream(keyStorePath)) {
+            keyStore.load(is, STORE_PASSWORD);
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, STORE_PASSWORD);
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(keyStore);
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+        return sslContext;
+    }
+
+    private static String readOutput(Process process) {
+        try {
+            return new String(process.getInputStream().readAllBytes(), UTF_8);
+        } catch (IOException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String basicAuthorization(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ':' + password).getBytes(UTF_8));
+    }
+
+    private String url(String host, String path) {
+        return "https://" + host + ':' + server.getAddress().getPort() + path;
+    }
+
+    private SyndFeedResponse fetchAsync(String url, String password) throws Exception {
+        return syndFeedService.fetchAsync(url, "user", password, USER_AGENT, false, DIRECT_EXECUTOR, null).get(10L, SECONDS);
+    }
+
+    private List<String> takeAuthorizations() {
+        synchronized (authorizations) {
+            List<String> taken = new ArrayList<>(authorizations);
+            authorizations.clear();
+            return taken;
+        }
+    }
+
+    @Test
+    public void testPreemptiveAuth_sentOnceLearned() throws Exception {
+        String credentials = basicAuthorization("user", "secret");
+        // the first fetch waits for the challenge
+        assertEquals("Test Feed", fetchAsync(url("127.0.0.1", "/private.xml"), "secret").getSyndFeed().getTitle());
+        assertEquals(List.of(NO_AUTHORIZATION, credentials), takeAuthorizations());
+        // the origin is known to use Basic authentication, so subsequent fetches send credentials up front
+        assertEquals("Test Feed", fetchAsync(url("127.0.0.1", "/private.xml"), "secret").getSyndFeed().getTitle());
+        assertEquals(List.of(credentials), takeAuthorizations());
+        // (fetches without credentials send none)
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> syndFeedService.fetchAsync(url("127.0.0.1", "/private.xml"), null, null, USER_AGENT, false, DIRECT_EXECUTOR, null).get(10L, SECONDS));
+        assertEquals(HTTP_CLIENT_ERROR, assertInstanceOf(SyndFeedException.class, e.getCause()).exceptionType);
+        assertEquals(List.of(NO_AUTHORIZATION), takeAuthorizations());
+    }
+
+    @Test
+    public void testPreemptiveAuth_rejectedFallsBackToChallenge() throws Exception {
+        fetchAsync(url("127.0.0.1", "/private.xml"), "secret");
+        takeAuthorizations();
+        // the password changes; the preemptive attempt with the old one is rejected
+        password.set("changed");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetchAsync(url("127.0.0.1", "/private.xml"), "secret"));
+        assertEquals(HTTP_CLIENT_ERROR, assertInstanceOf(SyndFeedException.class, e.getCause()).exceptionType);
+        assertEquals(List.of(basicAuthorization("user", "secret")), takeAuthorizations());
+        // the origin is forgotten, so the next fetch waits for a challenge again
+        assertEquals("Test Feed", fetchAsync(url("127.0.0.1", "/private.xml"), "changed").getSyndFeed().getTitle());
+        assertEquals(List.of(NO_AUTHORIZATION, basicAuthorization("user", "changed")), takeAuthorizations());
+        // (and once it has been accepted on challenge, credentials are sent up front again)
+        fetchAsync(url("127.0.0.1", "/private.xml"), "changed");
+        assertEquals(List.of(basicAuthorization("user", "changed")), takeAuthorizations());
+    }
+
+    @Test
+    public void testPreemptiveAuth_notSentToAnotherHost() throws Exception {
+        String credentials = basicAuthorization("user", "secret");
+        // (the private feed's origin is known to use Basic authentication)
+        fetchAsync(url("127.0.0.1", "/private.xml"), "secret");
+        fetchAsync(url("127.0.0.1", "/private.xml"), "secret");
+        assertEquals(List.of(NO_AUTHORIZATION, credentials, credentials), takeAuthorizations());
+        // a feed on another host that redirects there does not send its credentials up front, on either request
+        SyndFeedResponse response = fetchAsync(url("localhost", "/moved.xml"), "secret");
+        assertEquals(302, response.getHttpStatusCode());
+        assertEquals(url("127.0.0.1", "/private.xml"), response.getRedirectUrl());
+        assertEquals(List.of(NO_AUTHORIZATION, NO_AUTHORIZATION, credentials), takeAuthorizations());
+    }
+}
@@ -0,0 +1,411 @@
+package com.lostsidewalk.buffy.rss.syndfeed;
+
+import com.lostsidewalk.buffy.rss.syndfeed.SyndFeedService.SyndFeedResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType.HTTP_CLIENT_ERROR;
+import static com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType.HTTP_SERVER_ERROR;
+import static com.lostsidewalk.buffy.subscription.SubscriptionMetrics.QueryExceptionType.UNSECURE_REDIRECT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyndFeedServiceTest {
+
+    private static final String USER_AGENT = "SyndFeedServiceTest";
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    static final String TEST_FEED = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0">
+              <channel>
+                <title>Test Feed</title>
+                <link>https://example.com/</link>
+                <description>Test feed</description>
+                <item>
+                  <title>Test entry</title>
+                  <link>https://example.com/entry</link>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+    /**
+     * A request received by the test server.
+     */
+    record ReceivedRequest(String path, String authorization, String ifNoneMatch, String ifModifiedSince) {
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+
+    private final Map<String, HttpHandler> handlers = new ConcurrentHashMap<>();
+
+    private final List<ReceivedRequest> requests = new CopyOnWriteArrayList<>();
+
+    private SyndFeedService syndFeedService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                String path = exchange.getRequestURI().getPath();
+                requests.add(new ReceivedRequest(path,
+                        exchange.getRequestHeaders().getFirst("Authorization"),
+                        exchange.getRequestHeaders().getFirst("If-None-Match"),
+                        exchange.getRequestHeaders().getFirst("If-Modified-Since")));
+                HttpHandler handler = handlers.get(path);
+                if (handler == null) {
+                    exchange.sendResponseHeaders(404, -1L);
+                } else {
+                    handler.handle(exchange);
+                }
+            }
+        });
+        server.start();
+        syndFeedService = new SyndFeedService();
+        syndFeedService.postConstruct();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        syndFeedService.preDestroy();
+        server.stop(0);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    static void respond(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(statusCode, body == null ? -1L : body.length);
+        if (body != null) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private SyndFeedResponse fetchAsync(String path) throws Exception {
+        return syndFeedService.fetchAsync(url(path), null, null, USER_AGENT, true, DIRECT_EXECUTOR, null).get(10L, SECONDS);
+    }
+
+    private SyndFeedException fetchAsyncFailure(String path) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetchAsync(path));
+        return assertInstanceOf(SyndFeedException.class, e.getCause());
+    }
+
+    @Test
+    public void testFetchAsync_success() throws Exception {
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        SyndFeedResponse response = fetchAsync("/feed.xml");
+        assertEquals(200, response.getHttpStatusCode());
+        assertEquals("OK", response.getHttpStatusMessage());
+        assertFalse(response.isUnchanged());
+        assertNotNull(response.getBodyDigest());
+        assertEquals("Test Feed", response.getSyndFeed().getTitle());
+        assertEquals(1, response.getSyndFeed().getEntries().size());
+        assertNull(response.getRedirectUrl());
+        assertNotNull(response.getTimings());
+        // (the convenience overload parses on the service's own pool)
+        SyndFeedResponse pooled = syndFeedService.fetchAsync(url("/feed.xml"), null, null, USER_AGENT, true).get(10L, SECONDS);
+        assertEquals(response.getBodyDigest(), pooled.getBodyDigest());
+    }
+
+    @Test
+    public void testFetchAsync_gzip() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzos = new GZIPOutputStream(baos)) {
+            gzos.write(TEST_FEED.getBytes(UTF_8));
+        }
+        handlers.put("/feed.xml", exchange -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            respond(exchange, 200, baos.toByteArray());
+        });
+        assertEquals("Test Feed", fetchAsync("/feed.xml").getSyndFeed().getTitle());
+    }
+
+    @Test
+    public void testFetchAsync_redirect() throws Exception {
+        handlers.put("/old.xml", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/feed.xml");
+            respond(exchange, 301, null);
+        });
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        SyndFeedResponse response = fetchAsync("/old.xml");
+        assertEquals(301, response.getHttpStatusCode());
+        assertEquals(url("/feed.xml"), response.getRedirectUrl());
+        assertEquals(200, response.getRedirectHttpStatusCode());
+        assertEquals("Test Feed", response.getSyndFeed().getTitle());
+    }
+
+    private void redirect(String path, int statusCode, String location) {
+        handlers.put(path, exchange -> {
+            exchange.getResponseHeaders().add("Location", location);
+            respond(exchange, statusCode, null);
+        });
+    }
+
+    private List<String> requestedPaths() {
+        List<String> paths = requests.stream().map(ReceivedRequest::path).toList();
+        requests.clear();
+        return paths;
+    }
+
+    @Test
+    public void testFetchAsync_memoizedRedirect() throws Exception {
+        syndFeedService.configureRedirectMemo(60_000L, 0L);
+        redirect("/old.xml", 301, "/feed.xml");
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        fetchAsync("/old.xml");
+        assertEquals(List.of("/old.xml", "/feed.xml"), requestedPaths());
+        List<MemoizedRedirect> memoizedRedirects = syndFeedService.getMemoizedRedirects();
+        assertEquals(1, memoizedRedirects.size());
+        assertTrue(memoizedRedirects.get(0).isPermanent());
+        assertEquals(url("/feed.xml"), syndFeedService.resolvePermanentRedirect(url("/old.xml")));
+        // the next fetch goes straight to the target, reporting the memoized redirect
+        SyndFeedResponse response = fetchAsync("/old.xml");
+        assertEquals(List.of("/feed.xml"), requestedPaths());
+        assertEquals(301, response.getHttpStatusCode());
+        assertEquals(url("/feed.xml"), response.getRedirectUrl());
+        assertEquals("Test Feed", response.getSyndFeed().getTitle());
+        // a failure of the target drops the memo, so the fetch after it revalidates the redirect
+        handlers.put("/feed.xml", exchange -> respond(exchange, 503, null));
+        assertEquals(HTTP_SERVER_ERROR, fetchAsyncFailure("/old.xml").exceptionType);
+        assertEquals(List.of("/feed.xml"), requestedPaths());
+        assertTrue(syndFeedService.getMemoizedRedirects().isEmpty());
+        assertEquals(url("/old.xml"), syndFeedService.resolvePermanentRedirect(url("/old.xml")));
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        fetchAsync("/old.xml");
+        assertEquals(List.of("/old.xml", "/feed.xml"), requestedPaths());
+    }
+
+    @Test
+    public void testFetchAsync_memoizedRedirectRevalidated() throws Exception {
+        syndFeedService.configureRedirectMemo(250L, 0L);
+        redirect("/old.xml", 301, "/feed.xml");
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        fetchAsync("/old.xml");
+        assertEquals(1, syndFeedService.getMemoizedRedirects().size());
+        // once the memo expires, the original URL is fetched again; it no longer redirects, so the memo is dropped
+        handlers.put("/old.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        Thread.sleep(300L);
+        requests.clear();
+        SyndFeedResponse response = fetchAsync("/old.xml");
+        assertEquals(List.of("/old.xml"), requestedPaths());
+        assertEquals(200, response.getHttpStatusCode());
+        assertNull(response.getRedirectUrl());
+        assertTrue(syndFeedService.getMemoizedRedirects().isEmpty());
+        fetchAsync("/old.xml");
+        assertEquals(List.of("/old.xml"), requestedPaths());
+    }
+
+    @Test
+    public void testFetchAsync_temporaryRedirects() throws Exception {
+        redirect("/moved.xml", 302, "/feed.xml");
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        // (temporary redirects are not memoized at a TTL of zero)
+        syndFeedService.configureRedirectMemo(60_000L, 0L);
+        fetchAsync("/moved.xml");
+        fetchAsync("/moved.xml");
+        assertEquals(List.of("/moved.xml", "/feed.xml", "/moved.xml", "/feed.xml"), requestedPaths());
+        assertTrue(syndFeedService.getMemoizedRedirects().isEmpty());
+        // (they are memoized briefly otherwise, but never resolved as the feed's new URL)
+        syndFeedService.configureRedirectMemo(60_000L, 60_000L);
+        fetchAsync("/moved.xml");
+        SyndFeedResponse response = fetchAsync("/moved.xml");
+        assertEquals(List.of("/moved.xml", "/feed.xml", "/feed.xml"), requestedPaths());
+        assertEquals(302, response.getHttpStatusCode());
+        assertFalse(syndFeedService.getMemoizedRedirects().get(0).isPermanent());
+        assertEquals(url("/moved.xml"), syndFeedService.resolvePermanentRedirect(url("/moved.xml")));
+    }
+
+    @Test
+    public void testFetchAsync_temporaryRedirect307() throws Exception {
+        syndFeedService.configureRedirectMemo(60_000L, 60_000L);
+        redirect("/moved.xml", 307, "/hop.xml");
+        // (a same-protocol 307 on the redirect target is followed transparently)
+        redirect("/hop.xml", 307, "/feed.xml");
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        SyndFeedResponse response = fetchAsync("/moved.xml");
+        assertEquals(List.of("/moved.xml", "/hop.xml", "/feed.xml"), requestedPaths());
+        assertEquals(307, response.getHttpStatusCode());
+        assertEquals("Temporary Redirect", response.getHttpStatusMessage());
+        assertEquals(url("/hop.xml"), response.getRedirectUrl());
+        assertEquals(200, response.getRedirectHttpStatusCode());
+        assertEquals("Test Feed", response.getSyndFeed().getTitle());
+        // (memoized as a temporary redirect)
+        assertFalse(syndFeedService.getMemoizedRedirects().get(0).isPermanent());
+        assertEquals(url("/moved.xml"), syndFeedService.resolvePermanentRedirect(url("/moved.xml")));
+    }
+
+    @Test
+    public void testFetchAsync_permanentRedirect308() throws Exception {
+        syndFeedService.configureRedirectMemo(60_000L, 0L);
+        redirect("/old.xml", 308, "/hop.xml");
+        // (a same-protocol 308 on the redirect target is followed transparently)
+        redirect("/hop.xml", 308, "/feed.xml");
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        SyndFeedResponse response = fetchAsync("/old.xml");
+        assertEquals(List.of("/old.xml", "/hop.xml", "/feed.xml"), requestedPaths());
+        assertEquals(308, response.getHttpStatusCode());
+        assertEquals("Permanent Redirect", response.getHttpStatusMessage());
+        assertEquals(url("/hop.xml"), response.getRedirectUrl());
+        assertEquals(200, response.getRedirectHttpStatusCode());
+        assertEquals("Test Feed", response.getSyndFeed().getTitle());
+        // (memoized as a permanent redirect, so the next fetch goes straight to its target)
+        assertTrue(syndFeedService.getMemoizedRedirects().get(0).isPermanent());
+        assertEquals(url("/hop.xml"), syndFeedService.resolvePermanentRedirect(url("/old.xml")));
+        assertEquals(308, fetchAsync("/old.xml").getHttpStatusCode());
+        assertEquals(List.of("/hop.xml", "/feed.xml"), requestedPaths());
+    }
+
+    @Test
+    public void testMemoizedRedirects_restore() throws Exception {
+        syndFeedService.configureRedirectMemo(60_000L, 0L);
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        long now = System.currentTimeMillis();
+        syndFeedService.restoreMemoizedRedirects(List.of(
+                MemoizedRedirect.from(url("/old.xml"), url("/feed.xml"), 301, now, now + 60_000L),
+                MemoizedRedirect.from(url("/expired.xml"), url("/feed.xml"), 301, now - 60_000L, now - 1L)
+        ));
+        assertEquals(1, syndFeedService.getMemoizedRedirects().size());
+        // (a restored redirect is followed without fetching the original URL)
+        assertEquals(301, fetchAsync("/old.xml").getHttpStatusCode());
+        assertEquals(List.of("/feed.xml"), requestedPaths());
+        // (reconfiguring the memo keeps the memoized redirects)
+        syndFeedService.configureRedirectMemo(120_000L, 0L);
+        assertEquals(url("/feed.xml"), syndFeedService.resolvePermanentRedirect(url("/old.xml")));
+    }
+
+    @Test
+    public void testFetchAsync_unchangedBodyStoresValidators() throws Exception {
+        syndFeedService.openResponseCache(tempDir.resolve("responses"), 1L << 20);
+        // (the server revalidates with a new ETag on each change of version, although the body stays the same)
+        AtomicReference<String> etag = new AtomicReference<>("\"v1\"");
+        handlers.put("/feed.xml", exchange -> {
+            String currentEtag = etag.get();
+            exchange.getResponseHeaders().add("ETag", currentEtag);
+            if (currentEtag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                respond(exchange, 304, null);
+            } else {
+                respond(exchange, 200, TEST_FEED.getBytes(UTF_8));
+            }
+        });
+        String bodyDigest = fetchAsync("/feed.xml").getBodyDigest();
+        etag.set("\"v2\"");
+        SyndFeedResponse unchanged = syndFeedService.fetchAsync(url("/feed.xml"), null, null, USER_AGENT, true, DIRECT_EXECUTOR, bodyDigest).get(10L, SECONDS);
+        assertTrue(unchanged.isUnchanged());
+        assertNull(unchanged.getSyndFeed());
+        assertEquals(bodyDigest, unchanged.getBodyDigest());
+        // the next fetch sends the validator of the unchanged response, rather than the stale one
+        SyndFeedResponse notModified = syndFeedService.fetchAsync(url("/feed.xml"), null, null, USER_AGENT, true, DIRECT_EXECUTOR, bodyDigest).get(10L, SECONDS);
+        assertTrue(notModified.isUnchanged());
+        assertEquals(List.of("\"v1\"", "\"v2\""), requests.stream().map(ReceivedRequest::ifNoneMatch).skip(1L).toList());
+    }
+
+    @Test
+    public void testFetchAsync_noPreemptiveAuthOverHttp() throws Exception {
+        syndFeedService.configurePreemptiveAuth();
+        String credentials = "Basic " + Base64.getEncoder().encodeToString("user:secret".getBytes(UTF_8));
+        handlers.put("/private.xml", exchange -> {
+            if (credentials.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                respond(exchange, 200, TEST_FEED.getBytes(UTF_8));
+            } else {
+                exchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"test\"");
+                respond(exchange, 401, null);
+            }
+        });
+        // (although the origin challenges for Basic authentication, credentials are only ever sent on challenge over plain HTTP)
+        for (int i = 0; i < 2; i++) {
+            SyndFeedResponse response = syndFeedService.fetchAsync(url("/private.xml"), "user", "secret", USER_AGENT, true, DIRECT_EXECUTOR, null).get(10L, SECONDS);
+            assertEquals("Test Feed", response.getSyndFeed().getTitle());
+        }
+        assertEquals(Arrays.asList(null, credentials, null, credentials), requests.stream().map(ReceivedRequest::authorization).toList());
+    }
+
+    @Test
+    public void testFetchAsync_digestChallenge() throws Exception {
+        handlers.put("/private.xml", exchange -> {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization != null && authorization.startsWith("Digest ") && authorization.contains("username=\"user\"")) {
+                respond(exchange, 200, TEST_FEED.getBytes(UTF_8));
+            } else {
+                exchange.getResponseHeaders().add("WWW-Authenticate", "Digest realm=\"test\", nonce=\"dcd98b7102dd2f0e\", qop=\"auth\", algorithm=SHA-256");
+                respond(exchange, 401, null);
+            }
+        });
+        // (the non-blocking client only answers Basic challenges; the fetch falls back to the synchronous path, which answers this one)
+        SyndFeedResponse response = syndFeedService.fetchAsync(url("/private.xml"), "user", "secret", USER_AGENT, true, DIRECT_EXECUTOR, null).get(10L, SECONDS);
+        assertEquals(200, response.getHttpStatusCode());
+        assertEquals("Test Feed", response.getSyndFeed().getTitle());
+        List<String> authorizations = requests.stream().map(ReceivedRequest::authorization).toList();
+        assertNull(authorizations.get(0));
+        assertTrue(authorizations.get(authorizations.size() - 1).startsWith("Digest "));
+        // (without credentials, the challenge fails the fetch as before)
+        assertEquals(HTTP_CLIENT_ERROR, fetchAsyncFailure("/private.xml").exceptionType);
+    }
+
+    @Test
+    public void testFetchAsync_unsecureRedirects() throws Exception {
+        syndFeedService.configureRedirectMemo(60_000L, 0L);
+        redirect("/old.xml", 301, "/feed.xml");
+        redirect("/secure.xml", 301, "https://127.0.0.1:" + server.getAddress().getPort() + "/feed.xml");
+        handlers.put("/feed.xml", exchange -> respond(exchange, 200, TEST_FEED.getBytes(UTF_8)));
+        // (a feed with credentials follows an http to http redirect, as HttpURLConnection does; both when fetched and when memoized)
+        for (int i = 0; i < 2; i++) {
+            SyndFeedResponse response = syndFeedService.fetchAsync(url("/old.xml"), "user", "secret", USER_AGENT, false, DIRECT_EXECUTOR, null).get(10L, SECONDS);
+            assertEquals(301, response.getHttpStatusCode());
+            assertEquals("Test Feed", response.getSyndFeed().getTitle());
+        }
+        assertEquals(List.of("/old.xml", "/feed.xml", "/feed.xml"), requestedPaths());
+        // (as does the synchronous path, for the memoized redirect)
+        assertEquals("Test Feed", syndFeedService.fetch(url("/old.xml"), "user", "secret", USER_AGENT, false).getSyndFeed().getTitle());
+        assertEquals(List.of("/feed.xml"), requestedPaths());
+        // but not a redirect that changes protocol, with credentials, or when instructed not to follow them
+        ExecutionException withCredentials = assertThrows(ExecutionException.class,
+                () -> syndFeedService.fetchAsync(url("/secure.xml"), "user", "secret", USER_AGENT, true, DIRECT_EXECUTOR, null).get(10L, SECONDS));
+        assertEquals(UNSECURE_REDIRECT, assertInstanceOf(SyndFeedException.class, withCredentials.getCause()).exceptionType);
+        ExecutionException notFollowed = assertThrows(ExecutionException.class,
+                () -> syndFeedService.fetchAsync(url("/secure.xml"), null, null, USER_AGENT, false, DIRECT_EXECUTOR, null).get(10L, SECONDS));
+        assertEquals(UNSECURE_REDIRECT, assertInstanceOf(SyndFeedException.class, notFollowed.getCause()).exceptionType);
+        assertEquals(List.of("/secure.xml", "/secure.xml"), requestedPaths());
+    }
+
+    @Test
+    public void testFetchAsync_errors() throws Exception {
+        handlers.put("/broken.xml", exchange -> respond(exchange, 503, null));
+        handlers.put("/invalid.xml", exchange -> respond(exchange, 200, "not a feed".getBytes(UTF_8)));
+        SyndFeedException notFound = fetchAsyncFailure("/missing.xml");
+        assertEquals(HTTP_CLIENT_ERROR, notFound.exceptionType);
+        assertEquals(404, notFound.httpStatusCode);
+        assertEquals(HTTP_SERVER_ERROR, fetchAsyncFailure("/broken.xml").exceptionType);
+        assertNotNull(fetchAsyncFailure("/invalid.xml").exceptionType);
+    }
+}
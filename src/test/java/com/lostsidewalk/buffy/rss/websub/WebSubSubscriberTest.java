@@ -0,0 +1,223 @@
+package com.lostsidewalk.buffy.rss.websub;
+
+import com.lostsidewalk.buffy.rss.syndfeed.PooledSyndFeedInput;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.net.ssl.SSLContext;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static com.lostsidewalk.buffy.rss.syndfeed.SyndFeedServicePreemptiveAuthTest.newSslContext;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebSubSubscriberTest {
+
+    private static final String FEED_URL = "https://example.com/feed.xml";
+
+    private static final String CALLBACK_BASE_URL = "https://feedgears.example.com/websub";
+
+    private static final String RSS_FEED = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0" xmlns:atom="http://www.w3.org/2005/Atom">
+              <channel>
+                <title>Test Feed</title>
+                <link>https://example.com/</link>
+                <description>Test feed</description>
+                <atom:link rel="hub" href="%s"/>
+                <atom:link rel="self" href="%s" type="application/rss+xml"/>
+                <item>
+                  <title>Test entry</title>
+                  <link>https://example.com/entry</link>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+    private static final String ATOM_FEED = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <feed xmlns="http://www.w3.org/2005/Atom">
+              <title>Test Feed</title>
+              <id>urn:test</id>
+              <updated>2023-01-01T00:00:00Z</updated>
+              <link rel="hub" href="https://hub.example.com/"/>
+              <link rel="self" href="https://example.com/atom.xml"/>
+            </feed>
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpsServer hub;
+
+    private String hubUrl;
+
+    private final BlockingQueue<Map<String, String>> hubRequests = new ArrayBlockingQueue<>(8);
+
+    private WebSubSubscriber subscriber;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // (a stand-in hub, that accepts every request, and records its parameters)
+        SSLContext sslContext = newSslContext(tempDir.resolve("hub.p12"));
+        hub = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hub.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        hub.createContext("/hub", exchange -> {
+            hubRequests.add(parseForm(new String(exchange.getRequestBody().readAllBytes(), UTF_8)));
+            exchange.sendResponseHeaders(202, -1L);
+            exchange.close();
+        });
+        hub.start();
+        hubUrl = "https://127.0.0.1:" + hub.getAddress().getPort() + "/hub";
+        subscriber = new WebSubSubscriber(CALLBACK_BASE_URL, 3_600L, 60_000L);
+        // (the subscriber's client must trust the stand-in hub's self-signed certificate)
+        ReflectionTestUtils.setField(subscriber, "httpClient", HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .sslContext(sslContext)
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        subscriber.shutdown();
+        hub.stop(0);
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : form.split("&")) {
+            int idx = pair.indexOf('=');
+            params.put(URLDecoder.decode(pair.substring(0, idx), UTF_8), URLDecoder.decode(pair.substring(idx + 1), UTF_8));
+        }
+        return params;
+    }
+
+    private static SyndFeed parse(String xml) throws Exception {
+        return PooledSyndFeedInput.build(new StringReader(xml));
+    }
+
+    private static String sign(String secret, byte[] body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body));
+    }
+
+    @Test
+    public void testWebSubLinks() throws Exception {
+        WebSubLinks rssLinks = WebSubLinks.of(parse(RSS_FEED.formatted("https://hub.example.com/", FEED_URL)));
+        assertTrue(rssLinks.hasHub());
+        assertEquals(List.of("https://hub.example.com/"), rssLinks.getHubUrls());
+        assertEquals(FEED_URL, rssLinks.getSelfUrl());
+        WebSubLinks atomLinks = WebSubLinks.of(parse(ATOM_FEED));
+        assertEquals(List.of("https://hub.example.com/"), atomLinks.getHubUrls());
+        assertEquals("https://example.com/atom.xml", atomLinks.getSelfUrl());
+        assertFalse(WebSubLinks.of(null).hasHub());
+    }
+
+    @Test
+    public void testWebSubSubscriber_subscribeAndReceive() throws Exception {
+        String feedXml = RSS_FEED.formatted(hubUrl, FEED_URL);
+        assertTrue(subscriber.observe(FEED_URL, parse(feedXml)));
+        Map<String, String> subscribeRequest = hubRequests.poll(10L, SECONDS);
+        assertNotNull(subscribeRequest);
+        assertEquals("subscribe", subscribeRequest.get("hub.mode"));
+        assertEquals(FEED_URL, subscribeRequest.get("hub.topic"));
+        assertEquals("3600", subscribeRequest.get("hub.lease_seconds"));
+        String callbackUrl = subscribeRequest.get("hub.callback");
+        assertTrue(callbackUrl.startsWith(CALLBACK_BASE_URL + '/'));
+        String callbackId = callbackUrl.substring(CALLBACK_BASE_URL.length() + 1);
+        String secret = subscribeRequest.get("hub.secret");
+        // (until verified, the feed is polled as usual, and content is not accepted)
+        assertFalse(subscriber.isPushActive(FEED_URL));
+        assertTrue(subscriber.shouldPoll(FEED_URL));
+        byte[] body = feedXml.getBytes(UTF_8);
+        assertNull(subscriber.accept(callbackId, sign(secret, body), body));
+        // intent verification
+        assertNull(subscriber.verify("unknown", "subscribe", FEED_URL, "challenge", 3_600L));
+        assertNull(subscriber.verify(callbackId, "subscribe", "https://example.com/other.xml", "challenge", 3_600L));
+        assertEquals("challenge", subscriber.verify(callbackId, "subscribe", FEED_URL, "challenge", 3_600L));
+        assertTrue(subscriber.isPushActive(FEED_URL));
+        // (the feed was just observed, so it is not due for a safety-net poll)
+        assertFalse(subscriber.shouldPoll(FEED_URL));
+        // content distribution
+        WebSubDelivery delivery = subscriber.accept(callbackId, sign(secret, body), body);
+        assertNotNull(delivery);
+        assertEquals(FEED_URL, delivery.getFeedUrl());
+        assertEquals(1, delivery.getSyndFeed().getEntries().size());
+        assertNull(subscriber.accept(callbackId, sign("wrong-secret", body), body));
+        assertNull(subscriber.accept(callbackId, null, body));
+        // (a feed already subscribed to is not subscribed to again)
+        assertTrue(subscriber.observe(FEED_URL, parse(feedXml)));
+        assertNull(hubRequests.poll(500L, MILLISECONDS));
+    }
+
+    @Test
+    public void testWebSubSubscriber_denied() throws Exception {
+        assertTrue(subscriber.observe(FEED_URL, parse(RSS_FEED.formatted(hubUrl, FEED_URL))));
+        Map<String, String> subscribeRequest = hubRequests.poll(10L, SECONDS);
+        assertNotNull(subscribeRequest);
+        String callbackId = subscribeRequest.get("hub.callback").substring(CALLBACK_BASE_URL.length() + 1);
+        assertEquals("", subscriber.verify(callbackId, "denied", FEED_URL, null, null));
+        assertFalse(subscriber.isPushActive(FEED_URL));
+        assertTrue(subscriber.shouldPoll(FEED_URL));
+        // (a denied subscription is not requested again right away)
+        assertFalse(subscriber.observe(FEED_URL, parse(RSS_FEED.formatted(hubUrl, FEED_URL))));
+    }
+
+    @Test
+    public void testWebSubSubscriber_noHub() throws Exception {
+        assertFalse(subscriber.observe(FEED_URL, parse(ATOM_FEED.replace("rel=\"hub\"", "rel=\"alternate\""))));
+        assertFalse(subscriber.observe(FEED_URL, null));
+        assertTrue(subscriber.shouldPoll(FEED_URL));
+    }
+
+    @Test
+    public void testWebSubSubscriber_insecureHub() throws Exception {
+        // (the subscription secret is never sent to a hub over plain http)
+        String insecureHubUrl = "http://127.0.0.1:" + hub.getAddress().getPort() + "/hub";
+        assertFalse(subscriber.observe(FEED_URL, parse(RSS_FEED.formatted(insecureHubUrl, FEED_URL))));
+        assertNull(hubRequests.poll(500L, MILLISECONDS));
+        assertFalse(subscriber.isPushActive(FEED_URL));
+        assertTrue(subscriber.shouldPoll(FEED_URL));
+        // (an https hub is preferred to the hubs advertised before it)
+        String feedXml = RSS_FEED.formatted(insecureHubUrl, FEED_URL)
+                .replace("<atom:link rel=\"self\"", "<atom:link rel=\"hub\" href=\"" + hubUrl + "\"/>\n    <atom:link rel=\"self\"");
+        assertTrue(subscriber.observe(FEED_URL, parse(feedXml)));
+        Map<String, String> subscribeRequest = hubRequests.poll(10L, SECONDS);
+        assertNotNull(subscribeRequest);
+        assertEquals("subscribe", subscribeRequest.get("hub.mode"));
+        assertFalse(WebSubSubscriber.isSecureHubUrl(insecureHubUrl));
+        assertFalse(WebSubSubscriber.isSecureHubUrl(null));
+        assertTrue(WebSubSubscriber.isSecureHubUrl(" HTTPS://hub.example.com/ "));
+    }
+
+    @Test
+    public void testWebSubSubscriber_signatureMethods() throws Exception {
+        byte[] body = "content".getBytes(UTF_8);
+        String signature = sign("secret", body);
+        assertTrue(WebSubSubscriber.isSignatureValid("secret", signature, body));
+        assertFalse(WebSubSubscriber.isSignatureValid("secret", signature.replace("sha256=", "md5="), body));
+        assertFalse(WebSubSubscriber.isSignatureValid("secret", "sha256=not-hex", body));
+        assertFalse(WebSubSubscriber.isSignatureValid("secret", "sha256", body));
+    }
+}